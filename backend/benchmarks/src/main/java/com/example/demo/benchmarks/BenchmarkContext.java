@@ -0,0 +1,108 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.GharkoswadApplication;
+import com.example.demo.service.ChefOrderIndexService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts the application (no web server) against a file-backed H2 database in MySQL mode. The
+ * database is seeded once into a template under target/bench-db, and every fork runs on its own
+ * copy of it, so orders and carts written by one fork or run never skew the next. Delete
+ * target/bench-db to reseed, e.g. after changing the volumes in {@link BenchmarkData}.
+ */
+final class BenchmarkContext {
+    private static final Path DATABASE_DIR = Paths.get("target", "bench-db");
+    private static final String DATABASE_NAME = "gharkoswad";
+    private static final String DATABASE_FILE = DATABASE_NAME + ".mv.db";
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start() {
+        // An explicit URL is used as is, without a template or a copy
+        String url = System.getProperty("bench.db.url");
+        if (url != null) {
+            return seeded(run(url));
+        }
+        Path template = DATABASE_DIR.resolve("template");
+        if (!Files.exists(template.resolve(DATABASE_FILE))) {
+            seeded(run(urlOf(template))).close();
+        }
+        Path fork = DATABASE_DIR.resolve("fork-" + ProcessHandle.current().pid());
+        try {
+            Files.createDirectories(fork);
+            Files.copy(template.resolve(DATABASE_FILE), fork.resolve(DATABASE_FILE), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not copy the benchmark database", e);
+        }
+        ConfigurableApplicationContext context = run(urlOf(fork));
+        context.addApplicationListener(event -> {
+            if (event instanceof ContextClosedEvent) {
+                deleteQuietly(fork);
+            }
+        });
+        return context;
+    }
+
+    private static ConfigurableApplicationContext seeded(ConfigurableApplicationContext context) {
+        if (BenchmarkData.seedIfEmpty(context.getBean(JdbcTemplate.class))) {
+            context.getBean(ChefOrderIndexService.class).backfill();
+        }
+        return context;
+    }
+
+    private static String urlOf(Path directory) {
+        return "jdbc:h2:file:./" + directory.resolve(DATABASE_NAME).toString().replace('\\', '/')
+                + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_ON_EXIT=FALSE";
+    }
+
+    private static ConfigurableApplicationContext run(String url) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        // H2 gets its schema from the entities; the Flyway scripts and the cleanup jobs are MySQL-only
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("cleanup.enabled", "false");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("jwt.secret", "benchmark");
+        properties.put("jwt.expiration", "3600000");
+        properties.put("spring.mail.username", "benchmark");
+        properties.put("spring.mail.password", "benchmark");
+        properties.put("logging.level.root", "WARN");
+
+        // Passed as command-line arguments so they win over the backend's application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+
+        SpringApplication application = new SpringApplication(GharkoswadApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return application.run(args);
+    }
+
+    private static void deleteQuietly(Path directory) {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // Left for the next clean of target/
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds realistic volumes with set-based INSERT ... SELECT statements over H2's SYSTEM_RANGE,
+ * which is far faster than going through JPA for a million orders. Override the volumes with
+ * -Dbench.foods and -Dbench.orders (delete target/bench-db afterwards so the template database is reseeded).
+ */
+final class BenchmarkData {
+    static final int CHEFS = 50;
+    static final int CUSTOMERS = 10_000;
+    static final int FOODS = Integer.getInteger("bench.foods", 10_000);
+    static final int ORDERS = Integer.getInteger("bench.orders", 1_000_000);
+    static final int FEEDS = 500;
+    static final int COMMENTS_PER_FEED = 5;
+    static final int CART_ITEMS = 20;
+
+    // User ids: chefs are 1..CHEFS, customers follow
+    static final long FIRST_CUSTOMER_ID = CHEFS + 1;
+    static final long CART_USER_ID = FIRST_CUSTOMER_ID;
+
+    private BenchmarkData() {}
+
+    /**
+     * Returns true when data was inserted, false when the database was already seeded.
+     */
+    static boolean seedIfEmpty(JdbcTemplate jdbc) {
+        Integer foods = jdbc.queryForObject("SELECT COUNT(*) FROM food_items", Integer.class);
+        if (foods != null && foods > 0) {
+            return false;
+        }
+
+        jdbc.update("INSERT INTO user (id, email, username, password, location, phone_number, role) " +
+                "SELECT X, CONCAT('chef', X, '@bench.local'), CONCAT('chef', X), 'x', 'Kathmandu', '9800000000', 'CHEF' " +
+                "FROM SYSTEM_RANGE(1, ?)", CHEFS);
+        jdbc.update("INSERT INTO user (id, email, username, password, location, phone_number, role) " +
+                "SELECT X, CONCAT('user', X, '@bench.local'), CONCAT('user', X), 'x', 'Lalitpur', '9811111111', 'USER' " +
+                "FROM SYSTEM_RANGE(?, ?)", FIRST_CUSTOMER_ID, CHEFS + CUSTOMERS);
+
+        // Prices run 1..FOODS so a maxPrice filter selects exactly that many items
+        jdbc.update("INSERT INTO food_items (id, name, description, price, original_price, available, image_path, " +
+                "preparation_time, discount_percentage, user_id) " +
+                "SELECT X, CONCAT('Dish ', X), 'Home-cooked dish', X, X, TRUE, CONCAT('images/dish', X, '.jpg'), " +
+                "'20-25 min', 0, MOD(X, ?) + 1 FROM SYSTEM_RANGE(1, ?)", CHEFS, FOODS);
+        jdbc.update("INSERT INTO food_item_tags (food_item_id, tags) SELECT X, 'Bestseller' FROM SYSTEM_RANGE(1, ?)", FOODS);
+        jdbc.update("INSERT INTO food_item_tags (food_item_id, tags) SELECT X, CASE MOD(X, 3) WHEN 0 THEN 'Spicy' " +
+                "WHEN 1 THEN 'Vegan' ELSE 'Newari' END FROM SYSTEM_RANGE(1, ?)", FOODS);
+
+        jdbc.update("INSERT INTO orders (id, user_id, status, order_date, delivery_location, delivery_phone, delivery_coordinates) " +
+                "SELECT X, MOD(X, ?) + ?, CASE MOD(X, 10) WHEN 0 THEN 'PLACED' WHEN 1 THEN 'PREPARING' WHEN 2 THEN 'READY' " +
+                "ELSE 'DELIVERED' END, DATEADD('SECOND', -X, CURRENT_TIMESTAMP), 'Lalitpur', '9811111111', '27.6710, 85.3240' " +
+                "FROM SYSTEM_RANGE(1, ?)", CUSTOMERS, FIRST_CUSTOMER_ID, ORDERS);
+        jdbc.update("INSERT INTO order_item (id, order_id, food_item_id, quantity) " +
+                "SELECT 2 * X - 1, X, MOD(X, ?) + 1, 1 FROM SYSTEM_RANGE(1, ?)", FOODS, ORDERS);
+        jdbc.update("INSERT INTO order_item (id, order_id, food_item_id, quantity) " +
+                "SELECT 2 * X, X, MOD(X * 7, ?) + 1, 2 FROM SYSTEM_RANGE(1, ?)", FOODS, ORDERS);
+        jdbc.update("INSERT INTO payment (id, order_id, amount, status, payment_method, payment_date) " +
+                "SELECT X, X, 550, 'COMPLETED', 'CASH_ON_DELIVERY', DATEADD('SECOND', -X, CURRENT_TIMESTAMP) " +
+                "FROM SYSTEM_RANGE(1, ?)", ORDERS);
+
+        jdbc.update("INSERT INTO add_to_cart (food_id, user_id, quantity, created_at, updated_at) " +
+                "SELECT X, ?, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", CART_USER_ID, CART_ITEMS);
+
+        jdbc.update("INSERT INTO food_feeds (id, chef_id, content, created_at, type) " +
+                "SELECT X, MOD(X, ?) + 1, CONCAT('Today''s special #', X), DATEADD('MINUTE', -X, CURRENT_TIMESTAMP), 'TEXT' " +
+                "FROM SYSTEM_RANGE(1, ?)", CHEFS, FEEDS);
+        jdbc.update("INSERT INTO comment (user_id, food_feed_id, text, created_at) " +
+                "SELECT MOD(X, ?) + ?, MOD(X, ?) + 1, 'Looks delicious', CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)",
+                CUSTOMERS, FIRST_CUSTOMER_ID, FEEDS, FEEDS * COMMENTS_PER_FEED);
+
+        // Explicit ids were used above, so move the identity columns past them
+        restartIdentity(jdbc, "user", CHEFS + CUSTOMERS);
+        restartIdentity(jdbc, "food_items", FOODS);
+        restartIdentity(jdbc, "orders", ORDERS);
+        restartIdentity(jdbc, "order_item", 2L * ORDERS);
+        restartIdentity(jdbc, "payment", ORDERS);
+        restartIdentity(jdbc, "food_feeds", FEEDS);
+        return true;
+    }
+
+    private static void restartIdentity(JdbcTemplate jdbc, String table, long lastId) {
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (lastId + 1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC profiler, writes JSON results to target/jmh-result.json and
+ * compares them against baselines/baseline.json. Exits with status 1 when a benchmark's average
+ * time or normalized allocation rate is worse than the baseline by more than the tolerance.
+ *
+ * <pre>
+ * mvn -f ../pom.xml install -DskipTests               # backend jar, once per change
+ * mvn compile exec:exec                                # run and compare
+ * mvn compile exec:exec -Dbench.include=Cart           # subset
+ * mvn compile exec:exec -Dbaseline.update=true         # record a new baseline
+ * </pre>
+ */
+public final class BenchmarkRunner {
+    private static final Path RESULT_FILE = Paths.get("target", "jmh-result.json");
+    private static final Path BASELINE_FILE = Paths.get("baselines", "baseline.json");
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("bench.tolerance", "0.10"));
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(RESULT_FILE.getParent());
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("bench.include", ".*"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT_FILE.toString())
+                .build();
+        new Runner(options).run();
+
+        if (Boolean.getBoolean("baseline.update")) {
+            Files.createDirectories(BASELINE_FILE.getParent());
+            Files.copy(RESULT_FILE, BASELINE_FILE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + BASELINE_FILE);
+            return;
+        }
+        if (!Files.exists(BASELINE_FILE)) {
+            System.out.println("No baseline at " + BASELINE_FILE + "; run with -Dbaseline.update=true to record one");
+            return;
+        }
+
+        List<String> regressions = compare(read(BASELINE_FILE), read(RESULT_FILE));
+        if (!regressions.isEmpty()) {
+            System.err.println("Performance regressions against " + BASELINE_FILE + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + BASELINE_FILE);
+    }
+
+    private static List<String> compare(Map<String, double[]> baseline, Map<String, double[]> current) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : current.entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double[] after = entry.getValue();
+            checkMetric(regressions, entry.getKey(), "avg time", before[0], after[0]);
+            checkMetric(regressions, entry.getKey(), ALLOCATION_METRIC, before[1], after[1]);
+        }
+        return regressions;
+    }
+
+    private static void checkMetric(List<String> regressions, String benchmark, String metric, double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before <= 0) {
+            return;
+        }
+        double change = (after - before) / before;
+        if (change > TOLERANCE) {
+            regressions.add(String.format("%s %s: %.3f -> %.3f (+%.1f%%)", benchmark, metric, before, after, change * 100));
+        }
+    }
+
+    // Benchmark name plus params -> {primary score, gc.alloc.rate.norm}
+    private static Map<String, double[]> read(Path file) throws IOException {
+        Map<String, double[]> scores = new HashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            double allocation = Double.NaN;
+            Iterator<Map.Entry<String, JsonNode>> secondary = run.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                Map.Entry<String, JsonNode> metric = secondary.next();
+                if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().path("score").asDouble(Double.NaN);
+                }
+            }
+            scores.put(key.toString(), new double[] {run.path("primaryMetric").path("score").asDouble(Double.NaN), allocation});
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.CartItemDto;
+import com.example.demo.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+public class CartServiceBenchmark extends ServiceBenchmark {
+    private CartService cartService;
+
+    @Override
+    protected void init() {
+        cartService = context.getBean(CartService.class);
+    }
+
+    @Benchmark
+    public List<CartItemDto> getCartItemsByUser() {
+        return cartService.getCartItemsByUser(BenchmarkData.CART_USER_ID);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.Order;
+import com.example.demo.service.CapacityService;
+import com.example.demo.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+
+/**
+ * Hundreds of customers checking out the same dish at once. stockedDish reserves from a daily
+ * stock that never runs out, so every order waits its turn on the item's row lock; unstockedDish
+ * is the same order on a dish without stock, the cost without reservations; soldOutDish has run out
+ * and is turned away before anything is written. Average time is per checkout per thread.
+ */
+@Threads(200)
+public class CheckoutContentionBenchmark extends ServiceBenchmark {
+    // Chefs 12..14 own foods 11..13 (see BenchmarkData); none of them has an order limit
+    private static final long STOCKED_FOOD_ID = 11;
+    private static final long UNSTOCKED_FOOD_ID = 12;
+    private static final long SOLD_OUT_FOOD_ID = 13;
+
+    private OrderService orderService;
+
+    @Override
+    protected void init() {
+        orderService = context.getBean(OrderService.class);
+        CapacityService capacityService = context.getBean(CapacityService.class);
+        capacityService.setDailyStock(chefOf(STOCKED_FOOD_ID), STOCKED_FOOD_ID, 1_000_000_000);
+        capacityService.setDailyStock(chefOf(UNSTOCKED_FOOD_ID), UNSTOCKED_FOOD_ID, null);
+        capacityService.setDailyStock(chefOf(SOLD_OUT_FOOD_ID), SOLD_OUT_FOOD_ID, 0);
+    }
+
+    @Benchmark
+    public Order stockedDish() {
+        return checkout(STOCKED_FOOD_ID);
+    }
+
+    @Benchmark
+    public Order unstockedDish() {
+        return checkout(UNSTOCKED_FOOD_ID);
+    }
+
+    @Benchmark
+    public Order soldOutDish() {
+        try {
+            return checkout(SOLD_OUT_FOOD_ID);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private Order checkout(long foodItemId) {
+        return orderService.placeOrder(BenchmarkData.FIRST_CUSTOMER_ID + 1, List.of(foodItemId), List.of(1), 100.0 + foodItemId,
+                "CASH_ON_DELIVERY", "Lalitpur", "9811111111", "27.6710, 85.3240", null, null, null);
+    }
+
+    private static long chefOf(long foodItemId) {
+        return foodItemId % BenchmarkData.CHEFS + 1;
+    }
+}
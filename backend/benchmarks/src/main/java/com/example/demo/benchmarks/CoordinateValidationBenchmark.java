@@ -0,0 +1,41 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinate validation runs on every profile update and order placement. The invalid case
+ * measures the exception path, which is what bad client input actually costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateValidationBenchmark {
+
+    @Param({"27.672956063330112, 85.31850913633565", "95.0,85.3240", "not-a-coordinate"})
+    public String coordinate;
+
+    @Benchmark
+    public boolean validateCoordinate() {
+        try {
+            UserService.validateCoordinate(coordinate);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
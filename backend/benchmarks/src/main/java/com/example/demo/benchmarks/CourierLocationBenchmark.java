@@ -0,0 +1,68 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.CourierPosition;
+import com.example.demo.service.CourierLocationStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ping ingest and location reads against the in-memory courier store with 10k couriers, from four
+ * threads at once. Average time is per operation per thread, so ingest throughput is 4 / avg time.
+ * The store is never drained here, which is the worst case for the coalescing map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class CourierLocationBenchmark {
+    private static final double BASE_LATITUDE = 27.7172;
+    private static final double BASE_LONGITUDE = 85.3240;
+
+    @Param({"10000"})
+    public int couriers;
+
+    private CourierLocationStore store;
+
+    @State(Scope.Thread)
+    public static class Courier {
+        private final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void fillStore() {
+        store = new CourierLocationStore(64);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= couriers; id++) {
+            store.record(id, new CourierPosition(BASE_LATITUDE, BASE_LONGITUDE, now));
+        }
+    }
+
+    @Benchmark
+    public CourierPosition ping(Courier courier) {
+        long courierId = courier.random.nextLong(couriers) + 1;
+        return store.record(courierId, new CourierPosition(BASE_LATITUDE + courier.random.nextDouble() * 0.05,
+                BASE_LONGITUDE + courier.random.nextDouble() * 0.05, LocalDateTime.now()));
+    }
+
+    @Benchmark
+    public CourierPosition latest(Courier courier) {
+        return store.latest(courier.random.nextLong(couriers) + 1);
+    }
+}
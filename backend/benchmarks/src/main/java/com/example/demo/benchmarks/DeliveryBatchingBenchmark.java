@@ -0,0 +1,96 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.DeliveryBatch;
+import com.example.demo.service.DeliveryBatcher;
+import com.example.demo.utility.GeoPoints;
+import com.example.demo.utility.RoutePlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batching a city-sized READY pool and routing one trip, on synthetic data: 300 kitchens spread over
+ * roughly 15 km around Kathmandu, and customers clustered in 40 neighbourhoods. A fixed seed keeps
+ * runs comparable. batchPool is what a courier pays when the shared batches are rebuilt;
+ * routeTenStops is the nearest-neighbour plus 2-opt planning for an unusually long trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeliveryBatchingBenchmark {
+    private static final double BASE_LATITUDE = 27.7172;
+    private static final double BASE_LONGITUDE = 85.3240;
+    // About 15 km across
+    private static final double SPREAD_DEGREES = 0.14;
+    private static final int KITCHENS = 300;
+    private static final int NEIGHBOURHOODS = 40;
+
+    @Param({"200", "2000"})
+    public int orders;
+
+    private DeliveryBatcher batcher;
+    private List<DeliveryBatcher.Job> jobs;
+    private GeoPoints.Point routeStart;
+    private List<GeoPoints.Point> routeStops;
+
+    @Setup
+    public void generatePool() {
+        SplittableRandom random = new SplittableRandom(48);
+        batcher = new DeliveryBatcher(500, 1500, 4, TimeUnit.MILLISECONDS.toNanos(5));
+
+        List<GeoPoints.Point> kitchens = new ArrayList<>(KITCHENS);
+        for (int i = 0; i < KITCHENS; i++) {
+            kitchens.add(around(random, BASE_LATITUDE, BASE_LONGITUDE, SPREAD_DEGREES));
+        }
+        List<GeoPoints.Point> neighbourhoods = new ArrayList<>(NEIGHBOURHOODS);
+        for (int i = 0; i < NEIGHBOURHOODS; i++) {
+            neighbourhoods.add(around(random, BASE_LATITUDE, BASE_LONGITUDE, SPREAD_DEGREES));
+        }
+
+        jobs = new ArrayList<>(orders);
+        for (long orderId = 1; orderId <= orders; orderId++) {
+            int chef = random.nextInt(KITCHENS);
+            GeoPoints.Point neighbourhood = neighbourhoods.get(random.nextInt(NEIGHBOURHOODS));
+            jobs.add(new DeliveryBatcher.Job(orderId, Map.of((long) chef + 1, kitchens.get(chef)),
+                    around(random, neighbourhood.latitude(), neighbourhood.longitude(), 0.02)));
+        }
+
+        routeStart = kitchens.get(0);
+        routeStops = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            routeStops.add(around(random, routeStart.latitude(), routeStart.longitude(), 0.03));
+        }
+    }
+
+    @Benchmark
+    public List<DeliveryBatch> batchPool() {
+        return batcher.batch(jobs);
+    }
+
+    @Benchmark
+    public int[] routeTenStops() {
+        return RoutePlanner.plan(routeStart, routeStops, TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    private static GeoPoints.Point around(SplittableRandom random, double latitude, double longitude, double spread) {
+        return new GeoPoints.Point(latitude + (random.nextDouble() - 0.5) * spread,
+                longitude + (random.nextDouble() - 0.5) * spread);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.FoodFeed;
+import com.example.demo.service.FoodFeedService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+public class FoodFeedServiceBenchmark extends ServiceBenchmark {
+    private FoodFeedService foodFeedService;
+
+    @Override
+    protected void init() {
+        foodFeedService = context.getBean(FoodFeedService.class);
+    }
+
+    @Benchmark
+    public List<FoodFeed> getAllFoodFeeds() {
+        return foodFeedService.getAllFoodFeeds();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.FoodItemDto;
+import com.example.demo.dto.UserDto;
+import com.example.demo.model.FoodItem;
+import com.example.demo.service.FoodItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Menu search two ways: loading FoodItem entities and mapping them (as the controllers used to),
+ * and projecting straight into FoodItemDto. Compare gc.alloc.rate.norm between the two.
+ */
+public class FoodItemServiceBenchmark extends ServiceBenchmark {
+
+    // Seeded prices run 1..N, so maxPrice is also the number of matching items
+    @Param({"1000", "10000"})
+    public int menuSize;
+
+    private FoodItemService foodItemService;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Override
+    protected void init() {
+        foodItemService = context.getBean(FoodItemService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Benchmark
+    public List<FoodItemDto> searchFoodsThenMap() {
+        // The lazy chef proxy is read while mapping, so keep one session open like open-in-view does
+        return readOnlyTransaction.execute(status -> foodItemService
+                .searchFoods(true, null, null, (double) menuSize, null, null).stream()
+                .map(FoodItemServiceBenchmark::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<FoodItemDto> searchFoodDtos() {
+        return foodItemService.searchFoodDtos(true, null, null, (double) menuSize, null, null);
+    }
+
+    private static FoodItemDto toDto(FoodItem food) {
+        UserDto chef = new UserDto();
+        chef.setId(food.getUser().getId());
+        chef.setEmail(food.getUser().getEmail());
+        chef.setUsername(food.getUser().getUsername());
+        chef.setLocation(food.getUser().getLocation());
+        chef.setPhoneNumber(food.getUser().getPhoneNumber());
+        return new FoodItemDto(food.getId(), food.getName(), food.getDescription(), food.getPrice(), food.getOriginalPrice(),
+                food.getAvailable(), food.getImagePath(), food.getPreparationTime(), food.getTags(),
+                food.getDiscountPercentage(), chef.getId(), chef);
+    }
+}
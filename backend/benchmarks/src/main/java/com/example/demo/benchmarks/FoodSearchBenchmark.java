@@ -0,0 +1,85 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.utility.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dish search over a synthetic menu: names made of a modifier and a dish, twelve-word descriptions
+ * and one tag each, with order counts following a power law so a few items dominate as on a real
+ * menu. A fixed seed keeps runs comparable. The queries cover a one-letter prefix, a longer prefix,
+ * a two-word query still being typed, and a misspelt word.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodSearchBenchmark {
+    private static final String[] DISHES = {"momo", "chowmein", "thali", "sekuwa", "choila", "bara", "yomari", "sel roti",
+            "dal bhat", "curry", "biryani", "pizza", "burger", "pasta", "noodles", "soup", "salad", "kebab", "tikka",
+            "aloo dum", "gobi", "chatamari", "laphing", "thukpa", "sandwich", "wrap", "cake"};
+    private static final String[] MODIFIERS = {"chicken", "buff", "veg", "mutton", "pork", "paneer", "spicy", "fried",
+            "steamed", "jhol", "kothey", "tandoori", "butter", "garlic", "cheese", "egg", "fish", "mushroom", "crispy", "special"};
+    private static final String[] WORDS = {"served", "with", "fresh", "homemade", "achar", "sauce", "rice", "spices",
+            "tomato", "onion", "ginger", "slow", "cooked", "tender", "golden", "herbs", "lentils", "yogurt", "mint",
+            "chutney", "family", "recipe", "traditional", "newari", "himalayan", "smoky", "tangy", "sweet", "hot"};
+
+    @Param({"10000", "100000"})
+    public int items;
+
+    private SearchIndex index;
+
+    @Setup
+    public void buildIndex() {
+        SplittableRandom random = new SplittableRandom(49);
+        index = new SearchIndex(64);
+        Map<Long, Integer> orderCounts = new HashMap<>();
+        for (long id = 1; id <= items; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < 12; i++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            index.put(id, MODIFIERS[random.nextInt(MODIFIERS.length)] + " " + DISHES[random.nextInt(DISHES.length)],
+                    description.toString(), List.of(MODIFIERS[random.nextInt(MODIFIERS.length)]));
+            orderCounts.put(id, (int) (1000 / Math.pow(1 + random.nextInt(items), 0.8)));
+        }
+        index.setPopularity(orderCounts);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Hit> oneLetter() {
+        return index.search("c", 8);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Hit> prefix() {
+        return index.search("chow", 8);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Hit> twoWords() {
+        return index.search("chicken mo", 8);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Hit> typo() {
+        return index.search("biryni", 8);
+    }
+}
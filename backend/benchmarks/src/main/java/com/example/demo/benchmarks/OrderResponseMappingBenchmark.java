@@ -0,0 +1,74 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.OrderResponse;
+import com.example.demo.model.Order;
+import com.example.demo.model.Payment;
+import com.example.demo.model.PaymentStatus;
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds an OrderResponse from a loaded Order graph versus from the flat projection row.
+ * No database involved; this isolates the mapping cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderResponseMappingBenchmark {
+    private Order order;
+
+    @Setup
+    public void buildOrder() {
+        User user = new User();
+        user.setId(BenchmarkData.FIRST_CUSTOMER_ID);
+        user.setEmail("user51@bench.local");
+        user.setUsername("user51");
+        user.setLocation("Lalitpur");
+        user.setPhoneNumber("9811111111");
+        user.setRole("USER");
+
+        Payment payment = new Payment();
+        payment.setAmount(550.0);
+        payment.setStatus(PaymentStatus.COMPLETED);
+        payment.setPaymentMethod("CASH_ON_DELIVERY");
+
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus("PLACED");
+        order.setOrderDate(LocalDateTime.now());
+        order.setDeliveryLocation("Lalitpur");
+        order.setDeliveryPhone("9811111111");
+        order.setDeliveryCoordinates("27.6710, 85.3240");
+        order.setPayment(payment);
+        payment.setOrder(order);
+    }
+
+    @Benchmark
+    public OrderResponse fromEntity() {
+        return new OrderResponse(order);
+    }
+
+    @Benchmark
+    public OrderResponse fromProjection() {
+        Payment payment = order.getPayment();
+        return new OrderResponse(order.getId(), order.getUser().getId(), order.getStatus(), order.getOrderDate(),
+                order.getDeliveryLocation(), order.getDeliveryPhone(), order.getDeliveryCoordinates(),
+                payment.getAmount(), payment.getPaymentMethod(), payment.getStatus(), payment.getTransactionId());
+    }
+}
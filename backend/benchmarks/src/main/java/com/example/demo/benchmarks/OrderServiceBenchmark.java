@@ -0,0 +1,25 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.Order;
+import com.example.demo.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+public class OrderServiceBenchmark extends ServiceBenchmark {
+    private static final List<Long> FOOD_ITEM_IDS = List.of(1L, 2L, 3L);
+    private static final List<Integer> QUANTITIES = List.of(1, 2, 1);
+
+    private OrderService orderService;
+
+    @Override
+    protected void init() {
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @Benchmark
+    public Order placeOrder() {
+        return orderService.placeOrder(BenchmarkData.FIRST_CUSTOMER_ID + 1, FOOD_ITEM_IDS, QUANTITIES, 700.0,
+                "CASH_ON_DELIVERY", "Lalitpur", "9811111111", "27.6710, 85.3240", null, null, null);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.FeedCommentResponse;
+import com.example.demo.dto.FoodFeedResponse;
+import com.example.demo.dto.RecipeResponse;
+import com.example.demo.dto.UserDto;
+import com.example.demo.model.FeedType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and serializes one feed page the way a request does: the old HashMap envelope with a map
+ * per post and comment, against the ApiResponse envelope with record bodies, with and without the
+ * Blackbird module. No database involved; gc.alloc.rate.norm is the allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final int COMMENTS_PER_POST = 5;
+
+    @Param({"20", "100"})
+    public int posts;
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper blackbirdMapper;
+    private List<Post> page;
+
+    // Stand-in for a loaded FoodFeed with its chef and comments
+    private record Post(long id, String content, LocalDateTime createdAt, String imagePath, String[] recipe,
+                        List<Long> likes, List<Object[]> comments, String chef) {}
+
+    @Setup
+    public void buildPage() {
+        plainMapper = mapper().build();
+        blackbirdMapper = mapper().addModule(new BlackbirdModule()).build();
+
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>(posts);
+        for (long id = 1; id <= posts; id++) {
+            List<Object[]> comments = new ArrayList<>(COMMENTS_PER_POST);
+            for (long c = 0; c < COMMENTS_PER_POST; c++) {
+                long userId = BenchmarkData.FIRST_CUSTOMER_ID + c;
+                comments.add(new Object[] {id * 10 + c, userId, "Looks delicious", now, "user" + userId});
+            }
+            String[] recipe = id % 2 == 0 ? new String[] {"Dish " + id, "rice, lentils", "30 min", "2", "Easy"} : null;
+            page.add(new Post(id, "Today's special #" + id, now, id % 3 == 0 ? "images/feed" + id + ".jpg" : null,
+                    recipe, List.of(51L, 52L, 53L), comments, "chef" + (id % BenchmarkData.CHEFS + 1)));
+        }
+    }
+
+    @Benchmark
+    public byte[] hashMapEnvelope() throws JsonProcessingException {
+        List<Map<String, Object>> data = new ArrayList<>(page.size());
+        for (Post post : page) {
+            Map<String, Object> feedData = new HashMap<>();
+            feedData.put("id", post.id());
+            feedData.put("content", post.content());
+            feedData.put("type", post.recipe() != null ? FeedType.RECIPE : FeedType.TEXT);
+            feedData.put("createdAt", post.createdAt());
+            if (post.imagePath() != null) feedData.put("imagePath", "/" + post.imagePath());
+            if (post.recipe() != null) {
+                String[] recipe = post.recipe();
+                feedData.put("recipe", Map.of("name", recipe[0], "ingredients", recipe[1], "cookingTime", recipe[2],
+                        "serves", recipe[3], "difficulty", recipe[4]));
+            }
+            feedData.put("likes", new ArrayList<>(post.likes()));
+            List<Map<String, Object>> comments = new ArrayList<>();
+            for (Object[] comment : post.comments()) {
+                Map<String, Object> commentData = new HashMap<>();
+                commentData.put("id", comment[0]);
+                commentData.put("userId", comment[1]);
+                commentData.put("text", comment[2]);
+                commentData.put("createdAt", comment[3]);
+                commentData.put("user", author((String) comment[4]));
+                comments.add(commentData);
+            }
+            feedData.put("comments", comments);
+            feedData.put("chef", author(post.chef()));
+            data.add(feedData);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "All food feed posts retrieved successfully");
+        response.put("data", data);
+        return plainMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] typedEnvelope() throws JsonProcessingException {
+        return plainMapper.writeValueAsBytes(typedPage());
+    }
+
+    @Benchmark
+    public byte[] typedEnvelopeBlackbird() throws JsonProcessingException {
+        return blackbirdMapper.writeValueAsBytes(typedPage());
+    }
+
+    private ApiResponse<List<FoodFeedResponse>> typedPage() {
+        List<FoodFeedResponse> data = new ArrayList<>(page.size());
+        for (Post post : page) {
+            List<FeedCommentResponse> comments = new ArrayList<>(post.comments().size());
+            for (Object[] comment : post.comments()) {
+                comments.add(new FeedCommentResponse((Long) comment[0], (Long) comment[1], (String) comment[2],
+                        (LocalDateTime) comment[3], author((String) comment[4])));
+            }
+            String[] recipe = post.recipe();
+            data.add(new FoodFeedResponse(post.id(), post.content(), recipe != null ? FeedType.RECIPE : FeedType.TEXT,
+                    post.createdAt(), post.imagePath() != null ? "/" + post.imagePath() : null, null,
+                    recipe != null ? new RecipeResponse(recipe[0], recipe[1], recipe[2], recipe[3], recipe[4]) : null,
+                    new ArrayList<>(post.likes()), comments, author(post.chef())));
+        }
+        return ApiResponse.success("All food feed posts retrieved successfully", data);
+    }
+
+    private static UserDto author(String username) {
+        UserDto userDto = new UserDto();
+        userDto.setUsername(username);
+        return userDto;
+    }
+
+    // Matches the Spring Boot defaults that matter for these payloads
+    private static JsonMapper.Builder mapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.utility.HeavyHitters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trending counters fed with a synthetic order stream: 100k food items ordered with power-law
+ * popularity, one order item every ~25 ms. addOrderItem is what each polled order item costs per
+ * window; topTen is a trending read right after new order items arrived, when the ranking is
+ * rebuilt, and topTenCached one between polls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrendingBenchmark {
+    private static final int FOOD_ITEMS = 100_000;
+    private static final int STREAM_LENGTH = 1 << 20;
+
+    private HeavyHitters counters;
+    private long[] keys;
+    private long clockMillis;
+    private int next;
+
+    @Setup
+    public void feedCounters() {
+        SplittableRandom random = new SplittableRandom(50);
+        counters = new HeavyHitters(512, TimeUnit.HOURS.toMillis(24));
+        keys = new long[STREAM_LENGTH];
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            keys[i] = (long) (FOOD_ITEMS / Math.pow(1 + random.nextInt(FOOD_ITEMS), 0.9));
+        }
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            addOrderItem();
+        }
+    }
+
+    @Benchmark
+    public void addOrderItem() {
+        clockMillis += 25;
+        counters.add(keys[next++ & (STREAM_LENGTH - 1)], 1, clockMillis);
+    }
+
+    @Benchmark
+    public List<HeavyHitters.Counter> topTen() {
+        addOrderItem();
+        return counters.top(10, clockMillis);
+    }
+
+    @Benchmark
+    public List<HeavyHitters.Counter> topTenCached() {
+        return counters.top(10, clockMillis);
+    }
+}
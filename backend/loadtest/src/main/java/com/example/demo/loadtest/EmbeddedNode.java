@@ -0,0 +1,56 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.GharkoswadApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the backend in this JVM on a random port against in-memory H2 (MySQL mode), with mail
+ * routed to the stub server. Used when no -Dload.target is given; for numbers that describe a
+ * production node, run the backend on its own host and point load.target at it instead.
+ */
+final class EmbeddedNode implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+
+    EmbeddedNode(int smtpPort) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.hikari.maximum-pool-size", "50");
+        // H2 gets its schema from the entities; the Flyway scripts and the cleanup jobs are MySQL-only
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("cleanup.enabled", "false");
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.port", String.valueOf(smtpPort));
+        properties.put("spring.mail.username", "loadtest");
+        properties.put("spring.mail.password", "loadtest");
+        properties.put("spring.mail.properties.mail.smtp.auth", "false");
+        properties.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        properties.put("jwt.secret", "loadtest");
+        properties.put("jwt.expiration", "3600000");
+        properties.put("logging.level.root", "WARN");
+
+        // Command-line arguments win over the backend's application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        context = SpringApplication.run(GharkoswadApplication.class, args);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
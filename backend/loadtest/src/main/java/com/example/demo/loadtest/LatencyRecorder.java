@@ -0,0 +1,58 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation HdrHistogram recorders (microseconds) plus outcome counters. Each report interval
+ * takes and resets the interval histograms, so every rate step is reported on its own.
+ */
+final class LatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    void record(String operation, long startNanos, Outcome outcome) {
+        Operation stats = operations.computeIfAbsent(operation, name -> new Operation());
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        stats.recorder.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        stats.counts.get(outcome).increment();
+    }
+
+    Map<String, Interval> takeInterval() {
+        Map<String, Interval> intervals = new TreeMap<>();
+        operations.forEach((name, stats) -> intervals.put(name, new Interval(
+                stats.recorder.getIntervalHistogram(),
+                stats.counts.get(Outcome.OK).sumThenReset(),
+                stats.counts.get(Outcome.REJECTED).sumThenReset(),
+                stats.counts.get(Outcome.FAILED).sumThenReset())));
+        return intervals;
+    }
+
+    enum Outcome {
+        /** 2xx */
+        OK,
+        /** 4xx: the API refused, e.g. two couriers racing for one order */
+        REJECTED,
+        /** 5xx, timeouts and I/O errors */
+        FAILED
+    }
+
+    record Interval(Histogram histogram, long ok, long rejected, long failed) {
+        long total() {
+            return ok + rejected + failed;
+        }
+    }
+
+    private static final class Operation {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<Outcome, LongAdder> counts = Map.of(
+                Outcome.OK, new LongAdder(), Outcome.REJECTED, new LongAdder(), Outcome.FAILED, new LongAdder());
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test: sessions arrive as a Poisson process at a fixed rate regardless of how fast
+ * the node answers, each on its own virtual thread. The rate steps up through load.rates (orders
+ * per second) and stops at the first step where orders.place p99 breaks load.p99-slo-ms or the
+ * node cannot keep up with the offered rate. Per-step HdrHistogram reports go to target/loadtest/.
+ *
+ * <pre>
+ * mvn -f ../pom.xml install -DskipTests                  # backend jar, once per change
+ * mvn compile exec:exec                                   # embedded node on H2
+ * mvn compile exec:exec -Dload.target=http://host:8080    # a real node; start it with
+ *                                                         #   --spring.mail.host=&lt;this host&gt; --spring.mail.port=3025
+ * </pre>
+ */
+public final class LoadTestRunner {
+    // Session mix per placed order: three kitchen transitions, and couriers that sometimes find nothing READY
+    private static final double CHEF_SESSIONS_PER_ORDER = 3;
+    private static final double COURIER_SESSIONS_PER_ORDER = 1.5;
+    private static final double SESSIONS_PER_ORDER = 1 + CHEF_SESSIONS_PER_ORDER + COURIER_SESSIONS_PER_ORDER;
+    private static final double MIN_ACHIEVED_RATIO = 0.95;
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final Path REPORT_DIR = Paths.get("target", "loadtest");
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (StubMailServer mail = new StubMailServer(settings.smtpPort());
+             EmbeddedNode node = settings.embedded() ? new EmbeddedNode(settings.smtpPort()) : null;
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = node != null ? node.baseUrl() : settings.target();
+            LatencyRecorder recorder = new LatencyRecorder();
+            MarketplaceClient client = new MarketplaceClient(baseUrl, executor, recorder);
+
+            System.out.printf("Target %s; creating %d chefs, %d couriers, %d customers%n",
+                    baseUrl, settings.chefs(), settings.couriers(), settings.customers());
+            Population population = Population.create(settings, client, mail, executor);
+            Sessions sessions = new Sessions(client, population, recorder);
+            Random arrivals = new Random(settings.seed());
+
+            if (settings.warmupSeconds() > 0 && !settings.rates().isEmpty()) {
+                runStep(settings.rates().get(0), settings.warmupSeconds(), settings, sessions, executor, arrivals);
+            }
+            recorder.takeInterval();
+
+            int sustained = 0;
+            for (int rate : settings.rates()) {
+                long dropped = runStep(rate, settings.stepSeconds(), settings, sessions, executor, arrivals);
+                Map<String, LatencyRecorder.Interval> intervals = recorder.takeInterval();
+                writeHistograms(rate, intervals);
+                boolean withinSlo = report(rate, settings, intervals, dropped);
+                mail.purge();
+                if (!withinSlo) {
+                    System.out.printf("%nSaturated at %d orders/s; last rate within SLO: %d orders/s%n", rate, sustained);
+                    return;
+                }
+                sustained = rate;
+            }
+            System.out.printf("%nAll steps within SLO up to %d orders/s; raise load.rates to find the limit%n", sustained);
+        }
+    }
+
+    /**
+     * Fires sessions for one step and returns how many arrivals were dropped at the in-flight cap.
+     */
+    private static long runStep(int ordersPerSecond, int seconds, LoadTestSettings settings, Sessions sessions,
+                                ExecutorService executor, Random arrivals) {
+        double sessionsPerNano = ordersPerSecond * SESSIONS_PER_ORDER / TimeUnit.SECONDS.toNanos(1);
+        AtomicInteger inFlight = new AtomicInteger();
+        long dropped = 0;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long scheduled = start;
+
+        while (true) {
+            // Next arrival follows the previous scheduled one, not the clock, so slow responses never slow the offered load
+            scheduled += (long) (-Math.log(1 - arrivals.nextDouble()) / sessionsPerNano);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= settings.maxInFlight()) {
+                dropped++;
+                continue;
+            }
+
+            long arrival = scheduled;
+            double kind = arrivals.nextDouble() * SESSIONS_PER_ORDER;
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (kind < 1) {
+                        sessions.customer(arrival);
+                    } else if (kind < 1 + CHEF_SESSIONS_PER_ORDER) {
+                        sessions.chef(arrival);
+                    } else {
+                        sessions.courier(arrival);
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        return dropped;
+    }
+
+    private static boolean report(int rate, LoadTestSettings settings, Map<String, LatencyRecorder.Interval> intervals,
+                                  long dropped) {
+        System.out.printf("%n== %d orders/s for %ds ==%n", rate, settings.stepSeconds());
+        System.out.printf("%-24s %8s %8s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ok", "rejected", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        intervals.forEach((operation, interval) -> {
+            Histogram histogram = interval.histogram();
+            System.out.printf("%-24s %8d %8d %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation, interval.total(), interval.ok(), interval.rejected(), interval.failed(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        });
+
+        LatencyRecorder.Interval place = intervals.get("orders.place");
+        double achieved = place != null ? (double) place.ok() / settings.stepSeconds() : 0;
+        double p99 = place != null ? millis(place.histogram().getValueAtPercentile(99)) : Double.NaN;
+        System.out.printf("achieved %.1f orders/s (offered %d), orders.place p99 %.1f ms, dropped %d arrivals%n",
+                achieved, rate, p99, dropped);
+        return place != null && p99 <= settings.p99SloMillis() && achieved >= rate * MIN_ACHIEVED_RATIO && dropped == 0;
+    }
+
+    private static void writeHistograms(int rate, Map<String, LatencyRecorder.Interval> intervals) throws IOException {
+        Path stepDir = REPORT_DIR.resolve(rate + "-orders-per-second");
+        Files.createDirectories(stepDir);
+        for (Map.Entry<String, LatencyRecorder.Interval> entry : intervals.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(stepDir.resolve(entry.getKey() + ".hgrm")))) {
+                // Recorded in microseconds, reported in milliseconds
+                entry.getValue().histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Run parameters, read from system properties so they can be passed straight through exec:exec.
+ */
+record LoadTestSettings(
+        String target,
+        List<Integer> rates,
+        int stepSeconds,
+        int warmupSeconds,
+        long p99SloMillis,
+        int chefs,
+        int couriers,
+        int customers,
+        int menuItemsPerChef,
+        int maxInFlight,
+        int smtpPort,
+        long seed) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("load.target", ""),
+                Arrays.stream(System.getProperty("load.rates", "5,10,20,40,80").split(","))
+                        .map(String::trim)
+                        .filter(rate -> !rate.isEmpty())
+                        .map(Integer::valueOf)
+                        .toList(),
+                Integer.getInteger("load.step-seconds", 60),
+                Integer.getInteger("load.warmup-seconds", 10),
+                Long.getLong("load.p99-slo-ms", 500),
+                Integer.getInteger("load.chefs", 20),
+                Integer.getInteger("load.couriers", 20),
+                Integer.getInteger("load.customers", 200),
+                Integer.getInteger("load.menu-items-per-chef", 10),
+                Integer.getInteger("load.max-in-flight", 5_000),
+                Integer.getInteger("load.smtp-port", 3025),
+                Long.getLong("load.seed", 42));
+    }
+
+    boolean embedded() {
+        return target.isBlank();
+    }
+}
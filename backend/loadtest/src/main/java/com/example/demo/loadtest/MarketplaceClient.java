@@ -0,0 +1,180 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Thin blocking client for the marketplace endpoints the load model exercises. Every call is
+ * timed and recorded under its operation name; callers run on virtual threads, so blocking is cheap.
+ * Calls return the response's "data" node (or the whole body when it has none), and a missing node
+ * when the API rejected or failed the call.
+ */
+final class MarketplaceClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LatencyRecorder recorder;
+
+    MarketplaceClient(String baseUrl, Executor executor, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    JsonNode register(String email, String username, String role) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("email", email);
+        user.put("username", username);
+        user.put("password", "loadtest");
+        user.put("location", "Lalitpur");
+        user.put("phoneNumber", "9811111111");
+        user.put("role", role);
+        return call("register", json("/api/register", "POST", user));
+    }
+
+    JsonNode verifyOtp(String email, String otpCode) {
+        return call("verify-otp", json("/api/verify-otp", "POST", Map.of("email", email, "otpCode", otpCode)));
+    }
+
+    JsonNode addFood(long chefId, String name, double price, String preparationTime) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("name", name);
+        fields.put("description", "Load test dish");
+        fields.put("price", String.valueOf(price));
+        fields.put("available", "true");
+        fields.put("preparationTime", preparationTime);
+        fields.put("tags", "Bestseller");
+        fields.put("userId", String.valueOf(chefId));
+        return call("food.add", multipart("/api/food/add", fields));
+    }
+
+    JsonNode listFood(String tags) {
+        String query = tags != null ? "?tags=" + URLEncoder.encode(tags, StandardCharsets.UTF_8) : "";
+        return call("food.list", HttpRequest.newBuilder(uri("/api/food/list" + query)).GET());
+    }
+
+    JsonNode addToCart(long userId, long foodId, int quantity) {
+        return call("cart.add", HttpRequest.newBuilder(uri("/api/cart?userId=" + userId + "&foodId=" + foodId + "&quantity=" + quantity))
+                .POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    JsonNode getCart(long userId) {
+        return call("cart.get", HttpRequest.newBuilder(uri("/api/cart?userId=" + userId)).GET());
+    }
+
+    JsonNode clearCart(long userId) {
+        return call("cart.clear", HttpRequest.newBuilder(uri("/api/cart?userId=" + userId)).DELETE());
+    }
+
+    JsonNode placeOrder(long userId, List<Long> foodItemIds, List<Integer> quantities, double amount) {
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("userId", userId);
+        order.put("foodItemIds", foodItemIds);
+        order.put("quantities", quantities);
+        order.put("amount", amount);
+        order.put("paymentMethod", "CASH_ON_DELIVERY");
+        order.put("deliveryLocation", "Lalitpur");
+        order.put("deliveryPhone", "9811111111");
+        order.put("deliveryCoordinates", "27.6710, 85.3240");
+        order.put("transactionUuid", UUID.randomUUID().toString());
+        return call("orders.place", json("/api/orders/place", "POST", order));
+    }
+
+    JsonNode chefOrders(long chefId) {
+        return call("orders.chef", HttpRequest.newBuilder(uri("/api/orders/chef/" + chefId)).GET());
+    }
+
+    JsonNode updateOrderStatus(long orderId, long chefId, String status) {
+        return call("orders.status", json("/api/orders/" + orderId + "/status", "PUT", Map.of("userId", chefId, "status", status)));
+    }
+
+    JsonNode readyOrders(long courierId) {
+        return call("orders.delivery.ready", HttpRequest.newBuilder(uri("/api/orders/delivery/" + courierId + "/ready")).GET());
+    }
+
+    JsonNode updateDeliveryStatus(long orderId, long courierId, String status) {
+        return call("orders.delivery.status", json("/api/orders/" + orderId + "/delivery-status", "PUT",
+                Map.of("userId", courierId, "status", status)));
+    }
+
+    JsonNode updatePaymentStatus(long orderId, long courierId, String paymentStatus) {
+        return call("orders.payment.status", json("/api/orders/" + orderId + "/payment-status", "PUT",
+                Map.of("userId", courierId, "paymentStatus", paymentStatus)));
+    }
+
+    private JsonNode call(String operation, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            if (status >= 500) {
+                recorder.record(operation, start, LatencyRecorder.Outcome.FAILED);
+                return MissingNode.getInstance();
+            }
+            if (status >= 400) {
+                recorder.record(operation, start, LatencyRecorder.Outcome.REJECTED);
+                return MissingNode.getInstance();
+            }
+            recorder.record(operation, start, LatencyRecorder.Outcome.OK);
+            // 204 responses from the list endpoints carry no body
+            if (response.body().length == 0) {
+                return mapper.createArrayNode();
+            }
+            JsonNode body = mapper.readTree(response.body());
+            return body.has("data") ? body.get("data") : body;
+        } catch (IOException e) {
+            recorder.record(operation, start, LatencyRecorder.Outcome.FAILED);
+            return MissingNode.getInstance();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return MissingNode.getInstance();
+        }
+    }
+
+    private HttpRequest.Builder json(String path, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialize request body for " + path, e);
+        }
+    }
+
+    private HttpRequest.Builder multipart(String path, Map<String, String> fields) {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        StringBuilder body = new StringBuilder();
+        fields.forEach((name, value) -> body.append("--").append(boundary).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n")
+                .append(value).append("\r\n"));
+        body.append("--").append(boundary).append("--\r\n");
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Accounts and menu created through the public API before the measured run: registration goes
+ * through the real OTP flow, with codes read back from the stub mail server. Emails carry a run id
+ * so repeated runs against the same database do not collide.
+ */
+record Population(List<Long> chefIds, List<Long> courierIds, List<Long> customerIds) {
+
+    static Population create(LoadTestSettings settings, MarketplaceClient client, StubMailServer mail,
+                             ExecutorService executor) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Long> chefIds = register(client, mail, executor, runId, "CHEF", settings.chefs());
+        List<Long> courierIds = register(client, mail, executor, runId, "DELIVERY", settings.couriers());
+        List<Long> customerIds = register(client, mail, executor, runId, "USER", settings.customers());
+
+        List<Future<JsonNode>> dishes = new ArrayList<>();
+        for (long chefId : chefIds) {
+            for (int i = 0; i < settings.menuItemsPerChef(); i++) {
+                String name = "Dish " + chefId + "-" + i;
+                double price = 150 + (chefId * 31 + i * 17) % 450;
+                String preparationTime = (15 + i % 4 * 5) + "-" + (20 + i % 4 * 5) + " min";
+                dishes.add(executor.submit(() -> client.addFood(chefId, name, price, preparationTime)));
+            }
+        }
+        for (Future<JsonNode> dish : dishes) {
+            if (dish.get().path("id").isMissingNode()) {
+                throw new IllegalStateException("Failed to create menu item during setup");
+            }
+        }
+        mail.purge();
+        return new Population(chefIds, courierIds, customerIds);
+    }
+
+    private static List<Long> register(MarketplaceClient client, StubMailServer mail, ExecutorService executor,
+                                       String runId, String role, int count) throws Exception {
+        List<Future<Long>> registrations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = role.toLowerCase() + "-" + runId + "-" + i;
+            String email = username + "@loadtest.local";
+            registrations.add(executor.submit(() -> {
+                if (client.register(email, username, role).isMissingNode()) {
+                    throw new IllegalStateException("Registration rejected for " + email);
+                }
+                JsonNode user = client.verifyOtp(email, mail.awaitOtp(email, 10_000)).path("user");
+                if (user.path("id").isMissingNode()) {
+                    throw new IllegalStateException("OTP verification failed for " + email);
+                }
+                return user.path("id").asLong();
+            }));
+        }
+        List<Long> ids = new ArrayList<>(count);
+        for (Future<Long> registration : registrations) {
+            ids.add(registration.get());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The three kinds of marketplace session. Each arrival runs one session to completion; the
+ * session's end-to-end time is recorded from its scheduled arrival, not from when a thread
+ * picked it up, so queueing inside the generator still shows up in the numbers.
+ */
+final class Sessions {
+    private static final double DELIVERY_FEE = 100;
+    private static final Map<String, String> NEXT_KITCHEN_STATUS = Map.of(
+            "PLACED", "CONFIRMED",
+            "CONFIRMED", "PREPARING",
+            "PREPARING", "READY");
+    private static final String[] BROWSE_TAGS = {null, null, "Bestseller"};
+
+    private final MarketplaceClient client;
+    private final Population population;
+    private final LatencyRecorder recorder;
+
+    Sessions(MarketplaceClient client, Population population, LatencyRecorder recorder) {
+        this.client = client;
+        this.population = population;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Browse the menu, add one to three dishes to the cart, look at the cart, place the order and
+     * empty the cart.
+     */
+    void customer(long scheduledNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = pick(population.customerIds());
+        JsonNode menu = client.listFood(BROWSE_TAGS[random.nextInt(BROWSE_TAGS.length)]);
+        if (!menu.isArray() || menu.isEmpty()) {
+            recorder.record("session.customer", scheduledNanos, LatencyRecorder.Outcome.FAILED);
+            return;
+        }
+
+        int lines = 1 + random.nextInt(3);
+        List<Long> foodItemIds = new ArrayList<>(lines);
+        List<Integer> quantities = new ArrayList<>(lines);
+        double amount = DELIVERY_FEE;
+        JsonNode order = MissingNode.getInstance();
+        try {
+            for (int i = 0; i < lines; i++) {
+                JsonNode dish = menu.get(random.nextInt(menu.size()));
+                long foodId = dish.path("id").asLong();
+                if (foodItemIds.contains(foodId)) {
+                    continue;
+                }
+                int quantity = 1 + random.nextInt(2);
+                client.addToCart(userId, foodId, quantity);
+                foodItemIds.add(foodId);
+                quantities.add(quantity);
+                amount += dish.path("price").asDouble() * quantity;
+            }
+            client.getCart(userId);
+
+            order = client.placeOrder(userId, foodItemIds, quantities, amount);
+        } finally {
+            // placeOrder leaves the cart as it is, so every session empties it, or carts grow for the whole run
+            client.clearCart(userId);
+        }
+        recorder.record("session.customer", scheduledNanos,
+                order.isMissingNode() ? LatencyRecorder.Outcome.FAILED : LatencyRecorder.Outcome.OK);
+    }
+
+    /**
+     * Check the kitchen queue and move the most urgent open order one step towards READY.
+     */
+    void chef(long scheduledNanos) {
+        long chefId = pick(population.chefIds());
+        JsonNode orders = client.chefOrders(chefId);
+        for (JsonNode order : orders) {
+            String next = NEXT_KITCHEN_STATUS.get(order.path("status").asText());
+            if (next != null) {
+                client.updateOrderStatus(order.path("orderId").asLong(), chefId, next);
+                break;
+            }
+        }
+        recorder.record("session.chef", scheduledNanos,
+                orders.isMissingNode() ? LatencyRecorder.Outcome.FAILED : LatencyRecorder.Outcome.OK);
+    }
+
+    /**
+     * Pick up a READY order, collect cash and deliver it. Two couriers may race for the same
+     * order; the loser's transition is rejected and counted as such.
+     */
+    void courier(long scheduledNanos) {
+        long courierId = pick(population.courierIds());
+        JsonNode ready = client.readyOrders(courierId);
+        if (ready.isArray() && !ready.isEmpty()) {
+            long orderId = ready.get(ThreadLocalRandom.current().nextInt(ready.size())).path("orderId").asLong();
+            if (!client.updateDeliveryStatus(orderId, courierId, "PICKED_UP").isMissingNode()) {
+                client.updatePaymentStatus(orderId, courierId, "COMPLETED");
+                client.updateDeliveryStatus(orderId, courierId, "DELIVERED");
+            }
+        }
+        recorder.record("session.courier", scheduledNanos,
+                ready.isMissingNode() ? LatencyRecorder.Outcome.FAILED : LatencyRecorder.Outcome.OK);
+    }
+
+    private static long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
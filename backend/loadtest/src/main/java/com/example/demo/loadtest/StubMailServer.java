@@ -0,0 +1,71 @@
+package com.example.demo.loadtest;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process SMTP sink so OTP, order and status emails never leave the machine. Point the node
+ * under test at it with spring.mail.host/port; registration reads the OTP back from here.
+ */
+final class StubMailServer implements AutoCloseable {
+    private static final Pattern OTP_PATTERN = Pattern.compile("OTP code is:\\D*(\\d{6})");
+
+    private final GreenMail greenMail;
+
+    StubMailServer(int port) {
+        greenMail = new GreenMail(new ServerSetup(port, "0.0.0.0", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+    }
+
+    String awaitOtp(String email, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            for (MimeMessage message : greenMail.getReceivedMessages()) {
+                String otp = otpFor(message, email);
+                if (otp != null) {
+                    return otp;
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("No OTP email received for " + email);
+    }
+
+    int receivedCount() {
+        return greenMail.getReceivedMessages().length;
+    }
+
+    // Order and status emails pile up quickly under load; only registration needs them read back
+    void purge() {
+        try {
+            greenMail.purgeEmailFromAllMailboxes();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to purge stub mailboxes", e);
+        }
+    }
+
+    private static String otpFor(MimeMessage message, String email) {
+        try {
+            if (message.getRecipients(Message.RecipientType.TO) == null
+                    || !email.equalsIgnoreCase(message.getRecipients(Message.RecipientType.TO)[0].toString())) {
+                return null;
+            }
+            Matcher matcher = OTP_PATTERN.matcher(GreenMailUtil.getBody(message));
+            return matcher.find() ? matcher.group(1) : null;
+        } catch (MessagingException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        greenMail.stop();
+    }
+}
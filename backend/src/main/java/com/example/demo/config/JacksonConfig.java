@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson tuning for the response path. Spring Boot registers every Module bean with the shared
+ * ObjectMapper; Blackbird replaces reflective getter calls and constructor invocations on DTOs with
+ * generated lambdas (LambdaMetafactory), which is the remaining cost once the envelope is an
+ * {@link com.example.demo.dto.ApiResponse}.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
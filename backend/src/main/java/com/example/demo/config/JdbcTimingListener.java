@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import org.hibernate.engine.spi.SessionEventListener;
+
+/**
+ * Adds the time Hibernate spends executing JDBC statements and batches to the open
+ * {@link QueryStats} scopes. One instance per session, registered via hibernate.session.events.auto.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.recordJdbcTime(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.recordJdbcTime(System.nanoTime() - batchStart);
+    }
+}
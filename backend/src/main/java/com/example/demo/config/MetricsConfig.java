@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import com.example.demo.repository.ChefOrderLineRepository;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Application metrics on top of the actuator defaults (HTTP server timers, Hikari pool, JVM and
+ * Tomcat thread gauges): service method timers, SQL statements per request and the kitchen queue size.
+ * Also wires the per-request {@link QueryBudget} check.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private static final List<String> OPEN_KITCHEN_STATUSES = List.of("PLACED", "CONFIRMED", "PREPARING");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${query-budget.enforce:false}")
+    private boolean enforceQueryBudgets;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Enables @Timed on service methods
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingListener.class.getName());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter() {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public Gauge kitchenQueueGauge(ChefOrderLineRepository chefOrderLineRepository) {
+        return Gauge.builder("kitchen.queue.lines", () -> chefOrderLineRepository.countByStatusIn(OPEN_KITCHEN_STATUSES))
+                .description("Order lines across all chefs that are not ready yet")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(meterRegistry, enforceQueryBudgets)).addPathPatterns("/api/**");
+    }
+}
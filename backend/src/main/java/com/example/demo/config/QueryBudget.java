@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL budget for one request (on a controller method) or one test (on a test method run with
+ * QueryBudgetExtension). Exceeding it is logged and counted. With {@code query-budget.enforce=true}
+ * the statement that goes over maxStatements or maxRepeats throws before it runs, failing the
+ * request; maxJdbcMillis is only logged and counted.
+ *
+ * A streamed response runs its per-chunk queries once for every chunk it writes. On such endpoints
+ * maxStatements and maxRepeats cover the first chunk, and every further chunk adds
+ * maxStatementsPerChunk statements and one repeat of each statement shape.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface QueryBudget {
+    int maxStatements() default Integer.MAX_VALUE;
+
+    // How often the same statement shape may run; a per-row query shows up here first
+    int maxRepeats() default Integer.MAX_VALUE;
+
+    // Statements each chunk of a streamed response may add after the first; 0 for responses that are not streamed
+    int maxStatementsPerChunk() default 0;
+
+    // Negative means no limit on JDBC time
+    long maxJdbcMillis() default -1;
+}
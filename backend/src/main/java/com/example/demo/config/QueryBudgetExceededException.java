@@ -0,0 +1,11 @@
+package com.example.demo.config;
+
+/**
+ * Thrown by the statement that takes an enforced request over its {@link QueryBudget}, before that
+ * statement runs. Deliberately not an IllegalStateException, which the API reports as a client error.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Checks the request's SQL activity against the handler's {@link QueryBudget}. Overruns are logged
+ * and counted once the request has completed, so lazy loading during serialization is included.
+ * By then the body has usually been written, so with enforcement on the budget is handed to the
+ * request's {@link QueryStats} up front instead, and the statement over budget fails the request.
+ */
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enforce;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry, boolean enforce) {
+        this.meterRegistry = meterRegistry;
+        this.enforce = enforce;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryBudget budget = budgetOf(handler);
+        QueryStats stats = (QueryStats) request.getAttribute(SqlStatementMetricsFilter.QUERY_STATS_ATTRIBUTE);
+        if (enforce && budget != null && stats != null) {
+            stats.enforce(budget, request.getMethod() + " " + uriOf(request));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryBudget budget = budgetOf(handler);
+        QueryStats stats = (QueryStats) request.getAttribute(SqlStatementMetricsFilter.QUERY_STATS_ATTRIBUTE);
+        if (budget == null || stats == null) {
+            return;
+        }
+        String violation = stats.checkBudget(budget);
+        if (violation == null) {
+            return;
+        }
+        String uri = uriOf(request);
+        meterRegistry.counter("query.budget.exceeded", "method", request.getMethod(), "uri", uri).increment();
+        logger.warn("Query budget exceeded for {} {}: {}", request.getMethod(), uri, violation);
+    }
+
+    private static QueryBudget budgetOf(Object handler) {
+        return handler instanceof HandlerMethod handlerMethod ? handlerMethod.getMethodAnnotation(QueryBudget.class) : null;
+    }
+
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
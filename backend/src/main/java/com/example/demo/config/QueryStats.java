@@ -0,0 +1,143 @@
+package com.example.demo.config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL activity recorded on the current thread while a scope is open: statement count, how often
+ * each statement shape repeated, and time spent executing JDBC statements.
+ *
+ * Scopes nest (a test can wrap several requests) and every open scope sees every statement.
+ * With no scope open nothing is recorded. Streamed responses report each chunk they write, which
+ * widens a {@link QueryBudget} with maxStatementsPerChunk set.
+ */
+public class QueryStats implements AutoCloseable {
+    private static final ThreadLocal<Deque<QueryStats>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private int statementCount;
+    private int chunksWritten;
+    private long jdbcNanos;
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+    // Statement count and repeat limits checked as statements are prepared; null when not enforced
+    private QueryBudget enforced;
+    private String enforcedScope;
+
+    public static QueryStats open() {
+        QueryStats stats = new QueryStats();
+        SCOPES.get().push(stats);
+        return stats;
+    }
+
+    /**
+     * Makes the statement that goes over the budget's statement count or repeat limit throw
+     * {@link QueryBudgetExceededException} before it runs. Only the first overrun throws, so error
+     * handling that needs the database still works. JDBC time is known only after a statement has
+     * run and is not enforced.
+     */
+    public void enforce(QueryBudget budget, String scope) {
+        this.enforced = budget;
+        this.enforcedScope = scope;
+    }
+
+    static void recordStatement(String sql) {
+        Deque<QueryStats> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        for (QueryStats stats : scopes) {
+            stats.statementCount++;
+            int repeats = stats.shapeCounts.merge(shape, 1, Integer::sum);
+            QueryBudget budget = stats.enforced;
+            if (budget != null && (stats.statementCount > stats.maxStatements(budget) || repeats > stats.maxRepeats(budget))) {
+                stats.enforced = null;
+                String violation = stats.statementCount > stats.maxStatements(budget)
+                        ? stats.statementCount + " statements (budget " + stats.maxStatements(budget) + ")"
+                        : "statement repeated " + repeats + " times (budget " + stats.maxRepeats(budget) + "): " + shape;
+                throw new QueryBudgetExceededException("Query budget exceeded for " + stats.enforcedScope + ": " + violation);
+            }
+        }
+    }
+
+    /**
+     * Called by a streamed response after it has written a chunk; the statements of the next chunk
+     * then fall within the budget's per-chunk allowance.
+     */
+    public static void recordChunk() {
+        for (QueryStats stats : SCOPES.get()) {
+            stats.chunksWritten++;
+        }
+    }
+
+    static void recordJdbcTime(long nanos) {
+        for (QueryStats stats : SCOPES.get()) {
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    // Literals and IN lists are collapsed so "WHERE id = 1" and "WHERE id = 2" count as the same statement
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?)").trim();
+    }
+
+    // The chunks written so far widen a per-chunk budget; long arithmetic, as the limits default to Integer.MAX_VALUE
+    private long maxStatements(QueryBudget budget) {
+        return budget.maxStatements() + (long) chunksWritten * budget.maxStatementsPerChunk();
+    }
+
+    private long maxRepeats(QueryBudget budget) {
+        return budget.maxRepeats() + (budget.maxStatementsPerChunk() > 0 ? (long) chunksWritten : 0);
+    }
+
+    public int getStatementCount() { return statementCount; }
+    public long getJdbcMillis() { return jdbcNanos / 1_000_000; }
+
+    // Highest number of times a single statement shape ran; above 1 usually means a per-row query (N+1)
+    public int getMaxRepeats() {
+        return shapeCounts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public String getMostRepeatedShape() {
+        return shapeCounts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null);
+    }
+
+    /**
+     * Returns a description of every limit of the budget this scope went over, or null when it is
+     * within budget.
+     */
+    public String checkBudget(QueryBudget budget) {
+        StringBuilder violations = new StringBuilder();
+        if (statementCount > maxStatements(budget)) {
+            violations.append(statementCount).append(" statements (budget ").append(maxStatements(budget)).append("); ");
+        }
+        if (getMaxRepeats() > maxRepeats(budget)) {
+            violations.append("statement repeated ").append(getMaxRepeats()).append(" times (budget ")
+                    .append(maxRepeats(budget)).append("): ").append(getMostRepeatedShape()).append("; ");
+        }
+        if (budget.maxJdbcMillis() >= 0 && getJdbcMillis() > budget.maxJdbcMillis()) {
+            violations.append(getJdbcMillis()).append(" ms in JDBC (budget ").append(budget.maxJdbcMillis()).append(" ms); ");
+        }
+        return violations.length() == 0 ? null : violations.substring(0, violations.length() - 2);
+    }
+
+    @Override
+    public void close() {
+        SCOPES.get().remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return statementCount + " statements, max repeats " + getMaxRepeats() + ", " + getJdbcMillis() + " ms in JDBC";
+    }
+}
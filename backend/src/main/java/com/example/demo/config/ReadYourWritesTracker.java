@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers users who just wrote data that they will immediately read back (a placed order,
+ * cart changes) so their next requests are served by the primary instead of a lagging replica.
+ */
+@Component
+public class ReadYourWritesTracker {
+    private final ConcurrentHashMap<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    @Value("${datasource.routing.sticky-window-seconds:10}")
+    private long stickyWindowSeconds;
+
+    // Called inside the writing transaction; the window only starts once the write has committed.
+    public void recordWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markSticky(userId);
+                }
+            });
+        } else {
+            markSticky(userId);
+        }
+    }
+
+    public boolean isSticky(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() <= 0) {
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private void markSticky(Long userId) {
+        stickyUntil.put(userId, System.nanoTime() + TimeUnit.SECONDS.toNanos(stickyWindowSeconds));
+        if (stickyUntil.size() > 10_000) {
+            long now = System.nanoTime();
+            stickyUntil.entrySet().removeIf(entry -> entry.getValue() - now <= 0);
+        }
+    }
+}
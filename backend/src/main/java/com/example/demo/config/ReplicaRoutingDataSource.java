@@ -0,0 +1,143 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only work to replicas and everything else to the primary.
+ *
+ * A connection goes to a replica when the current transaction is read-only, or when there is no
+ * read-write transaction and the request is a GET (see {@link RoutingContext}). Replicas that lag
+ * more than {@code maxLagSeconds} or refuse connections are skipped; with none left the primary
+ * serves the read. Must sit behind a LazyConnectionDataSourceProxy so the transaction's read-only
+ * flag is known before the connection is chosen.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final long maxLagSeconds;
+    private final Set<String> unhealthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        this.maxLagSeconds = maxLagSeconds;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (RoutingContext.isForcePrimary()) {
+            return PRIMARY;
+        }
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !readOnly) {
+            return PRIMARY;
+        }
+        if (!readOnly && !RoutingContext.isReadPreferred()) {
+            return PRIMARY;
+        }
+        return nextHealthyReplica();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException e) {
+            markUnhealthy((String) key, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Re-reads every replica's lag; replicas come back into rotation as soon as they are within
+     * tolerance again.
+     */
+    public void refreshReplicaHealth() {
+        for (String key : replicaKeys) {
+            try (Connection connection = replicas.get(key).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    // Not configured as a replica (e.g. a plain local instance); nothing to lag behind
+                    markHealthy(key);
+                    continue;
+                }
+                long lag = rs.getLong("Seconds_Behind_Source");
+                if (rs.wasNull()) {
+                    markUnhealthy(key, "replication is not running");
+                } else if (lag > maxLagSeconds) {
+                    markUnhealthy(key, "lag " + lag + "s exceeds " + maxLagSeconds + "s");
+                } else {
+                    markHealthy(key);
+                }
+            } catch (SQLException e) {
+                markUnhealthy(key, e.getMessage());
+            }
+        }
+    }
+
+    public boolean isHealthy(String replicaKey) {
+        return !unhealthyReplicas.contains(replicaKey);
+    }
+
+    private Object nextHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (!unhealthyReplicas.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void markUnhealthy(String key, String reason) {
+        if (unhealthyReplicas.add(key)) {
+            logger.warn("Taking replica {} out of rotation: {}", key, reason);
+        }
+    }
+
+    private void markHealthy(String key) {
+        if (unhealthyReplicas.remove(key)) {
+            logger.info("Replica {} is back in rotation", key);
+        }
+    }
+}
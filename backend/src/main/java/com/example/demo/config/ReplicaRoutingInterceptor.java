@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Marks GET requests as replica-eligible, unless the user in the path or query string has just
+ * written data they are about to read back.
+ */
+public class ReplicaRoutingInterceptor implements HandlerInterceptor {
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingInterceptor(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RoutingContext.setReadPreferred("GET".equals(request.getMethod()));
+        RoutingContext.setForcePrimary(readYourWritesTracker.isSticky(findUserId(request)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RoutingContext.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long findUserId(HttpServletRequest request) {
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String userId = pathVariables != null ? pathVariables.get("userId") : null;
+        if (userId == null) {
+            userId = request.getParameter("userId");
+        }
+        try {
+            return userId != null ? Long.valueOf(userId) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+/**
+ * Per-request routing hints, set by {@link ReplicaRoutingInterceptor} and read by
+ * {@link ReplicaRoutingDataSource} when a connection is acquired.
+ */
+public final class RoutingContext {
+    private static final ThreadLocal<Boolean> READ_PREFERRED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private RoutingContext() {}
+
+    public static boolean isReadPreferred() { return Boolean.TRUE.equals(READ_PREFERRED.get()); }
+    public static void setReadPreferred(boolean readPreferred) { READ_PREFERRED.set(readPreferred); }
+    public static boolean isForcePrimary() { return Boolean.TRUE.equals(FORCE_PRIMARY.get()); }
+    public static void setForcePrimary(boolean forcePrimary) { FORCE_PRIMARY.set(forcePrimary); }
+
+    public static void clear() {
+        READ_PREFERRED.remove();
+        FORCE_PRIMARY.remove();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled methods: the replica lag check and the cleanup jobs. With virtual threads
+ * enabled Spring Boot runs each scheduled method on its own virtual thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,16 @@
+package com.example.demo.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Feeds every SQL statement Hibernate prepares into the open {@link QueryStats} scopes of the
+ * current thread. Registered as the session factory's statement inspector.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link QueryStats} scope per request and records, per endpoint, how many SQL statements
+ * the request issued ({@code http.server.requests.sql}) and how long they took in JDBC
+ * ({@code http.server.requests.jdbc}). The scope is exposed as a request attribute for
+ * {@link QueryBudgetInterceptor}.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    public static final String QUERY_STATS_ATTRIBUTE = QueryStats.class.getName();
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryStats stats = QueryStats.open()) {
+            request.setAttribute(QUERY_STATS_ATTRIBUTE, stats);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                DistributionSummary.builder("http.server.requests.sql")
+                        .description("SQL statements issued per request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(stats.getStatementCount());
+                Timer.builder("http.server.requests.jdbc")
+                        .description("Time spent executing SQL per request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(stats.getJdbcMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
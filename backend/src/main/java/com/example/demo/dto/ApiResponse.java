@@ -0,0 +1,60 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * The {"status","message","data"} envelope every endpoint answers with. Serialized by a hand-written
+ * serializer with pre-encoded field names, so writing the envelope costs no reflection and no map.
+ */
+@JsonSerialize(using = ApiResponse.Serializer.class)
+public record ApiResponse<T>(String status, String message, T data) {
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    public static <T> ApiResponse<T> success(String message, T data) {
+        return new ApiResponse<>(SUCCESS, message, data);
+    }
+
+    public static <T> ApiResponse<T> success(String message) {
+        return new ApiResponse<>(SUCCESS, message, null);
+    }
+
+    public static <T> ApiResponse<T> error(String message) {
+        return new ApiResponse<>(ERROR, message, null);
+    }
+
+    static final class Serializer extends StdSerializer<ApiResponse<?>> {
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString MESSAGE = new SerializedString("message");
+        private static final SerializableString DATA = new SerializedString("data");
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Serializer() {
+            super((Class) ApiResponse.class);
+        }
+
+        @Override
+        public void serialize(ApiResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(STATUS);
+            gen.writeString(value.status());
+            gen.writeFieldName(MESSAGE);
+            if (value.message() != null) {
+                gen.writeString(value.message());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(DATA);
+            // Data goes through the regular serializer lookup, which caches per runtime type
+            provider.defaultSerializeValue(value.data(), gen);
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Either dayOfWeek, opensAt and closesAt for a weekly window, or closedOn for a holiday
+public class AvailabilityScheduleRequest {
+    private Long foodItemId; // Optional; without it the rule covers all of the chef's items
+    private DayOfWeek dayOfWeek; // e.g. "MONDAY"
+    private LocalTime opensAt; // e.g. "07:00"
+    private LocalTime closesAt;
+    private LocalDate closedOn; // e.g. "2026-12-25"
+
+    // Getters and Setters
+    public Long getFoodItemId() { return foodItemId; }
+    public void setFoodItemId(Long foodItemId) { this.foodItemId = foodItemId; }
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+    public LocalTime getOpensAt() { return opensAt; }
+    public void setOpensAt(LocalTime opensAt) { this.opensAt = opensAt; }
+    public LocalTime getClosesAt() { return closesAt; }
+    public void setClosesAt(LocalTime closesAt) { this.closesAt = closesAt; }
+    public LocalDate getClosedOn() { return closedOn; }
+    public void setClosedOn(LocalDate closedOn) { this.closedOn = closedOn; }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * One stop of a delivery batch: a chef's kitchen to collect orders from (PICKUP), or a customer to
+ * hand one order to (DROPOFF).
+ */
+public record BatchStop(String type, Long chefId, List<Long> orderIds, double latitude, double longitude) {}
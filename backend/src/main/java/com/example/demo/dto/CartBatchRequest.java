@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    private Long userId;
+    private List<CartDeltaRequest> items;
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public List<CartDeltaRequest> getItems() { return items; }
+    public void setItems(List<CartDeltaRequest> items) { this.items = items; }
+}
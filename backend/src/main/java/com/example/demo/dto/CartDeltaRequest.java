@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+public class CartDeltaRequest {
+    private Long foodId;
+    private Integer delta;
+
+    // Getters and Setters
+    public Long getFoodId() { return foodId; }
+    public void setFoodId(Long foodId) { this.foodId = foodId; }
+    public Integer getDelta() { return delta; }
+    public void setDelta(Integer delta) { this.delta = delta; }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+/**
+ * Read-only view of one cart row joined with the catalog price of its food item.
+ * Populated by AddToCartRepository.findCartLinesByUserId.
+ */
+public interface CartLineView {
+    Long getFoodId();
+    Long getChefId();
+    Integer getQuantity();
+    Double getPrice();
+    Boolean getAvailable();
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+public class CartQuantityDto {
+    private Long foodId;
+    private Integer quantity; // 0 when the item was removed from the cart
+
+    public CartQuantityDto() {}
+
+    public CartQuantityDto(Long foodId, Integer quantity) {
+        this.foodId = foodId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getFoodId() { return foodId; }
+    public void setFoodId(Long foodId) { this.foodId = foodId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+public class CheckoutRequest {
+    private Long userId;
+    private String paymentMethod;
+    private String specialInstructions;
+    private String deliveryLocation;
+    private String deliveryPhone;
+    private String deliveryCoordinates;
+    private String transactionUuid;
+    private Long deliverySlotId; // With deliveryDate, makes the order a pre-order for that slot
+    private LocalDate deliveryDate; // e.g. "2026-10-23"
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public String getSpecialInstructions() { return specialInstructions; }
+    public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
+    public String getDeliveryLocation() { return deliveryLocation; }
+    public void setDeliveryLocation(String deliveryLocation) { this.deliveryLocation = deliveryLocation; }
+    public String getDeliveryPhone() { return deliveryPhone; }
+    public void setDeliveryPhone(String deliveryPhone) { this.deliveryPhone = deliveryPhone; }
+    public String getDeliveryCoordinates() { return deliveryCoordinates; }
+    public void setDeliveryCoordinates(String deliveryCoordinates) { this.deliveryCoordinates = deliveryCoordinates; }
+    public String getTransactionUuid() { return transactionUuid; }
+    public void setTransactionUuid(String transactionUuid) { this.transactionUuid = transactionUuid; }
+    public Long getDeliverySlotId() { return deliverySlotId; }
+    public void setDeliverySlotId(Long deliverySlotId) { this.deliverySlotId = deliverySlotId; }
+    public LocalDate getDeliveryDate() { return deliveryDate; }
+    public void setDeliveryDate(LocalDate deliveryDate) { this.deliveryDate = deliveryDate; }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One courier fix as held in memory by CourierLocationStore and returned by the location endpoints.
+ */
+public record CourierPosition(double latitude, double longitude, LocalDateTime recordedAt) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+public class DailyStockRequest {
+    private Integer dailyStock; // Units the chef can make per day; null removes the limit
+
+    // Getters and Setters
+    public Integer getDailyStock() { return dailyStock; }
+    public void setDailyStock(Integer dailyStock) { this.dailyStock = dailyStock; }
+}
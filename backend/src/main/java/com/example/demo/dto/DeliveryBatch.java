@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * READY orders one courier can take in a single trip, with the stops in the order to visit them.
+ * distanceMeters is the straight-line length of that route from the first stop.
+ */
+public record DeliveryBatch(List<Long> orderIds, List<BatchStop> stops, double distanceMeters) {}
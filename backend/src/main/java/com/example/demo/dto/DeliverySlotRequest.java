@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+public class DeliverySlotRequest {
+    private DayOfWeek dayOfWeek; // e.g. "FRIDAY"
+    private LocalTime startsAt; // e.g. "18:00"
+    private LocalTime endsAt; // Same day, after startsAt
+    private Integer capacity; // Pre-orders per date
+
+    // Getters and Setters
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+    public LocalTime getStartsAt() { return startsAt; }
+    public void setStartsAt(LocalTime startsAt) { this.startsAt = startsAt; }
+    public LocalTime getEndsAt() { return endsAt; }
+    public void setEndsAt(LocalTime endsAt) { this.endsAt = endsAt; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * The delivery dashboard's three lists in one body. The version is the ETag the snapshot was built
+ * under, for clients that keep it outside the HTTP cache.
+ */
+public record DeliverySnapshot(String version, List<OrderResponse> ready, List<OrderResponse> active,
+                               List<OrderResponse> delivered) {}
@@ -0,0 +1,5 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+public record FeedCommentResponse(Long id, Long userId, String text, LocalDateTime createdAt, UserDto user) {}
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.FeedType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One feed post as returned by the feed endpoints. Media paths and the recipe are left out
+ * of the JSON when the post has none.
+ */
+public record FoodFeedResponse(
+        Long id,
+        String content,
+        FeedType type,
+        LocalDateTime createdAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String imagePath,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String videoPath,
+        @JsonInclude(JsonInclude.Include.NON_NULL) RecipeResponse recipe,
+        List<Long> likes,
+        List<FeedCommentResponse> comments,
+        UserDto chef) {}
@@ -62,6 +62,22 @@ public class FoodItemDto {
         this.user = user;
     }
 
+    // Projection constructor used by JPQL constructor expressions; tags are attached afterwards in one batch query
+    public FoodItemDto(Long id, String name, String description, Double price, Double originalPrice, Boolean available,
+                       String imagePath, String preparationTime, Double discountPercentage,
+                       Long chefId, String chefEmail, String chefUsername, String chefLocation, String chefPhoneNumber) {
+        this(id, name, description, price, originalPrice, available, imagePath, preparationTime, null, discountPercentage, chefId, null);
+        if (chefId != null) {
+            UserDto chef = new UserDto();
+            chef.setId(chefId);
+            chef.setEmail(chefEmail);
+            chef.setUsername(chefUsername);
+            chef.setLocation(chefLocation);
+            chef.setPhoneNumber(chefPhoneNumber);
+            this.user = chef;
+        }
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+/**
+ * One autocomplete entry: a food item's id and name, best match first in the list.
+ */
+public record FoodSuggestion(Long id, String name) {}
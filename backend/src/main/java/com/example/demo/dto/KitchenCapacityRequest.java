@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+public class KitchenCapacityRequest {
+    private Integer maxActiveOrders; // Orders in the kitchen at once; null removes the limit
+
+    // Getters and Setters
+    public Integer getMaxActiveOrders() { return maxActiveOrders; }
+    public void setMaxActiveOrders(Integer maxActiveOrders) { this.maxActiveOrders = maxActiveOrders; }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * A chef's concurrent order limit and how many orders are in the kitchen now. maxActiveOrders is
+ * null when the chef has no limit.
+ */
+public record KitchenLoad(Long chefId, Integer maxActiveOrders, int activeOrders) {}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import java.time.Instant;
+
+public class LocationUpdateRequest {
+    private Double latitude;
+    private Double longitude;
+    private Instant timestamp; // When the device took the fix; optional
+
+    // Getters and Setters
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Instant getTimestamp() { return timestamp; }
+    public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+/**
+ * Flat row for one order item, filled by a JPQL constructor expression so order
+ * lists can be assembled without loading OrderItem and FoodItem entities.
+ */
+public class OrderItemLine {
+    private final Long orderId;
+    private final Long orderItemId;
+    private final Integer quantity;
+    private final FoodItemDto foodItem;
+
+    public OrderItemLine(Long orderId, Long orderItemId, Integer quantity,
+                         Long foodId, String name, String description, Double price, Double originalPrice, Boolean available,
+                         String imagePath, String preparationTime, Double discountPercentage,
+                         Long chefId, String chefEmail, String chefUsername, String chefLocation, String chefPhoneNumber) {
+        this.orderId = orderId;
+        this.orderItemId = orderItemId;
+        this.quantity = quantity;
+        this.foodItem = new FoodItemDto(foodId, name, description, price, originalPrice, available, imagePath, preparationTime,
+                discountPercentage, chefId, chefEmail, chefUsername, chefLocation, chefPhoneNumber);
+    }
+
+    public Long getOrderId() { return orderId; }
+    public Long getOrderItemId() { return orderItemId; }
+    public Integer getQuantity() { return quantity; }
+    public FoodItemDto getFoodItem() { return foodItem; }
+
+    public OrderItemResponse toResponse() {
+        return new OrderItemResponse(orderItemId, foodItem, quantity);
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.demo.dto;
 
 import com.example.demo.model.Order;
+import com.example.demo.model.PaymentStatus;
 import com.example.demo.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class OrderResponse {
@@ -19,6 +22,13 @@ public class OrderResponse {
     private String deliveryPhone;
     private String deliveryCoordinates;
     private String transactionUuid;
+    private String scheduledFor; // Pre-orders only: the start of the booked delivery slot
+    // Filled by EtaService; null when the order is past the point the estimate covers
+    private String predictedReadyAt;
+    private String predictedDeliveryAt;
+    // Inputs to the estimate, not part of the response; placedAt is when the order went (or goes) to the kitchen
+    private LocalDateTime placedAt;
+    private LocalDateTime statusChangedAt;
 
     public OrderResponse(Order order) {
         this.orderId = order.getId();
@@ -29,12 +39,50 @@ public class OrderResponse {
         this.paymentStatus = order.getPayment() != null ? order.getPayment().getStatus().name() : null;
         this.status = order.getStatus();
         this.orderDate = order.getOrderDate() != null ? order.getOrderDate().toString() : null;
+        this.placedAt = order.getReleaseAt() != null ? order.getReleaseAt() : order.getOrderDate();
+        this.statusChangedAt = order.getStatusChangedAt();
+        this.scheduledFor = order.getScheduledFor() != null ? order.getScheduledFor().toString() : null;
         this.deliveryLocation = order.getDeliveryLocation();
         this.deliveryPhone = order.getDeliveryPhone();
         this.deliveryCoordinates = order.getDeliveryCoordinates();
         this.transactionUuid = order.getPayment() != null ? order.getPayment().getTransactionId() : null;
     }
 
+    // Projection constructor used by JPQL constructor expressions; user and order items are attached by the caller
+    public OrderResponse(Long orderId, Long userId, String status, LocalDateTime orderDate, String deliveryLocation,
+                         String deliveryPhone, String deliveryCoordinates, Double amount, String paymentMethod,
+                         PaymentStatus paymentStatus, String transactionUuid) {
+        this(orderId, userId, status, orderDate, null, deliveryLocation, deliveryPhone, deliveryCoordinates, amount,
+                paymentMethod, paymentStatus, transactionUuid);
+    }
+
+    public OrderResponse(Long orderId, Long userId, String status, LocalDateTime orderDate, LocalDateTime statusChangedAt,
+                         String deliveryLocation, String deliveryPhone, String deliveryCoordinates, Double amount,
+                         String paymentMethod, PaymentStatus paymentStatus, String transactionUuid) {
+        this(orderId, userId, status, orderDate, statusChangedAt, null, null, deliveryLocation, deliveryPhone,
+                deliveryCoordinates, amount, paymentMethod, paymentStatus, transactionUuid);
+    }
+
+    public OrderResponse(Long orderId, Long userId, String status, LocalDateTime orderDate, LocalDateTime statusChangedAt,
+                         LocalDateTime releaseAt, LocalDateTime scheduledFor, String deliveryLocation, String deliveryPhone,
+                         String deliveryCoordinates, Double amount, String paymentMethod, PaymentStatus paymentStatus,
+                         String transactionUuid) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.paymentStatus = paymentStatus != null ? paymentStatus.name() : null;
+        this.status = status;
+        this.orderDate = orderDate != null ? orderDate.toString() : null;
+        this.placedAt = releaseAt != null ? releaseAt : orderDate;
+        this.statusChangedAt = statusChangedAt;
+        this.scheduledFor = scheduledFor != null ? scheduledFor.toString() : null;
+        this.deliveryLocation = deliveryLocation;
+        this.deliveryPhone = deliveryPhone;
+        this.deliveryCoordinates = deliveryCoordinates;
+        this.transactionUuid = transactionUuid;
+    }
+
     private UserDto mapUserToDto(User user) {
         if (user == null) {
             return null;
@@ -76,4 +124,14 @@ public class OrderResponse {
     public void setDeliveryCoordinates(String deliveryCoordinates) { this.deliveryCoordinates = deliveryCoordinates; }
     public String getTransactionUuid() { return transactionUuid; }
     public void setTransactionUuid(String transactionUuid) { this.transactionUuid = transactionUuid; }
+    public String getScheduledFor() { return scheduledFor; }
+    public void setScheduledFor(String scheduledFor) { this.scheduledFor = scheduledFor; }
+    public String getPredictedReadyAt() { return predictedReadyAt; }
+    public void setPredictedReadyAt(String predictedReadyAt) { this.predictedReadyAt = predictedReadyAt; }
+    public String getPredictedDeliveryAt() { return predictedDeliveryAt; }
+    public void setPredictedDeliveryAt(String predictedDeliveryAt) { this.predictedDeliveryAt = predictedDeliveryAt; }
+    @JsonIgnore
+    public LocalDateTime getPlacedAt() { return placedAt; }
+    @JsonIgnore
+    public LocalDateTime getStatusChangedAt() { return statusChangedAt; }
 }
\ No newline at end of file
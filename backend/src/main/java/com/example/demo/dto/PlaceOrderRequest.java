@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public class PlaceOrderRequest {
@@ -13,6 +14,8 @@ public class PlaceOrderRequest {
     private String deliveryPhone;
     private String deliveryCoordinates;
     private String transactionUuid;
+    private Long deliverySlotId; // With deliveryDate, makes the order a pre-order for that slot
+    private LocalDate deliveryDate; // e.g. "2026-10-23"
 
     // Getters and Setters
     public Long getUserId() { return userId; }
@@ -35,4 +38,8 @@ public class PlaceOrderRequest {
     public void setDeliveryCoordinates(String deliveryCoordinates) { this.deliveryCoordinates = deliveryCoordinates; }
     public String getTransactionUuid() { return transactionUuid; }
     public void setTransactionUuid(String transactionUuid) { this.transactionUuid = transactionUuid; }
+    public Long getDeliverySlotId() { return deliverySlotId; }
+    public void setDeliverySlotId(Long deliverySlotId) { this.deliverySlotId = deliverySlotId; }
+    public LocalDate getDeliveryDate() { return deliveryDate; }
+    public void setDeliveryDate(LocalDate deliveryDate) { this.deliveryDate = deliveryDate; }
 }
\ No newline at end of file
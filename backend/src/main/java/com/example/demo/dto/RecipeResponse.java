@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Recipe;
+
+/**
+ * Recipe details shown on a feed post; instructions are left out of the feed.
+ */
+public record RecipeResponse(String name, String ingredients, String cookingTime, String serves, String difficulty) {
+
+    public static RecipeResponse from(Recipe recipe) {
+        return new RecipeResponse(recipe.getName(), recipe.getIngredients(), recipe.getCookingTime(),
+                recipe.getServes(), recipe.getDifficulty());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One dated delivery slot and how many more pre-orders it takes.
+ */
+public record SlotAvailability(Long slotId, LocalDate date, LocalTime startsAt, LocalTime endsAt, int capacity, int remaining) {}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * A food item's daily stock as set by its chef. dailyStock and stockRemaining are null when the
+ * item is not stock-limited.
+ */
+public record StockLevel(Long foodItemId, Integer dailyStock, Integer stockRemaining, boolean available) {}
@@ -0,0 +1,7 @@
+package com.example.demo.dto;
+
+/**
+ * A food item's or chef's share of recent orders: decayed item quantity, where an order placed one
+ * window ago counts half.
+ */
+public record TrendingScore(Long id, double score) {}
@@ -25,6 +25,22 @@ public class UserDto {
 
     private String description;
 
+    public UserDto() {}
+
+    // Used by JPQL constructor expressions (profile columns may be null when no profile exists)
+    public UserDto(Long id, String email, String username, String location, String phoneNumber, String role,
+                   String profilePicture, String coordinate, String description) {
+        this.id = id;
+        this.email = email;
+        this.username = username;
+        this.location = location;
+        this.phoneNumber = phoneNumber;
+        this.role = role;
+        this.profilePicture = profilePicture;
+        this.coordinate = coordinate;
+        this.description = description;
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -8,9 +8,13 @@ import java.time.LocalDateTime;
 /**
  * Entity representing an item added to the user's cart.
  * Maps to the 'add_to_cart' table in the database.
+ * A user holds at most one row per food item, which lets quantity changes
+ * be applied as single-statement upserts (see AddToCartRepository).
  */
 @Entity
-@Table(name = "add_to_cart")
+@Table(name = "add_to_cart",
+       uniqueConstraints = @UniqueConstraint(name = "uk_add_to_cart_user_food", columnNames = {"user_id", "food_id"}),
+       indexes = @Index(name = "idx_add_to_cart_updated_at", columnList = "updated_at"))
 public class AddToCart implements Serializable {
     private static final long serialVersionUID = 1L;
 
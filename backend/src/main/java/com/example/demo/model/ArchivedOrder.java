@@ -0,0 +1,113 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a finished order and its payment, moved out of orders/payment by
+ * OrderArchiveService once it is old enough. Keeps the original order id, so history
+ * endpoints can merge hot and archived orders without remapping ids.
+ */
+@Entity
+@Table(name = "orders_archive",
+       indexes = {
+           @Index(name = "idx_orders_archive_user_status", columnList = "user_id, status"),
+           @Index(name = "idx_orders_archive_status", columnList = "status"),
+           @Index(name = "idx_orders_archive_courier_status", columnList = "courier_id, status")
+       })
+public class ArchivedOrder {
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @Column(name = "delivery_location")
+    private String deliveryLocation;
+
+    @Column(name = "delivery_phone")
+    private String deliveryPhone;
+
+    @Column(name = "delivery_coordinates")
+    private String deliveryCoordinates;
+
+    @Column(name = "courier_id")
+    private Long courierId;
+
+    @Column(name = "assigned_at")
+    private LocalDateTime assignedAt;
+
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    // Pre-order columns, null for orders placed for immediate delivery
+    @Column(name = "delivery_slot_id")
+    private Long deliverySlotId;
+
+    @Column(name = "scheduled_for")
+    private LocalDateTime scheduledFor;
+
+    @Column(name = "release_at")
+    private LocalDateTime releaseAt;
+
+    // Payment columns, null when the order never had a payment
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    private Double amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status")
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "payment_method")
+    private String paymentMethod;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "payment_date")
+    private LocalDateTime paymentDate;
+
+    @Column(name = "esewa_ref_id")
+    private String esewaRefId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedOrder() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getStatus() { return status; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public String getDeliveryLocation() { return deliveryLocation; }
+    public String getDeliveryPhone() { return deliveryPhone; }
+    public String getDeliveryCoordinates() { return deliveryCoordinates; }
+    public Long getCourierId() { return courierId; }
+    public LocalDateTime getAssignedAt() { return assignedAt; }
+    public LocalDateTime getStatusChangedAt() { return statusChangedAt; }
+    public Long getDeliverySlotId() { return deliverySlotId; }
+    public LocalDateTime getScheduledFor() { return scheduledFor; }
+    public LocalDateTime getReleaseAt() { return releaseAt; }
+    public Long getPaymentId() { return paymentId; }
+    public Double getAmount() { return amount; }
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public String getTransactionId() { return transactionId; }
+    public LocalDateTime getPaymentDate() { return paymentDate; }
+    public String getEsewaRefId() { return esewaRefId; }
+    public String getFailureReason() { return failureReason; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
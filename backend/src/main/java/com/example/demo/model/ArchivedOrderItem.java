@@ -0,0 +1,40 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Cold copy of an order item. chef_id is the food item's owner at archive time, the same value
+ * chef_order_lines held for the item while the order was hot.
+ */
+@Entity
+@Table(name = "order_item_archive",
+       indexes = {
+           @Index(name = "idx_order_item_archive_order", columnList = "order_id"),
+           @Index(name = "idx_order_item_archive_chef_order", columnList = "chef_id, order_id")
+       })
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "food_item_id", nullable = false)
+    private Long foodItemId;
+
+    @Column(name = "chef_id", nullable = false)
+    private Long chefId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Constructors
+    public ArchivedOrderItem() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public Long getFoodItemId() { return foodItemId; }
+    public Long getChefId() { return chefId; }
+    public Integer getQuantity() { return quantity; }
+}
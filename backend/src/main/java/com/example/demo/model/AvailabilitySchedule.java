@@ -0,0 +1,58 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One rule of a chef's menu schedule: either a weekly window the items are served in, or a holiday
+ * they are not served on. foodItemId null applies the rule to all of the chef's items.
+ */
+@Entity
+@Table(name = "availability_schedules",
+       indexes = @Index(name = "idx_availability_schedules_chef", columnList = "chef_id"))
+public class AvailabilitySchedule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chef_id", nullable = false)
+    private Long chefId;
+
+    @Column(name = "food_item_id")
+    private Long foodItemId;
+
+    @Column(name = "day_of_week")
+    private Integer dayOfWeek; // 1 = Monday ... 7 = Sunday; weekly windows only
+
+    @Column(name = "opens_at")
+    private LocalTime opensAt;
+
+    @Column(name = "closes_at")
+    private LocalTime closesAt; // At or before opensAt: the window runs past midnight
+
+    @Column(name = "closed_on")
+    private LocalDate closedOn; // Holidays only: closed the whole day
+
+    // Constructors
+    public AvailabilitySchedule() {}
+
+    public AvailabilitySchedule(Long chefId, Long foodItemId, Integer dayOfWeek, LocalTime opensAt, LocalTime closesAt,
+                                LocalDate closedOn) {
+        this.chefId = chefId;
+        this.foodItemId = foodItemId;
+        this.dayOfWeek = dayOfWeek;
+        this.opensAt = opensAt;
+        this.closesAt = closesAt;
+        this.closedOn = closedOn;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getChefId() { return chefId; }
+    public Long getFoodItemId() { return foodItemId; }
+    public Integer getDayOfWeek() { return dayOfWeek; }
+    public LocalTime getOpensAt() { return opensAt; }
+    public LocalTime getClosesAt() { return closesAt; }
+    public LocalDate getClosedOn() { return closedOn; }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-chef projection of order items, written when an order is placed and kept in step
+ * with the order status. Lets the kitchen queue be read by (chef_id, status) without
+ * joining order_item to food_items on every dashboard refresh.
+ */
+@Entity
+@Table(name = "chef_order_lines",
+       uniqueConstraints = @UniqueConstraint(name = "uk_chef_order_lines_order_item", columnNames = "order_item_id"),
+       indexes = {
+           @Index(name = "idx_chef_order_lines_chef_status_due", columnList = "chef_id, status, due_at"),
+           @Index(name = "idx_chef_order_lines_order", columnList = "order_id")
+       })
+public class ChefOrderLine {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chef_id", nullable = false)
+    private Long chefId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "order_item_id", nullable = false)
+    private Long orderItemId;
+
+    @Column(name = "food_item_id", nullable = false)
+    private Long foodItemId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt; // Queue ordering key: the earliest due line is the most urgent
+
+    // Constructors
+    public ChefOrderLine() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getChefId() { return chefId; }
+    public void setChefId(Long chefId) { this.chefId = chefId; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public Long getOrderItemId() { return orderItemId; }
+    public void setOrderItemId(Long orderItemId) { this.orderItemId = orderItemId; }
+    public Long getFoodItemId() { return foodItemId; }
+    public void setFoodItemId(Long foodItemId) { this.foodItemId = foodItemId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+    public LocalDateTime getDueAt() { return dueAt; }
+    public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
+}
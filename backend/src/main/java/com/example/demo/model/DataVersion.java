@@ -0,0 +1,29 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Version counter of one data set (menu, feed, delivery), used for its ETags. Rows are seeded by the
+ * migration and only ever touched through the native statements in DataVersionRepository.
+ */
+@Entity
+@Table(name = "data_version")
+public class DataVersion {
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public DataVersion() {}
+
+    // Getters
+    public String getName() { return name; }
+    public long getVersion() { return version; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
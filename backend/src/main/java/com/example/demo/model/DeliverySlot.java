@@ -0,0 +1,52 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalTime;
+
+/**
+ * A weekly delivery slot a chef takes pre-orders for, e.g. Friday 18:00-19:00 for up to 10 orders.
+ * The capacity applies to each date the slot falls on; what a date has taken is kept in
+ * {@link DeliverySlotBooking}.
+ */
+@Entity
+@Table(name = "delivery_slots",
+       indexes = @Index(name = "idx_delivery_slots_chef", columnList = "chef_id"))
+public class DeliverySlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chef_id", nullable = false)
+    private Long chefId;
+
+    @Column(name = "day_of_week", nullable = false)
+    private Integer dayOfWeek; // 1 = Monday ... 7 = Sunday
+
+    @Column(name = "starts_at", nullable = false)
+    private LocalTime startsAt; // Orders are due at the start of their slot
+
+    @Column(name = "ends_at", nullable = false)
+    private LocalTime endsAt;
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    // Constructors
+    public DeliverySlot() {}
+
+    public DeliverySlot(Long chefId, Integer dayOfWeek, LocalTime startsAt, LocalTime endsAt, Integer capacity) {
+        this.chefId = chefId;
+        this.dayOfWeek = dayOfWeek;
+        this.startsAt = startsAt;
+        this.endsAt = endsAt;
+        this.capacity = capacity;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getChefId() { return chefId; }
+    public Integer getDayOfWeek() { return dayOfWeek; }
+    public LocalTime getStartsAt() { return startsAt; }
+    public LocalTime getEndsAt() { return endsAt; }
+    public Integer getCapacity() { return capacity; }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * How many pre-orders one delivery slot has taken on one date. Rows are created on the first
+ * booking and only ever changed through the conditional statements in DeliverySlotBookingRepository,
+ * so concurrent checkouts cannot overbook a slot.
+ */
+@Entity
+@Table(name = "delivery_slot_bookings",
+       uniqueConstraints = @UniqueConstraint(name = "uk_delivery_slot_bookings_slot_date", columnNames = {"slot_id", "slot_date"}))
+public class DeliverySlotBooking {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "slot_id", nullable = false)
+    private Long slotId;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(nullable = false)
+    private Integer booked;
+
+    public DeliverySlotBooking() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getSlotId() { return slotId; }
+    public LocalDate getSlotDate() { return slotDate; }
+    public Integer getBooked() { return booked; }
+}
@@ -1,8 +1,14 @@
 package com.example.demo.model;
 
+import com.example.demo.utility.PrepTime;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -34,6 +40,33 @@ public class FoodItem {
 
     private String preparationTime; // e.g., "20-25 min"
 
+    // Parsed from preparationTime whenever it is set; null when the text has no recognisable duration
+    @Column(name = "prep_min_minutes")
+    private Integer prepMinMinutes;
+
+    @Column(name = "prep_max_minutes")
+    private Integer prepMaxMinutes;
+
+    // Daily stock, written only by CapacityService's conditional updates so an item save never
+    // overwrites a concurrent reservation. dailyStock null means the item is not stock-limited.
+    @Column(name = "daily_stock", insertable = false, updatable = false)
+    private Integer dailyStock;
+
+    @Column(name = "stock_remaining", insertable = false, updatable = false)
+    private Integer stockRemaining;
+
+    @Column(name = "stock_date", insertable = false, updatable = false)
+    private LocalDate stockDate; // The day stockRemaining counts down for
+
+    @ColumnDefault("false")
+    @Column(name = "sold_out", nullable = false, insertable = false, updatable = false)
+    private boolean soldOut; // Made unavailable by running out of stock, not by the chef
+
+    // Made unavailable by the chef's schedule (MenuScheduleService); only ever written by its UPDATEs
+    @ColumnDefault("false")
+    @Column(name = "schedule_closed", nullable = false, insertable = false, updatable = false)
+    private boolean scheduleClosed;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @NotEmpty(message = "Tags cannot be empty")
     private Set<String> tags; // e.g., "Bestseller", "Spicy"
@@ -47,6 +80,12 @@ public class FoodItem {
     @JsonBackReference
     private User user; // Reference to the user who added this food item
 
+    // Last save through the entity; the search index resync of every instance reads items by it.
+    // Stock and schedule updates do not touch it, since they never change what is indexed.
+    @JsonIgnore
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     // Constructors
     public FoodItem() {
         this.available = false;
@@ -65,7 +104,7 @@ public class FoodItem {
         this.originalPrice = originalPrice != null && originalPrice > 0 ? originalPrice : 0.0;
         this.available = available != null ? available : false;
         this.imagePath = imagePath != null ? imagePath : "";
-        this.preparationTime = preparationTime != null ? preparationTime : "";
+        applyPreparationTime(preparationTime);
         this.tags = tags != null && !tags.isEmpty() ? new HashSet<>(tags) : new HashSet<>();
         this.discountPercentage = discountPercentage != null && discountPercentage >= 0 && discountPercentage <= 100 ? discountPercentage : 0.0;
         this.user = user;
@@ -152,7 +191,42 @@ public class FoodItem {
     }
 
     public void setPreparationTime(String preparationTime) {
+        applyPreparationTime(preparationTime);
+    }
+
+    public Integer getPrepMinMinutes() {
+        return prepMinMinutes;
+    }
+
+    public Integer getPrepMaxMinutes() {
+        return prepMaxMinutes;
+    }
+
+    public Integer getDailyStock() {
+        return dailyStock;
+    }
+
+    public Integer getStockRemaining() {
+        return stockRemaining;
+    }
+
+    public LocalDate getStockDate() {
+        return stockDate;
+    }
+
+    public boolean isSoldOut() {
+        return soldOut;
+    }
+
+    public boolean isScheduleClosed() {
+        return scheduleClosed;
+    }
+
+    private void applyPreparationTime(String preparationTime) {
         this.preparationTime = preparationTime != null ? preparationTime : "";
+        PrepTime parsed = PrepTime.parse(preparationTime);
+        this.prepMinMinutes = parsed != null ? parsed.minMinutes() : null;
+        this.prepMaxMinutes = parsed != null ? parsed.maxMinutes() : null;
     }
 
     public Set<String> getTags() {
@@ -182,6 +256,20 @@ public class FoodItem {
         this.user = user;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     @Override
     public String toString() {
         return "FoodItem{" +
@@ -0,0 +1,34 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row per scheduled job, used as a lease so that only one instance runs the job at a time.
+ * Rows are only ever touched through the native statements in JobLockRepository, which compare
+ * against the database clock so instances with skewed clocks still agree on who holds the lease.
+ */
+@Entity
+@Table(name = "job_lock")
+public class JobLock {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    public JobLock() {}
+
+    // Getters
+    public String getName() { return name; }
+    public String getLockedBy() { return lockedBy; }
+    public LocalDateTime getLockedAt() { return lockedAt; }
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+
+/**
+ * How many orders a chef takes on at once. activeOrders counts the chef's orders that are placed,
+ * confirmed or preparing; a chef without a row has no limit. Rows are only ever written through the
+ * conditional statements in KitchenCapacityRepository, so concurrent checkouts cannot overbook.
+ */
+@Entity
+@Table(name = "kitchen_capacity")
+public class KitchenCapacity {
+    @Id
+    @Column(name = "chef_id")
+    private Long chefId;
+
+    @Column(name = "max_active_orders", nullable = false)
+    private Integer maxActiveOrders;
+
+    @Column(name = "active_orders", nullable = false)
+    private Integer activeOrders;
+
+    public KitchenCapacity() {}
+
+    // Getters
+    public Long getChefId() { return chefId; }
+    public Integer getMaxActiveOrders() { return maxActiveOrders; }
+    public Integer getActiveOrders() { return activeOrders; }
+}
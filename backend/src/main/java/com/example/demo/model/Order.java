@@ -2,11 +2,20 @@ package com.example.demo.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Updates write only the changed columns, so saving a loaded order never undoes a courier claim made since
 @Entity
-@Table(name = "orders")
+@DynamicUpdate
+@Table(name = "orders",
+       indexes = {
+           @Index(name = "idx_orders_status_order_date", columnList = "status, order_date"),
+           @Index(name = "idx_orders_courier_status", columnList = "courier_id, status"),
+           @Index(name = "idx_orders_status_release_at", columnList = "status, release_at")
+       })
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,6 +32,10 @@ public class Order {
     private String status = "PLACED";
     private LocalDateTime orderDate = LocalDateTime.now();
 
+    // When the current status was set; null for orders that have not changed status since before it was tracked
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt = orderDate;
+
     @Column(name = "delivery_location")
     private String deliveryLocation;
 
@@ -35,6 +48,25 @@ public class Order {
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
     private Payment payment;
 
+    // Set once by the conditional claim in OrderRepository.claimForCourier
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "courier_id")
+    private User courier;
+
+    @Column(name = "assigned_at")
+    private LocalDateTime assignedAt;
+
+    // Pre-orders only (see DeliverySlotService): the booked slot, when it is due and when it goes to the kitchen.
+    // releaseAt is moved to the actual release time once the order is released.
+    @Column(name = "delivery_slot_id")
+    private Long deliverySlotId;
+
+    @Column(name = "scheduled_for")
+    private LocalDateTime scheduledFor;
+
+    @Column(name = "release_at")
+    private LocalDateTime releaseAt;
+
     // Constructors
     public Order() {}
 
@@ -57,6 +89,8 @@ public class Order {
     public void setStatus(String status) { this.status = status; }
     public LocalDateTime getOrderDate() { return orderDate; }
     public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+    public LocalDateTime getStatusChangedAt() { return statusChangedAt; }
+    public void setStatusChangedAt(LocalDateTime statusChangedAt) { this.statusChangedAt = statusChangedAt; }
     public String getDeliveryLocation() { return deliveryLocation; }
     public void setDeliveryLocation(String deliveryLocation) { this.deliveryLocation = deliveryLocation; }
     public String getDeliveryPhone() { return deliveryPhone; }
@@ -65,4 +99,14 @@ public class Order {
     public void setDeliveryCoordinates(String deliveryCoordinates) { this.deliveryCoordinates = deliveryCoordinates; }
     public Payment getPayment() { return payment; }
     public void setPayment(Payment payment) { this.payment = payment; }
+    public User getCourier() { return courier; }
+    public void setCourier(User courier) { this.courier = courier; }
+    public LocalDateTime getAssignedAt() { return assignedAt; }
+    public void setAssignedAt(LocalDateTime assignedAt) { this.assignedAt = assignedAt; }
+    public Long getDeliverySlotId() { return deliverySlotId; }
+    public void setDeliverySlotId(Long deliverySlotId) { this.deliverySlotId = deliverySlotId; }
+    public LocalDateTime getScheduledFor() { return scheduledFor; }
+    public void setScheduledFor(LocalDateTime scheduledFor) { this.scheduledFor = scheduledFor; }
+    public LocalDateTime getReleaseAt() { return releaseAt; }
+    public void setReleaseAt(LocalDateTime releaseAt) { this.releaseAt = releaseAt; }
 }
\ No newline at end of file
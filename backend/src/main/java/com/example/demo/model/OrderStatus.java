@@ -1,6 +1,7 @@
 package com.example.demo.model;
 
 public enum OrderStatus {
+    SCHEDULED,
     PLACED,
     CONFIRMED,
     PREPARING,
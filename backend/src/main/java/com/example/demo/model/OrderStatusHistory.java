@@ -0,0 +1,44 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row per order status change, written by EtaService. Kept when the order is archived, so the
+ * ETA statistics can be rebuilt from it after a restart.
+ */
+@Entity
+@Table(name = "order_status_history",
+       indexes = {
+           @Index(name = "idx_order_status_history_order", columnList = "order_id"),
+           @Index(name = "idx_order_status_history_changed_at", columnList = "changed_at")
+       })
+public class OrderStatusHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Constructors
+    public OrderStatusHistory() {}
+
+    public OrderStatusHistory(Long orderId, String status, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public String getStatus() { return status; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
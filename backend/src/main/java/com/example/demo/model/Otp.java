@@ -4,9 +4,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_otp_expires_at", columnList = "expires_at"))
 public class Otp {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
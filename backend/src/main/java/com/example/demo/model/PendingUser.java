@@ -4,8 +4,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_pending_user_created_at", columnList = "created_at"))
 public class PendingUser {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +22,7 @@ public class PendingUser {
     private String location;
     private String phoneNumber;
     private String role;
+    private LocalDateTime createdAt; // Signups still pending long after this are purged by CleanupService
 
     // Constructors
     public PendingUser() {}
@@ -45,4 +51,10 @@ public class PendingUser {
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
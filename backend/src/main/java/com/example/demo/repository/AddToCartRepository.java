@@ -1,13 +1,61 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.CartLineView;
 import com.example.demo.model.AddToCart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface AddToCartRepository extends JpaRepository<AddToCart, Long> {
     List<AddToCart> findByUserId(Long userId);
     Optional<AddToCart> findByUserIdAndFoodId(Long userId, Long foodId);
+    boolean existsByUserIdAndFoodId(Long userId, Long foodId);
     void deleteByUserIdAndFoodId(Long userId, Long foodId);
-}
\ No newline at end of file
+
+    @Query("SELECT c.foodId AS foodId, f.user.id AS chefId, c.quantity AS quantity, f.price AS price, f.available AS available " +
+           "FROM AddToCart c JOIN FoodItem f ON f.id = c.foodId WHERE c.userId = :userId")
+    List<CartLineView> findCartLinesByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM AddToCart c WHERE c.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    // Inserts the row or adds to the existing quantity in one statement (relies on uk_add_to_cart_user_food).
+    // On the update path the new quantity is stashed in LAST_INSERT_ID() so it can be read back without a SELECT on the table.
+    // Returns 1 when a row was inserted and 2 when an existing row was updated.
+    @Modifying
+    @Query(value = "INSERT INTO add_to_cart (user_id, food_id, quantity, created_at, updated_at) " +
+                   "VALUES (:userId, :foodId, :quantity, NOW(), NOW()) " +
+                   "ON DUPLICATE KEY UPDATE quantity = LAST_INSERT_ID(quantity + VALUES(quantity)), updated_at = NOW()",
+           nativeQuery = true)
+    int upsertQuantity(@Param("userId") Long userId, @Param("foodId") Long foodId, @Param("quantity") Integer quantity);
+
+    // Applies the delta only if the row exists and the result stays at least 1. Returns the number of rows changed.
+    @Modifying
+    @Query(value = "UPDATE add_to_cart SET quantity = LAST_INSERT_ID(quantity + :delta), updated_at = NOW() " +
+                   "WHERE user_id = :userId AND food_id = :foodId AND quantity + :delta >= 1",
+           nativeQuery = true)
+    int adjustQuantity(@Param("userId") Long userId, @Param("foodId") Long foodId, @Param("delta") Integer delta);
+
+    // Removes the row only if applying the delta would take the quantity to zero or below.
+    @Modifying
+    @Query(value = "DELETE FROM add_to_cart WHERE user_id = :userId AND food_id = :foodId AND quantity + :delta <= 0",
+           nativeQuery = true)
+    int deleteIfDepleted(@Param("userId") Long userId, @Param("foodId") Long foodId, @Param("delta") Integer delta);
+
+    // Carts nobody has touched since :cutoff, one bounded batch per call and per transaction
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM add_to_cart WHERE updated_at < :cutoff ORDER BY updated_at LIMIT :limit", nativeQuery = true)
+    int deleteIdleBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // Connection-scoped, so it must run in the same transaction as the statement that set it.
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Long lastInsertId();
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AvailabilitySchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AvailabilityScheduleRepository extends JpaRepository<AvailabilitySchedule, Long> {
+    List<AvailabilitySchedule> findByChefIdOrderByIdAsc(Long chefId);
+}
@@ -0,0 +1,66 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ChefOrderLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ChefOrderLineRepository extends JpaRepository<ChefOrderLine, Long> {
+    List<ChefOrderLine> findByOrderId(Long orderId);
+    long countByStatusIn(Collection<String> statuses);
+
+    // The chef's orders, most urgent first: an order is as urgent as its earliest due line. Cursor-backed
+    // for the streamed kitchen queue; callers must close the stream inside the transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FoodItemRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT l.orderId FROM ChefOrderLine l WHERE l.chefId = :chefId " +
+           "GROUP BY l.orderId ORDER BY MIN(l.dueAt), MIN(l.id)")
+    Stream<Long> streamOrderIdsByChefId(@Param("chefId") Long chefId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FoodItemRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT l.orderId FROM ChefOrderLine l WHERE l.chefId = :chefId AND l.status = :status " +
+           "GROUP BY l.orderId ORDER BY MIN(l.dueAt), MIN(l.id)")
+    Stream<Long> streamOrderIdsByChefIdAndStatus(@Param("chefId") Long chefId, @Param("status") String status);
+
+    // Orders the chef has in the kitchen: placed, confirmed or preparing
+    @Query("SELECT COUNT(DISTINCT l.orderId) FROM ChefOrderLine l WHERE l.chefId = :chefId " +
+           "AND l.status IN ('PLACED', 'CONFIRMED', 'PREPARING')")
+    long countActiveOrdersByChefId(@Param("chefId") Long chefId);
+
+    // Projects every item of one order onto its chef in a single statement; the order must already be flushed.
+    // An item is due once the upper end of its stated preparation time has passed, counted from the
+    // order's release for pre-orders.
+    @Modifying
+    @Query(value = "INSERT INTO chef_order_lines (chef_id, order_id, order_item_id, food_item_id, quantity, status, order_date, due_at) " +
+                   "SELECT f.user_id, o.id, oi.id, f.id, oi.quantity, o.status, o.order_date, " +
+                   "TIMESTAMPADD(MINUTE, COALESCE(f.prep_max_minutes, 0), COALESCE(o.release_at, o.order_date)) " +
+                   "FROM order_item oi JOIN orders o ON o.id = oi.order_id JOIN food_items f ON f.id = oi.food_item_id " +
+                   "WHERE o.id = :orderId",
+           nativeQuery = true)
+    int indexOrder(@Param("orderId") Long orderId);
+
+    // Same projection for orders placed before the index existed.
+    @Modifying
+    @Query(value = "INSERT INTO chef_order_lines (chef_id, order_id, order_item_id, food_item_id, quantity, status, order_date, due_at) " +
+                   "SELECT f.user_id, o.id, oi.id, f.id, oi.quantity, o.status, o.order_date, " +
+                   "TIMESTAMPADD(MINUTE, COALESCE(f.prep_max_minutes, 0), COALESCE(o.release_at, o.order_date)) " +
+                   "FROM order_item oi JOIN orders o ON o.id = oi.order_id JOIN food_items f ON f.id = oi.food_item_id " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM chef_order_lines l WHERE l.order_item_id = oi.id)",
+           nativeQuery = true)
+    int backfillMissingLines();
+
+    @Modifying
+    @Query("UPDATE ChefOrderLine l SET l.status = :status WHERE l.orderId = :orderId")
+    int updateStatusByOrderId(@Param("orderId") Long orderId, @Param("status") String status);
+
+    @Modifying
+    @Query("DELETE FROM ChefOrderLine l WHERE l.orderItemId IN :orderItemIds")
+    int deleteByOrderItemIds(@Param("orderItemIds") List<Long> orderItemIds);
+}
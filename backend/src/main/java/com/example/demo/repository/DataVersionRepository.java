@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DataVersionRepository extends JpaRepository<DataVersion, String> {
+
+    // Runs in the writing transaction, so the new version commits (or rolls back) with the data
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE data_version SET version = version + 1, changed_at = NOW(6) WHERE name = :name",
+           nativeQuery = true)
+    int bump(@Param("name") String name);
+
+    // name, version, and whether the last change is recent enough that a replica may not have it yet
+    @Query(value = "SELECT name, version, changed_at > NOW(6) - INTERVAL :lagSeconds SECOND FROM data_version " +
+                   "WHERE name IN (:names)",
+           nativeQuery = true)
+    List<Object[]> findVersions(@Param("names") Collection<String> names, @Param("lagSeconds") long lagSeconds);
+}
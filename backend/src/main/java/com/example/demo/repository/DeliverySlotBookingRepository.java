@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DeliverySlotBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DeliverySlotBookingRepository extends JpaRepository<DeliverySlotBooking, Long> {
+    List<DeliverySlotBooking> findBySlotIdInAndSlotDateBetween(Collection<Long> slotIds, LocalDate from, LocalDate to);
+
+    // Orders the slot can still take on the date; null when the slot no longer exists
+    @Query(value = "SELECT s.capacity - COALESCE(b.booked, 0) FROM delivery_slots s " +
+                   "LEFT JOIN delivery_slot_bookings b ON b.slot_id = s.id AND b.slot_date = :slotDate WHERE s.id = :slotId",
+           nativeQuery = true)
+    Integer findRemaining(@Param("slotId") Long slotId, @Param("slotDate") LocalDate slotDate);
+
+    // Makes sure the counter row exists before book() updates it; leaves an existing row as it is
+    @Modifying
+    @Query(value = "INSERT INTO delivery_slot_bookings (slot_id, slot_date, booked) VALUES (:slotId, :slotDate, 0) " +
+                   "ON DUPLICATE KEY UPDATE booked = booked",
+           nativeQuery = true)
+    int ensureRow(@Param("slotId") Long slotId, @Param("slotDate") LocalDate slotDate);
+
+    // Takes one place only while the slot is under its capacity. Returns 0 when it is full or was removed.
+    @Modifying
+    @Query(value = "UPDATE delivery_slot_bookings SET booked = booked + 1 " +
+                   "WHERE slot_id = :slotId AND slot_date = :slotDate " +
+                   "AND booked < (SELECT s.capacity FROM delivery_slots s WHERE s.id = :slotId)",
+           nativeQuery = true)
+    int book(@Param("slotId") Long slotId, @Param("slotDate") LocalDate slotDate);
+
+    @Modifying
+    @Query("UPDATE DeliverySlotBooking b SET b.booked = b.booked - 1 " +
+           "WHERE b.slotId = :slotId AND b.slotDate = :slotDate AND b.booked > 0")
+    int release(@Param("slotId") Long slotId, @Param("slotDate") LocalDate slotDate);
+}
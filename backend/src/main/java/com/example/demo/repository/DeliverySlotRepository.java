@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DeliverySlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DeliverySlotRepository extends JpaRepository<DeliverySlot, Long> {
+    List<DeliverySlot> findByChefIdOrderByDayOfWeekAscStartsAtAsc(Long chefId);
+}
@@ -1,7 +1,29 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.FoodFeed;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface FoodFeedRepository extends JpaRepository<FoodFeed, Long> {
-}
\ No newline at end of file
+
+    // Cursor over feed ids for streamed responses; each chunk of ids is then loaded with the two fetches below
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FoodItemRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT f.id FROM FoodFeed f ORDER BY f.id")
+    Stream<Long> streamIds();
+
+    @Query("SELECT DISTINCT f FROM FoodFeed f JOIN FETCH f.chef LEFT JOIN FETCH f.comments c LEFT JOIN FETCH c.user " +
+           "WHERE f.id IN :ids ORDER BY f.id")
+    List<FoodFeed> findWithChefAndCommentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Initializes the likes of feeds already in the persistence context; fetched separately to avoid a comments x likes product
+    @Query("SELECT DISTINCT f FROM FoodFeed f LEFT JOIN FETCH f.likes WHERE f.id IN :ids")
+    List<FoodFeed> findWithLikesByIdIn(@Param("ids") Collection<Long> ids);
+}
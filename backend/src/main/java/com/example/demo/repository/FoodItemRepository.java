@@ -1,29 +1,130 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.FoodItemDto;
 import com.example.demo.model.FoodItem;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
+    // Read paths project straight into FoodItemDto so no managed entities, snapshots or user proxies are created
+    String FOOD_DTO_SELECT = "SELECT new com.example.demo.dto.FoodItemDto(f.id, f.name, f.description, f.price, f.originalPrice, " +
+            "f.available, f.imagePath, f.preparationTime, f.discountPercentage, u.id, u.email, u.username, u.location, u.phoneNumber) " +
+            "FROM FoodItem f JOIN f.user u ";
+    // Rows per round trip for the streamed queries; MySQL only honours it with useCursorFetch=true on the URL
+    String STREAM_FETCH_SIZE = "500";
+
     List<FoodItem> findByAvailableTrue();
 
+    @Query("SELECT f.id, f.preparationTime FROM FoodItem f WHERE f.prepMaxMinutes IS NULL AND f.preparationTime <> ''")
+    List<Object[]> findUnparsedPreparationTimes();
+
+    @Modifying
+    @Query("UPDATE FoodItem f SET f.prepMinMinutes = :minMinutes, f.prepMaxMinutes = :maxMinutes WHERE f.id = :id")
+    int updatePrepMinutes(@Param("id") Long id, @Param("minMinutes") int minMinutes, @Param("maxMinutes") int maxMinutes);
+
+    // Longest stated preparation time among the items; null when none of them states one
+    @Query("SELECT MAX(f.prepMaxMinutes) FROM FoodItem f WHERE f.id IN :ids")
+    Integer findMaxPrepMinutes(@Param("ids") Collection<Long> ids);
+
+    // Daily stock, see CapacityService. stockRemaining is null for items without a daily stock.
+    @Query("SELECT f.stockRemaining FROM FoodItem f WHERE f.id = :id")
+    Integer findStockRemaining(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM FoodItem f WHERE f.id = :id")
+    FoodItem findByIdForUpdate(@Param("id") Long id);
+
+    // Read back after reserveStock in the same transaction, which sees its own update
+    @Query("SELECT f.soldOut FROM FoodItem f WHERE f.id = :id")
+    Boolean findSoldOut(@Param("id") Long id);
+
+    // Takes quantity units if that many are left, and marks the item sold out when they were the last
+    // ones. stock_remaining is assigned last so the CASE tests see the old value in MySQL too.
+    @Modifying
+    @Query(value = "UPDATE food_items SET " +
+                   "available = CASE WHEN stock_remaining <= :quantity THEN FALSE ELSE available END, " +
+                   "sold_out = CASE WHEN stock_remaining <= :quantity THEN TRUE ELSE sold_out END, " +
+                   "stock_remaining = stock_remaining - :quantity " +
+                   "WHERE id = :id AND available = TRUE AND stock_remaining >= :quantity",
+           nativeQuery = true)
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Puts units back, but only into the stock of the day they were taken from. A sold out item
+    // comes back unless its schedule has it closed; it then reopens with the schedule.
+    @Modifying
+    @Query(value = "UPDATE food_items SET " +
+                   "available = CASE WHEN sold_out = TRUE AND schedule_closed = FALSE THEN TRUE ELSE available END, " +
+                   "sold_out = FALSE, " +
+                   "stock_remaining = LEAST(stock_remaining + :quantity, daily_stock) " +
+                   "WHERE id = :id AND stock_remaining IS NOT NULL AND stock_date = :day",
+           nativeQuery = true)
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("day") LocalDate day);
+
+    // Refills every stocked item not yet refilled today; items that had sold out become available
+    // again, or when their schedule next opens
+    @Modifying
+    @Query(value = "UPDATE food_items SET " +
+                   "available = CASE WHEN sold_out = TRUE AND schedule_closed = FALSE THEN TRUE ELSE available END, " +
+                   "sold_out = FALSE, stock_remaining = daily_stock, stock_date = :today " +
+                   "WHERE daily_stock IS NOT NULL AND (stock_date IS NULL OR stock_date < :today)",
+           nativeQuery = true)
+    int restock(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query(value = "UPDATE food_items SET daily_stock = :dailyStock, stock_remaining = :stockRemaining, stock_date = :day, " +
+                   "sold_out = :soldOut, available = :available WHERE id = :id",
+           nativeQuery = true)
+    int updateStock(@Param("id") Long id, @Param("dailyStock") Integer dailyStock, @Param("stockRemaining") Integer stockRemaining,
+                    @Param("day") LocalDate day, @Param("soldOut") boolean soldOut, @Param("available") boolean available);
+
+    // Menu schedules, see MenuScheduleService: [food item id, chef id]
+    @Query("SELECT f.id, f.user.id FROM FoodItem f WHERE f.user.id IN :chefIds")
+    List<Object[]> findIdsByChefIds(@Param("chefIds") Collection<Long> chefIds);
+
+    // Closes items that are on or sold out; an item the chef switched off is left alone
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE food_items SET schedule_closed = TRUE, available = FALSE " +
+                   "WHERE id IN (:ids) AND schedule_closed = FALSE AND (available = TRUE OR sold_out = TRUE)",
+           nativeQuery = true)
+    int closeForSchedule(@Param("ids") Collection<Long> ids);
+
+    // Reopens only what closeForSchedule closed; a sold out item stays unavailable until restocked
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE food_items SET schedule_closed = FALSE, available = CASE WHEN sold_out = TRUE THEN FALSE ELSE TRUE END " +
+                   "WHERE id IN (:ids) AND schedule_closed = TRUE",
+           nativeQuery = true)
+    int openForSchedule(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT f FROM FoodItem f WHERE f.available = :available " +
            "AND (:name IS NULL OR LOWER(f.name) LIKE LOWER(CONCAT(:name, '%'))) " +
            "AND (:minPrice IS NULL OR f.price >= :minPrice) " +
            "AND (:maxPrice IS NULL OR f.price <= :maxPrice) " +
            "AND (:tags IS NULL OR EXISTS (SELECT 1 FROM f.tags t WHERE t IN :tags)) " +
-           "AND (:preparationTime IS NULL OR f.preparationTime = :preparationTime)")
+           "AND (:maxPrepMinutes IS NULL OR f.prepMaxMinutes <= :maxPrepMinutes)")
     List<FoodItem> findByAvailabilityAndFilters(
             @Param("available") Boolean available,
             @Param("name") String name,
             @Param("minPrice") Double minPrice,
             @Param("maxPrice") Double maxPrice,
             @Param("tags") Set<String> tags,
-            @Param("preparationTime") String preparationTime);
+            @Param("maxPrepMinutes") Integer maxPrepMinutes);
 
     List<FoodItem> findByTagsContaining(String tag);
 
@@ -38,7 +139,7 @@ public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
            "AND (:minPrice IS NULL OR f.price >= :minPrice) " +
            "AND (:maxPrice IS NULL OR f.price <= :maxPrice) " +
            "AND (:tags IS NULL OR EXISTS (SELECT 1 FROM f.tags t WHERE t IN :tags)) " +
-           "AND (:preparationTime IS NULL OR f.preparationTime = :preparationTime)")
+           "AND (:maxPrepMinutes IS NULL OR f.prepMaxMinutes <= :maxPrepMinutes)")
     List<FoodItem> findByUserIdAndFilters(
             @Param("userId") Long userId,
             @Param("available") Boolean available,
@@ -46,5 +147,93 @@ public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
             @Param("minPrice") Double minPrice,
             @Param("maxPrice") Double maxPrice,
             @Param("tags") Set<String> tags,
-            @Param("preparationTime") String preparationTime);
+            @Param("maxPrepMinutes") Integer maxPrepMinutes);
+
+    @Query(FOOD_DTO_SELECT + "WHERE f.available = :available " +
+           "AND (:name IS NULL OR LOWER(f.name) LIKE LOWER(CONCAT(:name, '%'))) " +
+           "AND (:minPrice IS NULL OR f.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR f.price <= :maxPrice) " +
+           "AND (:tags IS NULL OR EXISTS (SELECT 1 FROM f.tags t WHERE t IN :tags)) " +
+           "AND (:maxPrepMinutes IS NULL OR f.prepMaxMinutes <= :maxPrepMinutes)")
+    List<FoodItemDto> findDtosByAvailabilityAndFilters(
+            @Param("available") Boolean available,
+            @Param("name") String name,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("tags") Set<String> tags,
+            @Param("maxPrepMinutes") Integer maxPrepMinutes);
+
+    @Query(FOOD_DTO_SELECT + "WHERE u.id = :userId AND (:available IS NULL OR f.available = :available) " +
+           "AND (:name IS NULL OR LOWER(f.name) LIKE LOWER(CONCAT(:name, '%'))) " +
+           "AND (:minPrice IS NULL OR f.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR f.price <= :maxPrice) " +
+           "AND (:tags IS NULL OR EXISTS (SELECT 1 FROM f.tags t WHERE t IN :tags)) " +
+           "AND (:maxPrepMinutes IS NULL OR f.prepMaxMinutes <= :maxPrepMinutes)")
+    List<FoodItemDto> findDtosByUserIdAndFilters(
+            @Param("userId") Long userId,
+            @Param("available") Boolean available,
+            @Param("name") String name,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("tags") Set<String> tags,
+            @Param("maxPrepMinutes") Integer maxPrepMinutes);
+
+    @Query(FOOD_DTO_SELECT + "ORDER BY f.id")
+    List<FoodItemDto> findAllDtos();
+
+    @Query(FOOD_DTO_SELECT + "WHERE :tag MEMBER OF f.tags")
+    List<FoodItemDto> findDtosByTag(@Param("tag") String tag);
+
+    @Query(FOOD_DTO_SELECT + "ORDER BY f.price ASC")
+    List<FoodItemDto> findAllDtosOrderByPriceAsc();
+
+    @Query(FOOD_DTO_SELECT + "WHERE f.discountPercentage IS NOT NULL ORDER BY f.discountPercentage DESC")
+    List<FoodItemDto> findAllDtosOrderByDiscountPercentageDesc();
+
+    // Cursor-backed variants for streamed responses; callers must close the stream inside the transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(FOOD_DTO_SELECT + "WHERE f.available = :available " +
+           "AND (:name IS NULL OR LOWER(f.name) LIKE LOWER(CONCAT(:name, '%'))) " +
+           "AND (:minPrice IS NULL OR f.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR f.price <= :maxPrice) " +
+           "AND (:tags IS NULL OR EXISTS (SELECT 1 FROM f.tags t WHERE t IN :tags)) " +
+           "AND (:maxPrepMinutes IS NULL OR f.prepMaxMinutes <= :maxPrepMinutes)")
+    Stream<FoodItemDto> streamDtosByAvailabilityAndFilters(
+            @Param("available") Boolean available,
+            @Param("name") String name,
+            @Param("minPrice") Double minPrice,
+            @Param("maxPrice") Double maxPrice,
+            @Param("tags") Set<String> tags,
+            @Param("maxPrepMinutes") Integer maxPrepMinutes);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(FOOD_DTO_SELECT + "ORDER BY f.id")
+    Stream<FoodItemDto> streamAllDtos();
+
+    // Search index, see FoodSearchService: [id, name, description] and [id, tag] rows for every item
+    @Query("SELECT f.id, f.name, f.description FROM FoodItem f")
+    List<Object[]> findSearchFields();
+
+    @Query("SELECT f.id, t FROM FoodItem f JOIN f.tags t")
+    List<Object[]> findAllTags();
+
+    @Query("SELECT f.id FROM FoodItem f WHERE f.available = false")
+    List<Long> findUnavailableIds();
+
+    // Search index resync: the rows saved since a point in time, and every id to find deleted items
+    @Query("SELECT f.id, f.name, f.description FROM FoodItem f WHERE f.updatedAt >= :since")
+    List<Object[]> findSearchFieldsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT f.id, t FROM FoodItem f JOIN f.tags t WHERE f.updatedAt >= :since")
+    List<Object[]> findTagsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT f.id FROM FoodItem f")
+    List<Long> findAllIds();
+
+    @Query(FOOD_DTO_SELECT + "WHERE f.id IN :ids")
+    List<FoodItemDto> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    // Returns [foodItemId, tag] pairs so tags for a whole page of DTOs load in one query
+    @Query("SELECT f.id, t FROM FoodItem f JOIN f.tags t WHERE f.id IN :ids")
+    List<Object[]> findTagsByFoodItemIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
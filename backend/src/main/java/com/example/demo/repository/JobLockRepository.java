@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    // Creates the job's row, already expired, the first time the job runs anywhere
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO job_lock (name, locked_by, locked_at, locked_until) VALUES (:name, '', NOW(), NOW())",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    // Takes the lease only if nobody holds it. Returns 1 when acquired.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE job_lock SET locked_by = :owner, locked_at = NOW(), locked_until = NOW() + INTERVAL :seconds SECOND " +
+                   "WHERE name = :name AND locked_until <= NOW()",
+           nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("seconds") long seconds);
+
+    // Gives the lease back, but keeps it until at least :minSeconds after it was taken so the other
+    // instances do not rerun the job right after this one finished
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE job_lock SET locked_until = GREATEST(NOW(), locked_at + INTERVAL :minSeconds SECOND) " +
+                   "WHERE name = :name AND locked_by = :owner",
+           nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("minSeconds") long minSeconds);
+}
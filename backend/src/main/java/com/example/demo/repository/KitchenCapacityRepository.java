@@ -0,0 +1,44 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.KitchenCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface KitchenCapacityRepository extends JpaRepository<KitchenCapacity, Long> {
+
+    // Null when the chef has no limit
+    @Query("SELECT k.maxActiveOrders - k.activeOrders FROM KitchenCapacity k WHERE k.chefId = :chefId")
+    Integer findFreeSlots(@Param("chefId") Long chefId);
+
+    @Modifying
+    @Query(value = "INSERT INTO kitchen_capacity (chef_id, max_active_orders, active_orders) VALUES (:chefId, :maxActiveOrders, 0) " +
+                   "ON DUPLICATE KEY UPDATE max_active_orders = :maxActiveOrders",
+           nativeQuery = true)
+    int upsertLimit(@Param("chefId") Long chefId, @Param("maxActiveOrders") int maxActiveOrders);
+
+    // Takes a slot only while the chef is under the limit. Returns 0 when full or when there is no row.
+    @Modifying
+    @Query("UPDATE KitchenCapacity k SET k.activeOrders = k.activeOrders + 1 " +
+           "WHERE k.chefId = :chefId AND k.activeOrders < k.maxActiveOrders")
+    int reserveSlot(@Param("chefId") Long chefId);
+
+    // Takes a slot whatever the limit, for a pre-order that was accepted long before it reached the kitchen
+    @Modifying
+    @Query("UPDATE KitchenCapacity k SET k.activeOrders = k.activeOrders + 1 WHERE k.chefId = :chefId")
+    int takeSlot(@Param("chefId") Long chefId);
+
+    @Modifying
+    @Query("UPDATE KitchenCapacity k SET k.activeOrders = k.activeOrders - 1 WHERE k.chefId = :chefId AND k.activeOrders > 0")
+    int releaseSlot(@Param("chefId") Long chefId);
+
+    // Recounts from the chef queue index; used when a limit is set and at startup to repair drift.
+    // :chefId null recounts every chef with a limit.
+    @Modifying
+    @Query(value = "UPDATE kitchen_capacity SET active_orders = (SELECT COUNT(DISTINCT l.order_id) FROM chef_order_lines l " +
+                   "WHERE l.chef_id = kitchen_capacity.chef_id AND l.status IN ('PLACED', 'CONFIRMED', 'PREPARING')) " +
+                   "WHERE :chefId IS NULL OR chef_id = :chefId",
+           nativeQuery = true)
+    int recountActiveOrders(@Param("chefId") Long chefId);
+}
@@ -0,0 +1,104 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.OrderItemLine;
+import com.example.demo.dto.OrderResponse;
+import com.example.demo.model.ArchivedOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderArchiveRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // Move path: lock a batch of finished orders, copy them with their payment and items, then delete the hot rows.
+    // All of it must run in one transaction.
+    @Query(value = "SELECT id FROM orders WHERE status IN (:statuses) AND order_date < :cutoff ORDER BY id LIMIT :limit FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockArchivableIds(@Param("statuses") Collection<String> statuses, @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, user_id, status, order_date, delivery_location, delivery_phone, " +
+                   "delivery_coordinates, courier_id, assigned_at, status_changed_at, delivery_slot_id, scheduled_for, release_at, " +
+                   "payment_id, amount, payment_status, payment_method, transaction_id, payment_date, esewa_ref_id, failure_reason, archived_at) " +
+                   "SELECT o.id, o.user_id, o.status, o.order_date, o.delivery_location, o.delivery_phone, o.delivery_coordinates, o.courier_id, " +
+                   "o.assigned_at, o.status_changed_at, o.delivery_slot_id, o.scheduled_for, o.release_at, " +
+                   "p.id, p.amount, p.status, p.payment_method, p.transaction_id, p.payment_date, p.esewa_ref_id, p.failure_reason, NOW() " +
+                   "FROM orders o LEFT JOIN payment p ON p.order_id = o.id WHERE o.id IN (:ids)",
+           nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_item_archive (id, order_id, food_item_id, chef_id, quantity) " +
+                   "SELECT oi.id, oi.order_id, oi.food_item_id, f.user_id, oi.quantity " +
+                   "FROM order_item oi JOIN food_items f ON f.id = oi.food_item_id WHERE oi.order_id IN (:ids)",
+           nativeQuery = true)
+    int copyOrderItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM chef_order_lines WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteChefOrderLines(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM payment WHERE order_id IN (:ids)", nativeQuery = true)
+    int deletePayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_item WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteOrderItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteOrders(@Param("ids") Collection<Long> ids);
+
+    // Estimated row counts and on-disk size (data plus indexes) of the given tables, from InnoDB statistics
+    @Query(value = "SELECT table_name, table_rows, data_length + index_length FROM information_schema.tables " +
+                   "WHERE table_schema = DATABASE() AND table_name IN (:tables)",
+           nativeQuery = true)
+    List<Object[]> findTableStats(@Param("tables") Collection<String> tables);
+
+    // Read path, mirroring the id and projection queries in OrderRepository
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.userId = :userId ORDER BY a.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.userId = :userId AND a.status = :status ORDER BY a.id")
+    List<Long> findIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status);
+
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.status = :status ORDER BY a.id")
+    List<Long> findIdsByStatus(@Param("status") String status);
+
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.courierId = :courierId AND a.status = :status ORDER BY a.id")
+    List<Long> findIdsByCourierIdAndStatus(@Param("courierId") Long courierId, @Param("status") String status);
+
+    @Query("SELECT new com.example.demo.dto.OrderResponse(a.id, a.userId, a.status, a.orderDate, a.deliveryLocation, " +
+           "a.deliveryPhone, a.deliveryCoordinates, a.amount, a.paymentMethod, a.paymentStatus, a.transactionId) " +
+           "FROM ArchivedOrder a WHERE a.id IN :ids")
+    List<OrderResponse> findOrderResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    // Items whose food item has since been deleted drop out, as the join has nothing to project them from
+    @Query("SELECT new com.example.demo.dto.OrderItemLine(oi.orderId, oi.id, oi.quantity, f.id, f.name, f.description, " +
+           "f.price, f.originalPrice, f.available, f.imagePath, f.preparationTime, f.discountPercentage, " +
+           "u.id, u.email, u.username, u.location, u.phoneNumber) " +
+           "FROM ArchivedOrderItem oi JOIN FoodItem f ON f.id = oi.foodItemId JOIN f.user u " +
+           "WHERE oi.orderId IN :ids ORDER BY oi.id")
+    List<OrderItemLine> findItemLinesByOrderIds(@Param("ids") Collection<Long> ids);
+
+    // Ids of the archived orders holding a chef's items, newest first, read off (chef_id, order_id) through a
+    // cursor; callers must close the stream inside the transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FoodItemRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT DISTINCT oi.orderId FROM ArchivedOrderItem oi WHERE oi.chefId = :chefId ORDER BY oi.orderId DESC")
+    Stream<Long> streamChefOrderIds(@Param("chefId") Long chefId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FoodItemRepository.STREAM_FETCH_SIZE))
+    @Query("SELECT DISTINCT oi.orderId FROM ArchivedOrderItem oi JOIN ArchivedOrder a ON a.id = oi.orderId " +
+           "WHERE oi.chefId = :chefId AND a.status = :status ORDER BY oi.orderId DESC")
+    Stream<Long> streamChefOrderIdsByStatus(@Param("chefId") Long chefId, @Param("status") String status);
+}
@@ -1,11 +1,19 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.OrderItemLine;
+import com.example.demo.dto.OrderResponse;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,9 +27,87 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT oi FROM OrderItem oi WHERE oi.id = :orderItemId")
     Optional<OrderItem> findOrderItemById(@Param("orderItemId") Long orderItemId);
 
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi WHERE oi.foodItem.user.id = :chefId")
-    List<Order> findOrdersByFoodItemUserId(@Param("chefId") Long chefId);
+    @Query("SELECT DISTINCT oi.order.id FROM OrderItem oi WHERE oi.id IN :orderItemIds ORDER BY oi.order.id")
+    List<Long> findOrderIdsByItemIds(@Param("orderItemIds") Collection<Long> orderItemIds);
 
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi WHERE oi.foodItem.user.id = :chefId AND o.status = :status")
-    List<Order> findOrdersByFoodItemUserIdAndStatus(@Param("chefId") Long chefId, @Param("status") String status);
+    // Read paths below select ids first and then project headers and items, so no Order/OrderItem entities are loaded
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId ORDER BY o.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.status = :status ORDER BY o.id")
+    List<Long> findIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status ORDER BY o.id")
+    List<Long> findIdsByStatus(@Param("status") String status);
+
+    // READY orders nobody has claimed yet, plus those this courier already holds
+    @Query("SELECT o.id FROM Order o WHERE o.status = 'READY' AND (o.courier IS NULL OR o.courier.id = :courierId) ORDER BY o.id")
+    List<Long> findReadyIdsForCourier(@Param("courierId") Long courierId);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = 'READY' AND o.courier IS NULL ORDER BY o.id")
+    List<Long> findUnclaimedReadyIds();
+
+    // One row per unclaimed READY order and chef: id, delivery_coordinates, chef_id, the chef's profile coordinate
+    @Query(value = "SELECT o.id, o.delivery_coordinates, l.chef_id, p.coordinate FROM orders o " +
+                   "JOIN chef_order_lines l ON l.order_id = o.id " +
+                   "LEFT JOIN user_profiles p ON p.user_id = l.chef_id " +
+                   "WHERE o.status = 'READY' AND o.courier_id IS NULL " +
+                   "GROUP BY o.id, o.delivery_coordinates, l.chef_id, p.coordinate ORDER BY o.id",
+           nativeQuery = true)
+    List<Object[]> findUnclaimedReadyStops();
+
+    @Query("SELECT o.id FROM Order o WHERE o.courier.id = :courierId AND o.status = :status ORDER BY o.id")
+    List<Long> findIdsByCourierIdAndStatus(@Param("courierId") Long courierId, @Param("status") String status);
+
+    // Single conditional UPDATE, so when several couriers claim the same order exactly one gets 1 back
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE orders SET courier_id = :courierId, assigned_at = NOW(6) " +
+                   "WHERE id = :orderId AND status = 'READY' AND courier_id IS NULL",
+           nativeQuery = true)
+    int claimForCourier(@Param("orderId") Long orderId, @Param("courierId") Long courierId);
+
+    // Locking read: sees the latest committed row, not the transaction's REPEATABLE READ snapshot
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // Pre-orders whose release time has come, by id from a cursor so a run moves past the ones it already tried
+    @Query(value = "SELECT id FROM orders WHERE status = 'SCHEDULED' AND release_at <= :now AND id > :afterId " +
+                   "ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findDuePreOrderIds(@Param("now") LocalDateTime now, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Moves a pre-order to the kitchen only while it is still scheduled, so exactly one caller gets 1 back
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :status, o.releaseAt = :now WHERE o.id = :orderId AND o.status = 'SCHEDULED'")
+    int releaseScheduled(@Param("orderId") Long orderId, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    // Order items as placed, for TrendingService: [order item id, food item id, chef id, quantity, order date].
+    // Both walk the order_item primary key, forwards from a seen id or backwards from one.
+    String PLACED_ITEM_SELECT = "SELECT oi.id, oi.food_item_id, f.user_id, oi.quantity, o.order_date FROM order_item oi " +
+            "JOIN orders o ON o.id = oi.order_id JOIN food_items f ON f.id = oi.food_item_id ";
+
+    @Query(value = PLACED_ITEM_SELECT + "WHERE oi.id > :afterId ORDER BY oi.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findPlacedItemsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(value = PLACED_ITEM_SELECT + "WHERE oi.id < :beforeId ORDER BY oi.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findPlacedItemsBefore(@Param("beforeId") long beforeId, @Param("limit") int limit);
+
+    // [food item id, quantity] delivered among orders placed since the given time; walks idx_orders_status_order_date
+    @Query("SELECT oi.foodItem.id, SUM(oi.quantity) FROM OrderItem oi JOIN oi.order o " +
+           "WHERE o.status = 'DELIVERED' AND o.orderDate >= :since GROUP BY oi.foodItem.id")
+    List<Object[]> findDeliveredQuantitiesSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.example.demo.dto.OrderResponse(o.id, u.id, o.status, o.orderDate, o.statusChangedAt, o.releaseAt, " +
+           "o.scheduledFor, o.deliveryLocation, o.deliveryPhone, o.deliveryCoordinates, p.amount, p.paymentMethod, p.status, " +
+           "p.transactionId) " +
+           "FROM Order o JOIN o.user u LEFT JOIN o.payment p WHERE o.id IN :ids")
+    List<OrderResponse> findOrderResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.demo.dto.OrderItemLine(oi.order.id, oi.id, oi.quantity, f.id, f.name, f.description, " +
+           "f.price, f.originalPrice, f.available, f.imagePath, f.preparationTime, f.discountPercentage, " +
+           "u.id, u.email, u.username, u.location, u.phoneNumber) " +
+           "FROM OrderItem oi JOIN oi.foodItem f JOIN f.user u WHERE oi.order.id IN :ids ORDER BY oi.id")
+    List<OrderItemLine> findItemLinesByOrderIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+    // One row per order that reached READY since the given time: order id, placed, ready, picked up and delivered times
+    @Query(value = "SELECT h.order_id, " +
+                   "MIN(CASE WHEN h.status = 'PLACED' THEN h.changed_at END), " +
+                   "MIN(CASE WHEN h.status = 'READY' THEN h.changed_at END), " +
+                   "MIN(CASE WHEN h.status = 'PICKED_UP' THEN h.changed_at END), " +
+                   "MIN(CASE WHEN h.status = 'DELIVERED' THEN h.changed_at END) " +
+                   "FROM order_status_history h WHERE h.changed_at >= :since " +
+                   "GROUP BY h.order_id HAVING MIN(CASE WHEN h.status = 'READY' THEN h.changed_at END) IS NOT NULL ORDER BY 3",
+           nativeQuery = true)
+    List<Object[]> findTimelinesSince(@Param("since") LocalDateTime since);
+
+    // Order id, food item id and chef id of every item of the given orders, live or archived
+    @Query(value = "SELECT oi.order_id, oi.food_item_id, f.user_id FROM order_item oi " +
+                   "JOIN food_items f ON f.id = oi.food_item_id WHERE oi.order_id IN (:orderIds) " +
+                   "UNION ALL " +
+                   "SELECT a.order_id, a.food_item_id, a.chef_id FROM order_item_archive a WHERE a.order_id IN (:orderIds)",
+           nativeQuery = true)
+    List<Object[]> findItemChefs(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -2,10 +2,21 @@ package com.example.demo.repository;
 
 import com.example.demo.model.PendingUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PendingUserRepository extends JpaRepository<PendingUser, Long> {
     Optional<PendingUser> findByEmail(String email);
     void deleteByEmail(String email);
+
+    // Rows from before created_at existed have no timestamp and are treated as stale
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM pending_user WHERE created_at IS NULL OR created_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteStaleBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.example.demo.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.model.Otp;
 
@@ -10,6 +15,10 @@ public interface OtpRepository extends JpaRepository<Otp, Long>{
 	Optional<Otp> findByEmail(String email);
     Optional<Otp> findByEmailAndOtpCode(String email, String otpCode);
     void deleteByEmail(String email);
-	
 
+    // One bounded batch per call and per transaction, so a large backlog never holds locks for long
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM otp WHERE expires_at < :cutoff ORDER BY expires_at LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 }
@@ -1,15 +1,30 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.UserDto;
 import com.example.demo.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
 
 	Optional<User> findByEmail(String email);
 	List<User> findByRole(String role);
+
+	// User and profile columns in one row; profile fields are null when the user has no profile yet
+	@Query("SELECT new com.example.demo.dto.UserDto(u.id, u.email, u.username, u.location, u.phoneNumber, u.role, " +
+	       "p.profilePicture, p.coordinate, p.description) " +
+	       "FROM User u LEFT JOIN UserProfile p ON p.user = u WHERE u.role = :role ORDER BY u.id")
+	List<UserDto> findUserDtosByRole(@Param("role") String role);
+
+	@Query("SELECT new com.example.demo.dto.UserDto(u.id, u.email, u.username, u.location, u.phoneNumber, u.role, " +
+	       "p.profilePicture, p.coordinate, p.description) " +
+	       "FROM User u LEFT JOIN UserProfile p ON p.user = u WHERE u.id IN :ids")
+	List<UserDto> findUserDtosByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
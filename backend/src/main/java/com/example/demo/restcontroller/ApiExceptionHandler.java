@@ -0,0 +1,95 @@
+package com.example.demo.restcontroller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.service.WarmingUpException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
+
+import java.io.IOException;
+
+/**
+ * Maps exceptions escaping the controllers to the usual error envelope: validation failures
+ * (IllegalArgumentException, IllegalStateException and malformed requests) answer 400 with the
+ * exception message, a read model still loading after startup 503 with a Retry-After, file storage
+ * failures and anything else 500. Controllers only handle the cases that need another status, such
+ * as 404 or 409.
+ *
+ * A response that is already committed, such as a streamed list that failed midway, cannot get an
+ * error body any more; the exception is rethrown so the container aborts the connection instead.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    public ResponseEntity<ApiResponse<Void>> handleBadRequest(RuntimeException e, HttpServletRequest request,
+                                                              HttpServletResponse response) throws Exception {
+        logger.warn("Rejected {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return respond(HttpStatus.BAD_REQUEST, e.getMessage(), e, response);
+    }
+
+    @ExceptionHandler(WarmingUpException.class)
+    public ResponseEntity<ApiResponse<Void>> handleWarmingUp(WarmingUpException e, HttpServletRequest request,
+                                                             HttpServletResponse response) throws Exception {
+        logger.info("Unavailable while warming up {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+        return respond(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e, response, headers);
+    }
+
+    @ExceptionHandler({MissingServletRequestParameterException.class, MissingServletRequestPartException.class,
+            MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class})
+    public ResponseEntity<ApiResponse<Void>> handleMalformedRequest(Exception e, HttpServletRequest request,
+                                                                    HttpServletResponse response) throws Exception {
+        logger.warn("Malformed request {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+        return respond(HttpStatus.BAD_REQUEST, "Invalid request: " + e.getMessage(), e, response);
+    }
+
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIOException(IOException e, HttpServletRequest request,
+                                                               HttpServletResponse response) throws Exception {
+        logger.error("I/O error on {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage(), e);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to process file upload: " + e.getMessage(), e, response);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<Void>> handleUnexpected(Exception e, HttpServletRequest request,
+                                                              HttpServletResponse response) throws Exception {
+        if (e instanceof ErrorResponse errorResponse) {
+            // Framework exceptions (unknown route, wrong method or media type) keep their own status
+            logger.debug("{} {} answered {}: {}", request.getMethod(), request.getRequestURI(),
+                    errorResponse.getStatusCode(), e.getMessage());
+            return respond(errorResponse.getStatusCode(), errorResponse.getBody().getDetail(), e, response);
+        }
+        logger.error("Unexpected error on {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage(), e);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "Request failed: " + e.getMessage(), e, response);
+    }
+
+    private ResponseEntity<ApiResponse<Void>> respond(HttpStatusCode status, String message, Exception cause,
+                                                      HttpServletResponse response) throws Exception {
+        return respond(status, message, cause, response, HttpHeaders.EMPTY);
+    }
+
+    private ResponseEntity<ApiResponse<Void>> respond(HttpStatusCode status, String message, Exception cause,
+                                                      HttpServletResponse response, HttpHeaders headers) throws Exception {
+        if (response.isCommitted()) {
+            throw cause;
+        }
+        // Drop anything a streaming handler buffered before failing
+        response.resetBuffer();
+        return ResponseEntity.status(status).headers(headers).body(ApiResponse.error(message));
+    }
+}
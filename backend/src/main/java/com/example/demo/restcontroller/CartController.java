@@ -1,16 +1,16 @@
 package com.example.demo.restcontroller;
 
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.CartBatchRequest;
 import com.example.demo.dto.CartItemDto;
-import com.example.demo.model.AddToCart;
+import com.example.demo.dto.CartQuantityDto;
 import com.example.demo.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cart")
@@ -20,114 +20,56 @@ public class CartController {
     private CartService cartService;
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> addToCart(
+    public ResponseEntity<ApiResponse<CartItemDto>> addToCart(
             @RequestParam Long userId,
             @RequestParam Long foodId,
             @RequestParam(defaultValue = "1") Integer quantity) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            AddToCart cartItem = cartService.addToCart(userId, foodId, quantity);
-            CartItemDto cartItemDto = cartService.convertToDto(cartItem);
-            response.put("status", "success");
-            response.put("message", "Item added to cart successfully");
-            response.put("data", cartItemDto);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Failed to add item to cart: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        CartItemDto cartItemDto = cartService.addToCart(userId, foodId, quantity);
+        return ResponseEntity.ok(ApiResponse.success("Item added to cart successfully", cartItemDto));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<CartQuantityDto>>> applyCartDeltas(@RequestBody CartBatchRequest request) {
+        List<CartQuantityDto> quantities = cartService.applyCartDeltas(request.getUserId(), request.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Cart updated successfully", quantities));
     }
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getCartItems(@RequestParam Long userId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            List<CartItemDto> cartItems = cartService.getCartItemsByUser(userId);
-            if (cartItems.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No items found in cart");
-                response.put("data", cartItems);
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
-            response.put("status", "success");
-            response.put("message", "Cart items retrieved successfully");
-            response.put("data", cartItems);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Failed to retrieve cart items: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    public ResponseEntity<ApiResponse<List<CartItemDto>>> getCartItems(@RequestParam Long userId) {
+        List<CartItemDto> cartItems = cartService.getCartItemsByUser(userId);
+        if (cartItems.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No items found in cart", cartItems));
         }
+        return ResponseEntity.ok(ApiResponse.success("Cart items retrieved successfully", cartItems));
     }
 
     @PutMapping("/increase/{foodId}")
-    public ResponseEntity<Map<String, Object>> increaseQuantity(
+    public ResponseEntity<ApiResponse<CartItemDto>> increaseQuantity(
             @RequestParam Long userId,
             @PathVariable Long foodId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            CartItemDto updatedItem = cartService.increaseQuantity(userId, foodId);
-            response.put("status", "success");
-            response.put("message", "Quantity increased successfully");
-            response.put("data", updatedItem);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Failed to increase quantity: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        CartItemDto updatedItem = cartService.increaseQuantity(userId, foodId);
+        return ResponseEntity.ok(ApiResponse.success("Quantity increased successfully", updatedItem));
     }
 
     @PutMapping("/decrease/{foodId}")
-    public ResponseEntity<Map<String, Object>> decreaseQuantity(
+    public ResponseEntity<ApiResponse<CartItemDto>> decreaseQuantity(
             @RequestParam Long userId,
             @PathVariable Long foodId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            CartItemDto updatedItem = cartService.decreaseQuantity(userId, foodId);
-            response.put("status", "success");
-            response.put("message", "Quantity decreased successfully");
-            response.put("data", updatedItem);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Failed to decrease quantity: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        CartItemDto updatedItem = cartService.decreaseQuantity(userId, foodId);
+        return ResponseEntity.ok(ApiResponse.success("Quantity decreased successfully", updatedItem));
     }
 
     @DeleteMapping("/{foodId}")
-    public ResponseEntity<Map<String, Object>> deleteCartItem(
+    public ResponseEntity<ApiResponse<Void>> deleteCartItem(
             @RequestParam Long userId,
             @PathVariable Long foodId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            cartService.deleteCartItem(userId, foodId);
-            response.put("status", "success");
-            response.put("message", "Item deleted from cart successfully");
-            response.put("data", null); // No data needed for delete
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Failed to delete item from cart: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+        cartService.deleteCartItem(userId, foodId);
+        return ResponseEntity.ok(ApiResponse.success("Item deleted from cart successfully"));
     }
 
     @DeleteMapping
-    public ResponseEntity<Map<String, Object>> clearCart(@RequestParam Long userId) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            cartService.clearCart(userId);
-            response.put("status", "success");
-            response.put("message", "Cart cleared successfully");
-            response.put("data", null); // No data needed for clear
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Failed to clear cart: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+    public ResponseEntity<ApiResponse<Void>> clearCart(@RequestParam Long userId) {
+        cartService.clearCart(userId);
+        return ResponseEntity.ok(ApiResponse.success("Cart cleared successfully"));
     }
-}
\ No newline at end of file
+}
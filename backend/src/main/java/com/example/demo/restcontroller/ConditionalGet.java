@@ -0,0 +1,45 @@
+package com.example.demo.restcontroller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET for reads whose content is covered by an in-memory version, such as the catalog,
+ * feed and delivery versions. The check runs before any query: a matching If-None-Match answers 304
+ * straight away, anything else gets the strong ETag and the handler carries on. Public responses may
+ * be stored by shared caches but are always revalidated, so a write shows up on the next request.
+ */
+final class ConditionalGet {
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+    private static final String CACHE_CONTROL_PRIVATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Returns true if the 304 has been set and the handler should return without a body.
+     */
+    static boolean notModified(HttpServletRequest request, HttpServletResponse response, String version) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return new ServletWebRequest(request, response).checkNotModified(version);
+    }
+
+    /**
+     * Same for per-user reads, which only the user's own client may store.
+     */
+    static boolean notModifiedPrivate(HttpServletRequest request, HttpServletResponse response, String version) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_PRIVATE);
+        return new ServletWebRequest(request, response).checkNotModified(version);
+    }
+
+    /**
+     * Same for streamed lists, whose body differs between the enveloped and the NDJSON format.
+     */
+    static boolean notModifiedStream(HttpServletRequest request, HttpServletResponse response, String version) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return notModified(request, response, JsonStreamWriter.wantsNdjson(request) ? version + "-ndjson" : version);
+    }
+}
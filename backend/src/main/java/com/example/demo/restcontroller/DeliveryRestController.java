@@ -0,0 +1,73 @@
+package com.example.demo.restcontroller;
+
+import com.example.demo.config.QueryBudget;
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.CourierPosition;
+import com.example.demo.dto.DeliveryBatch;
+import com.example.demo.dto.LocationUpdateRequest;
+import com.example.demo.service.CourierBatchService;
+import com.example.demo.service.CourierLocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/delivery")
+public class DeliveryRestController {
+
+    @Autowired
+    private CourierLocationService courierLocationService;
+
+    @Autowired
+    private CourierBatchService courierBatchService;
+
+    // Only a courier's first ping reads the user row; the rest never touch the database
+    @QueryBudget(maxStatements = 1, maxRepeats = 1)
+    @PutMapping("/{deliveryId}/location")
+    public ResponseEntity<ApiResponse<CourierPosition>> updateLocation(
+            @PathVariable Long deliveryId,
+            @RequestBody LocationUpdateRequest request) {
+        CourierPosition latest = courierLocationService.updateLocation(deliveryId, request);
+        return ResponseEntity.ok(ApiResponse.success("Location updated successfully", latest));
+    }
+
+    // Answered from memory; customers tracking an order poll this every few seconds
+    @QueryBudget(maxStatements = 0)
+    @GetMapping("/{deliveryId}/location")
+    public ResponseEntity<ApiResponse<CourierPosition>> getLocation(@PathVariable Long deliveryId) {
+        CourierPosition latest = courierLocationService.getLocation(deliveryId);
+        if (latest == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("No location reported yet"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Location retrieved successfully", latest));
+    }
+
+    @QueryBudget(maxStatements = 0)
+    @GetMapping("/{deliveryId}/trail")
+    public ResponseEntity<ApiResponse<List<CourierPosition>>> getTrail(@PathVariable Long deliveryId) {
+        List<CourierPosition> trail = courierLocationService.getTrail(deliveryId);
+        return ResponseEntity.ok(ApiResponse.success("Trail retrieved successfully", trail));
+    }
+
+    // The role check, the delivery version and, at most once per version, the READY pool read
+    @QueryBudget(maxStatements = 3, maxRepeats = 1)
+    @GetMapping("/{deliveryId}/batches")
+    public ResponseEntity<ApiResponse<List<DeliveryBatch>>> getBatches(@PathVariable Long deliveryId) {
+        List<DeliveryBatch> batches = courierBatchService.getBatches(deliveryId);
+        return ResponseEntity.ok(ApiResponse.success("Delivery batches retrieved successfully", batches));
+    }
+
+    // The batch lookup, then one conditional UPDATE per order in each batch tried and the delivery version bump
+    @QueryBudget(maxStatements = 22, maxRepeats = 12)
+    @PostMapping("/{deliveryId}/batch")
+    public ResponseEntity<ApiResponse<DeliveryBatch>> claimBatch(@PathVariable Long deliveryId) {
+        DeliveryBatch batch = courierBatchService.claimBatch(deliveryId);
+        if (batch == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("No delivery batch available"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Delivery batch claimed successfully", batch));
+    }
+}
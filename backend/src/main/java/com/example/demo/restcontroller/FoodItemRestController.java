@@ -1,12 +1,21 @@
 package com.example.demo.restcontroller;
 
+import com.example.demo.config.QueryBudget;
+import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.FoodItemDto;
+import com.example.demo.dto.FoodSuggestion;
+import com.example.demo.dto.TrendingScore;
 import com.example.demo.dto.UserDto;
 import com.example.demo.model.FoodItem;
 import com.example.demo.model.User;
 import com.example.demo.service.FoodItemService;
+import com.example.demo.service.FoodSearchService;
+import com.example.demo.service.TrendingService;
 import com.example.demo.service.UserService;
 import com.example.demo.service.FileStorageService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.slf4j.Logger;
@@ -21,12 +30,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -39,6 +45,12 @@ public class FoodItemRestController {
     @Autowired
     private FoodItemService foodItemService;
 
+    @Autowired
+    private FoodSearchService foodSearchService;
+
+    @Autowired
+    private TrendingService trendingService;
+
     @Autowired
     private FileStorageService fileStorageService;
 
@@ -48,102 +60,68 @@ public class FoodItemRestController {
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/list")
-    public ResponseEntity<Map<String, Object>> getAvailableFoods(
+    @QueryBudget(maxStatements = 5, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> getAvailableFoods(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String tags,
-            @RequestParam(required = false) String preparationTime) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            Set<String> tagsSet = null;
-            if (tags != null && !tags.trim().isEmpty()) {
-                tagsSet = Arrays.stream(tags.split(","))
-                        .map(String::trim)
-                        .filter(tag -> !tag.isEmpty())
-                        .collect(Collectors.toCollection(HashSet::new));
-            }
-
-            List<FoodItem> foods = foodItemService.searchFoods(true, name, minPrice, maxPrice, tagsSet, preparationTime);
-
-            if (foods.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No available food items found");
-                response.put("data", new ArrayList<>());
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
+            @RequestParam(required = false) String preparationTime,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        if (ConditionalGet.notModified(request, response, foodItemService.getCatalogVersion())) {
+            return null;
+        }
+        Set<String> tagsSet = null;
+        if (tags != null && !tags.trim().isEmpty()) {
+            tagsSet = Arrays.stream(tags.split(","))
+                    .map(String::trim)
+                    .filter(tag -> !tag.isEmpty())
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
 
-            List<FoodItemDto> foodDtos = foods.stream()
-                    .map(food -> {
-                        FoodItemDto dto = new FoodItemDto();
-                        mapFoodToDto(food, dto);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-
-            response.put("status", "success");
-            response.put("message", "Food items retrieved successfully");
-            response.put("data", foodDtos);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error fetching available food items: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", "Failed to fetch food items: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        List<FoodItemDto> foodDtos = foodItemService.searchFoodDtos(true, name, minPrice, maxPrice, tagsSet, preparationTime);
+        if (foodDtos.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No available food items found", foodDtos));
         }
+        return ResponseEntity.ok(ApiResponse.success("Food items retrieved successfully", foodDtos));
     }
 
     @GetMapping("/list/by-user")
-    public ResponseEntity<Map<String, Object>> getFoodsByUserId(
+    @QueryBudget(maxStatements = 5, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> getFoodsByUserId(
             @RequestParam Long userId,
             @RequestParam(required = false) Boolean available,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String tags,
-            @RequestParam(required = false) String preparationTime) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            User user = userService.findById(userId);
-            if (user == null) {
-                logger.warn("User with id {} not found", userId);
-                response.put("status", "error");
-                response.put("message", "User not found");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-
-            Set<String> tagsSet = tags != null ? new HashSet<>(List.of(tags.split(","))) : null;
-            List<FoodItem> foods = foodItemService.searchFoodsByUserId(userId, available, name, minPrice, maxPrice, tagsSet, preparationTime);
-            if (foods.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No food items found for this user");
-                response.put("data", new ArrayList<>());
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
+            @RequestParam(required = false) String preparationTime,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        if (ConditionalGet.notModified(request, response, foodItemService.getCatalogVersion())) {
+            return null;
+        }
+        User user = userService.findById(userId);
+        if (user == null) {
+            logger.warn("User with id {} not found", userId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("User not found"));
+        }
 
-            List<FoodItemDto> foodDtos = foods.stream()
-                    .map(food -> {
-                        FoodItemDto dto = new FoodItemDto();
-                        mapFoodToDto(food, dto);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-
-            response.put("status", "success");
-            response.put("message", "Food items retrieved successfully");
-            response.put("data", foodDtos);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error fetching food items for user id {}: {}", userId, e.getMessage());
-            response.put("status", "error");
-            response.put("message", "Failed to fetch food items: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        Set<String> tagsSet = tags != null ? new HashSet<>(List.of(tags.split(","))) : null;
+        List<FoodItemDto> foodDtos = foodItemService.searchFoodDtosByUserId(userId, available, name, minPrice, maxPrice, tagsSet, preparationTime);
+        if (foodDtos.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No food items found for this user", foodDtos));
         }
+        return ResponseEntity.ok(ApiResponse.success("Food items retrieved successfully", foodDtos));
     }
 
     @PostMapping(value = "/add", consumes = {"multipart/form-data"})
-    public ResponseEntity<Map<String, Object>> addFood(
+    public ResponseEntity<ApiResponse<FoodItemDto>> addFood(
             @RequestParam(value = "name") String name,
             @RequestParam(value = "description", required = false) String description,
             @RequestParam(value = "price", required = false) String price,
@@ -153,8 +131,7 @@ public class FoodItemRestController {
             @RequestParam(value = "tags", required = false) String tags,
             @RequestParam(value = "discountPercentage", required = false) String discountPercentage,
             @RequestPart(value = "image", required = false) MultipartFile image,
-            @RequestParam(value = "userId") Long userId) {
-        Map<String, Object> response = new HashMap<>();
+            @RequestParam(value = "userId") Long userId) throws IOException {
         logger.info("Received add food request: name={}, description={}, price={}, originalPrice={}, available={}, " +
                 "preparationTime={}, tags={}, discountPercentage={}, image={}, userId={}",
                 name, description, price, originalPrice, available, preparationTime, tags, discountPercentage,
@@ -163,9 +140,7 @@ public class FoodItemRestController {
         User user = userService.findById(userId);
         if (user == null) {
             logger.warn("User with id {} not found", userId);
-            response.put("status", "error");
-            response.put("message", "User not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("User not found"));
         }
 
         FoodItem foodItem = new FoodItem();
@@ -192,48 +167,26 @@ public class FoodItemRestController {
                     .map(v -> v.getPropertyPath() + ": " + v.getMessage())
                     .reduce((a, b) -> a + "; " + b).orElse("Validation failed");
             logger.warn("Validation errors: {}", violations);
-            response.put("status", "error");
-            response.put("message", errorMessage);
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error(errorMessage));
         }
 
-        try {
-            String imagePath = "";
-            if (image != null && !image.isEmpty()) {
-                imagePath = fileStorageService.storeFile(image);
-                logger.info("Image successfully saved with path: {}", imagePath);
-            } else {
-                logger.warn("No valid image provided for upload");
-            }
-            foodItem.setImagePath(imagePath);
-            FoodItem savedFood = foodItemService.saveFood(foodItem);
-
-            FoodItemDto responseDto = new FoodItemDto();
-            mapFoodToDto(savedFood, responseDto);
-            response.put("status", "success");
-            response.put("message", "Food item added successfully");
-            response.put("data", responseDto);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid input during image upload: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
-        } catch (IOException e) {
-            logger.error("IO error during image upload: {}", e.getMessage(), e);
-            response.put("status", "error");
-            response.put("message", "Failed to upload image: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        } catch (Exception e) {
-            logger.error("Error adding food item: {}", e.getMessage(), e);
-            response.put("status", "error");
-            response.put("message", "Failed to add food item: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        String imagePath = "";
+        if (image != null && !image.isEmpty()) {
+            imagePath = fileStorageService.storeFile(image);
+            logger.info("Image successfully saved with path: {}", imagePath);
+        } else {
+            logger.warn("No valid image provided for upload");
         }
+        foodItem.setImagePath(imagePath);
+        FoodItem savedFood = foodItemService.saveFood(foodItem);
+
+        FoodItemDto responseDto = new FoodItemDto();
+        mapFoodToDto(savedFood, responseDto);
+        return ResponseEntity.ok(ApiResponse.success("Food item added successfully", responseDto));
     }
 
     @PatchMapping(value = "/update/{id}", consumes = {"multipart/form-data"})
-    public ResponseEntity<Map<String, Object>> updateFood(
+    public ResponseEntity<ApiResponse<FoodItemDto>> updateFood(
             @PathVariable Long id,
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "description", required = false) String description,
@@ -244,8 +197,7 @@ public class FoodItemRestController {
             @RequestParam(value = "tags", required = false) String tags,
             @RequestParam(value = "discountPercentage", required = false) String discountPercentage,
             @RequestPart(value = "image", required = false) MultipartFile image,
-            @RequestParam(value = "userId", required = false) Long userId) {
-        Map<String, Object> response = new HashMap<>();
+            @RequestParam(value = "userId", required = false) Long userId) throws IOException {
         logger.info("Received update food request for id {}: name={}, description={}, price={}, originalPrice={}, available={}, " +
                 "preparationTime={}, tags={}, discountPercentage={}, image={}, userId={}",
                 id, name, description, price, originalPrice, available, preparationTime, tags, discountPercentage,
@@ -254,9 +206,7 @@ public class FoodItemRestController {
         FoodItem existingFood = foodItemService.findById(id);
         if (existingFood == null) {
             logger.warn("Food item with id {} not found", id);
-            response.put("status", "error");
-            response.put("message", "Food item not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Food item not found"));
         }
 
         if (name != null) existingFood.setName(name);
@@ -276,9 +226,7 @@ public class FoodItemRestController {
             User user = userService.findById(userId);
             if (user == null) {
                 logger.warn("User with id {} not found", userId);
-                response.put("status", "error");
-                response.put("message", "User not found");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("User not found"));
             }
             existingFood.setUser(user);
         }
@@ -289,234 +237,165 @@ public class FoodItemRestController {
                     .map(v -> v.getPropertyPath() + ": " + v.getMessage())
                     .reduce((a, b) -> a + "; " + b).orElse("Validation failed");
             logger.warn("Validation errors: {}", violations);
-            response.put("status", "error");
-            response.put("message", errorMessage);
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error(errorMessage));
         }
 
-        try {
-            String newImagePath = existingFood.getImagePath() != null ? existingFood.getImagePath() : "";
-            if (image != null && !image.isEmpty()) {
-                if (existingFood.getImagePath() != null) {
-                    Path oldImagePath = Paths.get("uploads/images/" + existingFood.getImagePath().replace("/images/", ""));
-                    try {
-                        Files.deleteIfExists(oldImagePath);
-                        logger.info("Old image deleted: {}", existingFood.getImagePath());
-                    } catch (IOException e) {
-                        logger.warn("Failed to delete old image: {}", e.getMessage(), e);
-                    }
+        String newImagePath = existingFood.getImagePath() != null ? existingFood.getImagePath() : "";
+        if (image != null && !image.isEmpty()) {
+            if (existingFood.getImagePath() != null) {
+                Path oldImagePath = Paths.get("uploads/images/" + existingFood.getImagePath().replace("/images/", ""));
+                try {
+                    Files.deleteIfExists(oldImagePath);
+                    logger.info("Old image deleted: {}", existingFood.getImagePath());
+                } catch (IOException e) {
+                    logger.warn("Failed to delete old image: {}", e.getMessage(), e);
                 }
-                newImagePath = fileStorageService.storeFile(image);
-                logger.info("New image saved with path: {}", newImagePath);
-            } else {
-                logger.info("No new image provided for update");
             }
-            existingFood.setImagePath(newImagePath);
-            FoodItem updatedFood = foodItemService.saveFood(existingFood);
-
-            FoodItemDto responseDto = new FoodItemDto();
-            mapFoodToDto(updatedFood, responseDto);
-            response.put("status", "success");
-            response.put("message", "Food item updated successfully");
-            response.put("data", responseDto);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Invalid input during image upload: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", e.getMessage());
-            return ResponseEntity.badRequest().body(response);
-        } catch (IOException e) {
-            logger.error("IO error during image upload: {}", e.getMessage(), e);
-            response.put("status", "error");
-            response.put("message", "Failed to upload image: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        } catch (Exception e) {
-            logger.error("Error updating food item: {}", e.getMessage(), e);
-            response.put("status", "error");
-            response.put("message", "Failed to update food item: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            newImagePath = fileStorageService.storeFile(image);
+            logger.info("New image saved with path: {}", newImagePath);
+        } else {
+            logger.info("No new image provided for update");
         }
+        existingFood.setImagePath(newImagePath);
+        FoodItem updatedFood = foodItemService.saveFood(existingFood);
+
+        FoodItemDto responseDto = new FoodItemDto();
+        mapFoodToDto(updatedFood, responseDto);
+        return ResponseEntity.ok(ApiResponse.success("Food item updated successfully", responseDto));
     }
 
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<Map<String, Object>> deleteFood(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<Void>> deleteFood(@PathVariable Long id) {
         logger.info("Received delete food request for id {}", id);
 
         FoodItem existingFood = foodItemService.findById(id);
         if (existingFood == null) {
             logger.warn("Food item with id {} not found", id);
-            response.put("status", "error");
-            response.put("message", "Food item not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Food item not found"));
         }
 
-        try {
-            if (existingFood.getImagePath() != null) {
-                Path imagePath = Paths.get("uploads/images/" + existingFood.getImagePath().replace("/images/", ""));
-                try {
-                    Files.deleteIfExists(imagePath);
-                    logger.info("Image deleted: {}", existingFood.getImagePath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete image: {}", e.getMessage(), e);
-                }
+        if (existingFood.getImagePath() != null) {
+            Path imagePath = Paths.get("uploads/images/" + existingFood.getImagePath().replace("/images/", ""));
+            try {
+                Files.deleteIfExists(imagePath);
+                logger.info("Image deleted: {}", existingFood.getImagePath());
+            } catch (IOException e) {
+                logger.warn("Failed to delete image: {}", e.getMessage(), e);
             }
-            foodItemService.deleteById(id);
-            logger.info("Food item with id {} deleted", id);
-            response.put("status", "success");
-            response.put("message", "Food item deleted successfully");
-            response.put("data", null);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error deleting food item: {}", e.getMessage(), e);
-            response.put("status", "error");
-            response.put("message", "Failed to delete food item: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
+        foodItemService.deleteById(id);
+        logger.info("Food item with id {} deleted", id);
+        return ResponseEntity.ok(ApiResponse.success("Food item deleted successfully"));
     }
 
+    // Streamed straight from a database cursor; send Accept: application/x-ndjson for one item per line
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchFoods(
+    @QueryBudget(maxStatements = 5, maxRepeats = 1, maxStatementsPerChunk = 1)
+    public void searchFoods(
             @RequestParam(required = false) Boolean available,
             @RequestParam(required = false) String startsWith,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) String tags,
-            @RequestParam(required = false) String preparationTime) {
-        Map<String, Object> response = new HashMap<>();
+            @RequestParam(required = false) String preparationTime,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         logger.info("Received search request: available={}, startsWith={}, minPrice={}, maxPrice={}, tags={}, preparationTime={}",
                 available, startsWith, minPrice, maxPrice, tags, preparationTime);
+        if (ConditionalGet.notModifiedStream(request, response, foodItemService.getCatalogVersion())) {
+            return;
+        }
 
-        try {
-            Set<String> tagsSet = tags != null ? new HashSet<>(List.of(tags.split(","))) : null;
-            List<FoodItem> foods;
-            if (available == null && startsWith == null && minPrice == null && maxPrice == null && tags == null && preparationTime == null) {
-                foods = foodItemService.getAllFoods();
-            } else {
-                foods = foodItemService.searchFoods(available, startsWith, minPrice, maxPrice, tagsSet, preparationTime);
-            }
-            if (foods.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No food items found");
-                response.put("data", new ArrayList<>());
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
+        JsonStreamWriter<FoodItemDto> writer = new JsonStreamWriter<>(objectMapper, request, response, "Food items retrieved successfully");
+        Set<String> tagsSet = tags != null ? new HashSet<>(List.of(tags.split(","))) : null;
+        if (available == null && startsWith == null && minPrice == null && maxPrice == null && tags == null && preparationTime == null) {
+            foodItemService.streamAllFoodDtos(writer);
+        } else {
+            foodItemService.streamFoodDtos(available, startsWith, minPrice, maxPrice, tagsSet, preparationTime, writer);
+        }
+        writer.finish();
+    }
 
-            List<FoodItemDto> foodDtos = foods.stream()
-                    .map(food -> {
-                        FoodItemDto dto = new FoodItemDto();
-                        mapFoodToDto(food, dto);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-
-            response.put("status", "success");
-            response.put("message", "Food items retrieved successfully");
-            response.put("data", foodDtos);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error searching food items: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", "Failed to search food items: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    // Autocomplete from the in-memory search index; reads the menu version, and the unavailable ids at most once per version
+    @GetMapping("/suggest")
+    @QueryBudget(maxStatements = 2, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodSuggestion>>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved successfully", foodSearchService.suggest(q, limit)));
+    }
+
+    // Full items for a free-text query, ranked by the search index; misspelt words still match
+    @GetMapping("/find")
+    @QueryBudget(maxStatements = 5, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> findByText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<FoodItemDto> foodDtos = foodItemService.findDtosByText(q, limit);
+        if (foodDtos.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No food items match: " + q, foodDtos));
         }
+        return ResponseEntity.ok(ApiResponse.success("Food items retrieved successfully", foodDtos));
     }
 
-    @GetMapping("/tag")
-    public ResponseEntity<Map<String, Object>> findByTag(
-            @RequestParam String tag) {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            List<FoodItem> foods = foodItemService.findByTag(tag);
-            if (foods.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No food items found with tag: " + tag);
-                response.put("data", new ArrayList<>());
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
+    // Ranked from in-memory order counters; window is one of trending.windows
+    @GetMapping("/trending")
+    @QueryBudget(maxStatements = 2, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> getTrending(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("Trending food items retrieved successfully",
+                foodItemService.getTrendingDtos(window, limit)));
+    }
 
-            List<FoodItemDto> foodDtos = foods.stream()
-                    .map(food -> {
-                        FoodItemDto dto = new FoodItemDto();
-                        mapFoodToDto(food, dto);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-
-            response.put("status", "success");
-            response.put("message", "Food items retrieved successfully");
-            response.put("data", foodDtos);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error fetching food items by tag: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", "Failed to fetch food items by tag: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    @GetMapping("/trending/chefs")
+    @QueryBudget(maxStatements = 0)
+    public ResponseEntity<ApiResponse<List<TrendingScore>>> getTrendingChefs(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success("Trending chefs retrieved successfully", trendingService.topChefs(window, limit)));
+    }
+
+    @GetMapping("/tag")
+    @QueryBudget(maxStatements = 5, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> findByTag(
+            @RequestParam String tag,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        if (ConditionalGet.notModified(request, response, foodItemService.getCatalogVersion())) {
+            return null;
         }
+        List<FoodItemDto> foodDtos = foodItemService.findDtosByTag(tag);
+        if (foodDtos.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No food items found with tag: " + tag, foodDtos));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Food items retrieved successfully", foodDtos));
     }
 
     @GetMapping("/sort/price")
-    public ResponseEntity<Map<String, Object>> getAllByPriceAsc() {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            List<FoodItem> foods = foodItemService.getAllByPriceAsc();
-            if (foods.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No food items found");
-                response.put("data", new ArrayList<>());
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
-
-            List<FoodItemDto> foodDtos = foods.stream()
-                    .map(food -> {
-                        FoodItemDto dto = new FoodItemDto();
-                        mapFoodToDto(food, dto);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-
-            response.put("status", "success");
-            response.put("message", "Food items retrieved successfully");
-            response.put("data", foodDtos);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error sorting food items by price: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", "Failed to sort food items by price: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    @QueryBudget(maxStatements = 5, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> getAllByPriceAsc(HttpServletRequest request, HttpServletResponse response) {
+        if (ConditionalGet.notModified(request, response, foodItemService.getCatalogVersion())) {
+            return null;
         }
+        List<FoodItemDto> foodDtos = foodItemService.getAllDtosByPriceAsc();
+        if (foodDtos.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No food items found", foodDtos));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Food items retrieved successfully", foodDtos));
     }
 
     @GetMapping("/sort/discount")
-    public ResponseEntity<Map<String, Object>> getAllByDiscountPercentageDesc() {
-        Map<String, Object> response = new HashMap<>();
-        try {
-            List<FoodItem> foods = foodItemService.getAllByDiscountPercentageDesc();
-            if (foods.isEmpty()) {
-                response.put("status", "success");
-                response.put("message", "No food items found");
-                response.put("data", new ArrayList<>());
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
-            }
-
-            List<FoodItemDto> foodDtos = foods.stream()
-                    .map(food -> {
-                        FoodItemDto dto = new FoodItemDto();
-                        mapFoodToDto(food, dto);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
-
-            response.put("status", "success");
-            response.put("message", "Food items retrieved successfully");
-            response.put("data", foodDtos);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Error sorting food items by discount: {}", e.getMessage());
-            response.put("status", "error");
-            response.put("message", "Failed to sort food items by discount: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    @QueryBudget(maxStatements = 5, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<FoodItemDto>>> getAllByDiscountPercentageDesc(HttpServletRequest request, HttpServletResponse response) {
+        if (ConditionalGet.notModified(request, response, foodItemService.getCatalogVersion())) {
+            return null;
+        }
+        List<FoodItemDto> foodDtos = foodItemService.getAllDtosByDiscountPercentageDesc();
+        if (foodDtos.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No food items found", foodDtos));
         }
+        return ResponseEntity.ok(ApiResponse.success("Food items retrieved successfully", foodDtos));
     }
 
     // Helper methods
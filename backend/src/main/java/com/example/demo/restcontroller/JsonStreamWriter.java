@@ -0,0 +1,109 @@
+package com.example.demo.restcontroller;
+
+import com.example.demo.config.QueryStats;
+import com.example.demo.dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes a list response straight to the servlet output as chunks arrive from a database cursor,
+ * instead of building the whole list and letting Jackson buffer it. By default the output keeps the
+ * usual {"status","message","data":[...]} envelope; clients sending Accept: application/x-ndjson get
+ * one JSON document per line and no envelope.
+ *
+ * Nothing is written until the first non-empty chunk, so an empty result still answers 204 and a
+ * failure before that point still gets the normal error body from {@link ApiExceptionHandler}. A
+ * failure after that point aborts the response instead of closing the JSON, so clients never mistake
+ * a truncated list for a complete one.
+ *
+ * Every chunk is reported to {@link QueryStats}, so the endpoint's query budget can be sized per chunk.
+ */
+final class JsonStreamWriter<T> implements Consumer<List<T>> {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+    private final HttpServletResponse response;
+    private final boolean ndjson;
+    private final String message;
+    private JsonGenerator generator;
+
+    JsonStreamWriter(ObjectMapper objectMapper, HttpServletRequest request, HttpServletResponse response, String message) {
+        this.objectMapper = objectMapper;
+        // Flushing per element would turn every row into its own socket write; flush per chunk instead
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+        this.message = message;
+        this.ndjson = wantsNdjson(request);
+    }
+
+    static boolean wantsNdjson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    @Override
+    public void accept(List<T> chunk) {
+        // The next chunk's queries repeat this one's, see QueryBudget.maxStatementsPerChunk
+        QueryStats.recordChunk();
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            if (generator == null) {
+                start();
+            }
+            for (T element : chunk) {
+                elementWriter.writeValue(generator, element);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the list, or answers 204 if no element was ever written.
+     */
+    void finish() throws IOException {
+        if (generator == null) {
+            response.setStatus(HttpStatus.NO_CONTENT.value());
+            return;
+        }
+        if (!ndjson) {
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.close();
+    }
+
+    private void start() throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        if (ndjson) {
+            // Elements are separated by the newline written after each one, not Jackson's root separator
+            generator.setRootValueSeparator(null);
+        } else {
+            generator.writeStartObject();
+            generator.writeStringField("status", ApiResponse.SUCCESS);
+            generator.writeStringField("message", message);
+            generator.writeArrayFieldStart("data");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.restcontroller;
+
+import com.example.demo.config.QueryBudget;
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.AvailabilityScheduleRequest;
+import com.example.demo.dto.DailyStockRequest;
+import com.example.demo.dto.DeliverySlotRequest;
+import com.example.demo.dto.KitchenCapacityRequest;
+import com.example.demo.dto.KitchenLoad;
+import com.example.demo.dto.SlotAvailability;
+import com.example.demo.dto.StockLevel;
+import com.example.demo.model.AvailabilitySchedule;
+import com.example.demo.model.DeliverySlot;
+import com.example.demo.service.CapacityService;
+import com.example.demo.service.DeliverySlotService;
+import com.example.demo.service.MenuScheduleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenRestController {
+    private static final Logger logger = LoggerFactory.getLogger(KitchenRestController.class);
+
+    @Autowired
+    private CapacityService capacityService;
+
+    @Autowired
+    private MenuScheduleService menuScheduleService;
+
+    @Autowired
+    private DeliverySlotService deliverySlotService;
+
+    @QueryBudget(maxStatements = 3, maxRepeats = 1)
+    @GetMapping("/{chefId}/capacity")
+    public ResponseEntity<ApiResponse<KitchenLoad>> getCapacity(@PathVariable Long chefId) {
+        KitchenLoad load = capacityService.getKitchenLoad(chefId);
+        return ResponseEntity.ok(ApiResponse.success("Kitchen capacity retrieved successfully", load));
+    }
+
+    @QueryBudget(maxStatements = 6, maxRepeats = 1)
+    @PutMapping("/{chefId}/capacity")
+    public ResponseEntity<ApiResponse<KitchenLoad>> setCapacity(
+            @PathVariable Long chefId,
+            @RequestBody KitchenCapacityRequest request) {
+        logger.info("Received request to set kitchen capacity of chefId={} to {}", chefId, request.getMaxActiveOrders());
+        KitchenLoad load = capacityService.setKitchenCapacity(chefId, request.getMaxActiveOrders());
+        return ResponseEntity.ok(ApiResponse.success("Kitchen capacity updated successfully", load));
+    }
+
+    @QueryBudget(maxStatements = 4, maxRepeats = 1)
+    @PutMapping("/{chefId}/stock/{foodItemId}")
+    public ResponseEntity<ApiResponse<StockLevel>> setDailyStock(
+            @PathVariable Long chefId,
+            @PathVariable Long foodItemId,
+            @RequestBody DailyStockRequest request) {
+        logger.info("Received request to set daily stock of foodItemId={} to {} by chefId={}", foodItemId, request.getDailyStock(), chefId);
+        StockLevel level = capacityService.setDailyStock(chefId, foodItemId, request.getDailyStock());
+        return ResponseEntity.ok(ApiResponse.success("Daily stock updated successfully", level));
+    }
+
+    @QueryBudget(maxStatements = 2, maxRepeats = 1)
+    @GetMapping("/{chefId}/schedule")
+    public ResponseEntity<ApiResponse<List<AvailabilitySchedule>>> getSchedule(@PathVariable Long chefId) {
+        List<AvailabilitySchedule> rules = menuScheduleService.getSchedule(chefId);
+        return ResponseEntity.ok(ApiResponse.success("Menu schedule retrieved successfully", rules));
+    }
+
+    @PostMapping("/{chefId}/schedule")
+    public ResponseEntity<ApiResponse<AvailabilitySchedule>> addScheduleRule(
+            @PathVariable Long chefId,
+            @RequestBody AvailabilityScheduleRequest request) {
+        logger.info("Received request to add a menu schedule rule for chefId={}: foodItemId={}, dayOfWeek={}, opensAt={}, closesAt={}, closedOn={}",
+                chefId, request.getFoodItemId(), request.getDayOfWeek(), request.getOpensAt(), request.getClosesAt(), request.getClosedOn());
+        AvailabilitySchedule rule = menuScheduleService.addRule(chefId, request);
+        return ResponseEntity.ok(ApiResponse.success("Menu schedule rule added successfully", rule));
+    }
+
+    @DeleteMapping("/{chefId}/schedule/{ruleId}")
+    public ResponseEntity<ApiResponse<Void>> removeScheduleRule(@PathVariable Long chefId, @PathVariable Long ruleId) {
+        logger.info("Received request to remove menu schedule rule {} of chefId={}", ruleId, chefId);
+        if (!menuScheduleService.removeRule(chefId, ruleId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Schedule rule not found"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Menu schedule rule removed successfully"));
+    }
+
+    @QueryBudget(maxStatements = 2, maxRepeats = 1)
+    @GetMapping("/{chefId}/slots")
+    public ResponseEntity<ApiResponse<List<DeliverySlot>>> getDeliverySlots(@PathVariable Long chefId) {
+        List<DeliverySlot> slots = deliverySlotService.getSlots(chefId);
+        return ResponseEntity.ok(ApiResponse.success("Delivery slots retrieved successfully", slots));
+    }
+
+    // Seven days of bookable slots from the given date; the grid is cached, so this is one query for the counters
+    @QueryBudget(maxStatements = 3, maxRepeats = 1)
+    @GetMapping("/{chefId}/slots/week")
+    public ResponseEntity<ApiResponse<List<SlotAvailability>>> getSlotWeek(
+            @PathVariable Long chefId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        List<SlotAvailability> week = deliverySlotService.getWeek(chefId, from);
+        return ResponseEntity.ok(ApiResponse.success("Delivery slot availability retrieved successfully", week));
+    }
+
+    @PostMapping("/{chefId}/slots")
+    public ResponseEntity<ApiResponse<DeliverySlot>> addDeliverySlot(
+            @PathVariable Long chefId,
+            @RequestBody DeliverySlotRequest request) {
+        logger.info("Received request to add a delivery slot for chefId={}: dayOfWeek={}, startsAt={}, endsAt={}, capacity={}",
+                chefId, request.getDayOfWeek(), request.getStartsAt(), request.getEndsAt(), request.getCapacity());
+        DeliverySlot slot = deliverySlotService.addSlot(chefId, request);
+        return ResponseEntity.ok(ApiResponse.success("Delivery slot added successfully", slot));
+    }
+
+    @DeleteMapping("/{chefId}/slots/{slotId}")
+    public ResponseEntity<ApiResponse<Void>> removeDeliverySlot(@PathVariable Long chefId, @PathVariable Long slotId) {
+        logger.info("Received request to remove delivery slot {} of chefId={}", slotId, chefId);
+        if (!deliverySlotService.removeSlot(chefId, slotId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Delivery slot not found"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Delivery slot removed successfully"));
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.demo.restcontroller;
 
+import com.example.demo.config.QueryBudget;
+import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.CancelOrderItemsRequest;
+import com.example.demo.dto.CheckoutRequest;
+import com.example.demo.dto.DeliverySnapshot;
 import com.example.demo.dto.FoodItemDto;
 import com.example.demo.dto.OrderItemResponse;
 import com.example.demo.dto.OrderResponse;
@@ -13,11 +17,17 @@ import com.example.demo.model.Payment;
 import com.example.demo.model.PaymentStatus;
 import com.example.demo.model.User;
 import com.example.demo.model.UserProfile;
+import com.example.demo.service.DeliverySnapshotService;
 import com.example.demo.service.EmailService;
+import com.example.demo.service.EtaService;
 import com.example.demo.service.FoodItemService;
+import com.example.demo.service.OrderQueryService;
 import com.example.demo.service.OrderService;
 import com.example.demo.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.mail.MessagingException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,9 +35,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +51,15 @@ public class OrderRestController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private DeliverySnapshotService deliverySnapshotService;
+
+    @Autowired
+    private EtaService etaService;
+
     @Autowired
     private FoodItemService foodItemService;
 
@@ -51,582 +69,394 @@ public class OrderRestController {
     @Autowired
     private EmailService emailService; // Inject EmailService
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/place")
-    public ResponseEntity<Map<String, Object>> placeOrder(@RequestBody PlaceOrderRequest request) {
+    public ResponseEntity<ApiResponse<OrderResponse>> placeOrder(@RequestBody PlaceOrderRequest request) {
         logger.info("Received place order request: userId={}, foodItemIds={}, quantities={}, amount={}, paymentMethod={}",
                 request.getUserId(), request.getFoodItemIds(), request.getQuantities(), request.getAmount(), request.getPaymentMethod());
-        try {
-            if (request.getUserId() == null || request.getFoodItemIds() == null || request.getQuantities() == null ||
-                request.getPaymentMethod() == null || request.getDeliveryLocation() == null || request.getDeliveryPhone() == null) {
-                throw new IllegalArgumentException("Required fields are missing");
-            }
-            if (request.getAmount() == null || request.getAmount() <= 0) {
-                throw new IllegalArgumentException("Valid payment amount is required");
-            }
-            if (!VALID_PAYMENT_METHODS.contains(request.getPaymentMethod())) {
-                throw new IllegalArgumentException("Invalid payment method. Allowed values: " + VALID_PAYMENT_METHODS);
-            }
+        if (request.getUserId() == null || request.getFoodItemIds() == null || request.getQuantities() == null ||
+            request.getPaymentMethod() == null || request.getDeliveryLocation() == null || request.getDeliveryPhone() == null) {
+            throw new IllegalArgumentException("Required fields are missing");
+        }
+        if (request.getAmount() == null || request.getAmount() <= 0) {
+            throw new IllegalArgumentException("Valid payment amount is required");
+        }
+        if (!VALID_PAYMENT_METHODS.contains(request.getPaymentMethod())) {
+            throw new IllegalArgumentException("Invalid payment method. Allowed values: " + VALID_PAYMENT_METHODS);
+        }
 
-            Order order = orderService.placeOrder(
-                    request.getUserId(),
-                    request.getFoodItemIds(),
-                    request.getQuantities(),
-                    request.getAmount(),
-                    request.getPaymentMethod(),
-                    request.getDeliveryLocation(),
-                    request.getDeliveryPhone(),
-                    request.getDeliveryCoordinates(),
-                    request.getTransactionUuid()
-            );
-            OrderResponse response = new OrderResponse(order);
-            enrichOrderItems(order, response);
-            response.setUser(mapUserToDto(order.getUser()));
-            logger.debug("Order placed successfully: {}", response);
-
-            // Send order confirmation email
-            if (order.getUser().getEmail() != null && !order.getUser().getEmail().isEmpty()) {
-                try {
-                    emailService.sendOrderConfirmationEmail(order.getUser(), order);
-                } catch (MessagingException e) {
-                    logger.error("Failed to send order confirmation email for order ID {}: {}", order.getId(), e.getMessage());
-                }
-            } else {
-                logger.warn("No valid email found for user ID {} to send order confirmation", order.getUser().getId());
+        Order order = orderService.placeOrder(
+                request.getUserId(),
+                request.getFoodItemIds(),
+                request.getQuantities(),
+                request.getAmount(),
+                request.getPaymentMethod(),
+                request.getDeliveryLocation(),
+                request.getDeliveryPhone(),
+                request.getDeliveryCoordinates(),
+                request.getTransactionUuid(),
+                request.getDeliverySlotId(),
+                request.getDeliveryDate()
+        );
+        OrderResponse response = new OrderResponse(order);
+        enrichOrderItems(order, response);
+        response.setUser(mapUserToDto(order.getUser()));
+        logger.debug("Order placed successfully: {}", response);
+
+        // Send order confirmation email
+        if (order.getUser().getEmail() != null && !order.getUser().getEmail().isEmpty()) {
+            try {
+                emailService.sendOrderConfirmationEmail(order.getUser(), order);
+            } catch (MessagingException e) {
+                logger.error("Failed to send order confirmation email for order ID {}: {}", order.getId(), e.getMessage());
             }
+        } else {
+            logger.warn("No valid email found for user ID {} to send order confirmation", order.getUser().getId());
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Order placed successfully", response));
+    }
 
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("data", response);
-            responseBody.put("message", "Order placed successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error placing order: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error placing order: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to place order: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    @PostMapping("/checkout")
+    public ResponseEntity<ApiResponse<OrderResponse>> checkout(@RequestBody CheckoutRequest request) {
+        logger.info("Received checkout request: userId={}, paymentMethod={}", request.getUserId(), request.getPaymentMethod());
+        long startNanos = System.nanoTime();
+        if (request.getUserId() == null || request.getPaymentMethod() == null ||
+            request.getDeliveryLocation() == null || request.getDeliveryPhone() == null) {
+            throw new IllegalArgumentException("Required fields are missing");
         }
+        if (!VALID_PAYMENT_METHODS.contains(request.getPaymentMethod())) {
+            throw new IllegalArgumentException("Invalid payment method. Allowed values: " + VALID_PAYMENT_METHODS);
+        }
+
+        Order order = orderService.checkout(
+                request.getUserId(),
+                request.getPaymentMethod(),
+                request.getDeliveryLocation(),
+                request.getDeliveryPhone(),
+                request.getDeliveryCoordinates(),
+                request.getTransactionUuid(),
+                request.getDeliverySlotId(),
+                request.getDeliveryDate()
+        );
+        logger.info("Checkout for userId={} committed orderId={} in {} ms",
+                request.getUserId(), order.getId(), (System.nanoTime() - startNanos) / 1_000_000);
+
+        OrderResponse response = new OrderResponse(order);
+        enrichOrderItems(order, response);
+        response.setUser(mapUserToDto(order.getUser()));
+
+        if (order.getUser().getEmail() != null && !order.getUser().getEmail().isEmpty()) {
+            try {
+                emailService.sendOrderConfirmationEmail(order.getUser(), order);
+            } catch (MessagingException e) {
+                logger.error("Failed to send order confirmation email for order ID {}: {}", order.getId(), e.getMessage());
+            }
+        } else {
+            logger.warn("No valid email found for user ID {} to send order confirmation", order.getUser().getId());
+        }
+
+        return ResponseEntity.ok(ApiResponse.success("Order placed successfully", response));
     }
 
     @PutMapping("/cancel-order")
-    public ResponseEntity<Map<String, Object>> cancelOrder(@RequestBody CancelOrderItemsRequest request) {
+    public ResponseEntity<ApiResponse<OrderResponse>> cancelOrder(@RequestBody CancelOrderItemsRequest request) {
         logger.info("Received cancel order request: userId={}, orderId={}",
                 request.getUserId(), request.getOrderId());
-        try {
-            if (request.getUserId() == null || request.getOrderId() == null) {
-                throw new IllegalArgumentException("userId and orderId are required");
-            }
-            Order cancelledOrder = orderService.cancelOrder(request.getOrderId(), request.getUserId());
-            OrderResponse orderResponse = new OrderResponse(cancelledOrder);
-            enrichOrderItems(cancelledOrder, orderResponse);
-            orderResponse.setUser(mapUserToDto(cancelledOrder.getUser()));
-            logger.debug("Order cancelled successfully: {}", orderResponse);
-
-            // Send order cancellation email
-            if (cancelledOrder.getUser().getEmail() != null && !cancelledOrder.getUser().getEmail().isEmpty()) {
-                try {
-                    emailService.sendOrderCancellationEmail(cancelledOrder.getUser(), cancelledOrder);
-                } catch (MessagingException e) {
-                    logger.error("Failed to send order cancellation email for order ID {}: {}", cancelledOrder.getId(), e.getMessage());
-                }
-            } else {
-                logger.warn("No valid email found for user ID {} to send order cancellation", cancelledOrder.getUser().getId());
+        if (request.getUserId() == null || request.getOrderId() == null) {
+            throw new IllegalArgumentException("userId and orderId are required");
+        }
+        Order cancelledOrder = orderService.cancelOrder(request.getOrderId(), request.getUserId());
+        OrderResponse orderResponse = new OrderResponse(cancelledOrder);
+        enrichOrderItems(cancelledOrder, orderResponse);
+        orderResponse.setUser(mapUserToDto(cancelledOrder.getUser()));
+        logger.debug("Order cancelled successfully: {}", orderResponse);
+
+        // Send order cancellation email
+        if (cancelledOrder.getUser().getEmail() != null && !cancelledOrder.getUser().getEmail().isEmpty()) {
+            try {
+                emailService.sendOrderCancellationEmail(cancelledOrder.getUser(), cancelledOrder);
+            } catch (MessagingException e) {
+                logger.error("Failed to send order cancellation email for order ID {}: {}", cancelledOrder.getId(), e.getMessage());
             }
-
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("data", orderResponse);
-            responseBody.put("message", "Order cancelled successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error cancelling order: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error cancelling order: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to cancel order: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } else {
+            logger.warn("No valid email found for user ID {} to send order cancellation", cancelledOrder.getUser().getId());
         }
+
+        return ResponseEntity.ok(ApiResponse.success("Order cancelled successfully", orderResponse));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getUserOrders(@PathVariable Long userId) {
+    @QueryBudget(maxStatements = 11, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<OrderResponse>>> getUserOrders(@PathVariable Long userId) {
         logger.info("Received request to fetch orders for userId={}", userId);
-        try {
-            List<Order> orders = orderService.getUserOrders(userId);
-            List<OrderResponse> response = orders != null ? orders.stream()
-                    .map(order -> {
-                        OrderResponse orderResponse = new OrderResponse(order);
-                        enrichOrderItems(order, orderResponse);
-                        orderResponse.setUser(mapUserToDto(order.getUser()));
-                        return orderResponse;
-                    })
-                    .collect(Collectors.toList()) : Collections.emptyList();
-            logger.debug("Fetched orders for userId {}: {}", userId, response);
-
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("data", response);
-            responseBody.put("message", "Orders retrieved successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Error fetching orders: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching orders: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to fetch orders: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        List<OrderResponse> response = orderQueryService.getUserOrders(userId);
+        logger.debug("Fetched orders for userId {}: {}", userId, response);
+
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", response));
     }
 
     @GetMapping("/user/{userId}/status")
-    public ResponseEntity<Map<String, Object>> getUserOrdersByStatus(
+    @QueryBudget(maxStatements = 11, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<OrderResponse>>> getUserOrdersByStatus(
             @PathVariable Long userId,
             @RequestParam(required = false) String status) {
         logger.info("Received request to fetch orders for userId={} with status={}", userId, status);
-        try {
-            if (userId == null) {
-                throw new IllegalArgumentException("userId is required");
-            }
-            List<Order> orders = orderService.findOrdersByUserIdAndStatus(userId, status);
-            List<OrderResponse> response = orders != null ? orders.stream()
-                    .map(order -> {
-                        OrderResponse orderResponse = new OrderResponse(order);
-                        enrichOrderItems(order, orderResponse);
-                        orderResponse.setUser(mapUserToDto(order.getUser()));
-                        return orderResponse;
-                    })
-                    .collect(Collectors.toList()) : Collections.emptyList();
-
-            Map<String, Object> responseBody = new HashMap<>();
-            if (response.isEmpty()) {
-                responseBody.put("data", response);
-                responseBody.put("message", "No orders found for userId " + userId + (status != null ? " with status " + status : ""));
-                responseBody.put("status", "success");
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(responseBody);
-            }
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        List<OrderResponse> response = orderQueryService.findOrdersByUserIdAndStatus(userId, status);
 
-            responseBody.put("data", response);
-            responseBody.put("message", "Orders retrieved successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Error fetching orders: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching orders: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to fetch orders: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        if (response.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No orders found for userId " + userId + (status != null ? " with status " + status : ""), response));
         }
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", response));
     }
 
     @GetMapping("/delivery/{userId}/ready")
-    public ResponseEntity<Map<String, Object>> getReadyOrdersForDelivery(@PathVariable Long userId) {
+    @QueryBudget(maxStatements = 8, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<OrderResponse>>> getReadyOrdersForDelivery(@PathVariable Long userId) {
         logger.info("Received request to fetch READY orders for delivery userId={}", userId);
-        try {
-            if (userId == null) {
-                throw new IllegalArgumentException("userId is required");
-            }
-            List<Order> orders = orderService.findReadyOrdersForDelivery(userId);
-            List<OrderResponse> response = orders != null ? orders.stream()
-                    .map(order -> {
-                        OrderResponse orderResponse = new OrderResponse(order);
-                        enrichOrderItems(order, orderResponse);
-                        orderResponse.setUser(mapUserToDto(order.getUser()));
-                        return orderResponse;
-                    })
-                    .collect(Collectors.toList()) : Collections.emptyList();
-            logger.debug("Fetched {} READY orders for delivery userId={}", response.size(), userId);
-
-            Map<String, Object> responseBody = new HashMap<>();
-            if (response.isEmpty()) {
-                responseBody.put("data", response);
-                responseBody.put("message", "No READY orders found for delivery userId " + userId);
-                responseBody.put("status", "success");
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(responseBody);
-            }
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        List<OrderResponse> response = orderQueryService.findReadyOrdersForDelivery(userId);
+        logger.debug("Fetched {} READY orders for delivery userId={}", response.size(), userId);
 
-            responseBody.put("data", response);
-            responseBody.put("message", "READY orders retrieved successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error fetching READY orders: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching READY orders: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to fetch READY orders: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        if (response.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No READY orders found for delivery userId " + userId, response));
         }
+        return ResponseEntity.ok(ApiResponse.success("READY orders retrieved successfully", response));
     }
 
     @GetMapping("/delivery/{userId}/status")
-    public ResponseEntity<Map<String, Object>> getDeliveryOrdersByStatus(
+    @QueryBudget(maxStatements = 11, maxRepeats = 1)
+    public ResponseEntity<ApiResponse<List<OrderResponse>>> getDeliveryOrdersByStatus(
             @PathVariable Long userId,
             @RequestParam String status) {
         logger.info("Received request to fetch orders for delivery userId={} with status={}", userId, status);
-        try {
-            if (userId == null) {
-                throw new IllegalArgumentException("userId is required");
-            }
-            if (status == null || status.trim().isEmpty()) {
-                throw new IllegalArgumentException("status is required");
-            }
-            List<Order> orders = orderService.findDeliveryOrdersByStatus(userId, status);
-            List<OrderResponse> response = orders != null ? orders.stream()
-                    .map(order -> {
-                        OrderResponse orderResponse = new OrderResponse(order);
-                        enrichOrderItems(order, orderResponse);
-                        orderResponse.setUser(mapUserToDto(order.getUser()));
-                        return orderResponse;
-                    })
-                    .collect(Collectors.toList()) : Collections.emptyList();
-            logger.debug("Fetched {} orders for delivery userId={} with status={}", response.size(), userId, status);
-
-            Map<String, Object> responseBody = new HashMap<>();
-            if (response.isEmpty()) {
-                responseBody.put("data", response);
-                responseBody.put("message", "No orders found for delivery userId " + userId + " with status " + status);
-                responseBody.put("status", "success");
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(responseBody);
-            }
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        if (status == null || status.trim().isEmpty()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        List<OrderResponse> response = orderQueryService.findDeliveryOrdersByStatus(userId, status);
+        logger.debug("Fetched {} orders for delivery userId={} with status={}", response.size(), userId, status);
 
-            responseBody.put("data", response);
-            responseBody.put("message", "Orders retrieved successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error fetching delivery orders: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching delivery orders: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to fetch delivery orders: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        if (response.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(ApiResponse.success("No orders found for delivery userId " + userId + " with status " + status, response));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", response));
+    }
+
+    // Ready, active and delivered lists in one response; 304 while neither the delivery nor the menu
+    // version changed on any instance.
+    // The lists are read on other threads, so their statements do not count toward a query budget here.
+    @GetMapping("/delivery/{userId}/snapshot")
+    public ResponseEntity<ApiResponse<DeliverySnapshot>> getDeliverySnapshot(
+            @PathVariable Long userId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        if (ConditionalGet.notModifiedPrivate(request, response, deliverySnapshotService.getVersion())) {
+            return null;
         }
+        logger.info("Received request for the delivery snapshot of userId={}", userId);
+        DeliverySnapshot snapshot = deliverySnapshotService.getSnapshot(userId);
+        return ResponseEntity.ok(ApiResponse.success("Delivery snapshot retrieved successfully", snapshot));
     }
 
     @PutMapping("/{orderId}/delivery-status")
-    public ResponseEntity<Map<String, Object>> updateDeliveryStatus(
+    public ResponseEntity<ApiResponse<OrderResponse>> updateDeliveryStatus(
             @PathVariable Long orderId,
             @RequestBody Map<String, Object> requestBody) {
         logger.info("Received request to update delivery status for orderId={}", orderId);
-        try {
-            Long userId = requestBody.get("userId") != null ? ((Number) requestBody.get("userId")).longValue() : null;
-            String status = (String) requestBody.get("status");
-            if (userId == null) {
-                throw new IllegalArgumentException("userId is required in request body");
-            }
-            if (status == null || status.trim().isEmpty()) {
-                throw new IllegalArgumentException("status is required in request body");
+        Long userId = requestBody.get("userId") != null ? ((Number) requestBody.get("userId")).longValue() : null;
+        String status = (String) requestBody.get("status");
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required in request body");
+        }
+        if (status == null || status.trim().isEmpty()) {
+            throw new IllegalArgumentException("status is required in request body");
+        }
+
+        Order updatedOrder = orderService.updateDeliveryStatus(orderId, userId, status);
+        OrderResponse orderResponse = new OrderResponse(updatedOrder);
+        enrichOrderItems(updatedOrder, orderResponse);
+        orderResponse.setUser(mapUserToDto(updatedOrder.getUser()));
+        logger.debug("Delivery status updated to {} successfully: {}", status, orderResponse);
+
+        // Send order status update email for delivery status changes
+        if (updatedOrder.getUser().getEmail() != null && !updatedOrder.getUser().getEmail().isEmpty()) {
+            try {
+                emailService.sendOrderStatusUpdateEmail(updatedOrder.getUser(), updatedOrder, status);
+            } catch (MessagingException e) {
+                logger.error("Failed to send delivery status update email for order ID {}: {}", updatedOrder.getId(), e.getMessage());
             }
+        } else {
+            logger.warn("No valid email found for user ID {} to send delivery status update", updatedOrder.getUser().getId());
+        }
 
-            Order updatedOrder = orderService.updateDeliveryStatus(orderId, userId, status);
-            OrderResponse orderResponse = new OrderResponse(updatedOrder);
-            enrichOrderItems(updatedOrder, orderResponse);
-            orderResponse.setUser(mapUserToDto(updatedOrder.getUser()));
-            logger.debug("Delivery status updated to {} successfully: {}", status, orderResponse);
+        return ResponseEntity.ok(ApiResponse.success("Delivery status updated to " + status + " successfully", orderResponse));
+    }
 
-            // Send order status update email for delivery status changes
-            if (updatedOrder.getUser().getEmail() != null && !updatedOrder.getUser().getEmail().isEmpty()) {
-                try {
-                    emailService.sendOrderStatusUpdateEmail(updatedOrder.getUser(), updatedOrder, status);
-                } catch (MessagingException e) {
-                    logger.error("Failed to send delivery status update email for order ID {}: {}", updatedOrder.getId(), e.getMessage());
-                }
-            } else {
-                logger.warn("No valid email found for user ID {} to send delivery status update", updatedOrder.getUser().getId());
-            }
+    @PutMapping("/{orderId}/assign-delivery")
+    public ResponseEntity<ApiResponse<OrderResponse>> assignDelivery(
+            @PathVariable Long orderId,
+            @RequestBody Map<String, Object> requestBody) {
+        logger.info("Received request to assign orderId={} to a courier", orderId);
+        Long deliveryId = requestBody.get("deliveryId") != null ? ((Number) requestBody.get("deliveryId")).longValue() : null;
+        if (deliveryId == null) {
+            throw new IllegalArgumentException("deliveryId is required in request body");
+        }
 
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("data", orderResponse);
-            responseBody.put("message", "Delivery status updated to " + status + " successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error updating delivery status: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error updating delivery status: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to update delivery status: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        Order order = orderService.assignCourier(orderId, deliveryId);
+        if (order == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error("Order is already assigned to another courier"));
         }
+        OrderResponse orderResponse = new OrderResponse(order);
+        enrichOrderItems(order, orderResponse);
+        orderResponse.setUser(mapUserToDto(order.getUser()));
+        return ResponseEntity.ok(ApiResponse.success("Order assigned successfully", orderResponse));
     }
 
     @PutMapping("/{orderId}/payment-status")
-    public ResponseEntity<Map<String, Object>> updatePaymentStatus(
+    public ResponseEntity<ApiResponse<OrderResponse>> updatePaymentStatus(
             @PathVariable Long orderId,
             @RequestBody Map<String, Object> requestBody) {
         logger.info("Received request to update payment status for orderId={}", orderId);
-        try {
-            Long userId = requestBody.get("userId") != null ? ((Number) requestBody.get("userId")).longValue() : null;
-            String paymentStatus = (String) requestBody.get("paymentStatus");
-            if (userId == null) {
-                throw new IllegalArgumentException("userId is required in request body");
-            }
-            if (paymentStatus == null || paymentStatus.trim().isEmpty()) {
-                throw new IllegalArgumentException("paymentStatus is required in request body");
-            }
-
-            Order updatedOrder = orderService.updatePaymentStatus(orderId, userId, paymentStatus);
-            OrderResponse orderResponse = new OrderResponse(updatedOrder);
-            enrichOrderItems(updatedOrder, orderResponse);
-            orderResponse.setUser(mapUserToDto(updatedOrder.getUser()));
-            logger.debug("Payment status updated to {} successfully: {}", paymentStatus, orderResponse);
+        Long userId = requestBody.get("userId") != null ? ((Number) requestBody.get("userId")).longValue() : null;
+        String paymentStatus = (String) requestBody.get("paymentStatus");
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required in request body");
+        }
+        if (paymentStatus == null || paymentStatus.trim().isEmpty()) {
+            throw new IllegalArgumentException("paymentStatus is required in request body");
+        }
 
-            // Send payment status update email
-            if (updatedOrder.getUser().getEmail() != null && !updatedOrder.getUser().getEmail().isEmpty()) {
-                try {
-                    emailService.sendPaymentStatusUpdateEmail(updatedOrder.getUser(), updatedOrder, paymentStatus);
-                } catch (MessagingException e) {
-                    logger.error("Failed to send payment status update email for order ID {}: {}", updatedOrder.getId(), e.getMessage());
-                }
-            } else {
-                logger.warn("No valid email found for user ID {} to send payment status update", updatedOrder.getUser().getId());
+        Order updatedOrder = orderService.updatePaymentStatus(orderId, userId, paymentStatus);
+        OrderResponse orderResponse = new OrderResponse(updatedOrder);
+        enrichOrderItems(updatedOrder, orderResponse);
+        orderResponse.setUser(mapUserToDto(updatedOrder.getUser()));
+        logger.debug("Payment status updated to {} successfully: {}", paymentStatus, orderResponse);
+
+        // Send payment status update email
+        if (updatedOrder.getUser().getEmail() != null && !updatedOrder.getUser().getEmail().isEmpty()) {
+            try {
+                emailService.sendPaymentStatusUpdateEmail(updatedOrder.getUser(), updatedOrder, paymentStatus);
+            } catch (MessagingException e) {
+                logger.error("Failed to send payment status update email for order ID {}: {}", updatedOrder.getId(), e.getMessage());
             }
-
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("data", orderResponse);
-            responseBody.put("message", "Payment status updated to " + paymentStatus + " successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error updating payment status: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error updating payment status: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to update payment status: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } else {
+            logger.warn("No valid email found for user ID {} to send payment status update", updatedOrder.getUser().getId());
         }
+
+        return ResponseEntity.ok(ApiResponse.success("Payment status updated to " + paymentStatus + " successfully", orderResponse));
     }
 
     @PutMapping("/{orderId}/status")
-    public ResponseEntity<Map<String, Object>> updateOrderStatus(
+    public ResponseEntity<ApiResponse<OrderResponse>> updateOrderStatus(
             @PathVariable Long orderId,
             @RequestBody Map<String, Object> requestBody) {
         logger.info("Received request to update order status for orderId={}", orderId);
-        try {
-            Long userId = requestBody.get("userId") != null ? ((Number) requestBody.get("userId")).longValue() : null;
-            String status = (String) requestBody.get("status");
-            if (userId == null) {
-                throw new IllegalArgumentException("userId is required in request body");
-            }
-            if (status == null || status.trim().isEmpty()) {
-                throw new IllegalArgumentException("status is required in request body");
-            }
-
-            Order updatedOrder = orderService.updateOrderStatus(orderId, userId, status);
-            OrderResponse orderResponse = new OrderResponse(updatedOrder);
-            enrichOrderItems(updatedOrder, orderResponse);
-            orderResponse.setUser(mapUserToDto(updatedOrder.getUser()));
-            logger.debug("Order status updated to {} successfully: {}", status, orderResponse);
+        Long userId = requestBody.get("userId") != null ? ((Number) requestBody.get("userId")).longValue() : null;
+        String status = (String) requestBody.get("status");
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required in request body");
+        }
+        if (status == null || status.trim().isEmpty()) {
+            throw new IllegalArgumentException("status is required in request body");
+        }
 
-            // Send order status update email
-            if (updatedOrder.getUser().getEmail() != null && !updatedOrder.getUser().getEmail().isEmpty()) {
-                try {
-                    emailService.sendOrderStatusUpdateEmail(updatedOrder.getUser(), updatedOrder, status);
-                } catch (MessagingException e) {
-                    logger.error("Failed to send order status update email for order ID {}: {}", updatedOrder.getId(), e.getMessage());
-                }
-            } else {
-                logger.warn("No valid email found for user ID {} to send order status update", updatedOrder.getUser().getId());
+        Order updatedOrder = orderService.updateOrderStatus(orderId, userId, status);
+        OrderResponse orderResponse = new OrderResponse(updatedOrder);
+        enrichOrderItems(updatedOrder, orderResponse);
+        orderResponse.setUser(mapUserToDto(updatedOrder.getUser()));
+        logger.debug("Order status updated to {} successfully: {}", status, orderResponse);
+
+        // Send order status update email
+        if (updatedOrder.getUser().getEmail() != null && !updatedOrder.getUser().getEmail().isEmpty()) {
+            try {
+                emailService.sendOrderStatusUpdateEmail(updatedOrder.getUser(), updatedOrder, status);
+            } catch (MessagingException e) {
+                logger.error("Failed to send order status update email for order ID {}: {}", updatedOrder.getId(), e.getMessage());
             }
-
-            Map<String, Object> responseBody = new HashMap<>();
-            responseBody.put("data", orderResponse);
-            responseBody.put("message", "Order status updated to " + status + " successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error updating order status: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error updating order status: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to update order status: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } else {
+            logger.warn("No valid email found for user ID {} to send order status update", updatedOrder.getUser().getId());
         }
+
+        return ResponseEntity.ok(ApiResponse.success("Order status updated to " + status + " successfully", orderResponse));
     }
 
+    // Streamed as the responses are built; send Accept: application/x-ndjson for one order per line
     @GetMapping("/chef/{userId}")
-    public ResponseEntity<Map<String, Object>> getOrdersByChefId(
+    @QueryBudget(maxStatements = 11, maxRepeats = 1, maxStatementsPerChunk = 6)
+    public void getOrdersByChefId(
             @PathVariable Long userId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         logger.info("Received request to fetch orders for chefId={} with status={}", userId, status);
-        try {
-            if (userId == null) {
-                throw new IllegalArgumentException("chefId is required");
-            }
-            List<Order> orders = orderService.findOrdersByChefId(userId, status);
-            List<OrderResponse> response = orders != null ? orders.stream()
-                    .map(order -> {
-                        OrderResponse orderResponse = new OrderResponse(order);
-                        enrichOrderItems(order, orderResponse);
-                        orderResponse.setUser(mapUserToDto(order.getUser()));
-                        return orderResponse;
-                    })
-                    .collect(Collectors.toList()) : Collections.emptyList();
-            logger.debug("Fetched {} orders for chefId={}", response.size(), userId);
-
-            Map<String, Object> responseBody = new HashMap<>();
-            if (response.isEmpty()) {
-                responseBody.put("data", response);
-                responseBody.put("message", "No orders found for chefId " + userId + (status != null ? " with status " + status : ""));
-                responseBody.put("status", "success");
-                return ResponseEntity.status(HttpStatus.NO_CONTENT).body(responseBody);
-            }
-
-            responseBody.put("data", response);
-            responseBody.put("message", "Orders retrieved successfully");
-            responseBody.put("status", "success");
-            return ResponseEntity.ok(responseBody);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error fetching orders for chef: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error fetching orders for chef: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to fetch orders: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        JsonStreamWriter<OrderResponse> writer = new JsonStreamWriter<>(objectMapper, request, response, "Orders retrieved successfully");
+        if (userId == null) {
+            throw new IllegalArgumentException("chefId is required");
         }
+        // Orders come back most urgent first and hold only this chef's items
+        orderQueryService.streamChefOrders(userId, status, writer);
+        writer.finish();
     }
 
     @PostMapping("/verify-esewa")
-    public ResponseEntity<Map<String, Object>> verifyEsewaPayment(@RequestBody VerifyEsewaRequest request) {
+    public ResponseEntity<ApiResponse<OrderResponse>> verifyEsewaPayment(@RequestBody VerifyEsewaRequest request) {
         logger.info("Received eSewa verification request: transactionUuid={}, amount={}",
                 request.getTransaction_uuid(), request.getAmount());
-        try {
-            if (request.getTransaction_uuid() == null || request.getAmount() == null) {
-                throw new IllegalArgumentException("transactionUuid and amount are required");
-            }
+        if (request.getTransaction_uuid() == null || request.getAmount() == null) {
+            throw new IllegalArgumentException("transactionUuid and amount are required");
+        }
 
-            Order order = orderService.findOrderByTransactionUuid(request.getTransaction_uuid());
-            logger.debug("Found order: {}", order);
-            if (order == null) {
-                throw new IllegalStateException("Order not found for transaction UUID: " + request.getTransaction_uuid());
-            }
+        Order order = orderService.findOrderByTransactionUuid(request.getTransaction_uuid());
+        logger.debug("Found order: {}", order);
+        if (order == null) {
+            throw new IllegalStateException("Order not found for transaction UUID: " + request.getTransaction_uuid());
+        }
 
-            Payment payment = order.getPayment();
-            logger.debug("Found payment: {}", payment);
-            if (payment == null) {
-                logger.warn("No payment found for order ID: {}", order.getId());
-                throw new IllegalStateException("No payment associated with the order");
-            }
+        Payment payment = order.getPayment();
+        logger.debug("Found payment: {}", payment);
+        if (payment == null) {
+            logger.warn("No payment found for order ID: {}", order.getId());
+            throw new IllegalStateException("No payment associated with the order");
+        }
 
-            logger.debug("Stored amount: {}, Received amount: {}", payment.getAmount(), request.getAmount());
-            if (Double.compare(payment.getAmount(), request.getAmount()) == 0) {
-                payment.setStatus(PaymentStatus.COMPLETED);
-                payment.setEsewaRefId(request.getTransaction_uuid());
-                order.setStatus("CONFIRMED");
-
-                order = orderService.saveOrder(order);
-                OrderResponse orderResponse = new OrderResponse(order);
-                enrichOrderItems(order, orderResponse);
-                orderResponse.setUser(mapUserToDto(order.getUser()));
-                logger.info("Payment verified and status updated to COMPLETED for order ID: {}", order.getId());
-
-                // Send payment status update email
-                if (order.getUser().getEmail() != null && !order.getUser().getEmail().isEmpty()) {
-                    try {
-                        emailService.sendPaymentStatusUpdateEmail(order.getUser(), order, "COMPLETED");
-                    } catch (MessagingException e) {
-                        logger.error("Failed to send payment status update email for order ID {}: {}", order.getId(), e.getMessage());
-                    }
-                } else {
-                    logger.warn("No valid email found for user ID {} to send payment status update", order.getUser().getId());
-                }
+        logger.debug("Stored amount: {}, Received amount: {}", payment.getAmount(), request.getAmount());
+        if (Double.compare(payment.getAmount(), request.getAmount()) == 0) {
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setEsewaRefId(request.getTransaction_uuid());
+            order.setStatus("CONFIRMED");
+
+            order = orderService.saveOrder(order);
+            OrderResponse orderResponse = new OrderResponse(order);
+            enrichOrderItems(order, orderResponse);
+            orderResponse.setUser(mapUserToDto(order.getUser()));
+            logger.info("Payment verified and status updated to COMPLETED for order ID: {}", order.getId());
 
-                Map<String, Object> responseBody = new HashMap<>();
-                responseBody.put("data", orderResponse);
-                responseBody.put("message", "eSewa payment verified successfully");
-                responseBody.put("status", "success");
-                return ResponseEntity.ok(responseBody);
+            // Send payment status update email
+            if (order.getUser().getEmail() != null && !order.getUser().getEmail().isEmpty()) {
+                try {
+                    emailService.sendPaymentStatusUpdateEmail(order.getUser(), order, "COMPLETED");
+                } catch (MessagingException e) {
+                    logger.error("Failed to send payment status update email for order ID {}: {}", order.getId(), e.getMessage());
+                }
             } else {
-                logger.warn("Amount mismatch: Stored amount: {}, Received amount: {}",
-                           payment.getAmount(), request.getAmount());
-                throw new IllegalStateException("Invalid transaction or amount mismatch");
+                logger.warn("No valid email found for user ID {} to send payment status update", order.getUser().getId());
             }
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            logger.warn("Error verifying eSewa payment: {}", e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.badRequest().body(errorResponse);
-        } catch (Exception e) {
-            logger.error("Unexpected error verifying eSewa payment: {}", e.getMessage(), e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("data", null);
-            errorResponse.put("message", "Failed to verify eSewa payment: " + e.getMessage());
-            errorResponse.put("status", "error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+
+            return ResponseEntity.ok(ApiResponse.success("eSewa payment verified successfully", orderResponse));
+        } else {
+            logger.warn("Amount mismatch: Stored amount: {}, Received amount: {}",
+                       payment.getAmount(), request.getAmount());
+            throw new IllegalStateException("Invalid transaction or amount mismatch");
         }
     }
 
@@ -648,6 +478,7 @@ public class OrderRestController {
                     .collect(Collectors.toList());
             orderResponse.setOrderItems(orderItemResponses);
         }
+        etaService.applyEta(orderResponse);
     }
 
     private UserDto mapUserToDto(User user) {
@@ -1,6 +1,7 @@
 
 package com.example.demo.restcontroller;
 
+import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.EmailRequestDto;
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.OtpVerificationRequest;
@@ -14,11 +15,13 @@ import com.example.demo.repository.PendingUserRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.service.EmailService;
 import com.example.demo.service.JwtService;
+import com.example.demo.service.UserChangedEvent;
 import com.example.demo.service.UserService;
 import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,21 +56,19 @@ public class AuthRestController {
     @Autowired
     private UserService userService; // Add UserService dependency
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/register")
     @Transactional
-    public ResponseEntity<Map<String, Object>> initiateRegistration(@Valid @RequestBody User user, BindingResult result) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> initiateRegistration(@Valid @RequestBody User user, BindingResult result) {
         if (result.hasErrors()) {
-            response.put("status", "error");
-            response.put("message", "Invalid input: " + result.getAllErrors());
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid input: " + result.getAllErrors()));
         }
 
         Optional<User> existingUser = userRepo.findByEmail(user.getEmail());
         if (existingUser.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Email already exists! Try a new one.");
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error("Email already exists! Try a new one."));
         }
 
         Optional<PendingUser> pendingUserOptional = pendingUserRepo.findByEmail(user.getEmail());
@@ -88,9 +89,7 @@ public class AuthRestController {
                     role = "USER";
                     break;
                 default:
-                    response.put("status", "error");
-                    response.put("message", "Invalid role. Allowed roles are USER, CHEF, or DELIVERY.");
-                    return ResponseEntity.badRequest().body(response);
+                    return ResponseEntity.badRequest().body(ApiResponse.error("Invalid role. Allowed roles are USER, CHEF, or DELIVERY."));
             }
         }
 
@@ -115,55 +114,40 @@ public class AuthRestController {
         try {
             emailService.sendOtpEmail(user.getEmail(), otpCode);
         } catch (MessagingException e) {
-            response.put("status", "error");
-            response.put("message", "Failed to send OTP email: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.error("Failed to send OTP email: " + e.getMessage()));
         }
 
-        response.put("status", "success");
-        response.put("message", "OTP sent to " + user.getEmail());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiResponse.success("OTP sent to " + user.getEmail()));
     }
 
     @PostMapping("/verify-otp")
     @Transactional
-    public ResponseEntity<Map<String, Object>> verifyOtpAndRegister(@Valid @RequestBody OtpVerificationRequest request, BindingResult result) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> verifyOtpAndRegister(@Valid @RequestBody OtpVerificationRequest request, BindingResult result) {
         if (result.hasErrors()) {
-            response.put("status", "error");
-            response.put("message", "Invalid input: " + result.getAllErrors());
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid input: " + result.getAllErrors()));
         }
 
         Optional<Otp> otpOptional = otpRepo.findByEmailAndOtpCode(request.getEmail(), request.getOtpCode());
         if (!otpOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Invalid OTP or email.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid OTP or email."));
         }
 
         Otp otp = otpOptional.get();
         if (LocalDateTime.now().isAfter(otp.getExpiresAt())) {
             otpRepo.deleteByEmail(request.getEmail());
-            response.put("status", "error");
-            response.put("message", "OTP has expired.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("OTP has expired."));
         }
 
         Optional<PendingUser> pendingUserOptional = pendingUserRepo.findByEmail(request.getEmail());
         if (!pendingUserOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "No pending registration found for this email.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("No pending registration found for this email."));
         }
 
         PendingUser pendingUser = pendingUserOptional.get();
 
         Optional<User> existingUser = userRepo.findByEmail(request.getEmail());
         if (existingUser.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Email already exists! Try a new one.");
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error("Email already exists! Try a new one."));
         }
 
         User user = new User();
@@ -188,34 +172,24 @@ public class AuthRestController {
             "role", user.getRole()
         ));
 
-        response.put("status", "success");
-        response.put("message", "Registration successful");
-        response.put("data", data);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiResponse.success("Registration successful", data));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest loginRequest) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> login(@RequestBody LoginRequest loginRequest) {
         if (loginRequest.getEmail() == null || loginRequest.getPassword() == null) {
-            response.put("status", "error");
-            response.put("message", "Email and password are required.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Email and password are required."));
         }
 
         Optional<User> userOptional = userRepo.findByEmail(loginRequest.getEmail());
         if (!userOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Invalid email or password.");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Invalid email or password."));
         }
 
         User user = userOptional.get();
         String hashedPassword = DigestUtils.sha3_256Hex(loginRequest.getPassword());
         if (!user.getPassword().equals(hashedPassword)) {
-            response.put("status", "error");
-            response.put("message", "Invalid email or password.");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Invalid email or password."));
         }
 
         String token = jwtService.generateToken(user.getEmail());
@@ -237,27 +211,19 @@ public class AuthRestController {
         data.put("token", token);
         data.put("user", userData);
 
-        response.put("status", "success");
-        response.put("message", "Login successful");
-        response.put("data", data);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiResponse.success("Login successful", data));
     }
 
     @PostMapping("/forgot-password")
     @Transactional
-    public ResponseEntity<Map<String, Object>> forgotPassword(@RequestBody EmailRequestDto emailRequest) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> forgotPassword(@RequestBody EmailRequestDto emailRequest) {
         if (emailRequest.getEmail() == null) {
-            response.put("status", "error");
-            response.put("message", "Email is required.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Email is required."));
         }
 
         Optional<User> userOptional = userRepo.findByEmail(emailRequest.getEmail());
         if (!userOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Email not found.");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Email not found."));
         }
 
         String otpCode = String.format("%06d", new Random().nextInt(999999));
@@ -271,46 +237,33 @@ public class AuthRestController {
         try {
             emailService.sendOtpEmail(emailRequest.getEmail(), otpCode);
         } catch (MessagingException e) {
-            response.put("status", "error");
-            response.put("message", "Failed to send OTP email: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.error("Failed to send OTP email: " + e.getMessage()));
         }
 
-        response.put("status", "success");
-        response.put("message", "OTP sent to " + emailRequest.getEmail());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiResponse.success("OTP sent to " + emailRequest.getEmail()));
     }
 
     @PostMapping("/reset-password")
     @Transactional
-    public ResponseEntity<Map<String, Object>> resetPassword(@Valid @RequestBody ResetPasswordRequestDto request, BindingResult result) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> resetPassword(@Valid @RequestBody ResetPasswordRequestDto request, BindingResult result) {
         if (result.hasErrors()) {
-            response.put("status", "error");
-            response.put("message", "Invalid input: " + result.getAllErrors());
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid input: " + result.getAllErrors()));
         }
 
         Optional<Otp> otpOptional = otpRepo.findByEmailAndOtpCode(request.getEmail(), request.getOtpCode());
         if (!otpOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Invalid OTP or email.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid OTP or email."));
         }
 
         Otp otp = otpOptional.get();
         if (LocalDateTime.now().isAfter(otp.getExpiresAt())) {
             otpRepo.deleteByEmail(request.getEmail());
-            response.put("status", "error");
-            response.put("message", "OTP has expired.");
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("OTP has expired."));
         }
 
         Optional<User> userOptional = userRepo.findByEmail(request.getEmail());
         if (!userOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "Email not found.");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("Email not found."));
         }
 
         User user = userOptional.get();
@@ -319,26 +272,19 @@ public class AuthRestController {
 
         otpRepo.deleteByEmail(request.getEmail());
 
-        response.put("status", "success");
-        response.put("message", "Password reset successful");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiResponse.success("Password reset successful"));
     }
 
     @PatchMapping("/edit/users/{id}")
     @Transactional
-    public ResponseEntity<Map<String, Object>> editUser(@PathVariable Long id, @Valid @RequestBody User user, BindingResult result) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> editUser(@PathVariable Long id, @Valid @RequestBody User user, BindingResult result) {
         if (result.hasErrors()) {
-            response.put("status", "error");
-            response.put("message", "Invalid input: " + result.getAllErrors());
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.badRequest().body(ApiResponse.error("Invalid input: " + result.getAllErrors()));
         }
 
         Optional<User> userOptional = userRepo.findById(id);
         if (!userOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "User not found.");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("User not found."));
         }
 
         User existingUser = userOptional.get();
@@ -350,40 +296,31 @@ public class AuthRestController {
         String role = user.getRole() != null && user.getRole().equals("CHEF") ? "CHEF" : "USER";
         existingUser.setRole(role);
         userRepo.save(existingUser);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
 
-        response.put("status", "success");
-        response.put("message", "User updated successfully");
-        response.put("data", Map.of(
+        return ResponseEntity.ok(ApiResponse.success("User updated successfully", Map.of(
             "id", existingUser.getId(),
             "username", existingUser.getUsername(),
             "email", existingUser.getEmail(),
             "role", existingUser.getRole()
-        ));
-        return ResponseEntity.ok(response);
+        )));
     }
 
     @DeleteMapping("/delete/users/{id}")
     @Transactional
-    public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
+    public ResponseEntity<ApiResponse<?>> deleteUser(@PathVariable Long id) {
         Optional<User> userOptional = userRepo.findById(id);
         if (!userOptional.isPresent()) {
-            response.put("status", "error");
-            response.put("message", "User not found.");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error("User not found."));
         }
 
         userRepo.deleteById(id);
-        response.put("status", "success");
-        response.put("message", "User deleted successfully");
-        return ResponseEntity.ok(response);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+        return ResponseEntity.ok(ApiResponse.success("User deleted successfully"));
     }
 
     @GetMapping("/test")
-    public ResponseEntity<Map<String, Object>> getTest() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "success");
-        response.put("message", "Test API successful");
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse<?>> getTest() {
+        return ResponseEntity.ok(ApiResponse.success("Test API successful"));
     }
 }
@@ -0,0 +1,368 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.KitchenLoad;
+import com.example.demo.dto.StockLevel;
+import com.example.demo.model.ChefOrderLine;
+import com.example.demo.model.FoodItem;
+import com.example.demo.model.User;
+import com.example.demo.repository.ChefOrderLineRepository;
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.repository.KitchenCapacityRepository;
+import com.example.demo.utility.StripedCounters;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Kitchen capacity: an optional daily stock per food item and an optional limit on how many orders
+ * a chef has in the kitchen (placed, confirmed or preparing) at once.
+ *
+ * A checkout reserves in two steps. {@link #admit} takes units and slots from in-memory counters
+ * before the order is written, so once a popular dish sells out the checkouts still arriving are
+ * turned away without touching the database. {@link #reserve} then makes the reservation durable
+ * with conditional UPDATEs as the last statements of the order transaction, which keeps the row
+ * locks they take as short as possible. Rows are always locked items first, then chefs, each by id,
+ * so concurrent checkouts cannot deadlock. A checkout that rolls back returns what it took.
+ *
+ * Stock comes back when items or whole orders are cancelled the same day and refills at midnight;
+ * a chef's slot comes back when the order is READY or none of the chef's items are left in it.
+ * Pre-orders are limited by their delivery slot instead (see {@link DeliverySlotService}) and take a
+ * chef slot only when they are released to the kitchen.
+ *
+ * Metrics: capacity.rejected (counter, tagged by reason: sold-out, kitchen-full, or slot-full from
+ * DeliverySlotService).
+ */
+@Service
+public class CapacityService {
+    private static final Logger logger = LoggerFactory.getLogger(CapacityService.class);
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private KitchenCapacityRepository kitchenCapacityRepository;
+
+    @Autowired
+    private ChefOrderLineRepository chefOrderLineRepository;
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${capacity.counter-ttl-ms:1000}")
+    private long counterTtlMillis;
+
+    @Value("${capacity.lock-stripes:64}")
+    private int lockStripes;
+
+    private StripedCounters stock;
+    private StripedCounters slots;
+
+    /**
+     * What admit() took for one checkout: the stock-limited items with their quantities and the
+     * chefs that have a limit, each in lock order. Everything else is not reserved at all.
+     */
+    public record Reservation(SortedMap<Long, Integer> stock, SortedSet<Long> chefIds) {}
+
+    @PostConstruct
+    void init() {
+        stock = new StripedCounters(lockStripes, counterTtlMillis);
+        slots = new StripedCounters(lockStripes, counterTtlMillis);
+    }
+
+    /**
+     * Takes the checkout's units and chef slots from the in-memory counters, or throws
+     * IllegalStateException if an item is sold out or a chef is full. Call inside the order
+     * transaction, before writing anything.
+     */
+    public Reservation admit(Map<Long, Integer> quantityByFoodId, Collection<Long> chefIds) {
+        TreeMap<Long, Integer> takenStock = new TreeMap<>();
+        TreeSet<Long> takenSlots = new TreeSet<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantityByFoodId).entrySet()) {
+                switch (stock.tryTake(entry.getKey(), entry.getValue(), foodItemRepository::findStockRemaining)) {
+                    case TAKEN -> takenStock.put(entry.getKey(), entry.getValue());
+                    case REJECTED -> throw rejected("sold-out", "Food item is sold out: " + entry.getKey());
+                    case UNLIMITED -> { }
+                }
+            }
+            for (Long chefId : new TreeSet<>(chefIds)) {
+                switch (slots.tryTake(chefId, 1, kitchenCapacityRepository::findFreeSlots)) {
+                    case TAKEN -> takenSlots.add(chefId);
+                    case REJECTED -> throw rejected("kitchen-full", "Chef " + chefId + " is not taking more orders right now");
+                    case UNLIMITED -> { }
+                }
+            }
+        } catch (RuntimeException e) {
+            giveBack(takenStock, takenSlots);
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        giveBack(takenStock, takenSlots);
+                    }
+                }
+            });
+        }
+        return new Reservation(takenStock, takenSlots);
+    }
+
+    /**
+     * Writes an admitted reservation with one conditional UPDATE per item and chef. Call as the last
+     * write of the order transaction; throws IllegalStateException when the database has less left
+     * than the counters thought, e.g. because another instance sold it.
+     */
+    @Transactional
+    public void reserve(Reservation reservation) {
+        boolean soldOut = false;
+        for (Map.Entry<Long, Integer> entry : reservation.stock().entrySet()) {
+            Long foodItemId = entry.getKey();
+            if (foodItemRepository.reserveStock(foodItemId, entry.getValue()) == 0) {
+                stock.invalidate(foodItemId);
+                throw rejected("sold-out", "Food item is sold out: " + foodItemId);
+            }
+            // Decided by the row, not the counter: another instance may have sold units this one never saw
+            soldOut |= Boolean.TRUE.equals(foodItemRepository.findSoldOut(foodItemId));
+        }
+        for (Long chefId : reservation.chefIds()) {
+            // No row means the limit was removed since admit(), which leaves nothing to reserve
+            if (kitchenCapacityRepository.reserveSlot(chefId) == 0 && kitchenCapacityRepository.existsById(chefId)) {
+                slots.invalidate(chefId);
+                throw rejected("kitchen-full", "Chef " + chefId + " is not taking more orders right now");
+            }
+        }
+        if (soldOut) {
+            // The item just flipped to unavailable, which the menu shows
+            foodItemService.catalogChanged();
+        }
+    }
+
+    /**
+     * Returns the stock and chef slots held by cancelled items of an order; orderItemIds null
+     * cancels the whole order, orderDate null means the order took no stock. Call before the items'
+     * chef_order_lines are removed.
+     */
+    @Transactional
+    public void release(Long orderId, LocalDateTime orderDate, Collection<Long> orderItemIds) {
+        Map<Long, Integer> quantityByFoodId = new TreeMap<>();
+        Set<Long> releasedChefs = new TreeSet<>();
+        Set<Long> keptChefs = new HashSet<>();
+        for (ChefOrderLine line : chefOrderLineRepository.findByOrderId(orderId)) {
+            if (orderItemIds == null || orderItemIds.contains(line.getOrderItemId())) {
+                quantityByFoodId.merge(line.getFoodItemId(), line.getQuantity(), Integer::sum);
+                releasedChefs.add(line.getChefId());
+            } else {
+                keptChefs.add(line.getChefId());
+            }
+        }
+        releasedChefs.removeAll(keptChefs);
+
+        Map<Long, Integer> restocked = new TreeMap<>();
+        if (orderDate != null) {
+            for (Map.Entry<Long, Integer> entry : quantityByFoodId.entrySet()) {
+                if (foodItemRepository.releaseStock(entry.getKey(), entry.getValue(), orderDate.toLocalDate()) == 1) {
+                    restocked.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        List<Long> freedChefs = releaseSlots(releasedChefs);
+        afterCommit(() -> giveBack(restocked, freedChefs));
+        if (!restocked.isEmpty()) {
+            // A sold out item may be available again
+            foodItemService.catalogChanged();
+        }
+    }
+
+    // The order is READY: its chefs have room for another one
+    @Transactional
+    public void orderLeftKitchen(Long orderId) {
+        Set<Long> chefIds = new TreeSet<>();
+        for (ChefOrderLine line : chefOrderLineRepository.findByOrderId(orderId)) {
+            chefIds.add(line.getChefId());
+        }
+        List<Long> freedChefs = releaseSlots(chefIds);
+        afterCommit(() -> giveBack(Map.of(), freedChefs));
+    }
+
+    // A pre-order was released: it occupies its chefs' kitchens like any other order, even past their limit
+    @Transactional
+    public void orderEnteredKitchen(Long orderId) {
+        Set<Long> chefIds = new TreeSet<>();
+        for (ChefOrderLine line : chefOrderLineRepository.findByOrderId(orderId)) {
+            chefIds.add(line.getChefId());
+        }
+        for (Long chefId : chefIds) {
+            if (kitchenCapacityRepository.takeSlot(chefId) == 1) {
+                afterCommit(() -> slots.invalidate(chefId));
+            }
+        }
+    }
+
+    /**
+     * Sets how many units of the item the chef can make per day; null removes the limit. Units
+     * already sold today count against the new stock.
+     */
+    @Transactional
+    public StockLevel setDailyStock(Long chefId, Long foodItemId, Integer dailyStock) {
+        requireChef(chefId);
+        if (dailyStock != null && dailyStock < 0) {
+            throw new IllegalArgumentException("dailyStock must be zero or more");
+        }
+        FoodItem item = foodItemRepository.findByIdForUpdate(foodItemId);
+        if (item == null) {
+            throw new IllegalArgumentException("Food item not found: " + foodItemId);
+        }
+        if (!chefId.equals(item.getUser().getId())) {
+            throw new IllegalStateException("Food item " + foodItemId + " belongs to another chef");
+        }
+
+        LocalDate today = LocalDate.now();
+        int soldToday = item.getDailyStock() != null && item.getStockRemaining() != null && today.equals(item.getStockDate())
+                ? item.getDailyStock() - item.getStockRemaining() : 0;
+        Integer remaining = dailyStock != null ? Math.max(dailyStock - soldToday, 0) : null;
+        boolean soldOut = remaining != null && remaining == 0;
+        // Only an item that was sold out comes back on its own; one the chef switched off stays off, and
+        // one closed by its schedule reopens with the schedule
+        boolean available = !soldOut && !item.isScheduleClosed() && (item.isSoldOut() || Boolean.TRUE.equals(item.getAvailable()));
+        foodItemRepository.updateStock(foodItemId, dailyStock, remaining, dailyStock != null ? today : null, soldOut, available);
+
+        afterCommit(() -> stock.invalidate(foodItemId));
+        foodItemService.catalogChanged();
+        logger.info("Chef {} set daily stock of foodItemId={} to {} ({} left today)", chefId, foodItemId, dailyStock, remaining);
+        return new StockLevel(foodItemId, dailyStock, remaining, available);
+    }
+
+    /**
+     * Sets how many orders the chef takes on at once; null removes the limit. Orders already in the
+     * kitchen count against it.
+     */
+    @Transactional
+    public KitchenLoad setKitchenCapacity(Long chefId, Integer maxActiveOrders) {
+        requireChef(chefId);
+        if (maxActiveOrders == null) {
+            if (kitchenCapacityRepository.existsById(chefId)) {
+                kitchenCapacityRepository.deleteById(chefId);
+            }
+        } else {
+            if (maxActiveOrders < 1) {
+                throw new IllegalArgumentException("maxActiveOrders must be at least 1");
+            }
+            kitchenCapacityRepository.upsertLimit(chefId, maxActiveOrders);
+            kitchenCapacityRepository.recountActiveOrders(chefId);
+        }
+        afterCommit(() -> slots.invalidate(chefId));
+        logger.info("Chef {} set kitchen capacity to {}", chefId, maxActiveOrders);
+        return load(chefId);
+    }
+
+    @Transactional(readOnly = true)
+    public KitchenLoad getKitchenLoad(Long chefId) {
+        requireChef(chefId);
+        return load(chefId);
+    }
+
+    // Catches up on a refill missed while no instance was running, and repairs drifted slot counts
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcile() {
+        int restocked = foodItemRepository.restock(LocalDate.now());
+        int chefs = kitchenCapacityRepository.recountActiveOrders(null);
+        if (restocked > 0) {
+            foodItemService.catalogChanged();
+        }
+        logger.info("Refilled the daily stock of {} food items and recounted active orders of {} chefs", restocked, chefs);
+    }
+
+    // Idempotent: every instance runs it, the first one to get there does the refill
+    @Scheduled(cron = "${capacity.restock-cron:0 0 0 * * *}")
+    @Transactional
+    public void restockDaily() {
+        int restocked = foodItemRepository.restock(LocalDate.now());
+        afterCommit(stock::clear);
+        if (restocked > 0) {
+            foodItemService.catalogChanged();
+            logger.info("Refilled the daily stock of {} food items", restocked);
+        }
+    }
+
+    private KitchenLoad load(Long chefId) {
+        return kitchenCapacityRepository.findById(chefId)
+                .map(capacity -> new KitchenLoad(chefId, capacity.getMaxActiveOrders(), capacity.getActiveOrders()))
+                .orElseGet(() -> new KitchenLoad(chefId, null, (int) chefOrderLineRepository.countActiveOrdersByChefId(chefId)));
+    }
+
+    private List<Long> releaseSlots(Collection<Long> chefIds) {
+        List<Long> freed = new ArrayList<>();
+        for (Long chefId : chefIds) {
+            if (kitchenCapacityRepository.releaseSlot(chefId) == 1) {
+                freed.add(chefId);
+            }
+        }
+        return freed;
+    }
+
+    private void giveBack(Map<Long, Integer> quantityByFoodId, Collection<Long> chefIds) {
+        quantityByFoodId.forEach(stock::give);
+        chefIds.forEach(chefId -> slots.give(chefId, 1));
+    }
+
+    private void requireChef(Long chefId) {
+        if (chefId == null) {
+            throw new IllegalArgumentException("chefId is required");
+        }
+        User chef = userService.findById(chefId);
+        if (!"CHEF".equals(chef.getRole())) {
+            throw new IllegalStateException("User must have CHEF role to manage kitchen capacity");
+        }
+    }
+
+    private IllegalStateException rejected(String reason, String message) {
+        meterRegistry.counter("capacity.rejected", "reason", reason).increment();
+        return new IllegalStateException(message);
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
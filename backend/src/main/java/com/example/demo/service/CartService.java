@@ -1,16 +1,22 @@
 package com.example.demo.service;
 
+import com.example.demo.config.ReadYourWritesTracker;
+import com.example.demo.dto.CartDeltaRequest;
 import com.example.demo.dto.CartItemDto;
+import com.example.demo.dto.CartQuantityDto;
 import com.example.demo.model.AddToCart;
 import com.example.demo.model.FoodItem;
 import com.example.demo.repository.AddToCartRepository;
 import com.example.demo.repository.FoodItemRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,8 +28,15 @@ public class CartService {
     @Autowired
     private FoodItemRepository foodItemRepository;
 
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Timed("service.calls")
     @Transactional
-    public AddToCart addToCart(Long userId, Long foodId, Integer quantity) {
+    public CartItemDto addToCart(Long userId, Long foodId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
         FoodItem foodItem = foodItemRepository.findById(foodId)
             .orElseThrow(() -> new RuntimeException("Food item not found: " + foodId));
 
@@ -31,17 +44,12 @@ public class CartService {
             throw new RuntimeException("Food item is not available: " + foodId);
         }
 
-        Optional<AddToCart> existingCartItem = addToCartRepository.findByUserIdAndFoodId(userId, foodId);
-        if (existingCartItem.isPresent()) {
-            AddToCart cartItem = existingCartItem.get();
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
-            return addToCartRepository.save(cartItem);
-        }
-
-        AddToCart newCartItem = new AddToCart(foodId, userId, quantity);
-        return addToCartRepository.save(newCartItem);
+        int newQuantity = upsert(userId, foodId, quantity);
+        readYourWritesTracker.recordWrite(userId);
+        return toDto(userId, foodItem, newQuantity);
     }
 
+    @Timed("service.calls")
     public List<CartItemDto> getCartItemsByUser(Long userId) {
         List<AddToCart> cartItems = addToCartRepository.findByUserId(userId);
         return cartItems.stream().map(this::convertToDto).collect(Collectors.toList());
@@ -49,45 +57,111 @@ public class CartService {
 
     @Transactional
     public CartItemDto increaseQuantity(Long userId, Long foodId) {
-        AddToCart cartItem = addToCartRepository.findByUserIdAndFoodId(userId, foodId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        cartItem.setQuantity(cartItem.getQuantity() + 1);
-        addToCartRepository.save(cartItem);
-        return convertToDto(cartItem);
+        if (addToCartRepository.adjustQuantity(userId, foodId, 1) == 0) {
+            throw new RuntimeException("Cart item not found");
+        }
+        readYourWritesTracker.recordWrite(userId);
+        return toDto(userId, findFoodItem(foodId), addToCartRepository.lastInsertId().intValue());
     }
 
     @Transactional
     public CartItemDto decreaseQuantity(Long userId, Long foodId) {
-        AddToCart cartItem = addToCartRepository.findByUserIdAndFoodId(userId, foodId)
-            .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        if (cartItem.getQuantity() <= 1) {
-            throw new RuntimeException("Quantity cannot be less than 1");
+        if (addToCartRepository.adjustQuantity(userId, foodId, -1) == 0) {
+            if (addToCartRepository.existsByUserIdAndFoodId(userId, foodId)) {
+                throw new RuntimeException("Quantity cannot be less than 1");
+            }
+            throw new RuntimeException("Cart item not found");
         }
-        cartItem.setQuantity(cartItem.getQuantity() - 1);
-        addToCartRepository.save(cartItem);
-        return convertToDto(cartItem);
+        readYourWritesTracker.recordWrite(userId);
+        return toDto(userId, findFoodItem(foodId), addToCartRepository.lastInsertId().intValue());
+    }
+
+    /**
+     * Applies several quantity deltas to a user's cart in one transaction.
+     * Positive deltas upsert the row, negative deltas decrement it and remove the
+     * row once the quantity would reach zero. Returns the resulting quantity per food item.
+     */
+    @Timed("service.calls")
+    @Transactional
+    public List<CartQuantityDto> applyCartDeltas(Long userId, List<CartDeltaRequest> deltas) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        if (deltas == null || deltas.isEmpty()) {
+            throw new IllegalArgumentException("items cannot be null or empty");
+        }
+
+        List<Long> addedFoodIds = deltas.stream()
+            .filter(d -> d.getDelta() != null && d.getDelta() > 0)
+            .map(CartDeltaRequest::getFoodId)
+            .distinct()
+            .collect(Collectors.toList());
+        Map<Long, FoodItem> addedFoods = foodItemRepository.findAllById(addedFoodIds).stream()
+            .collect(Collectors.toMap(FoodItem::getId, Function.identity()));
+
+        List<CartQuantityDto> results = new ArrayList<>();
+        for (CartDeltaRequest delta : deltas) {
+            Long foodId = delta.getFoodId();
+            Integer amount = delta.getDelta();
+            if (foodId == null || amount == null || amount == 0) {
+                throw new IllegalArgumentException("Each item needs a foodId and a non-zero delta");
+            }
+
+            if (amount > 0) {
+                FoodItem foodItem = addedFoods.get(foodId);
+                if (foodItem == null) {
+                    throw new IllegalArgumentException("Food item not found: " + foodId);
+                }
+                if (!foodItem.getAvailable()) {
+                    throw new IllegalStateException("Food item is not available: " + foodId);
+                }
+                results.add(new CartQuantityDto(foodId, upsert(userId, foodId, amount)));
+            } else if (addToCartRepository.adjustQuantity(userId, foodId, amount) > 0) {
+                results.add(new CartQuantityDto(foodId, addToCartRepository.lastInsertId().intValue()));
+            } else if (addToCartRepository.deleteIfDepleted(userId, foodId, amount) > 0) {
+                results.add(new CartQuantityDto(foodId, 0));
+            } else {
+                throw new IllegalArgumentException("Cart item not found: " + foodId);
+            }
+        }
+        readYourWritesTracker.recordWrite(userId);
+        return results;
     }
 
     @Transactional
     public void deleteCartItem(Long userId, Long foodId) {
         addToCartRepository.deleteByUserIdAndFoodId(userId, foodId);
+        readYourWritesTracker.recordWrite(userId);
     }
 
     @Transactional
     public void clearCart(Long userId) {
-        List<AddToCart> cartItems = addToCartRepository.findByUserId(userId);
-        addToCartRepository.deleteAll(cartItems);
+        addToCartRepository.deleteAllByUserId(userId);
+        readYourWritesTracker.recordWrite(userId);
     }
 
     public CartItemDto convertToDto(AddToCart cartItem) {
-        FoodItem foodItem = foodItemRepository.findById(cartItem.getFoodId())
-            .orElseThrow(() -> new RuntimeException("Food item not found: " + cartItem.getFoodId()));
+        CartItemDto dto = toDto(cartItem.getUserId(), findFoodItem(cartItem.getFoodId()), cartItem.getQuantity());
+        dto.setId(cartItem.getId());
+        return dto;
+    }
 
+    // Upsert returns 1 for a fresh insert (quantity is the requested amount) and 2 when an existing row was incremented.
+    private int upsert(Long userId, Long foodId, Integer quantity) {
+        int affected = addToCartRepository.upsertQuantity(userId, foodId, quantity);
+        return affected == 1 ? quantity : addToCartRepository.lastInsertId().intValue();
+    }
+
+    private FoodItem findFoodItem(Long foodId) {
+        return foodItemRepository.findById(foodId)
+            .orElseThrow(() -> new RuntimeException("Food item not found: " + foodId));
+    }
+
+    private CartItemDto toDto(Long userId, FoodItem foodItem, Integer quantity) {
         CartItemDto dto = new CartItemDto();
-        dto.setId(cartItem.getId());
-        dto.setFoodId(cartItem.getFoodId());
-        dto.setUserId(cartItem.getUserId());
-        dto.setQuantity(cartItem.getQuantity());
+        dto.setFoodId(foodItem.getId());
+        dto.setUserId(userId);
+        dto.setQuantity(quantity);
         dto.setName(foodItem.getName());
         dto.setPrice(foodItem.getPrice() != null ? foodItem.getPrice() :
                      foodItem.getOriginalPrice() * (1 - (foodItem.getDiscountPercentage() != null ? foodItem.getDiscountPercentage() / 100 : 0)));
@@ -99,4 +173,4 @@ public class CartService {
         dto.setDiscountPercentage(foodItem.getDiscountPercentage());
         return dto;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.repository.ChefOrderLineRepository;
+import com.example.demo.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the chef_order_lines projection used by the chef kitchen queue.
+ * Every write happens inside the caller's order transaction so the index never
+ * disagrees with the orders it was built from.
+ */
+@Service
+public class ChefOrderIndexService {
+    private static final Logger logger = LoggerFactory.getLogger(ChefOrderIndexService.class);
+
+    @Autowired
+    private ChefOrderLineRepository chefOrderLineRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Transactional
+    public void indexOrder(Order order) {
+        orderRepository.flush();
+        int lines = chefOrderLineRepository.indexOrder(order.getId());
+        logger.debug("Indexed {} chef order lines for orderId={}", lines, order.getId());
+    }
+
+    @Transactional
+    public void syncStatus(Order order) {
+        chefOrderLineRepository.updateStatusByOrderId(order.getId(), order.getStatus());
+    }
+
+    @Transactional
+    public void removeOrderItems(List<Long> orderItemIds) {
+        if (orderItemIds != null && !orderItemIds.isEmpty()) {
+            chefOrderLineRepository.deleteByOrderItemIds(orderItemIds);
+        }
+    }
+
+    // Ids of the orders in the chef's queue, most urgent first, off a cursor the caller closes inside its transaction
+    @Transactional(readOnly = true)
+    public Stream<Long> streamQueueOrderIds(Long chefId, String status) {
+        if (status == null) {
+            return chefOrderLineRepository.streamOrderIdsByChefId(chefId);
+        }
+        return chefOrderLineRepository.streamOrderIdsByChefIdAndStatus(chefId, status);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int lines = chefOrderLineRepository.backfillMissingLines();
+        if (lines > 0) {
+            logger.info("Backfilled {} chef order lines for existing orders", lines);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.AddToCartRepository;
+import com.example.demo.repository.OtpRepository;
+import com.example.demo.repository.PendingUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Purges rows nothing will read again: expired OTPs, signups that were never verified and carts
+ * left untouched for weeks. Also moves old finished orders to the archive tables through
+ * {@link OrderArchiveService}. Each job works in bounded batches, one transaction per batch, and
+ * runs on one instance at a time through {@link JobLockService}.
+ *
+ * Metrics: cleanup.run (timer, tagged by job and outcome) and cleanup.rows.deleted (counter, by job;
+ * for order-archive it counts orders moved out of the hot tables).
+ */
+@Service
+@ConditionalOnProperty(prefix = "cleanup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CleanupService {
+    private static final Logger logger = LoggerFactory.getLogger(CleanupService.class);
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    @Autowired
+    private PendingUserRepository pendingUserRepository;
+
+    @Autowired
+    private AddToCartRepository addToCartRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cleanup.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${cleanup.pending-user.max-age-hours:24}")
+    private long pendingUserMaxAgeHours;
+
+    @Value("${cleanup.cart.max-idle-days:30}")
+    private long cartMaxIdleDays;
+
+    @Value("${order-archive.enabled:true}")
+    private boolean orderArchiveEnabled;
+
+    @Value("${order-archive.batch-size:100}")
+    private int orderArchiveBatchSize;
+
+    @Value("${cleanup.lock-at-most-seconds:900}")
+    private long lockAtMostSeconds;
+
+    @Value("${cleanup.lock-at-least-seconds:60}")
+    private long lockAtLeastSeconds;
+
+    @Scheduled(initialDelayString = "${cleanup.initial-delay-ms:60000}", fixedDelayString = "${cleanup.interval-ms:600000}")
+    public void purgeExpiredOtps() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        runJob("otp-expiry", batchSize, limit -> otpRepository.deleteExpiredBatch(cutoff, limit));
+    }
+
+    @Scheduled(initialDelayString = "${cleanup.initial-delay-ms:60000}", fixedDelayString = "${cleanup.interval-ms:600000}")
+    public void purgeStalePendingUsers() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(pendingUserMaxAgeHours);
+        runJob("pending-user-expiry", batchSize, limit -> pendingUserRepository.deleteStaleBatch(cutoff, limit));
+    }
+
+    @Scheduled(initialDelayString = "${cleanup.initial-delay-ms:60000}", fixedDelayString = "${cleanup.interval-ms:600000}")
+    public void purgeAbandonedCarts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(cartMaxIdleDays);
+        runJob("abandoned-cart", batchSize, limit -> addToCartRepository.deleteIdleBatch(cutoff, limit));
+    }
+
+    @Scheduled(initialDelayString = "${cleanup.initial-delay-ms:60000}", fixedDelayString = "${order-archive.interval-ms:3600000}")
+    public void archiveOrders() {
+        if (!orderArchiveEnabled) {
+            return;
+        }
+        // Orders carry several rows each, so they move in smaller batches than the purges
+        runJob("order-archive", orderArchiveBatchSize, orderArchiveService::archiveBatch);
+        orderArchiveService.recordStorage();
+    }
+
+    // deleteBatch deletes at most the given number of rows and returns how many it deleted
+    private void runJob(String job, int batchSize, IntUnaryOperator deleteBatch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            int[] deleted = new int[1];
+            boolean ran = jobLockService.runExclusively(job, Duration.ofSeconds(lockAtMostSeconds),
+                    Duration.ofSeconds(lockAtLeastSeconds), () -> deleted[0] = deleteInBatches(batchSize, deleteBatch));
+            outcome = ran ? "completed" : "skipped";
+            if (deleted[0] > 0) {
+                meterRegistry.counter("cleanup.rows.deleted", "job", job).increment(deleted[0]);
+                logger.info("Cleanup job {} deleted {} rows", job, deleted[0]);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Cleanup job {} failed: {}", job, e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("cleanup.run", "job", job, "outcome", outcome));
+        }
+    }
+
+    private int deleteInBatches(int batchSize, IntUnaryOperator deleteBatch) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = deleteBatch.applyAsInt(batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
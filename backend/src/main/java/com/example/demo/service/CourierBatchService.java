@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CourierPosition;
+import com.example.demo.dto.DeliveryBatch;
+import com.example.demo.model.User;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.utility.GeoPoints;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-stop trips for couriers, built by {@link DeliveryBatcher} from the unclaimed READY pool.
+ * Like the delivery snapshot's READY pool, the batches are built once per delivery version and shared
+ * by all couriers for at most delivery.batch.ttl-ms. A courier with a live position sees the batches
+ * starting nearest to them first.
+ *
+ * Claiming takes the first batch that still has orders left, claiming each order with the usual
+ * conditional update; orders another courier took in the meantime are dropped from the route.
+ */
+@Service
+public class CourierBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(CourierBatchService.class);
+    // Batches tried per claim before giving up; each failed try means another courier beat us to it
+    private static final int CLAIM_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourierLocationService courierLocationService;
+
+    @Value("${delivery.batch.pickup-radius-meters:500}")
+    private double pickupRadiusMeters;
+
+    @Value("${delivery.batch.dropoff-radius-meters:1500}")
+    private double dropoffRadiusMeters;
+
+    @Value("${delivery.batch.max-orders:4}")
+    private int maxOrders;
+
+    @Value("${delivery.batch.route-budget-ms:5}")
+    private long routeBudgetMillis;
+
+    @Value("${delivery.batch.ttl-ms:5000}")
+    private long ttlMillis;
+
+    private DeliveryBatcher batcher;
+    private final ReentrantLock batchesLock = new ReentrantLock();
+    private volatile Batches batches;
+
+    private record Batches(String version, long expiresAtNanos, List<DeliveryBatch> batches) {
+        boolean isFresh(String currentVersion) {
+            return version.equals(currentVersion) && expiresAtNanos - System.nanoTime() > 0;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        batcher = new DeliveryBatcher(pickupRadiusMeters, dropoffRadiusMeters, maxOrders,
+                TimeUnit.MILLISECONDS.toNanos(routeBudgetMillis));
+    }
+
+    public List<DeliveryBatch> getBatches(Long courierId) {
+        if (courierId == null) {
+            throw new IllegalArgumentException("deliveryId is required");
+        }
+        User courier = userService.findById(courierId);
+        if (!"DELIVERY".equals(courier.getRole())) {
+            throw new IllegalStateException("User must have DELIVERY role to fetch delivery batches");
+        }
+        return nearestFirst(courierId, currentBatches());
+    }
+
+    /**
+     * Claims the best available batch for the courier. Returns the part of it this courier now holds,
+     * or null when every batch tried was taken by other couriers first or there is none.
+     */
+    public DeliveryBatch claimBatch(Long courierId) {
+        List<DeliveryBatch> candidates = getBatches(courierId);
+        for (DeliveryBatch batch : candidates.subList(0, Math.min(candidates.size(), CLAIM_ATTEMPTS))) {
+            List<Long> claimed = orderService.assignBatch(batch.orderIds(), courierId);
+            if (!claimed.isEmpty()) {
+                logger.info("Courier courierId={} claimed {} of {} orders in batch {}",
+                        courierId, claimed.size(), batch.orderIds().size(), batch.orderIds());
+                return DeliveryBatcher.retain(batch, claimed);
+            }
+        }
+        return null;
+    }
+
+    private List<DeliveryBatch> currentBatches() {
+        String version = orderService.getDeliveryVersion();
+        Batches current = batches;
+        if (current != null && current.isFresh(version)) {
+            return current.batches();
+        }
+        // One request rebuilds the batches; couriers arriving meanwhile wait for it instead of querying too
+        batchesLock.lock();
+        try {
+            current = batches;
+            if (current == null || !current.isFresh(version)) {
+                current = new Batches(version, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis),
+                        List.copyOf(batcher.batch(loadJobs())));
+                batches = current;
+            }
+            return current.batches();
+        } finally {
+            batchesLock.unlock();
+        }
+    }
+
+    // Rows come ordered by order id, one per chef of the order, so the jobs stay oldest first
+    private List<DeliveryBatcher.Job> loadJobs() {
+        Map<Long, DeliveryBatcher.Job> jobs = new LinkedHashMap<>();
+        for (Object[] row : orderRepository.findUnclaimedReadyStops()) {
+            long orderId = ((Number) row[0]).longValue();
+            DeliveryBatcher.Job job = jobs.computeIfAbsent(orderId, id ->
+                    new DeliveryBatcher.Job(id, new LinkedHashMap<>(), GeoPoints.parse((String) row[1])));
+            job.pickups().put(((Number) row[2]).longValue(), GeoPoints.parse((String) row[3]));
+        }
+        return new ArrayList<>(jobs.values());
+    }
+
+    private List<DeliveryBatch> nearestFirst(Long courierId, List<DeliveryBatch> all) {
+        CourierPosition position = courierLocationService.getLocation(courierId);
+        if (position == null) {
+            return all;
+        }
+        GeoPoints.Point at = new GeoPoints.Point(position.latitude(), position.longitude());
+        List<DeliveryBatch> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparingDouble(batch -> batch.stops().isEmpty() ? Double.MAX_VALUE
+                : GeoPoints.distanceMeters(at, new GeoPoints.Point(batch.stops().get(0).latitude(), batch.stops().get(0).longitude()))));
+        return sorted;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CourierPosition;
+import com.example.demo.dto.LocationUpdateRequest;
+import com.example.demo.model.User;
+import com.example.demo.utility.GeoPoints;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Courier pings for live order tracking. Pings and reads are served from {@link CourierLocationStore};
+ * the database only sees one sampled row per moving courier per flush, written as a single batch.
+ * Only the first ping of a courier touches the database, to check the DELIVERY role.
+ *
+ * The store is per instance, so with several instances a courier's pings and the reads for that
+ * courier must reach the same one.
+ */
+@Service
+public class CourierLocationService {
+    private static final Logger logger = LoggerFactory.getLogger(CourierLocationService.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO courier_locations (courier_id, latitude, longitude, recorded_at) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${delivery.location.trail-size:64}")
+    private int trailSize;
+
+    @Value("${delivery.location.min-move-meters:25}")
+    private double minMoveMeters;
+
+    private CourierLocationStore store;
+    private Counter pings;
+    private Counter saved;
+
+    @PostConstruct
+    void init() {
+        store = new CourierLocationStore(trailSize);
+        pings = meterRegistry.counter("delivery.location.pings");
+        saved = meterRegistry.counter("delivery.location.saved");
+        Gauge.builder("delivery.location.couriers", store, CourierLocationStore::size)
+                .description("Couriers with a position in memory")
+                .register(meterRegistry);
+    }
+
+    public CourierPosition updateLocation(Long courierId, LocationUpdateRequest request) {
+        if (courierId == null) {
+            throw new IllegalArgumentException("deliveryId is required");
+        }
+        if (request == null || request.getLatitude() == null || request.getLongitude() == null) {
+            throw new IllegalArgumentException("latitude and longitude are required");
+        }
+        GeoPoints.validate(request.getLatitude(), request.getLongitude());
+        if (!store.isTracked(courierId)) {
+            User courier = userService.findById(courierId);
+            if (!"DELIVERY".equals(courier.getRole())) {
+                throw new IllegalStateException("User must have DELIVERY role to share a location");
+            }
+        }
+        // Device clocks run ahead at times; a fix is never taken to be newer than its arrival
+        Instant now = Instant.now();
+        Instant takenAt = request.getTimestamp() != null && request.getTimestamp().isBefore(now) ? request.getTimestamp() : now;
+        CourierPosition position = new CourierPosition(request.getLatitude(), request.getLongitude(),
+                LocalDateTime.ofInstant(takenAt, ZoneId.systemDefault()));
+        pings.increment();
+        return store.record(courierId, position);
+    }
+
+    public CourierPosition getLocation(Long courierId) {
+        return store.latest(courierId);
+    }
+
+    public List<CourierPosition> getTrail(Long courierId) {
+        return store.trail(courierId);
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.location.flush-interval-ms:10000}")
+    public void flush() {
+        Map<Long, CourierPosition> positions = store.drainUnsaved(minMoveMeters);
+        if (positions.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(positions.size());
+        positions.forEach((courierId, position) -> rows.add(new Object[] {
+                courierId, position.latitude(), position.longitude(), Timestamp.valueOf(position.recordedAt())}));
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            saved.increment(rows.size());
+        } catch (RuntimeException e) {
+            // The history is a sample; losing one flush only leaves a gap, live positions are unaffected
+            logger.warn("Failed to save {} courier positions: {}", rows.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CourierPosition;
+import com.example.demo.utility.GeoPoints;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latest position and recent trail per courier, kept in memory without locks: the latest fix is a
+ * compare-and-set on an immutable record, the trail a fixed-size ring of the last pings. Pings that
+ * arrive out of order go into the trail but never replace a newer latest fix.
+ *
+ * Positions waiting to be saved are coalesced per courier, so a flush writes at most one row per
+ * courier however often it pinged in between. Plain class so the benchmarks can drive it directly.
+ */
+public final class CourierLocationStore {
+    private static final Comparator<CourierPosition> BY_TIME = Comparator.comparing(CourierPosition::recordedAt);
+
+    private final int trailSize;
+    private final ConcurrentHashMap<Long, Track> tracks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CourierPosition> unsaved = new ConcurrentHashMap<>();
+
+    public CourierLocationStore(int trailSize) {
+        if (trailSize < 1) {
+            throw new IllegalArgumentException("trailSize must be at least 1");
+        }
+        this.trailSize = trailSize;
+    }
+
+    /**
+     * Records a ping and returns the courier's latest position afterwards.
+     */
+    public CourierPosition record(long courierId, CourierPosition position) {
+        Track track = tracks.get(courierId);
+        if (track == null) {
+            track = tracks.computeIfAbsent(courierId, id -> new Track(trailSize));
+        }
+        track.append(position);
+        CourierPosition latest = track.offerLatest(position);
+        if (latest == position) {
+            unsaved.put(courierId, position);
+        }
+        return latest;
+    }
+
+    public boolean isTracked(long courierId) {
+        return tracks.containsKey(courierId);
+    }
+
+    public CourierPosition latest(long courierId) {
+        Track track = tracks.get(courierId);
+        return track != null ? track.latest.get() : null;
+    }
+
+    /**
+     * The courier's recent pings, oldest first; empty if the courier never pinged.
+     */
+    public List<CourierPosition> trail(long courierId) {
+        Track track = tracks.get(courierId);
+        if (track == null) {
+            return new ArrayList<>();
+        }
+        List<CourierPosition> trail = track.snapshot();
+        trail.sort(BY_TIME);
+        return trail;
+    }
+
+    public int size() {
+        return tracks.size();
+    }
+
+    /**
+     * Takes the positions recorded since the last drain, one per courier, leaving out couriers that
+     * moved less than minMoveMeters since their last saved position.
+     */
+    public Map<Long, CourierPosition> drainUnsaved(double minMoveMeters) {
+        Map<Long, CourierPosition> drained = new HashMap<>();
+        for (Long courierId : unsaved.keySet()) {
+            CourierPosition position = unsaved.remove(courierId);
+            if (position == null) {
+                continue;
+            }
+            Track track = tracks.get(courierId);
+            CourierPosition lastSaved = track.lastSaved;
+            if (lastSaved != null && GeoPoints.distanceMeters(lastSaved.latitude(), lastSaved.longitude(),
+                    position.latitude(), position.longitude()) < minMoveMeters) {
+                continue;
+            }
+            track.lastSaved = position;
+            drained.put(courierId, position);
+        }
+        return drained;
+    }
+
+    private static final class Track {
+        private final AtomicReference<CourierPosition> latest = new AtomicReference<>();
+        private final AtomicReferenceArray<CourierPosition> ring;
+        private final AtomicLong cursor = new AtomicLong();
+        private volatile CourierPosition lastSaved; // Only touched by the single flushing thread
+
+        Track(int size) {
+            this.ring = new AtomicReferenceArray<>(size);
+        }
+
+        void append(CourierPosition position) {
+            ring.set((int) (cursor.getAndIncrement() % ring.length()), position);
+        }
+
+        // Returns the latest fix after the offer: the given one unless a newer one is already there
+        CourierPosition offerLatest(CourierPosition position) {
+            return latest.accumulateAndGet(position,
+                    (current, offered) -> current == null || !offered.recordedAt().isBefore(current.recordedAt()) ? offered : current);
+        }
+
+        List<CourierPosition> snapshot() {
+            List<CourierPosition> positions = new ArrayList<>(ring.length());
+            for (int i = 0; i < ring.length(); i++) {
+                CourierPosition position = ring.get(i);
+                if (position != null) {
+                    positions.add(position);
+                }
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.DataVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Versions of the data sets behind the ETags of cached reads. Each set has a counter row in
+ * data_version that is bumped in the same transaction as the write, so every instance derives the
+ * same tag from the same committed state and a write on one instance invalidates the tags of all.
+ *
+ * While a change is younger than the replica lag window the tag carries a marker, so a read served
+ * by a lagging replica right after the commit is not cached under the final tag.
+ */
+@Service
+public class DataVersionService {
+    // Menu items, their availability and stock, and the chefs shown with them
+    public static final String MENU = "menu";
+    // Posts, comments and likes, plus the author names and pictures shown with them
+    public static final String FEED = "feed";
+    // Ready and in-flight orders: chef and courier status changes, courier claims, cash payments
+    public static final String DELIVERY = "delivery";
+
+    @Autowired
+    private DataVersionRepository dataVersionRepository;
+
+    @Value("${datasource.routing.enabled:false}")
+    private boolean replicasEnabled;
+
+    @Value("${datasource.routing.max-lag-seconds:5}")
+    private long replicaMaxLagSeconds;
+
+    /**
+     * Current tag of the given data sets, read in one query, e.g. "delivery-12.menu-40".
+     */
+    public String tag(String... names) {
+        Map<String, String> versions = new HashMap<>();
+        for (Object[] row : dataVersionRepository.findVersions(Arrays.asList(names), replicasEnabled ? replicaMaxLagSeconds : 0)) {
+            boolean settling = row[2] != null && ((Number) row[2]).intValue() != 0;
+            versions.put((String) row[0], row[1] + (settling ? "-lag" : ""));
+        }
+        StringBuilder tag = new StringBuilder();
+        for (String name : names) {
+            if (tag.length() > 0) {
+                tag.append('.');
+            }
+            tag.append(name).append('-').append(versions.getOrDefault(name, "0"));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Records a change to the data set. Inside a transaction the bump is deferred to just before
+     * commit, so the row lock is held only briefly and several changes in one transaction bump once;
+     * bumps run in name order so concurrent writers touching several sets cannot deadlock.
+     */
+    public void changed(String name) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            dataVersionRepository.bump(name);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps pending) {
+                pending.names.add(name);
+                return;
+            }
+        }
+        PendingBumps pending = new PendingBumps();
+        pending.names.add(name);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private class PendingBumps implements TransactionSynchronization {
+        private final SortedSet<String> names = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            names.forEach(dataVersionRepository::bump);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchStop;
+import com.example.demo.dto.DeliveryBatch;
+import com.example.demo.utility.GeoPoints;
+import com.example.demo.utility.RoutePlanner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups READY orders into multi-stop trips. An order joins an older order's batch when its kitchen
+ * lies within pickupRadiusMeters of the older order's kitchen and its customer within
+ * dropoffRadiusMeters of the older order's customer. Among those, the nearest drop-offs join first,
+ * up to maxOrders per batch. Candidates come from a grid of pickupRadiusMeters cells, so grouping
+ * the whole READY pool stays close to linear in its size.
+ *
+ * Orders with items from several chefs, or without usable coordinates, are never grouped. They
+ * still get a route of their own. Each batch visits its kitchens first and then its customers, and
+ * {@link RoutePlanner} orders both legs within routeBudgetNanos. Plain class so the benchmarks can
+ * drive it directly.
+ */
+public final class DeliveryBatcher {
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    /**
+     * One READY order: its kitchens by chef id (null points when a chef has no coordinate) and its
+     * customer (null when the order has no usable coordinate).
+     */
+    public record Job(long orderId, Map<Long, GeoPoints.Point> pickups, GeoPoints.Point dropoff) {
+        boolean groupable() {
+            return pickups.size() == 1 && pickup() != null && dropoff != null;
+        }
+
+        GeoPoints.Point pickup() {
+            return pickups.values().iterator().next();
+        }
+    }
+
+    private final double pickupRadiusMeters;
+    private final double dropoffRadiusMeters;
+    private final int maxOrders;
+    private final long routeBudgetNanos;
+
+    public DeliveryBatcher(double pickupRadiusMeters, double dropoffRadiusMeters, int maxOrders, long routeBudgetNanos) {
+        if (pickupRadiusMeters <= 0 || dropoffRadiusMeters <= 0 || maxOrders < 1) {
+            throw new IllegalArgumentException("Radii must be positive and maxOrders at least 1");
+        }
+        this.pickupRadiusMeters = pickupRadiusMeters;
+        this.dropoffRadiusMeters = dropoffRadiusMeters;
+        this.maxOrders = maxOrders;
+        this.routeBudgetNanos = routeBudgetNanos;
+    }
+
+    /**
+     * Splits the jobs into batches. Jobs are taken oldest first in the order given, so the oldest
+     * waiting order always seeds its own batch.
+     */
+    public List<DeliveryBatch> batch(List<Job> jobs) {
+        // Equirectangular projection around the pool's first kitchen; plenty accurate across one city
+        double cosLatitude = jobs.stream().filter(Job::groupable).findFirst()
+                .map(job -> Math.cos(Math.toRadians(job.pickup().latitude()))).orElse(1.0);
+        Map<Long, List<Job>> cells = new HashMap<>();
+        for (Job job : jobs) {
+            if (job.groupable()) {
+                cells.computeIfAbsent(cell(job.pickup(), cosLatitude, 0, 0), key -> new ArrayList<>()).add(job);
+            }
+        }
+
+        Set<Long> batched = new HashSet<>();
+        List<DeliveryBatch> batches = new ArrayList<>();
+        for (Job seed : jobs) {
+            if (!batched.add(seed.orderId())) {
+                continue;
+            }
+            List<Job> members = new ArrayList<>();
+            members.add(seed);
+            if (seed.groupable() && maxOrders > 1) {
+                // The maxOrders - 1 nearest drop-offs so far, nearest first; batches are small, so insertion beats sorting
+                Job[] nearest = new Job[maxOrders - 1];
+                double[] nearestMeters = new double[maxOrders - 1];
+                int found = 0;
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (Job job : cells.getOrDefault(cell(seed.pickup(), cosLatitude, dx, dy), List.of())) {
+                            if (batched.contains(job.orderId())
+                                    || GeoPoints.distanceMeters(seed.pickup(), job.pickup()) > pickupRadiusMeters) {
+                                continue;
+                            }
+                            double meters = GeoPoints.distanceMeters(seed.dropoff(), job.dropoff());
+                            if (meters > dropoffRadiusMeters || (found == nearest.length && meters >= nearestMeters[found - 1])) {
+                                continue;
+                            }
+                            int at = found < nearest.length ? found++ : found - 1;
+                            for (; at > 0 && nearestMeters[at - 1] > meters; at--) {
+                                nearest[at] = nearest[at - 1];
+                                nearestMeters[at] = nearestMeters[at - 1];
+                            }
+                            nearest[at] = job;
+                            nearestMeters[at] = meters;
+                        }
+                    }
+                }
+                for (int i = 0; i < found; i++) {
+                    batched.add(nearest[i].orderId());
+                    members.add(nearest[i]);
+                }
+            }
+            batches.add(route(members));
+        }
+        return batches;
+    }
+
+    /**
+     * The part of a batch that covers only the given orders, with the route kept in its order.
+     */
+    public static DeliveryBatch retain(DeliveryBatch batch, Collection<Long> orderIds) {
+        List<BatchStop> stops = new ArrayList<>();
+        for (BatchStop stop : batch.stops()) {
+            List<Long> kept = stop.orderIds().stream().filter(orderIds::contains).toList();
+            if (!kept.isEmpty()) {
+                stops.add(new BatchStop(stop.type(), stop.chefId(), kept, stop.latitude(), stop.longitude()));
+            }
+        }
+        return new DeliveryBatch(batch.orderIds().stream().filter(orderIds::contains).toList(), stops, length(stops));
+    }
+
+    private DeliveryBatch route(List<Job> members) {
+        // Kitchens in the order first seen, each with the orders collected there
+        Map<Long, GeoPoints.Point> kitchens = new LinkedHashMap<>();
+        Map<Long, List<Long>> ordersByChef = new HashMap<>();
+        List<Job> dropoffs = new ArrayList<>();
+        for (Job job : members) {
+            job.pickups().forEach((chefId, point) -> {
+                if (point != null) {
+                    kitchens.putIfAbsent(chefId, point);
+                    ordersByChef.computeIfAbsent(chefId, id -> new ArrayList<>()).add(job.orderId());
+                }
+            });
+            if (job.dropoff() != null) {
+                dropoffs.add(job);
+            }
+        }
+
+        List<BatchStop> stops = new ArrayList<>();
+        List<Long> chefIds = new ArrayList<>(kitchens.keySet());
+        GeoPoints.Point at = null;
+        if (!chefIds.isEmpty()) {
+            at = kitchens.get(chefIds.get(0));
+            stops.add(pickup(chefIds.get(0), ordersByChef, at));
+            List<GeoPoints.Point> rest = chefIds.subList(1, chefIds.size()).stream().map(kitchens::get).toList();
+            for (int index : RoutePlanner.plan(at, rest, routeBudgetNanos)) {
+                Long chefId = chefIds.get(index + 1);
+                at = kitchens.get(chefId);
+                stops.add(pickup(chefId, ordersByChef, at));
+            }
+        }
+        if (!dropoffs.isEmpty()) {
+            List<GeoPoints.Point> points = dropoffs.stream().map(Job::dropoff).toList();
+            int[] order = at != null ? RoutePlanner.plan(at, points, routeBudgetNanos) : firstThenPlan(points);
+            for (int index : order) {
+                Job job = dropoffs.get(index);
+                stops.add(new BatchStop("DROPOFF", null, List.of(job.orderId()), job.dropoff().latitude(), job.dropoff().longitude()));
+            }
+        }
+        return new DeliveryBatch(members.stream().map(Job::orderId).toList(), stops, length(stops));
+    }
+
+    // No kitchen is known: start at the first customer
+    private int[] firstThenPlan(List<GeoPoints.Point> points) {
+        int[] rest = RoutePlanner.plan(points.get(0), points.subList(1, points.size()), routeBudgetNanos);
+        int[] order = new int[points.size()];
+        for (int i = 0; i < rest.length; i++) {
+            order[i + 1] = rest[i] + 1;
+        }
+        return order;
+    }
+
+    private static BatchStop pickup(Long chefId, Map<Long, List<Long>> ordersByChef, GeoPoints.Point point) {
+        return new BatchStop("PICKUP", chefId, List.copyOf(ordersByChef.get(chefId)), point.latitude(), point.longitude());
+    }
+
+    private static double length(List<BatchStop> stops) {
+        double meters = 0;
+        for (int i = 1; i < stops.size(); i++) {
+            BatchStop from = stops.get(i - 1);
+            BatchStop to = stops.get(i);
+            meters += GeoPoints.distanceMeters(from.latitude(), from.longitude(), to.latitude(), to.longitude());
+        }
+        return meters;
+    }
+
+    private long cell(GeoPoints.Point point, double cosLatitude, int dx, int dy) {
+        long x = (long) Math.floor(point.longitude() * cosLatitude * METERS_PER_DEGREE / pickupRadiusMeters) + dx;
+        long y = (long) Math.floor(point.latitude() * METERS_PER_DEGREE / pickupRadiusMeters) + dy;
+        return (x << 32) ^ (y & 0xffffffffL);
+    }
+}
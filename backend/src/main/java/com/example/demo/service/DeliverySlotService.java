@@ -0,0 +1,322 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DeliverySlotRequest;
+import com.example.demo.dto.SlotAvailability;
+import com.example.demo.model.DeliverySlot;
+import com.example.demo.model.DeliverySlotBooking;
+import com.example.demo.model.User;
+import com.example.demo.repository.DeliverySlotBookingRepository;
+import com.example.demo.repository.DeliverySlotRepository;
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.utility.StripedCounters;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery slots for pre-orders. A chef sets weekly slots (e.g. Friday 18:00-19:00) with a capacity
+ * per date; customers book an order into a dated slot, and the order waits as SCHEDULED until its
+ * release time, when {@link PreOrderReleaseService} hands it to the kitchen. The release time is the
+ * slot start minus the longest stated preparation time of the order's items and the delivery lead.
+ *
+ * Each chef's slots are kept as a precomputed grid by day of week, so a week of availability is the
+ * grid plus one query for the week's booking counters. Bookings follow the two steps of
+ * {@link CapacityService}: {@link #admit} takes a place from an in-memory counter before the order is
+ * written, and {@link #book} makes it durable with a conditional UPDATE as the last write.
+ *
+ * Metrics: capacity.rejected with reason slot-full.
+ */
+@Service
+public class DeliverySlotService {
+    private static final Logger logger = LoggerFactory.getLogger(DeliverySlotService.class);
+    // Counter keys pack the slot id above the date's epoch day, which fits in 24 bits until the year 47000
+    private static final int DATE_BITS = 24;
+
+    @Autowired
+    private DeliverySlotRepository slotRepository;
+
+    @Autowired
+    private DeliverySlotBookingRepository bookingRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${preorder.delivery-lead-minutes:30}")
+    private long deliveryLeadMinutes;
+
+    @Value("${preorder.max-days-ahead:7}")
+    private int maxDaysAhead;
+
+    @Value("${preorder.grid-ttl-ms:60000}")
+    private long gridTtlMillis;
+
+    @Value("${eta.default-prep-minutes:30}")
+    private double defaultPrepMinutes;
+
+    @Value("${capacity.counter-ttl-ms:1000}")
+    private long counterTtlMillis;
+
+    @Value("${capacity.lock-stripes:64}")
+    private int lockStripes;
+
+    private StripedCounters places;
+    private final Map<Long, Grid> grids = new ConcurrentHashMap<>();
+
+    // A chef's slots by day of week, Monday first, each day in start order
+    private record Grid(List<List<DeliverySlot>> byDay, long loadedAtNanos) {
+        List<DeliverySlot> on(LocalDate date) {
+            return byDay.get(date.getDayOfWeek().getValue() - 1);
+        }
+
+        DeliverySlot find(Long slotId) {
+            for (List<DeliverySlot> slots : byDay) {
+                for (DeliverySlot slot : slots) {
+                    if (slot.getId().equals(slotId)) {
+                        return slot;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A pre-order's place in a dated slot: when it is due and when it goes to the kitchen.
+     */
+    public record Booking(Long slotId, LocalDate date, LocalDateTime scheduledFor, LocalDateTime releaseAt) {}
+
+    @PostConstruct
+    void init() {
+        places = new StripedCounters(lockStripes, counterTtlMillis);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DeliverySlot> getSlots(Long chefId) {
+        requireChef(chefId);
+        return slotRepository.findByChefIdOrderByDayOfWeekAscStartsAtAsc(chefId);
+    }
+
+    @Transactional
+    public DeliverySlot addSlot(Long chefId, DeliverySlotRequest request) {
+        requireChef(chefId);
+        if (request.getDayOfWeek() == null || request.getStartsAt() == null || request.getEndsAt() == null) {
+            throw new IllegalArgumentException("A delivery slot needs dayOfWeek, startsAt and endsAt");
+        }
+        if (!request.getEndsAt().isAfter(request.getStartsAt())) {
+            throw new IllegalArgumentException("endsAt must be after startsAt on the same day");
+        }
+        if (request.getCapacity() == null || request.getCapacity() < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        DeliverySlot slot = slotRepository.save(new DeliverySlot(chefId, request.getDayOfWeek().getValue(),
+                request.getStartsAt().truncatedTo(ChronoUnit.MINUTES), request.getEndsAt().truncatedTo(ChronoUnit.MINUTES),
+                request.getCapacity()));
+        afterCommit(() -> grids.remove(chefId));
+        logger.info("Chef {} added delivery slot {}", chefId, slot.getId());
+        return slot;
+    }
+
+    /**
+     * Deletes one of the chef's slots and its booking counters. Orders already booked into it keep
+     * their time. Returns false if the chef has no such slot.
+     */
+    @Transactional
+    public boolean removeSlot(Long chefId, Long slotId) {
+        requireChef(chefId);
+        DeliverySlot slot = slotRepository.findById(slotId).orElse(null);
+        if (slot == null || !chefId.equals(slot.getChefId())) {
+            return false;
+        }
+        slotRepository.delete(slot);
+        afterCommit(() -> grids.remove(chefId));
+        logger.info("Chef {} removed delivery slot {}", chefId, slotId);
+        return true;
+    }
+
+    /**
+     * The chef's dated slots for the seven days starting at from (today when null or past), with the
+     * places left in each. Slots that have already started are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<SlotAvailability> getWeek(Long chefId, LocalDate from) {
+        requireChef(chefId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from != null && from.isAfter(now.toLocalDate()) ? from : now.toLocalDate();
+        LocalDate end = start.plusDays(6);
+        LocalDate lastBookable = now.toLocalDate().plusDays(maxDaysAhead);
+        if (end.isAfter(lastBookable)) {
+            end = lastBookable;
+        }
+        Grid grid = grid(chefId);
+        List<Long> slotIds = new ArrayList<>();
+        grid.byDay().forEach(slots -> slots.forEach(slot -> slotIds.add(slot.getId())));
+        if (slotIds.isEmpty() || end.isBefore(start)) {
+            return List.of();
+        }
+
+        Map<Long, Integer> bookedByKey = new HashMap<>();
+        for (DeliverySlotBooking booking : bookingRepository.findBySlotIdInAndSlotDateBetween(slotIds, start, end)) {
+            bookedByKey.put(key(booking.getSlotId(), booking.getSlotDate()), booking.getBooked());
+        }
+        List<SlotAvailability> week = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            for (DeliverySlot slot : grid.on(date)) {
+                if (date.atTime(slot.getStartsAt()).isAfter(now)) {
+                    int booked = bookedByKey.getOrDefault(key(slot.getId(), date), 0);
+                    week.add(new SlotAvailability(slot.getId(), date, slot.getStartsAt(), slot.getEndsAt(), slot.getCapacity(),
+                            Math.max(slot.getCapacity() - booked, 0)));
+                }
+            }
+        }
+        return week;
+    }
+
+    /**
+     * Takes a place in the chef's dated slot from the in-memory counter, or throws if the slot does
+     * not fit the order or is full. Call inside the order transaction, before writing anything; the
+     * place is given back if the transaction rolls back.
+     */
+    public Booking admit(Long slotId, LocalDate date, Collection<Long> chefIds, Collection<Long> foodItemIds) {
+        if (chefIds.size() != 1) {
+            throw new IllegalArgumentException("A pre-order must contain the items of a single chef");
+        }
+        Long chefId = chefIds.iterator().next();
+        DeliverySlot slot = grid(chefId).find(slotId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Delivery slot not found: " + slotId);
+        }
+        if (date.getDayOfWeek().getValue() != slot.getDayOfWeek()) {
+            throw new IllegalArgumentException("Delivery slot " + slotId + " is not on " + date.getDayOfWeek());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (date.isAfter(now.toLocalDate().plusDays(maxDaysAhead))) {
+            throw new IllegalArgumentException("Pre-orders can be placed at most " + maxDaysAhead + " days ahead");
+        }
+        LocalDateTime scheduledFor = date.atTime(slot.getStartsAt());
+        LocalDateTime releaseAt = scheduledFor.minusMinutes(leadMinutes(foodItemIds));
+        if (!releaseAt.isAfter(now)) {
+            throw new IllegalStateException("Delivery slot " + slotId + " on " + date + " is too soon for these items");
+        }
+
+        long key = key(slotId, date);
+        // UNLIMITED only means the slot was removed since the grid was loaded; book() turns the order away
+        if (places.tryTake(key, 1, this::loadRemaining) == StripedCounters.Take.REJECTED) {
+            throw rejected(slotId, date);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        places.give(key, 1);
+                    }
+                }
+            });
+        }
+        return new Booking(slotId, date, scheduledFor, releaseAt);
+    }
+
+    /**
+     * Writes an admitted booking with a conditional UPDATE. Call as the last write of the order
+     * transaction; throws IllegalStateException when the slot filled up through another instance.
+     */
+    @Transactional
+    public void book(Booking booking) {
+        bookingRepository.ensureRow(booking.slotId(), booking.date());
+        if (bookingRepository.book(booking.slotId(), booking.date()) == 0) {
+            places.invalidate(key(booking.slotId(), booking.date()));
+            throw rejected(booking.slotId(), booking.date());
+        }
+    }
+
+    // A pre-order was cancelled: its place can be booked again
+    @Transactional
+    public void release(Long slotId, LocalDate date) {
+        if (bookingRepository.release(slotId, date) == 1) {
+            afterCommit(() -> places.give(key(slotId, date), 1));
+        }
+    }
+
+    // Slot start to kitchen release: the slowest item's stated preparation time plus pickup and ride
+    private long leadMinutes(Collection<Long> foodItemIds) {
+        Integer prepMinutes = foodItemRepository.findMaxPrepMinutes(foodItemIds);
+        return (prepMinutes != null ? prepMinutes : Math.round(defaultPrepMinutes)) + deliveryLeadMinutes;
+    }
+
+    private Grid grid(Long chefId) {
+        Grid grid = grids.get(chefId);
+        if (grid == null || System.nanoTime() - grid.loadedAtNanos() >= TimeUnit.MILLISECONDS.toNanos(gridTtlMillis)) {
+            List<List<DeliverySlot>> byDay = new ArrayList<>();
+            for (int day = 0; day < 7; day++) {
+                byDay.add(new ArrayList<>());
+            }
+            // Already in day and start order
+            for (DeliverySlot slot : slotRepository.findByChefIdOrderByDayOfWeekAscStartsAtAsc(chefId)) {
+                byDay.get(slot.getDayOfWeek() - 1).add(slot);
+            }
+            grid = new Grid(byDay, System.nanoTime());
+            grids.put(chefId, grid);
+        }
+        return grid;
+    }
+
+    private Integer loadRemaining(long key) {
+        return bookingRepository.findRemaining(key >>> DATE_BITS, LocalDate.ofEpochDay(key & ((1L << DATE_BITS) - 1)));
+    }
+
+    private static long key(Long slotId, LocalDate date) {
+        return (slotId << DATE_BITS) | date.toEpochDay();
+    }
+
+    private void requireChef(Long chefId) {
+        if (chefId == null) {
+            throw new IllegalArgumentException("chefId is required");
+        }
+        User chef = userService.findById(chefId);
+        if (!"CHEF".equals(chef.getRole())) {
+            throw new IllegalStateException("User must have CHEF role to manage delivery slots");
+        }
+    }
+
+    private IllegalStateException rejected(Long slotId, LocalDate date) {
+        meterRegistry.counter("capacity.rejected", "reason", "slot-full").increment();
+        return new IllegalStateException("Delivery slot " + slotId + " on " + date + " is fully booked");
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.config.RoutingContext;
+import com.example.demo.dto.DeliverySnapshot;
+import com.example.demo.dto.OrderResponse;
+import com.example.demo.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The delivery dashboard's READY, active (PICKED_UP) and delivered lists in one call. The role is
+ * checked once and the three lists are read in parallel, each on its own task executor thread
+ * (virtual threads when enabled) carrying the request's replica routing hints.
+ *
+ * The unclaimed part of the READY pool is the same for every courier, so it is built once per
+ * delivery version and shared by all couriers for at most delivery.snapshot.ready-pool-ttl-ms.
+ * Only the courier's own claimed and later orders are read per request.
+ */
+@Service
+public class DeliverySnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(DeliverySnapshotService.class);
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @Value("${delivery.snapshot.ready-pool-ttl-ms:5000}")
+    private long readyPoolTtlMillis;
+
+    private final ReentrantLock readyPoolLock = new ReentrantLock();
+    private volatile ReadyPool readyPool;
+
+    private record ReadyPool(String version, long expiresAtNanos, List<OrderResponse> orders) {
+        boolean isFresh(String currentVersion) {
+            return version.equals(currentVersion) && expiresAtNanos - System.nanoTime() > 0;
+        }
+    }
+
+    /**
+     * ETag for the snapshot: orders as seen by couriers plus the food item and chef details in them.
+     * Both versions are rows in data_version, read in one query, so every instance hands out the same tag.
+     */
+    public String getVersion() {
+        return dataVersionService.tag(DataVersionService.DELIVERY, DataVersionService.MENU);
+    }
+
+    public DeliverySnapshot getSnapshot(Long courierId) {
+        if (courierId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        User courier = userService.findById(courierId);
+        if (!"DELIVERY".equals(courier.getRole())) {
+            throw new IllegalStateException("User must have DELIVERY role to fetch the delivery dashboard");
+        }
+        // Taken before the reads: a write landing during them moves the version, so the next request rebuilds
+        String version = getVersion();
+
+        CompletableFuture<List<OrderResponse>> ready = fork(() -> readyOrders(courierId, version));
+        CompletableFuture<List<OrderResponse>> active = fork(() -> orderQueryService.findCourierOrders(courierId, "PICKED_UP"));
+        CompletableFuture<List<OrderResponse>> delivered = fork(() -> orderQueryService.findCourierOrders(courierId, "DELIVERED"));
+        // allOf completes once all three reads have finished, so a failed read is reported after the others
+        try {
+            CompletableFuture.allOf(ready, active, delivered).join();
+        } catch (CompletionException e) {
+            logger.warn("Delivery snapshot for courierId={} failed: {}", courierId, e.getCause().getMessage());
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return new DeliverySnapshot(version, ready.join(), active.join(), delivered.join());
+    }
+
+    // The courier's own READY orders first, then the shared pool of unclaimed ones
+    private List<OrderResponse> readyOrders(Long courierId, String version) {
+        List<OrderResponse> claimed = orderQueryService.findCourierOrders(courierId, "READY");
+        List<OrderResponse> unclaimed = unclaimedReadyOrders(version);
+        List<OrderResponse> orders = new ArrayList<>(claimed.size() + unclaimed.size());
+        orders.addAll(claimed);
+        orders.addAll(unclaimed);
+        return orders;
+    }
+
+    private List<OrderResponse> unclaimedReadyOrders(String version) {
+        ReadyPool pool = readyPool;
+        if (pool != null && pool.isFresh(version)) {
+            return pool.orders();
+        }
+        // One request rebuilds the pool; couriers arriving meanwhile wait for it instead of querying too
+        readyPoolLock.lock();
+        try {
+            pool = readyPool;
+            if (pool == null || !pool.isFresh(version)) {
+                pool = new ReadyPool(version, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readyPoolTtlMillis),
+                        List.copyOf(orderQueryService.findUnclaimedReadyOrders()));
+                readyPool = pool;
+            }
+            return pool.orders();
+        } finally {
+            readyPoolLock.unlock();
+        }
+    }
+
+    private <T> CompletableFuture<T> fork(Supplier<T> task) {
+        boolean readPreferred = RoutingContext.isReadPreferred();
+        boolean forcePrimary = RoutingContext.isForcePrimary();
+        return CompletableFuture.supplyAsync(() -> {
+            RoutingContext.setReadPreferred(readPreferred);
+            RoutingContext.setForcePrimary(forcePrimary);
+            try {
+                return task.get();
+            } finally {
+                RoutingContext.clear();
+            }
+        }, taskExecutor);
+    }
+}
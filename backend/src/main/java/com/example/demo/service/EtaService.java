@@ -0,0 +1,296 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FoodItemDto;
+import com.example.demo.dto.OrderItemResponse;
+import com.example.demo.dto.OrderResponse;
+import com.example.demo.model.ChefOrderLine;
+import com.example.demo.model.Order;
+import com.example.demo.model.OrderStatusHistory;
+import com.example.demo.repository.ChefOrderLineRepository;
+import com.example.demo.repository.OrderStatusHistoryRepository;
+import com.example.demo.utility.ChunkedStreams;
+import com.example.demo.utility.DurationStats;
+import com.example.demo.utility.PrepTime;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Predicted ready and delivery times for orders, learned from the order status history. Three legs
+ * are tracked: preparation (placed to READY) per food item and per chef, pickup wait (READY to
+ * PICKED_UP) and ride (PICKED_UP to DELIVERED) per chef, each with a global fallback. Statistics live
+ * in memory as {@link DurationStats} and are rebuilt from order_status_history on startup.
+ *
+ * Estimates use the upper quantile of each leg rather than the mean, so a promised time is met most
+ * of the time. Until a key has eta.min-samples observations the next broader estimate is used: an
+ * item falls back to its stated preparation time, then its chef, then all kitchens. Predicting is a
+ * few map lookups per item and never touches the database.
+ */
+@Service
+public class EtaService {
+    private static final Logger logger = LoggerFactory.getLogger(EtaService.class);
+    private static final Set<String> BEFORE_READY = Set.of("SCHEDULED", "PLACED", "CONFIRMED", "PREPARING");
+    private static final int WARM_UP_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private OrderStatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private ChefOrderLineRepository chefOrderLineRepository;
+
+    @Value("${eta.alpha:0.1}")
+    private double alpha;
+
+    @Value("${eta.quantile:0.8}")
+    private double quantile;
+
+    @Value("${eta.min-samples:5}")
+    private long minSamples;
+
+    @Value("${eta.history-days:30}")
+    private long historyDays;
+
+    @Value("${eta.default-prep-minutes:30}")
+    private double defaultPrepMinutes;
+
+    @Value("${eta.default-pickup-minutes:10}")
+    private double defaultPickupMinutes;
+
+    @Value("${eta.default-ride-minutes:20}")
+    private double defaultRideMinutes;
+
+    private final Map<Long, DurationStats> prepByFood = new ConcurrentHashMap<>();
+    private final Map<Long, DurationStats> prepByChef = new ConcurrentHashMap<>();
+    private final Map<Long, DurationStats> pickupByChef = new ConcurrentHashMap<>();
+    private final Map<Long, DurationStats> rideByChef = new ConcurrentHashMap<>();
+    private DurationStats prep;
+    private DurationStats pickup;
+    private DurationStats ride;
+
+    @PostConstruct
+    void init() {
+        prep = new DurationStats(alpha, quantile);
+        pickup = new DurationStats(alpha, quantile);
+        ride = new DurationStats(alpha, quantile);
+    }
+
+    /**
+     * Records the order's current status in the history and, once the transaction commits, learns
+     * the leg it just finished. Called inside the transaction that changed the status, after
+     * statusChangedAt was set; previousChangedAt is when the status it left was set.
+     */
+    @Transactional
+    public void statusChanged(Order order, LocalDateTime previousChangedAt) {
+        LocalDateTime changedAt = order.getStatusChangedAt();
+        String status = order.getStatus();
+        statusHistoryRepository.save(new OrderStatusHistory(order.getId(), status, changedAt));
+
+        // Preparation starts when the order reaches the kitchen, which for a pre-order is its release
+        LocalDateTime kitchenAt = order.getReleaseAt() != null ? order.getReleaseAt() : order.getOrderDate();
+        LocalDateTime legStart = "READY".equals(status) ? kitchenAt : previousChangedAt;
+        if (legStart == null || !("READY".equals(status) || "PICKED_UP".equals(status) || "DELIVERED".equals(status))) {
+            return;
+        }
+        double minutes = minutesBetween(legStart, changedAt);
+        Set<Long> foodIds = new HashSet<>();
+        Set<Long> chefIds = new HashSet<>();
+        for (ChefOrderLine line : chefOrderLineRepository.findByOrderId(order.getId())) {
+            foodIds.add(line.getFoodItemId());
+            chefIds.add(line.getChefId());
+        }
+        Runnable learn = () -> learn(status, minutes, foodIds, chefIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    learn.run();
+                }
+            });
+        } else {
+            learn.run();
+        }
+    }
+
+    /**
+     * Sets the predicted ready and delivery times on a response whose items are attached.
+     */
+    public void applyEta(OrderResponse response) {
+        String status = response.getStatus();
+        LocalDateTime placedAt = response.getPlacedAt();
+        if (status == null || placedAt == null) {
+            return;
+        }
+        List<OrderItemResponse> items = response.getOrderItems() != null ? response.getOrderItems() : List.of();
+        Set<Long> chefIds = new HashSet<>();
+        for (OrderItemResponse item : items) {
+            FoodItemDto food = item.getFoodItem();
+            if (food != null && food.getUser() != null && food.getUser().getId() != null) {
+                chefIds.add(food.getUser().getId());
+            }
+        }
+
+        LocalDateTime readyAt = null;
+        LocalDateTime deliveryAt = null;
+        if (BEFORE_READY.contains(status)) {
+            readyAt = plusMinutes(placedAt, prepMinutes(items));
+            deliveryAt = plusMinutes(readyAt, legMinutes(pickupByChef, pickup, defaultPickupMinutes, chefIds)
+                    + legMinutes(rideByChef, ride, defaultRideMinutes, chefIds));
+        } else if ("READY".equals(status)) {
+            readyAt = response.getStatusChangedAt() != null ? response.getStatusChangedAt() : plusMinutes(placedAt, prepMinutes(items));
+            deliveryAt = plusMinutes(readyAt, legMinutes(pickupByChef, pickup, defaultPickupMinutes, chefIds)
+                    + legMinutes(rideByChef, ride, defaultRideMinutes, chefIds));
+        } else if ("PICKED_UP".equals(status) && response.getStatusChangedAt() != null) {
+            deliveryAt = plusMinutes(response.getStatusChangedAt(), legMinutes(rideByChef, ride, defaultRideMinutes, chefIds));
+        }
+        response.setPredictedReadyAt(readyAt != null ? readyAt.toString() : null);
+        response.setPredictedDeliveryAt(deliveryAt != null ? deliveryAt.toString() : null);
+    }
+
+    public void applyEta(Collection<OrderResponse> responses) {
+        responses.forEach(this::applyEta);
+    }
+
+    // Rebuilds the statistics from the recent history, oldest first so the newest orders weigh most
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        List<Object[]> timelines = statusHistoryRepository.findTimelinesSince(LocalDateTime.now().minusDays(historyDays));
+        if (timelines.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<Long>> foodsByOrder = new HashMap<>();
+        Map<Long, Set<Long>> chefsByOrder = new HashMap<>();
+        ChunkedStreams.forEachChunk(timelines.stream().map(row -> ((Number) row[0]).longValue()), WARM_UP_CHUNK_SIZE, orderIds -> {
+            for (Object[] row : statusHistoryRepository.findItemChefs(orderIds)) {
+                Long orderId = ((Number) row[0]).longValue();
+                foodsByOrder.computeIfAbsent(orderId, id -> new HashSet<>()).add(((Number) row[1]).longValue());
+                chefsByOrder.computeIfAbsent(orderId, id -> new HashSet<>()).add(((Number) row[2]).longValue());
+            }
+        });
+
+        for (Object[] row : timelines) {
+            Long orderId = ((Number) row[0]).longValue();
+            Set<Long> foodIds = foodsByOrder.getOrDefault(orderId, Set.of());
+            Set<Long> chefIds = chefsByOrder.getOrDefault(orderId, Set.of());
+            LocalDateTime placedAt = toLocalDateTime(row[1]);
+            LocalDateTime readyAt = toLocalDateTime(row[2]);
+            LocalDateTime pickedUpAt = toLocalDateTime(row[3]);
+            LocalDateTime deliveredAt = toLocalDateTime(row[4]);
+            if (placedAt != null) {
+                learn("READY", minutesBetween(placedAt, readyAt), foodIds, chefIds);
+            }
+            if (pickedUpAt != null) {
+                learn("PICKED_UP", minutesBetween(readyAt, pickedUpAt), foodIds, chefIds);
+            }
+            if (pickedUpAt != null && deliveredAt != null) {
+                learn("DELIVERED", minutesBetween(pickedUpAt, deliveredAt), foodIds, chefIds);
+            }
+        }
+        logger.info("ETA statistics rebuilt from {} orders: prep {} min, pickup {} min, ride {} min (p{})",
+                timelines.size(), Math.round(prep.upper()), Math.round(pickup.upper()), Math.round(ride.upper()),
+                Math.round(quantile * 100));
+    }
+
+    private void learn(String status, double minutes, Collection<Long> foodIds, Collection<Long> chefIds) {
+        switch (status) {
+            case "READY" -> {
+                prep.record(minutes);
+                foodIds.forEach(foodId -> stats(prepByFood, foodId).record(minutes));
+                chefIds.forEach(chefId -> stats(prepByChef, chefId).record(minutes));
+            }
+            case "PICKED_UP" -> {
+                pickup.record(minutes);
+                chefIds.forEach(chefId -> stats(pickupByChef, chefId).record(minutes));
+            }
+            case "DELIVERED" -> {
+                ride.record(minutes);
+                chefIds.forEach(chefId -> stats(rideByChef, chefId).record(minutes));
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Items are prepared in parallel, so the order is ready when its slowest item is
+    private double prepMinutes(List<OrderItemResponse> items) {
+        double minutes = 0;
+        for (OrderItemResponse item : items) {
+            FoodItemDto food = item.getFoodItem();
+            if (food != null) {
+                minutes = Math.max(minutes, itemPrepMinutes(food));
+            }
+        }
+        return minutes > 0 ? minutes : estimate(prep, defaultPrepMinutes);
+    }
+
+    private double itemPrepMinutes(FoodItemDto food) {
+        DurationStats itemStats = food.getId() != null ? prepByFood.get(food.getId()) : null;
+        if (itemStats != null && itemStats.samples() >= minSamples) {
+            return itemStats.upper();
+        }
+        PrepTime stated = PrepTime.parse(food.getPreparationTime());
+        if (stated != null) {
+            return stated.maxMinutes();
+        }
+        DurationStats chefStats = food.getUser() != null && food.getUser().getId() != null ? prepByChef.get(food.getUser().getId()) : null;
+        if (chefStats != null && chefStats.samples() >= minSamples) {
+            return chefStats.upper();
+        }
+        return estimate(prep, defaultPrepMinutes);
+    }
+
+    // Slowest of the order's kitchens for this leg
+    private double legMinutes(Map<Long, DurationStats> byChef, DurationStats global, double defaultMinutes, Set<Long> chefIds) {
+        double minutes = -1;
+        for (Long chefId : chefIds) {
+            DurationStats chefStats = byChef.get(chefId);
+            if (chefStats != null && chefStats.samples() >= minSamples) {
+                minutes = Math.max(minutes, chefStats.upper());
+            }
+        }
+        return minutes >= 0 ? minutes : estimate(global, defaultMinutes);
+    }
+
+    private double estimate(DurationStats stats, double defaultMinutes) {
+        return stats.samples() >= minSamples ? stats.upper() : defaultMinutes;
+    }
+
+    private DurationStats stats(Map<Long, DurationStats> byKey, Long key) {
+        return byKey.computeIfAbsent(key, k -> new DurationStats(alpha, quantile));
+    }
+
+    private static double minutesBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toSeconds() / 60.0;
+    }
+
+    private static LocalDateTime plusMinutes(LocalDateTime time, double minutes) {
+        return time.plusSeconds(Math.round(minutes * 60)).withNano(0);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.demo.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
@@ -22,6 +25,9 @@ public class FileStorageService {
     private static final String[] ALLOWED_IMAGE_TYPES = {"image/jpeg", "image/png", "image/jpg"};
     private static final String[] ALLOWED_VIDEO_TYPES = {"video/mp4", "video/webm"};
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public String storeFile(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             logger.warn("Empty file provided for upload");
@@ -52,7 +58,13 @@ public class FileStorageService {
         }
 
         Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath);
+        long bytesWritten = Files.copy(file.getInputStream(), filePath);
+        DistributionSummary.builder("file.storage.bytes")
+                .description("Bytes written per stored upload")
+                .baseUnit("bytes")
+                .tag("directory", directory.substring(0, directory.length() - 1))
+                .register(meterRegistry)
+                .record(bytesWritten);
 
         logger.info("File successfully saved with path: {}{}", directory, fileName);
         return directory + fileName;
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.UserDto;
 import com.example.demo.model.Comment;
 import com.example.demo.model.FoodFeed;
 import com.example.demo.model.FeedType;
@@ -7,21 +8,37 @@ import com.example.demo.model.Recipe;
 import com.example.demo.model.User;
 import com.example.demo.repository.CommentRepository;
 import com.example.demo.repository.FoodFeedRepository;
+import com.example.demo.utility.ChunkedStreams;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FoodFeedService {
 
     private static final Logger logger = LoggerFactory.getLogger(FoodFeedService.class);
+    private static final int STREAM_CHUNK_SIZE = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     private FoodFeedRepository foodFeedRepository;
@@ -35,6 +52,21 @@ public class FoodFeedService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    /**
+     * Current feed version, usable as an ETag for the feed list and single posts.
+     */
+    public String getFeedVersion() {
+        return dataVersionService.tag(DataVersionService.FEED);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        feedChanged();
+    }
+
     @Transactional
     public FoodFeed createFoodFeed(Long chefId, String content, MultipartFile image, MultipartFile video, Recipe recipe, FeedType type) throws IOException {
         logger.info("Creating food feed for chefId: {}, type: {}", chefId, type);
@@ -58,7 +90,9 @@ public class FoodFeedService {
         }
 
         FoodFeed feed = new FoodFeed(chef, content, imagePath, videoPath, recipe, type);
-        return foodFeedRepository.save(feed);
+        FoodFeed saved = foodFeedRepository.save(feed);
+        feedChanged();
+        return saved;
     }
 
     @Transactional
@@ -69,7 +103,9 @@ public class FoodFeedService {
         User user = userService.findById(userId);
         Comment comment = new Comment(user, text);
         feed.addComment(comment);
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        feedChanged();
+        return saved;
     }
 
     @Transactional
@@ -77,6 +113,7 @@ public class FoodFeedService {
         logger.info("Toggling like for feedId: {}, userId: {}", feedId, userId);
         FoodFeed feed = foodFeedRepository.findById(feedId)
                 .orElseThrow(() -> new IllegalArgumentException("Feed post not found: " + feedId));
+        feedChanged();
         if (feed.addLike(userId)) {
             foodFeedRepository.save(feed);
             return true;
@@ -96,6 +133,7 @@ public class FoodFeedService {
         return feed;
     }
 
+    @Timed("service.calls")
     @Transactional(readOnly = true)
     public List<FoodFeed> getAllFoodFeeds() {
         logger.info("Retrieving all food feed posts");
@@ -106,4 +144,34 @@ public class FoodFeedService {
         });
         return feeds;
     }
-}
\ No newline at end of file
+
+    /**
+     * Walks all feed posts off a cursor of ids in chunks of STREAM_CHUNK_SIZE. Each chunk is loaded
+     * with its chef, comments, commenters and likes in two queries, mapped with the users' profiles
+     * (one more query), handed to the sink and then evicted from the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public <T> void streamFoodFeeds(BiFunction<FoodFeed, Map<Long, UserDto>, T> mapper, Consumer<List<T>> sink) {
+        logger.info("Streaming all food feed posts");
+        try (Stream<Long> ids = foodFeedRepository.streamIds()) {
+            ChunkedStreams.forEachChunk(ids, STREAM_CHUNK_SIZE, chunk -> {
+                List<FoodFeed> feeds = foodFeedRepository.findWithChefAndCommentsByIdIn(chunk);
+                foodFeedRepository.findWithLikesByIdIn(chunk);
+
+                Set<Long> userIds = new HashSet<>();
+                for (FoodFeed feed : feeds) {
+                    userIds.add(feed.getChef().getId());
+                    feed.getComments().forEach(comment -> userIds.add(comment.getUser().getId()));
+                }
+                Map<Long, UserDto> usersById = userService.findUserDtosByIds(userIds);
+
+                sink.accept(feeds.stream().map(feed -> mapper.apply(feed, usersById)).collect(Collectors.toList()));
+                entityManager.clear();
+            });
+        }
+    }
+
+    private void feedChanged() {
+        dataVersionService.changed(DataVersionService.FEED);
+    }
+}
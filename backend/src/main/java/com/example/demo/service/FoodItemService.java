@@ -4,19 +4,60 @@ import com.example.demo.dto.FoodItemDto;
 import com.example.demo.model.FoodItem;
 import com.example.demo.model.User;
 import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.utility.ChunkedStreams;
+import com.example.demo.utility.PrepTime;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FoodItemService {
+    private static final Logger logger = LoggerFactory.getLogger(FoodItemService.class);
+    static final int STREAM_CHUNK_SIZE = 500;
 
     @Autowired
     private FoodItemRepository foodItemRepository;
 
+    // The "menu" version covers everything the menu endpoints return, including the chef details embedded in each item
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private FoodSearchService foodSearchService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    /**
+     * Current catalog version, usable as an ETag for any menu read. Changes after every committed
+     * food item write and every user change.
+     */
+    public String getCatalogVersion() {
+        return dataVersionService.tag(DataVersionService.MENU);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        catalogChanged();
+    }
+
     public List<FoodItem> getAvailableFoods(String name, Double minPrice, Double maxPrice) {
         return foodItemRepository.findByAvailabilityAndFilters(true, name, minPrice, maxPrice, null, null);
     }
@@ -27,12 +68,12 @@ public class FoodItemService {
 
     public List<FoodItem> searchFoods(Boolean available, String name, Double minPrice, Double maxPrice,
                                      Set<String> tags, String preparationTime) {
-        return foodItemRepository.findByAvailabilityAndFilters(available, name, minPrice, maxPrice, tags, preparationTime);
+        return foodItemRepository.findByAvailabilityAndFilters(available, name, minPrice, maxPrice, tags, maxPrepMinutes(preparationTime));
     }
 
     public List<FoodItem> searchFoodsByUserId(Long userId, Boolean available, String name, Double minPrice, Double maxPrice,
                                              Set<String> tags, String preparationTime) {
-        return foodItemRepository.findByUserIdAndFilters(userId, available, name, minPrice, maxPrice, tags, preparationTime);
+        return foodItemRepository.findByUserIdAndFilters(userId, available, name, minPrice, maxPrice, tags, maxPrepMinutes(preparationTime));
     }
 
     public FoodItem saveFood(FoodItemDto foodDto, String imagePath, User user) {
@@ -61,19 +102,34 @@ public class FoodItemService {
         food.setDiscountPercentage(foodDto.getDiscountPercentage());
         food.setUser(user);
 
-        return foodItemRepository.save(food);
+        FoodItem saved = foodItemRepository.save(food);
+        foodSearchService.indexed(saved);
+        catalogChanged();
+        return saved;
     }
 
     public FoodItem saveFood(FoodItem food) {
-        return foodItemRepository.save(food);
+        // Set here too, since an edit of the tags alone leaves the row clean and skips @PreUpdate
+        food.setUpdatedAt(LocalDateTime.now());
+        FoodItem saved = foodItemRepository.save(food);
+        foodSearchService.indexed(saved);
+        catalogChanged();
+        return saved;
     }
 
     public FoodItem findById(Long id) {
         return foodItemRepository.findById(id).orElse(null);
     }
 
+    // Returns an uninitialized proxy; use when only the foreign key is needed (e.g. building order items).
+    public FoodItem getReference(Long id) {
+        return foodItemRepository.getReferenceById(id);
+    }
+
     public void deleteById(Long id) {
         foodItemRepository.deleteById(id);
+        foodSearchService.removed(id);
+        catalogChanged();
     }
 
     public List<FoodItem> findByTag(String tag) {
@@ -87,4 +143,148 @@ public class FoodItemService {
     public List<FoodItem> getAllByDiscountPercentageDesc() {
         return foodItemRepository.findAllByOrderByDiscountPercentageDesc();
     }
-}
\ No newline at end of file
+
+    // Read-only projections for list endpoints: no entities are loaded, so there is nothing to dirty-check
+    @Timed("service.calls")
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> searchFoodDtos(Boolean available, String name, Double minPrice, Double maxPrice,
+                                            Set<String> tags, String preparationTime) {
+        return attachTags(foodItemRepository.findDtosByAvailabilityAndFilters(available, name, minPrice, maxPrice, tags, maxPrepMinutes(preparationTime)));
+    }
+
+    @Timed("service.calls")
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> searchFoodDtosByUserId(Long userId, Boolean available, String name, Double minPrice, Double maxPrice,
+                                                    Set<String> tags, String preparationTime) {
+        return attachTags(foodItemRepository.findDtosByUserIdAndFilters(userId, available, name, minPrice, maxPrice, tags, maxPrepMinutes(preparationTime)));
+    }
+
+    @Timed("service.calls")
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> getAllFoodDtos() {
+        return attachTags(foodItemRepository.findAllDtos());
+    }
+
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> findDtosByTag(String tag) {
+        return attachTags(foodItemRepository.findDtosByTag(tag));
+    }
+
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> getAllDtosByPriceAsc() {
+        return attachTags(foodItemRepository.findAllDtosOrderByPriceAsc());
+    }
+
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> getAllDtosByDiscountPercentageDesc() {
+        return attachTags(foodItemRepository.findAllDtosOrderByDiscountPercentageDesc());
+    }
+
+    /**
+     * Items matching a free-text query, ranked by the search index (typos tolerated, popular items
+     * first among similar matches), with only the rows of the hits loaded.
+     */
+    @Timed("service.calls")
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> findDtosByText(String query, int limit) {
+        return attachTags(dtosInOrder(foodSearchService.searchIds(query, limit)));
+    }
+
+    /**
+     * The most ordered items in the window that are available now, most ordered first. The ranking
+     * comes from memory; only the rows of the ranked items are read.
+     */
+    @Timed("service.calls")
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> getTrendingDtos(String window, int limit) {
+        if (limit < 1 || limit > FoodSearchService.MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + FoodSearchService.MAX_RESULTS);
+        }
+        // Twice as many as asked for, so a few sold out items do not leave the list short
+        List<Long> ids = trendingService.topItemIds(window, Math.min(2 * limit, FoodSearchService.MAX_RESULTS));
+        List<FoodItemDto> dtos = dtosInOrder(ids).stream()
+                .filter(dto -> Boolean.TRUE.equals(dto.getAvailable()))
+                .limit(limit)
+                .collect(Collectors.toList());
+        return attachTags(dtos);
+    }
+
+    /**
+     * Streamed counterpart of searchFoodDtos: rows come off a database cursor and reach the sink in
+     * chunks of STREAM_CHUNK_SIZE with their tags attached, so memory does not grow with the result.
+     */
+    @Transactional(readOnly = true)
+    public void streamFoodDtos(Boolean available, String name, Double minPrice, Double maxPrice,
+                               Set<String> tags, String preparationTime, Consumer<List<FoodItemDto>> sink) {
+        try (Stream<FoodItemDto> dtos = foodItemRepository.streamDtosByAvailabilityAndFilters(available, name, minPrice, maxPrice, tags, maxPrepMinutes(preparationTime))) {
+            ChunkedStreams.forEachChunk(dtos, STREAM_CHUNK_SIZE, chunk -> sink.accept(attachTags(chunk)));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllFoodDtos(Consumer<List<FoodItemDto>> sink) {
+        try (Stream<FoodItemDto> dtos = foodItemRepository.streamAllDtos()) {
+            ChunkedStreams.forEachChunk(dtos, STREAM_CHUNK_SIZE, chunk -> sink.accept(attachTags(chunk)));
+        }
+    }
+
+    // Loads the tags of every DTO in one query instead of one EAGER collection fetch per entity
+    @Transactional(readOnly = true)
+    public List<FoodItemDto> attachTags(List<FoodItemDto> dtos) {
+        if (dtos.isEmpty()) {
+            return dtos;
+        }
+        Map<Long, Set<String>> tagsByFoodId = new HashMap<>();
+        for (Object[] row : foodItemRepository.findTagsByFoodItemIds(dtos.stream().map(FoodItemDto::getId).collect(Collectors.toSet()))) {
+            tagsByFoodId.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        dtos.forEach(dto -> dto.setTags(tagsByFoodId.get(dto.getId())));
+        return dtos;
+    }
+
+    // The items in the order of ids; an id whose item has been deleted since is skipped
+    private List<FoodItemDto> dtosInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, FoodItemDto> byId = new HashMap<>();
+        for (FoodItemDto dto : foodItemRepository.findDtosByIds(ids)) {
+            byId.put(dto.getId(), dto);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    // Fills the parsed minutes for items saved before the columns existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPrepMinutes() {
+        int updated = 0;
+        for (Object[] row : foodItemRepository.findUnparsedPreparationTimes()) {
+            PrepTime prepTime = PrepTime.parse((String) row[1]);
+            if (prepTime != null) {
+                updated += foodItemRepository.updatePrepMinutes((Long) row[0], prepTime.minMinutes(), prepTime.maxMinutes());
+            }
+        }
+        if (updated > 0) {
+            logger.info("Parsed preparation times of {} food items", updated);
+            catalogChanged();
+        }
+    }
+
+    // The preparationTime filter keeps items that are ready within the upper end of the given range
+    private static Integer maxPrepMinutes(String preparationTime) {
+        if (preparationTime == null || preparationTime.isBlank()) {
+            return null;
+        }
+        PrepTime prepTime = PrepTime.parse(preparationTime);
+        if (prepTime == null) {
+            throw new IllegalArgumentException("Unrecognised preparationTime: " + preparationTime + " (expected e.g. \"20-25 min\")");
+        }
+        return prepTime.maxMinutes();
+    }
+
+    // Also called by CapacityService when stock flips an item's availability
+    void catalogChanged() {
+        dataVersionService.changed(DataVersionService.MENU);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FoodSuggestion;
+import com.example.demo.model.FoodItem;
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.utility.SearchIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Autocomplete and typo-tolerant search over the menu, answered from an in-memory {@link SearchIndex}
+ * instead of LIKE queries. The index is built from the database once the application is ready, and
+ * FoodItemService keeps it current item by item after each committed save or delete on this
+ * instance. Saves and deletes made through other instances are picked up by a resync every
+ * search.resync-interval-ms. Popularity is the quantity delivered over the last
+ * search.popularity-days, refreshed every search.popularity-refresh-ms.
+ *
+ * Unavailable items stay indexed but are left out of results. Their ids are reloaded at most once
+ * per menu version, so stock and schedule flips need no index writes.
+ */
+@Service
+public class FoodSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(FoodSearchService.class);
+    static final int MAX_RESULTS = 50;
+    // How far before the last resync it reads again: covers saves that committed after a later one
+    // was read, and instances whose clocks run behind this one's
+    private static final Duration RESYNC_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Value("${search.candidates-per-prefix:64}")
+    private int candidatesPerPrefix;
+
+    @Value("${search.popularity-days:30}")
+    private int popularityDays;
+
+    private SearchIndex index;
+    private final ReentrantLock hiddenLock = new ReentrantLock();
+    // Menu version the hidden ids were read at
+    private volatile String hiddenVersion;
+    // Guards syncedAt and syncedVersion; held while the index is built or resynced
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private LocalDateTime syncedAt;
+    private String syncedVersion;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        index = new SearchIndex(candidatesPerPrefix);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long started = System.nanoTime();
+        syncLock.lock();
+        try {
+            // Taken before the reads, so a save committing during them is read again by the next resync
+            syncedVersion = dataVersionService.tag(DataVersionService.MENU);
+            syncedAt = LocalDateTime.now();
+            putAll(foodItemRepository.findSearchFields(), foodItemRepository.findAllTags());
+        } finally {
+            syncLock.unlock();
+        }
+        refreshPopularity();
+        ready = true;
+        logger.info("Indexed {} food items for search in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Catches up with the items saved or deleted through other instances, which reach this index
+     * only through the database. Does nothing while the menu version has not moved; otherwise
+     * re-reads the items saved since shortly before the last sync and drops the ids that are gone.
+     */
+    @Scheduled(initialDelayString = "${search.resync-interval-ms:60000}",
+               fixedDelayString = "${search.resync-interval-ms:60000}")
+    public void resync() {
+        if (!ready) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            String version = dataVersionService.tag(DataVersionService.MENU);
+            if (version.equals(syncedVersion)) {
+                return;
+            }
+            LocalDateTime started = LocalDateTime.now();
+            LocalDateTime since = syncedAt.minus(RESYNC_OVERLAP);
+            int updated = putAll(foodItemRepository.findSearchFieldsUpdatedSince(since), foodItemRepository.findTagsUpdatedSince(since));
+            // Ids indexed before the read, so an item saved here meanwhile is not taken for a deleted one
+            Set<Long> deleted = index.ids();
+            deleted.removeAll(foodItemRepository.findAllIds());
+            deleted.forEach(index::remove);
+            syncedVersion = version;
+            syncedAt = started;
+            logger.debug("Search index resynced: {} items updated, {} removed", updated, deleted.size());
+        } catch (RuntimeException e) {
+            logger.error("Search index resync failed: {}", e.getMessage(), e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.popularity-refresh-ms:600000}",
+               fixedDelayString = "${search.popularity-refresh-ms:600000}")
+    public void refreshPopularity() {
+        Map<Long, Long> quantities = new HashMap<>();
+        for (Object[] row : orderRepository.findDeliveredQuantitiesSince(LocalDateTime.now().minusDays(popularityDays))) {
+            quantities.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        index.setPopularity(quantities);
+    }
+
+    /**
+     * Up to limit items matching the query, best first: a single word completes as a prefix, and
+     * misspelt words of four letters or more still match.
+     */
+    public List<FoodSuggestion> suggest(String query, int limit) {
+        return search(query, limit).stream().map(hit -> new FoodSuggestion(hit.id(), hit.name())).toList();
+    }
+
+    // Ids only, best first; FoodItemService loads the rows
+    List<Long> searchIds(String query, int limit) {
+        return search(query, limit).stream().map(SearchIndex.Hit::id).toList();
+    }
+
+    // Called by FoodItemService for each saved item; takes effect once the save commits
+    void indexed(FoodItem food) {
+        Long id = food.getId();
+        String name = food.getName();
+        String description = food.getDescription();
+        List<String> tags = new ArrayList<>(food.getTags());
+        afterCommit(() -> index.put(id, name, description, tags));
+    }
+
+    void removed(Long id) {
+        afterCommit(() -> index.remove(id));
+    }
+
+    // [id, name, description] rows with the [id, tag] rows of the same items
+    private int putAll(List<Object[]> fields, List<Object[]> tags) {
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (Object[] row : tags) {
+            tagsById.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        for (Object[] row : fields) {
+            Long id = (Long) row[0];
+            index.put(id, (String) row[1], (String) row[2], tagsById.getOrDefault(id, List.of()));
+        }
+        return fields.size();
+    }
+
+    private List<SearchIndex.Hit> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+        }
+        if (!ready) {
+            throw new WarmingUpException("Search index is still being built");
+        }
+        refreshHidden();
+        return index.search(query, limit);
+    }
+
+    // Keyed on the menu version in the database, which moves with every catalog change on any instance
+    private void refreshHidden() {
+        String version = dataVersionService.tag(DataVersionService.MENU);
+        if (version.equals(hiddenVersion)) {
+            return;
+        }
+        // One request reloads the unavailable ids; others arriving meanwhile wait for it instead of querying too
+        hiddenLock.lock();
+        try {
+            if (!version.equals(hiddenVersion)) {
+                index.setHidden(new HashSet<>(foodItemRepository.findUnavailableIds()));
+                hiddenVersion = version;
+            }
+        } finally {
+            hiddenLock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.JobLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+
+/**
+ * Lets a scheduled job run on one instance at a time. The lease lives in the job_lock table and
+ * expires on its own after lockAtMostFor, so an instance that dies mid-run blocks the job for that
+ * long at most.
+ */
+@Service
+public class JobLockService {
+    private static final Logger logger = LoggerFactory.getLogger(JobLockService.class);
+
+    private final String owner = ownerName();
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    /**
+     * Runs the task if no other instance holds the job's lease. Returns false if it was skipped.
+     */
+    public boolean runExclusively(String job, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task) {
+        jobLockRepository.insertIfAbsent(job);
+        if (jobLockRepository.tryAcquire(job, owner, lockAtMostFor.toSeconds()) == 0) {
+            logger.debug("Job {} is held by another instance, skipping", job);
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            jobLockRepository.release(job, owner, lockAtLeastFor.toSeconds());
+        }
+        return true;
+    }
+
+    private static String ownerName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
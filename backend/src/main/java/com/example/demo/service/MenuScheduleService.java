@@ -0,0 +1,359 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AvailabilityScheduleRequest;
+import com.example.demo.model.AvailabilitySchedule;
+import com.example.demo.model.FoodItem;
+import com.example.demo.model.User;
+import com.example.demo.repository.AvailabilityScheduleRepository;
+import com.example.demo.repository.FoodItemRepository;
+import com.example.demo.utility.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opens and closes food items on their chef's schedule: weekly windows (e.g. Monday 07:00-10:30) and
+ * holidays, set for one item or for all of a chef's items. An item's own windows replace its chef's;
+ * holidays of both apply. Items without any rule are left to the chef's manual toggle.
+ *
+ * Each chef's next boundary waits in an in-memory {@link TimingWheel} with one-minute ticks, advanced
+ * at the start of every minute. The items whose state changes at the boundaries due in a tick are
+ * written with one UPDATE for those closing and one for those opening, and the catalog version moves
+ * once, so the listing queries keep filtering on the plain available column. Closing only touches
+ * items that are on (or sold out) and opening only items a schedule closed, so an item the chef
+ * switched off by hand stays off.
+ *
+ * Every instance runs its own wheel. The writes are idempotent, and rules edited through another
+ * instance are picked up by the periodic reload.
+ */
+@Service
+public class MenuScheduleService {
+    private static final Logger logger = LoggerFactory.getLogger(MenuScheduleService.class);
+    private static final long TICK_MILLIS = 60_000;
+    private static final int WHEEL_SIZE = 60;
+    private static final int UPDATE_CHUNK_SIZE = 500;
+
+    @Autowired
+    private AvailabilityScheduleRepository scheduleRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${menu-schedule.zone:}")
+    private String zoneName;
+
+    // Guards everything below; ticks, reloads and rule edits never overlap
+    private final ReentrantLock lock = new ReentrantLock();
+    private TimingWheel<ChefTimer> wheel;
+    private ZoneId zone;
+    private final Map<Long, ChefSchedule> schedules = new HashMap<>();
+    private final Map<Long, Long> generations = new HashMap<>();
+    private final Map<Long, Boolean> applied = new HashMap<>(); // Food item id -> open, as last written
+
+    // A chef's pending boundary; stale once the chef's generation moved on
+    private record ChefTimer(long chefId, long generation) {}
+
+    private record Window(DayOfWeek day, LocalTime opensAt, LocalTime closesAt) {
+        boolean covers(LocalDateTime at) {
+            LocalTime time = at.toLocalTime();
+            if (closesAt.isAfter(opensAt)) {
+                return at.getDayOfWeek() == day && !time.isBefore(opensAt) && time.isBefore(closesAt);
+            }
+            // Runs past midnight; equal times mean a full 24 hours
+            return (at.getDayOfWeek() == day && !time.isBefore(opensAt))
+                    || (at.getDayOfWeek() == day.plus(1) && time.isBefore(closesAt));
+        }
+
+        void addBoundaries(LocalDate date, List<LocalDateTime> boundaries) {
+            if (date.getDayOfWeek() == day) {
+                boundaries.add(date.atTime(opensAt));
+                boundaries.add(closesAt.isAfter(opensAt) ? date.atTime(closesAt) : date.plusDays(1).atTime(closesAt));
+            }
+        }
+    }
+
+    private record ChefSchedule(List<Window> chefWindows, Map<Long, List<Window>> itemWindows,
+                                Set<LocalDate> chefHolidays, Map<Long, Set<LocalDate>> itemHolidays) {
+        boolean governs(Long foodItemId) {
+            return !chefWindows.isEmpty() || !chefHolidays.isEmpty()
+                    || itemWindows.containsKey(foodItemId) || itemHolidays.containsKey(foodItemId);
+        }
+
+        boolean isOpen(Long foodItemId, LocalDateTime at) {
+            LocalDate date = at.toLocalDate();
+            if (chefHolidays.contains(date) || itemHolidays.getOrDefault(foodItemId, Set.of()).contains(date)) {
+                return false;
+            }
+            List<Window> windows = itemWindows.getOrDefault(foodItemId, chefWindows);
+            return windows.isEmpty() || windows.stream().anyMatch(window -> window.covers(at));
+        }
+
+        // The next window edge after the given time, or the next midnight when holidays may start or end
+        LocalDateTime nextBoundary(LocalDateTime after) {
+            LocalDateTime next = after.toLocalDate().plusDays(1).atStartOfDay();
+            List<LocalDateTime> boundaries = new ArrayList<>();
+            for (int days = -1; days <= 0; days++) {
+                LocalDate date = after.toLocalDate().plusDays(days);
+                chefWindows.forEach(window -> window.addBoundaries(date, boundaries));
+                itemWindows.values().forEach(windows -> windows.forEach(window -> window.addBoundaries(date, boundaries)));
+            }
+            for (LocalDateTime boundary : boundaries) {
+                if (boundary.isAfter(after) && boundary.isBefore(next)) {
+                    next = boundary;
+                }
+            }
+            return next;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lock.lock();
+        try {
+            zone = zoneName == null || zoneName.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zoneName);
+            wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+        reload();
+    }
+
+    // Runs at second 0 of every minute, when window edges fall
+    @Scheduled(cron = "0 * * * * *")
+    public void tick() {
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            Set<Long> chefIds = new HashSet<>();
+            for (ChefTimer timer : wheel.advance(System.currentTimeMillis())) {
+                if (generations.getOrDefault(timer.chefId(), -1L) == timer.generation()) {
+                    chefIds.add(timer.chefId());
+                }
+            }
+            if (!chefIds.isEmpty()) {
+                evaluate(chefIds);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Menu schedule tick failed: {}", e.getMessage(), e);
+            // What was written is unknown now; the next reload rewrites every scheduled item
+            applied.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Picks up rules edited through other instances and repairs anything a failed tick left behind
+    @Scheduled(initialDelayString = "${menu-schedule.reload-interval-ms:300000}",
+               fixedDelayString = "${menu-schedule.reload-interval-ms:300000}")
+    public void reload() {
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            Map<Long, List<AvailabilitySchedule>> rulesByChef = new HashMap<>();
+            for (AvailabilitySchedule rule : scheduleRepository.findAll()) {
+                rulesByChef.computeIfAbsent(rule.getChefId(), id -> new ArrayList<>()).add(rule);
+            }
+            Set<Long> chefIds = new HashSet<>(schedules.keySet());
+            chefIds.addAll(rulesByChef.keySet());
+            schedules.clear();
+            rulesByChef.forEach((chefId, rules) -> schedules.put(chefId, build(rules)));
+            evaluate(chefIds);
+        } catch (RuntimeException e) {
+            logger.error("Menu schedule reload failed: {}", e.getMessage(), e);
+            applied.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilitySchedule> getSchedule(Long chefId) {
+        requireChef(chefId);
+        return scheduleRepository.findByChefIdOrderByIdAsc(chefId);
+    }
+
+    // Not one transaction: the rule is committed first so refresh() reads it and its writes commit on their own
+    public AvailabilitySchedule addRule(Long chefId, AvailabilityScheduleRequest request) {
+        requireChef(chefId);
+        if (request.getFoodItemId() != null) {
+            FoodItem foodItem = foodItemService.findById(request.getFoodItemId());
+            if (foodItem == null) {
+                throw new IllegalArgumentException("Food item not found: " + request.getFoodItemId());
+            }
+            if (!chefId.equals(foodItem.getUser().getId())) {
+                throw new IllegalStateException("Food item " + request.getFoodItemId() + " belongs to another chef");
+            }
+        }
+        boolean weekly = request.getDayOfWeek() != null || request.getOpensAt() != null || request.getClosesAt() != null;
+        if (weekly == (request.getClosedOn() != null)) {
+            throw new IllegalArgumentException("Give either dayOfWeek, opensAt and closesAt for a weekly window, or closedOn for a holiday");
+        }
+        if (weekly && (request.getDayOfWeek() == null || request.getOpensAt() == null || request.getClosesAt() == null)) {
+            throw new IllegalArgumentException("A weekly window needs dayOfWeek, opensAt and closesAt");
+        }
+
+        AvailabilitySchedule rule = weekly
+                ? new AvailabilitySchedule(chefId, request.getFoodItemId(), request.getDayOfWeek().getValue(),
+                        request.getOpensAt().truncatedTo(ChronoUnit.MINUTES), request.getClosesAt().truncatedTo(ChronoUnit.MINUTES), null)
+                : new AvailabilitySchedule(chefId, request.getFoodItemId(), null, null, null, request.getClosedOn());
+        rule = scheduleRepository.save(rule);
+        logger.info("Chef {} added menu schedule rule {}", chefId, rule.getId());
+        refresh(chefId);
+        return rule;
+    }
+
+    /**
+     * Deletes one of the chef's rules. Returns false if the chef has no such rule.
+     */
+    public boolean removeRule(Long chefId, Long ruleId) {
+        requireChef(chefId);
+        AvailabilitySchedule rule = scheduleRepository.findById(ruleId).orElse(null);
+        if (rule == null || !chefId.equals(rule.getChefId())) {
+            return false;
+        }
+        scheduleRepository.delete(rule);
+        logger.info("Chef {} removed menu schedule rule {}", chefId, ruleId);
+        refresh(chefId);
+        return true;
+    }
+
+    // Re-reads one chef's rules and applies them right away
+    private void refresh(Long chefId) {
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            List<AvailabilitySchedule> rules = scheduleRepository.findByChefIdOrderByIdAsc(chefId);
+            if (rules.isEmpty()) {
+                schedules.remove(chefId);
+            } else {
+                schedules.put(chefId, build(rules));
+            }
+            evaluate(Set.of(chefId));
+        } catch (RuntimeException e) {
+            logger.error("Menu schedule refresh for chefId={} failed: {}", chefId, e.getMessage(), e);
+            applied.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Works out which of the chefs' items open or close now, writes the changes and arms the next boundary
+    private void evaluate(Collection<Long> chefIds) {
+        LocalDateTime now = LocalDateTime.now(zone);
+        List<Long> closing = new ArrayList<>();
+        List<Long> opening = new ArrayList<>();
+        for (Object[] row : foodItemRepository.findIdsByChefIds(chefIds)) {
+            Long foodItemId = (Long) row[0];
+            ChefSchedule schedule = schedules.get((Long) row[1]);
+            Boolean was = applied.get(foodItemId);
+            if (schedule == null || !schedule.governs(foodItemId)) {
+                // No rule covers the item any more: reopen it if a schedule had closed it
+                if (was != null) {
+                    applied.remove(foodItemId);
+                    if (!was) {
+                        opening.add(foodItemId);
+                    }
+                }
+                continue;
+            }
+            boolean open = schedule.isOpen(foodItemId, now);
+            if (was == null || was != open) {
+                applied.put(foodItemId, open);
+                (open ? opening : closing).add(foodItemId);
+            }
+        }
+        for (Long chefId : chefIds) {
+            ChefSchedule schedule = schedules.get(chefId);
+            if (schedule == null) {
+                generations.remove(chefId);
+                continue;
+            }
+            long generation = generations.merge(chefId, 1L, Long::sum);
+            LocalDateTime next = schedule.nextBoundary(now);
+            wheel.add(next.atZone(zone).toInstant().toEpochMilli(), new ChefTimer(chefId, generation));
+        }
+        apply(closing, opening);
+    }
+
+    private void apply(List<Long> closing, List<Long> opening) {
+        int closed = 0;
+        int opened = 0;
+        for (int from = 0; from < closing.size(); from += UPDATE_CHUNK_SIZE) {
+            closed += foodItemRepository.closeForSchedule(closing.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, closing.size())));
+        }
+        for (int from = 0; from < opening.size(); from += UPDATE_CHUNK_SIZE) {
+            opened += foodItemRepository.openForSchedule(opening.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, opening.size())));
+        }
+        if (closed + opened > 0) {
+            foodItemService.catalogChanged();
+            logger.info("Menu schedules closed {} and opened {} food items", closed, opened);
+        }
+    }
+
+    private static ChefSchedule build(List<AvailabilitySchedule> rules) {
+        List<Window> chefWindows = new ArrayList<>();
+        Map<Long, List<Window>> itemWindows = new HashMap<>();
+        Set<LocalDate> chefHolidays = new HashSet<>();
+        Map<Long, Set<LocalDate>> itemHolidays = new HashMap<>();
+        for (AvailabilitySchedule rule : rules) {
+            if (rule.getClosedOn() != null) {
+                if (rule.getFoodItemId() == null) {
+                    chefHolidays.add(rule.getClosedOn());
+                } else {
+                    itemHolidays.computeIfAbsent(rule.getFoodItemId(), id -> new HashSet<>()).add(rule.getClosedOn());
+                }
+            } else if (rule.getDayOfWeek() != null && rule.getOpensAt() != null && rule.getClosesAt() != null) {
+                Window window = new Window(DayOfWeek.of(rule.getDayOfWeek()), rule.getOpensAt(), rule.getClosesAt());
+                if (rule.getFoodItemId() == null) {
+                    chefWindows.add(window);
+                } else {
+                    itemWindows.computeIfAbsent(rule.getFoodItemId(), id -> new ArrayList<>()).add(window);
+                }
+            }
+        }
+        return new ChefSchedule(chefWindows, itemWindows, chefHolidays, itemHolidays);
+    }
+
+    private void requireChef(Long chefId) {
+        if (chefId == null) {
+            throw new IllegalArgumentException("chefId is required");
+        }
+        User chef = userService.findById(chefId);
+        if (!"CHEF".equals(chef.getRole())) {
+            throw new IllegalStateException("User must have CHEF role to manage menu schedules");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.OrderArchiveRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves finished orders older than order-archive.after-days out of orders, order_item and payment
+ * into orders_archive and order_item_archive, so status and kitchen queries only ever see live and
+ * recent orders. Run in batches by the order-archive job in {@link CleanupService};
+ * {@link OrderQueryService} reads history across both tiers.
+ *
+ * Table sizes are published as order.storage.rows and order.storage.bytes (tagged by table) after
+ * every run, so the effect of archiving shows up next to the query latency metrics.
+ */
+@Service
+public class OrderArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    static final List<String> ARCHIVED_STATUSES = List.of("DELIVERED", "CANCELLED");
+    private static final List<String> REPORTED_TABLES =
+            List.of("orders", "order_item", "payment", "chef_order_lines", "orders_archive", "order_item_archive");
+
+    private final Map<String, AtomicLong[]> storageStats = new ConcurrentHashMap<>();
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order-archive.after-days:90}")
+    private long archiveAfterDays;
+
+    // Whether a history query with this status filter (null for none) can match archived orders
+    static boolean mayBeArchived(String status) {
+        return status == null || ARCHIVED_STATUSES.contains(status.toUpperCase());
+    }
+
+    /**
+     * Archives up to limit orders in one transaction and returns how many were moved.
+     */
+    @Transactional
+    public int archiveBatch(int limit) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        List<Long> orderIds = orderArchiveRepository.lockArchivableIds(ARCHIVED_STATUSES, cutoff, limit);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        orderArchiveRepository.copyOrders(orderIds);
+        orderArchiveRepository.copyOrderItems(orderIds);
+        orderArchiveRepository.deleteChefOrderLines(orderIds);
+        orderArchiveRepository.deletePayments(orderIds);
+        orderArchiveRepository.deleteOrderItems(orderIds);
+        orderArchiveRepository.deleteOrders(orderIds);
+        logger.debug("Archived orders {} to {}", orderIds.get(0), orderIds.get(orderIds.size() - 1));
+        return orderIds.size();
+    }
+
+    @Transactional(readOnly = true)
+    public void recordStorage() {
+        for (Object[] row : orderArchiveRepository.findTableStats(REPORTED_TABLES)) {
+            String table = ((String) row[0]).toLowerCase();
+            AtomicLong[] stats = storageStats.computeIfAbsent(table, this::registerGauges);
+            stats[0].set(row[1] != null ? ((Number) row[1]).longValue() : 0);
+            stats[1].set(row[2] != null ? ((Number) row[2]).longValue() : 0);
+            logger.info("Table {}: ~{} rows, {} KB", table, stats[0].get(), stats[1].get() / 1024);
+        }
+    }
+
+    private AtomicLong[] registerGauges(String table) {
+        AtomicLong rows = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        Gauge.builder("order.storage.rows", rows, AtomicLong::get)
+                .description("Estimated rows in an order table")
+                .tag("table", table)
+                .register(meterRegistry);
+        Gauge.builder("order.storage.bytes", bytes, AtomicLong::get)
+                .description("Data and index size of an order table")
+                .tag("table", table)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return new AtomicLong[] {rows, bytes};
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FoodItemDto;
+import com.example.demo.dto.OrderItemLine;
+import com.example.demo.dto.OrderItemResponse;
+import com.example.demo.dto.OrderResponse;
+import com.example.demo.dto.UserDto;
+import com.example.demo.model.User;
+import com.example.demo.repository.OrderArchiveRepository;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.utility.ChunkedStreams;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Read side of orders. Lists are assembled from JPQL projections (order headers, item lines,
+ * tags and users are one query each) instead of walking Order/OrderItem/FoodItem entities.
+ * History reads span the hot tables and the archive written by {@link OrderArchiveService};
+ * the archive is only queried when the status filter can match archived orders.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderQueryService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderQueryService.class);
+    private static final int STREAM_CHUNK_SIZE = 200;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveRepository orderArchiveRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FoodItemService foodItemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EtaService etaService;
+
+    @Timed("service.calls")
+    public List<OrderResponse> getUserOrders(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        userService.findById(userId);
+        return findOrderResponses(mergeIds(orderRepository.findIdsByUserId(userId),
+                orderArchiveRepository.findIdsByUserId(userId)), null);
+    }
+
+    @Timed("service.calls")
+    public List<OrderResponse> findOrdersByUserIdAndStatus(Long userId, String status) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        userService.findById(userId);
+        if (status != null && !OrderService.VALID_STATUSES.contains(status.toUpperCase())) {
+            throw new IllegalArgumentException("Invalid status: " + status + ". Allowed values: " + OrderService.VALID_STATUSES);
+        }
+        if (status == null) {
+            logger.info("Fetching all orders for userId={}", userId);
+            return findOrderResponses(mergeIds(orderRepository.findIdsByUserId(userId),
+                    orderArchiveRepository.findIdsByUserId(userId)), null);
+        }
+        logger.info("Fetching orders for userId={} with status={}", userId, status);
+        String normalized = status.toUpperCase();
+        List<Long> orderIds = orderRepository.findIdsByUserIdAndStatus(userId, normalized);
+        if (OrderArchiveService.mayBeArchived(normalized)) {
+            orderIds = mergeIds(orderIds, orderArchiveRepository.findIdsByUserIdAndStatus(userId, normalized));
+        }
+        return findOrderResponses(orderIds, null);
+    }
+
+    @Timed("service.calls")
+    public List<OrderResponse> findReadyOrdersForDelivery(Long userId) {
+        logger.info("Fetching READY orders for delivery userId={}", userId);
+        requireRole(userId, "DELIVERY", "User must have DELIVERY role to fetch READY orders");
+        return findOrderResponses(orderRepository.findReadyIdsForCourier(userId), null);
+    }
+
+    @Timed("service.calls")
+    public List<OrderResponse> findDeliveryOrdersByStatus(Long userId, String status) {
+        logger.info("Fetching orders with status={} for delivery userId={}", status, userId);
+        requireRole(userId, "DELIVERY", "User must have DELIVERY role to fetch orders");
+        if (status == null || !OrderService.VALID_DELIVERY_STATUSES.contains(status.toUpperCase())) {
+            throw new IllegalArgumentException("Invalid status: " + status + ". Allowed values: " + OrderService.VALID_DELIVERY_STATUSES);
+        }
+        return findCourierOrders(userId, status.toUpperCase());
+    }
+
+    /**
+     * The courier's own orders in the given status, read through the (courier_id, status) index.
+     * No role check; callers have done it.
+     */
+    @Timed("service.calls")
+    public List<OrderResponse> findCourierOrders(Long courierId, String status) {
+        List<Long> orderIds = orderRepository.findIdsByCourierIdAndStatus(courierId, status);
+        if (OrderArchiveService.mayBeArchived(status)) {
+            orderIds = mergeIds(orderIds, orderArchiveRepository.findIdsByCourierIdAndStatus(courierId, status));
+        }
+        return findOrderResponses(orderIds, null);
+    }
+
+    // READY orders no courier has claimed; the same for every courier
+    @Timed("service.calls")
+    public List<OrderResponse> findUnclaimedReadyOrders() {
+        return findOrderResponses(orderRepository.findUnclaimedReadyIds(), null);
+    }
+
+    /**
+     * Orders holding the chef's lines, most urgent first, each carrying only that chef's items. Order
+     * ids come off a database cursor and the responses are built and handed to the sink
+     * STREAM_CHUNK_SIZE orders at a time, so memory does not grow with the chef's history. Archived
+     * orders follow the live ones, newest first.
+     */
+    @Timed("service.calls")
+    public void streamChefOrders(Long chefId, String status, Consumer<List<OrderResponse>> sink) {
+        try (Stream<Long> orderIds = orderService.streamChefOrderIds(chefId, status)) {
+            ChunkedStreams.forEachChunk(orderIds, STREAM_CHUNK_SIZE, chunk -> sink.accept(findOrderResponses(chunk, chefId)));
+        }
+
+        String normalized = status != null ? status.toUpperCase() : null;
+        if (!OrderArchiveService.mayBeArchived(normalized)) {
+            return;
+        }
+        try (Stream<Long> orderIds = normalized == null
+                ? orderArchiveRepository.streamChefOrderIds(chefId)
+                : orderArchiveRepository.streamChefOrderIdsByStatus(chefId, normalized)) {
+            ChunkedStreams.forEachChunk(orderIds, STREAM_CHUNK_SIZE, chunk -> sink.accept(findOrderResponses(chunk, chefId, true)));
+        }
+    }
+
+    /**
+     * Builds responses for the given orders in the iteration order of the ids. When chefId is
+     * non-null only that chef's items are included. Ids missing from the hot tables are looked up in
+     * the archive. Only called from within this class, so it is timed through the public methods above.
+     */
+    private List<OrderResponse> findOrderResponses(Collection<Long> orderIds, Long chefId) {
+        return findOrderResponses(orderIds, chefId, false);
+    }
+
+    private List<OrderResponse> findOrderResponses(Collection<Long> orderIds, Long chefId, boolean archivedOnly) {
+        if (orderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, OrderResponse> responsesById = archivedOnly ? new HashMap<>()
+                : orderRepository.findOrderResponsesByIds(orderIds).stream()
+                        .collect(Collectors.toMap(OrderResponse::getOrderId, Function.identity(), (a, b) -> a, HashMap::new));
+        List<Long> archivedIds = orderIds.stream().filter(id -> !responsesById.containsKey(id)).collect(Collectors.toList());
+        List<OrderItemLine> itemLines = new ArrayList<>();
+        if (!responsesById.isEmpty()) {
+            itemLines.addAll(orderRepository.findItemLinesByOrderIds(new ArrayList<>(responsesById.keySet())));
+        }
+        if (!archivedIds.isEmpty()) {
+            orderArchiveRepository.findOrderResponsesByIds(archivedIds)
+                    .forEach(response -> responsesById.put(response.getOrderId(), response));
+            itemLines.addAll(orderArchiveRepository.findItemLinesByOrderIds(archivedIds));
+        }
+
+        Map<Long, List<OrderItemResponse>> itemsByOrderId = new HashMap<>();
+        List<FoodItemDto> foodItems = new ArrayList<>();
+        for (OrderItemLine line : itemLines) {
+            if (chefId != null && !chefId.equals(line.getFoodItem().getUser().getId())) {
+                continue;
+            }
+            itemsByOrderId.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(line.toResponse());
+            foodItems.add(line.getFoodItem());
+        }
+        foodItemService.attachTags(foodItems);
+
+        Set<Long> userIds = new HashSet<>();
+        responsesById.values().forEach(response -> userIds.add(response.getUserId()));
+        foodItems.forEach(food -> userIds.add(food.getUser().getId()));
+        Map<Long, UserDto> usersById = userService.findUserDtosByIds(userIds);
+        foodItems.forEach(food -> food.setUser(usersById.getOrDefault(food.getUser().getId(), food.getUser())));
+
+        return orderIds.stream()
+                .map(responsesById::get)
+                .filter(Objects::nonNull)
+                .map(response -> {
+                    response.setUser(usersById.get(response.getUserId()));
+                    response.setOrderItems(itemsByOrderId.getOrDefault(response.getOrderId(), new ArrayList<>()));
+                    etaService.applyEta(response);
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Both lists are ascending; an order is in exactly one of them unless it moved between the two queries
+    private static List<Long> mergeIds(List<Long> hotIds, List<Long> archivedIds) {
+        if (archivedIds.isEmpty()) {
+            return hotIds;
+        }
+        return Stream.concat(hotIds.stream(), archivedIds.stream()).distinct().sorted().collect(Collectors.toList());
+    }
+
+    private void requireRole(Long userId, String role, String message) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        User user = userService.findById(userId);
+        if (!role.equals(user.getRole())) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 
 package com.example.demo.service;
 
+import com.example.demo.config.ReadYourWritesTracker;
+import com.example.demo.dto.CartLineView;
 import com.example.demo.dto.OrderResponse;
 import com.example.demo.model.FoodItem;
 import com.example.demo.model.Order;
@@ -8,31 +10,44 @@ import com.example.demo.model.OrderItem;
 import com.example.demo.model.Payment;
 import com.example.demo.model.PaymentStatus;
 import com.example.demo.model.User;
+import com.example.demo.repository.AddToCartRepository;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.PaymentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
-    private static final List<String> VALID_STATUSES = Arrays.asList("PLACED", "CONFIRMED", "PREPARING", "READY", "PICKED_UP", "DELIVERED", "CANCELLED");
+    static final List<String> VALID_STATUSES = Arrays.asList("SCHEDULED", "PLACED", "CONFIRMED", "PREPARING", "READY", "PICKED_UP", "DELIVERED", "CANCELLED");
     private static final List<String> VALID_PAYMENT_STATUSES = Arrays.asList("PENDING", "COMPLETED", "CANCELLED");
-    private static final List<String> VALID_DELIVERY_STATUSES = Arrays.asList("PICKED_UP", "DELIVERED");
+    static final List<String> VALID_DELIVERY_STATUSES = Arrays.asList("PICKED_UP", "DELIVERED");
 
     @Autowired
     private OrderRepository orderRepository;
 
+    // The "delivery" version covers everything the delivery views show: READY and later orders, their courier claims and payment status
+    @Autowired
+    private DataVersionService dataVersionService;
+
     @Autowired
     private PaymentRepository paymentRepository;
 
@@ -45,9 +60,50 @@ public class OrderService {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private AddToCartRepository addToCartRepository;
+
+    @Autowired
+    private ChefOrderIndexService chefOrderIndexService;
+
+    @Autowired
+    private EtaService etaService;
+
+    @Autowired
+    private CapacityService capacityService;
+
+    @Autowired
+    private DeliverySlotService deliverySlotService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Value("${order.delivery-fee:100}")
+    private double deliveryFee;
+
+    /**
+     * Current delivery version, usable as an ETag for the delivery lists. Committed together with
+     * every status change to READY or later, courier claim, cash payment update and user change.
+     */
+    public String getDeliveryVersion() {
+        return dataVersionService.tag(DataVersionService.DELIVERY);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        deliveryChanged();
+    }
+
+    /**
+     * Places an order for immediate delivery, or a pre-order when deliverySlotId and deliveryDate are
+     * given. A pre-order stays SCHEDULED until PreOrderReleaseService hands it to the kitchen; its
+     * delivery slot is its limit, so it takes no daily stock or chef order slot until then.
+     */
+    @Timed("service.calls")
     @Transactional
     public Order placeOrder(Long userId, List<Long> foodItemIds, List<Integer> quantities, Double amount, String paymentMethod,
-                           String deliveryLocation, String deliveryPhone, String deliveryCoordinates, String transactionUuid) {
+                           String deliveryLocation, String deliveryPhone, String deliveryCoordinates, String transactionUuid,
+                           Long deliverySlotId, LocalDate deliveryDate) {
         User user = userService.findById(userId);
         if (user == null) {
             throw new IllegalArgumentException("User not found");
@@ -58,6 +114,8 @@ public class OrderService {
         }
 
         List<OrderItem> orderItems = new ArrayList<>();
+        Map<Long, Integer> quantityByFoodId = new HashMap<>();
+        Set<Long> chefIds = new HashSet<>();
         for (int i = 0; i < foodItemIds.size(); i++) {
             Long foodItemId = foodItemIds.get(i);
             Integer quantity = quantities.get(i);
@@ -72,47 +130,104 @@ public class OrderService {
                 throw new IllegalArgumentException("Quantity must be positive for food item: " + foodItemId);
             }
             orderItems.add(new OrderItem(null, foodItem, quantity));
+            quantityByFoodId.merge(foodItemId, quantity, Integer::sum);
+            chefIds.add(foodItem.getUser().getId());
         }
+        DeliverySlotService.Booking booking = admitBooking(deliverySlotId, deliveryDate, chefIds, quantityByFoodId.keySet());
+        CapacityService.Reservation reservation = booking == null ? capacityService.admit(quantityByFoodId, chefIds) : null;
 
         Order order = new Order(user, orderItems, deliveryLocation, deliveryPhone, deliveryCoordinates);
         for (OrderItem orderItem : orderItems) {
             orderItem.setOrder(order);
         }
+        schedule(order, booking);
         order = orderRepository.save(order);
 
         Payment payment = paymentService.createPayment(order, amount, paymentMethod, transactionUuid);
         order.setPayment(payment);
 
-        return orderRepository.save(order);
+        order = orderRepository.save(order);
+        chefOrderIndexService.indexOrder(order);
+        etaService.statusChanged(order, null);
+        reserve(reservation, booking);
+        readYourWritesTracker.recordWrite(userId);
+        return order;
+    }
+
+    /**
+     * Converts the user's persisted cart into an order in a single transaction.
+     * The cart is read with one joined query, priced from the catalog (plus the delivery fee),
+     * and removed with one bulk DELETE once the order and payment are written. With deliverySlotId
+     * and deliveryDate the cart becomes a pre-order, as in placeOrder.
+     */
+    @Timed("service.calls")
+    @Transactional
+    public Order checkout(Long userId, String paymentMethod, String deliveryLocation, String deliveryPhone,
+                          String deliveryCoordinates, String transactionUuid, Long deliverySlotId, LocalDate deliveryDate) {
+        User user = userService.findById(userId);
+
+        List<CartLineView> cartLines = addToCartRepository.findCartLinesByUserId(userId);
+        if (cartLines.isEmpty()) {
+            throw new IllegalStateException("Cart is empty");
+        }
+
+        List<OrderItem> orderItems = new ArrayList<>(cartLines.size());
+        Map<Long, Integer> quantityByFoodId = new HashMap<>();
+        Set<Long> chefIds = new HashSet<>();
+        double amount = deliveryFee;
+        for (CartLineView line : cartLines) {
+            if (!Boolean.TRUE.equals(line.getAvailable())) {
+                throw new IllegalStateException("Food item is not available: " + line.getFoodId());
+            }
+            amount += line.getPrice() * line.getQuantity();
+            orderItems.add(new OrderItem(null, foodItemService.getReference(line.getFoodId()), line.getQuantity()));
+            quantityByFoodId.merge(line.getFoodId(), line.getQuantity(), Integer::sum);
+            chefIds.add(line.getChefId());
+        }
+        amount = Math.round(amount * 100) / 100.0;
+        DeliverySlotService.Booking booking = admitBooking(deliverySlotId, deliveryDate, chefIds, quantityByFoodId.keySet());
+        CapacityService.Reservation reservation = booking == null ? capacityService.admit(quantityByFoodId, chefIds) : null;
+
+        Order order = new Order(user, orderItems, deliveryLocation, deliveryPhone, deliveryCoordinates);
+        for (OrderItem orderItem : orderItems) {
+            orderItem.setOrder(order);
+        }
+        schedule(order, booking);
+        order = orderRepository.save(order);
+
+        Payment payment = paymentService.createPayment(order, amount, paymentMethod, transactionUuid);
+        order.setPayment(payment);
+
+        chefOrderIndexService.indexOrder(order);
+        etaService.statusChanged(order, null);
+        addToCartRepository.deleteAllByUserId(userId);
+        reserve(reservation, booking);
+        readYourWritesTracker.recordWrite(userId);
+        logger.info("Checked out cart for userId={} into orderId={} with {} items, amount={}",
+                userId, order.getId(), orderItems.size(), amount);
+        return order;
     }
 
     @Transactional
     public Order cancelOrder(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId).orElseThrow(() -> new IllegalArgumentException("Order not found"));
+        // Locked, so a pre-order release committing meanwhile is seen here, or waits and then finds it cancelled
+        Order order = orderRepository.findByIdForUpdate(orderId).orElseThrow(() -> new IllegalArgumentException("Order not found"));
         if (!order.getUser().getId().equals(userId)) {
             throw new IllegalStateException("Unauthorized to cancel this order");
         }
-        if (!order.getStatus().equals("PLACED")) {
-            throw new IllegalStateException("Only placed orders can be cancelled");
+        if (!order.getStatus().equals("PLACED") && !order.getStatus().equals("SCHEDULED")) {
+            throw new IllegalStateException("Only placed or scheduled orders can be cancelled");
         }
+        boolean inKitchen = order.getStatus().equals("PLACED");
         order.setStatus("CANCELLED");
         if (order.getPayment() != null) {
             order.getPayment().setStatus(PaymentStatus.CANCELLED);
         }
+        releaseCapacity(order, inKitchen, null);
+        statusChanged(order);
         return orderRepository.save(order);
     }
 
-    public List<Order> getUserOrders(Long userId) {
-        if (userId == null) {
-            throw new IllegalArgumentException("userId is required");
-        }
-        User user = userService.findById(userId);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found");
-        }
-        return orderRepository.findByUserId(userId);
-    }
-
     public Order findOrderByTransactionUuid(String transactionUuid) {
         if (transactionUuid == null) {
             throw new IllegalArgumentException("transactionUuid is required");
@@ -120,25 +235,6 @@ public class OrderService {
         return orderRepository.findByPayment_TransactionId(transactionUuid);
     }
 
-    public List<Order> findOrdersByUserIdAndStatus(Long userId, String status) {
-        if (userId == null) {
-            throw new IllegalArgumentException("userId is required");
-        }
-        User user = userService.findById(userId);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found");
-        }
-        if (status != null && !VALID_STATUSES.contains(status.toUpperCase())) {
-            throw new IllegalArgumentException("Invalid status: " + status + ". Allowed values: " + VALID_STATUSES);
-        }
-        if (status == null) {
-            logger.info("Fetching all orders for userId={}", userId);
-            return orderRepository.findByUserId(userId);
-        }
-        logger.info("Fetching orders for userId={} with status={}", userId, status);
-        return orderRepository.findByUserIdAndStatus(userId, status.toUpperCase());
-    }
-
     @Transactional
     public List<Long> cancelOrderItems(Long userId, List<Long> orderItemIds) {
         if (userId == null) {
@@ -153,8 +249,14 @@ public class OrderService {
             throw new IllegalArgumentException("User not found");
         }
 
+        // Lock the orders, in id order, before their status is checked, as cancelOrder does
+        for (Long orderId : orderRepository.findOrderIdsByItemIds(orderItemIds)) {
+            orderRepository.findByIdForUpdate(orderId);
+        }
+
         List<Long> cancelledOrderItemIds = new ArrayList<>();
         Map<Long, Order> ordersToUpdate = new HashMap<>();
+        Map<Long, List<Long>> cancelledItemIdsByOrderId = new HashMap<>();
 
         for (Long orderItemId : orderItemIds) {
             OrderItem orderItem = orderRepository.findOrderItemById(orderItemId)
@@ -164,16 +266,18 @@ public class OrderService {
             if (!order.getUser().getId().equals(userId)) {
                 throw new IllegalStateException("Unauthorized to cancel order item: " + orderItemId);
             }
-            if (!order.getStatus().equals("PLACED")) {
-                throw new IllegalStateException("Only items in PLACED orders can be cancelled: " + orderItemId);
+            if (!order.getStatus().equals("PLACED") && !order.getStatus().equals("SCHEDULED")) {
+                throw new IllegalStateException("Only items in PLACED or SCHEDULED orders can be cancelled: " + orderItemId);
             }
 
             order.getOrderItems().remove(orderItem);
             cancelledOrderItemIds.add(orderItemId);
             ordersToUpdate.put(order.getId(), order);
+            cancelledItemIdsByOrderId.computeIfAbsent(order.getId(), id -> new ArrayList<>()).add(orderItemId);
         }
 
         for (Order order : ordersToUpdate.values()) {
+            boolean inKitchen = order.getStatus().equals("PLACED");
             if (order.getOrderItems().isEmpty()) {
                 order.setStatus("CANCELLED");
                 if (order.getPayment() != null) {
@@ -188,7 +292,14 @@ public class OrderService {
                 }
             }
             orderRepository.save(order);
+            releaseCapacity(order, inKitchen, cancelledItemIdsByOrderId.get(order.getId()));
+            if ("CANCELLED".equals(order.getStatus())) {
+                statusChanged(order);
+            } else {
+                chefOrderIndexService.syncStatus(order);
+            }
         }
+        chefOrderIndexService.removeOrderItems(cancelledOrderItemIds);
 
         return cancelledOrderItemIds;
     }
@@ -219,8 +330,12 @@ public class OrderService {
                 payment.setEsewaRefId(transactionUuid);
                 paymentRepository.save(payment);
 
-                order.setStatus("CONFIRMED");
-                orderRepository.save(order);
+                // A pre-order stays scheduled; it reaches the kitchen paid, at its release time
+                if (!"SCHEDULED".equals(order.getStatus())) {
+                    order.setStatus("CONFIRMED");
+                    orderRepository.save(order);
+                    statusChanged(order);
+                }
 
                 logger.info("Payment verified successfully for order ID: {}", order.getId());
 
@@ -243,7 +358,9 @@ public class OrderService {
 
     @Transactional
     public Order saveOrder(Order order) {
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        statusChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -264,6 +381,9 @@ public class OrderService {
         }
 
         String currentStatus = order.getStatus();
+        if ("SCHEDULED".equals(currentStatus)) {
+            throw new IllegalStateException("Order " + orderId + " is a pre-order and reaches the kitchen at " + order.getReleaseAt());
+        }
         if ("PLACED".equals(currentStatus) && !"CONFIRMED".equals(status.toUpperCase())) {
             throw new IllegalStateException("Order in PLACED status can only transition to CONFIRMED");
         }
@@ -278,6 +398,10 @@ public class OrderService {
         }
 
         order.setStatus(status.toUpperCase());
+        statusChanged(order);
+        if ("READY".equals(order.getStatus())) {
+            capacityService.orderLeftKitchen(orderId);
+        }
         return orderRepository.save(order);
     }
 
@@ -316,10 +440,88 @@ public class OrderService {
             }
         }
 
+        User courier = order.getCourier();
+        if (courier == null && "PICKED_UP".equals(status.toUpperCase())) {
+            // Picking up an unclaimed order claims it, with the same conditional update as assignCourier
+            if (orderRepository.claimForCourier(orderId, userId) == 0) {
+                throw new IllegalStateException("Order was assigned to another courier");
+            }
+            order.setCourier(user);
+        } else if (courier != null && !userId.equals(courier.getId())) {
+            throw new IllegalStateException("Order is assigned to another courier");
+        }
+
         order.setStatus(status.toUpperCase());
+        statusChanged(order);
         return orderRepository.save(order);
     }
 
+    /**
+     * Claims a READY order for a courier. Returns the order once this courier holds it, including when
+     * it already did, or null when another courier claimed it first.
+     */
+    @Transactional
+    public Order assignCourier(Long orderId, Long courierId) {
+        logger.info("Assigning orderId={} to courierId={}", orderId, courierId);
+        if (orderId == null || courierId == null) {
+            throw new IllegalArgumentException("orderId and deliveryId are required");
+        }
+        User courier = userService.findById(courierId);
+        if (courier == null) {
+            throw new IllegalArgumentException("User not found: " + courierId);
+        }
+        if (!"DELIVERY".equals(courier.getRole())) {
+            throw new IllegalStateException("User must have DELIVERY role to be assigned an order");
+        }
+
+        int claimed = orderRepository.claimForCourier(orderId, courierId);
+        // A plain read would return this transaction's snapshot, taken before a competing claim committed;
+        // the locking read sees the claim that won
+        Order order = orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        if (claimed == 1) {
+            readYourWritesTracker.recordWrite(courierId);
+            deliveryChanged();
+            return order;
+        }
+        if (order.getCourier() != null) {
+            return courierId.equals(order.getCourier().getId()) ? order : null;
+        }
+        throw new IllegalStateException("Only READY orders can be assigned; order " + orderId + " is " + order.getStatus());
+    }
+
+    /**
+     * Claims each order of a delivery batch for a courier with the same conditional update as
+     * {@link #assignCourier}. Returns the ids this call claimed; orders another courier (or an
+     * earlier claim) got first, or that are no longer READY, are left out.
+     */
+    @Transactional
+    public List<Long> assignBatch(List<Long> orderIds, Long courierId) {
+        logger.info("Assigning batch orderIds={} to courierId={}", orderIds, courierId);
+        if (orderIds == null || orderIds.isEmpty() || courierId == null) {
+            throw new IllegalArgumentException("orderIds and deliveryId are required");
+        }
+        User courier = userService.findById(courierId);
+        if (courier == null) {
+            throw new IllegalArgumentException("User not found: " + courierId);
+        }
+        if (!"DELIVERY".equals(courier.getRole())) {
+            throw new IllegalStateException("User must have DELIVERY role to be assigned an order");
+        }
+
+        List<Long> claimed = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            if (orderRepository.claimForCourier(orderId, courierId) == 1) {
+                claimed.add(orderId);
+            }
+        }
+        if (!claimed.isEmpty()) {
+            readYourWritesTracker.recordWrite(courierId);
+            deliveryChanged();
+        }
+        return claimed;
+    }
+
     @Transactional
     public Order updatePaymentStatus(Long orderId, Long userId, String paymentStatus) {
         logger.info("Updating payment status for orderId={} to paymentStatus={} by userId={}", orderId, paymentStatus, userId);
@@ -353,15 +555,43 @@ public class OrderService {
 
         payment.setStatus(PaymentStatus.COMPLETED);
         paymentRepository.save(payment);
+        deliveryChanged();
         return orderRepository.save(order);
     }
 
-    public List<Order> findOrdersByChefId(Long chefId) {
-        return findOrdersByChefId(chefId, null);
+    /**
+     * Hands a due pre-order to its chef's kitchen: PLACED, or CONFIRMED when it was paid online.
+     * Returns null when the order is no longer scheduled, e.g. because it was cancelled or another
+     * instance released it first.
+     */
+    @Transactional
+    public Order releasePreOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null || !"SCHEDULED".equals(order.getStatus())) {
+            return null;
+        }
+        boolean paid = order.getPayment() != null && order.getPayment().getStatus() == PaymentStatus.COMPLETED
+                && !"CASH_ON_DELIVERY".equals(order.getPayment().getPaymentMethod());
+        String status = paid ? "CONFIRMED" : "PLACED";
+        LocalDateTime now = LocalDateTime.now();
+        // Conditional, so the order is released once however many instances run the release job
+        if (orderRepository.releaseScheduled(orderId, status, now) == 0) {
+            return null;
+        }
+        order.setStatus(status);
+        order.setReleaseAt(now);
+        statusChanged(order);
+        capacityService.orderEnteredKitchen(orderId);
+        logger.info("Released pre-order orderId={} due at {} to the kitchen as {}", orderId, order.getScheduledFor(), status);
+        return orderRepository.save(order);
     }
 
-    public List<Order> findOrdersByChefId(Long chefId, String status) {
-        logger.info("Fetching orders for chefId={} with status={}", chefId, status);
+    /**
+     * Returns the ids of the orders holding the chef's lines, most urgent first, read off a cursor on
+     * the chef_order_lines index. The caller closes the stream inside its transaction.
+     */
+    public Stream<Long> streamChefOrderIds(Long chefId, String status) {
+        logger.info("Fetching order lines for chefId={} with status={}", chefId, status);
         if (chefId == null) {
             throw new IllegalArgumentException("chefId is required");
         }
@@ -375,42 +605,63 @@ public class OrderService {
         if (status != null && !VALID_STATUSES.contains(status.toUpperCase())) {
             throw new IllegalArgumentException("Invalid status: " + status + ". Allowed values: " + VALID_STATUSES);
         }
-        if (status == null) {
-            return orderRepository.findOrdersByFoodItemUserId(chefId);
-        }
-        return orderRepository.findOrdersByFoodItemUserIdAndStatus(chefId, status.toUpperCase());
+        return chefOrderIndexService.streamQueueOrderIds(chefId, status != null ? status.toUpperCase() : null);
     }
 
-    public List<Order> findReadyOrdersForDelivery(Long userId) {
-        logger.info("Fetching READY orders for delivery userId={}", userId);
-        if (userId == null) {
-            throw new IllegalArgumentException("userId is required");
+    private DeliverySlotService.Booking admitBooking(Long deliverySlotId, LocalDate deliveryDate, Set<Long> chefIds,
+                                                     Collection<Long> foodItemIds) {
+        if (deliverySlotId == null && deliveryDate == null) {
+            return null;
         }
-        User user = userService.findById(userId);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found: " + userId);
+        if (deliverySlotId == null || deliveryDate == null) {
+            throw new IllegalArgumentException("A pre-order needs both deliverySlotId and deliveryDate");
         }
-        if (!"DELIVERY".equals(user.getRole())) {
-            throw new IllegalStateException("User must have DELIVERY role to fetch READY orders");
+        return deliverySlotService.admit(deliverySlotId, deliveryDate, chefIds, foodItemIds);
+    }
+
+    private static void schedule(Order order, DeliverySlotService.Booking booking) {
+        if (booking != null) {
+            order.setStatus("SCHEDULED");
+            order.setDeliverySlotId(booking.slotId());
+            order.setScheduledFor(booking.scheduledFor());
+            order.setReleaseAt(booking.releaseAt());
         }
-        return orderRepository.findByStatus("READY");
     }
 
-    public List<Order> findDeliveryOrdersByStatus(Long userId, String status) {
-        logger.info("Fetching orders with status={} for delivery userId={}", status, userId);
-        if (userId == null) {
-            throw new IllegalArgumentException("userId is required");
+    // Last writes of an order transaction, see CapacityService.reserve
+    private void reserve(CapacityService.Reservation reservation, DeliverySlotService.Booking booking) {
+        if (booking != null) {
+            deliverySlotService.book(booking);
+        } else {
+            capacityService.reserve(reservation);
         }
-        User user = userService.findById(userId);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found: " + userId);
+    }
+
+    // Gives back what the cancelled items held: stock and chef slots once in the kitchen, and a pre-order's delivery slot
+    private void releaseCapacity(Order order, boolean inKitchen, Collection<Long> orderItemIds) {
+        boolean preOrder = order.getDeliverySlotId() != null;
+        if (inKitchen) {
+            // Pre-orders took no daily stock, only a chef slot when they were released
+            capacityService.release(order.getId(), preOrder ? null : order.getOrderDate(), orderItemIds);
         }
-        if (!"DELIVERY".equals(user.getRole())) {
-            throw new IllegalStateException("User must have DELIVERY role to fetch orders");
+        if (preOrder && "CANCELLED".equals(order.getStatus())) {
+            deliverySlotService.release(order.getDeliverySlotId(), order.getScheduledFor().toLocalDate());
         }
-        if (status == null || !VALID_DELIVERY_STATUSES.contains(status.toUpperCase())) {
-            throw new IllegalArgumentException("Invalid status: " + status + ". Allowed values: " + VALID_DELIVERY_STATUSES);
+    }
+
+    // Every status change goes through here: chef queue, status history, ETA statistics and, once the
+    // order is READY or later, the delivery version in the same transaction
+    private void statusChanged(Order order) {
+        LocalDateTime previousChangedAt = order.getStatusChangedAt();
+        order.setStatusChangedAt(LocalDateTime.now());
+        chefOrderIndexService.syncStatus(order);
+        etaService.statusChanged(order, previousChangedAt);
+        if ("READY".equals(order.getStatus()) || VALID_DELIVERY_STATUSES.contains(order.getStatus())) {
+            deliveryChanged();
         }
-        return orderRepository.findByStatus(status.toUpperCase());
+    }
+
+    private void deliveryChanged() {
+        dataVersionService.changed(DataVersionService.DELIVERY);
     }
 }
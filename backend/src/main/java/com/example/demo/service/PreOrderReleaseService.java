@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Hands pre-orders to their chef's kitchen queue once their release time has come (see
+ * {@link DeliverySlotService} for how it is set). Runs on one instance at a time through
+ * {@link JobLockService}; each order is released in its own transaction with a conditional update,
+ * so an order is never released twice. A run walks the due orders by id, so orders that keep failing
+ * are passed over rather than fetched again ahead of the rest, and retried on the next run. Orders
+ * that fell due while no instance was running are released on the next run.
+ */
+@Service
+public class PreOrderReleaseService {
+    private static final Logger logger = LoggerFactory.getLogger(PreOrderReleaseService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Value("${preorder.release-batch-size:100}")
+    private int batchSize;
+
+    @Value("${preorder.release-lock-at-most-seconds:300}")
+    private long lockAtMostSeconds;
+
+    @Scheduled(initialDelayString = "${preorder.release-interval-ms:30000}", fixedDelayString = "${preorder.release-interval-ms:30000}")
+    public void releaseDuePreOrders() {
+        try {
+            jobLockService.runExclusively("preorder-release", Duration.ofSeconds(lockAtMostSeconds), Duration.ZERO, this::releaseDue);
+        } catch (RuntimeException e) {
+            logger.error("Pre-order release failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void releaseDue() {
+        // Fixed for the run, so orders falling due meanwhile wait for the next one and the run ends
+        LocalDateTime now = LocalDateTime.now();
+        int released = 0;
+        int failed = 0;
+        long afterId = 0;
+        List<Long> due;
+        do {
+            due = orderRepository.findDuePreOrderIds(now, afterId, batchSize);
+            for (Long orderId : due) {
+                afterId = orderId;
+                try {
+                    if (orderService.releasePreOrder(orderId) != null) {
+                        released++;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    logger.error("Releasing pre-order orderId={} failed: {}", orderId, e.getMessage(), e);
+                }
+            }
+        } while (due.size() == batchSize);
+        if (released > 0 || failed > 0) {
+            logger.info("Released {} pre-orders to the kitchen, {} failed and are retried next run", released, failed);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TrendingScore;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.utility.HeavyHitters;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * What is being ordered right now, per food item and per chef, kept in memory by {@link HeavyHitters}
+ * for each window in trending.windows. In a window's ranking an order placed one window ago counts
+ * half as much as one placed now.
+ *
+ * The counters follow the order_item table by primary key, so every instance sees the orders placed
+ * through any instance and no query ever aggregates over order items. Startup reads back through
+ * the most recent items until the longest window has decayed them below a few percent; after that
+ * only items newer than the last one seen are read, every trending.poll-interval-ms. Cancellations
+ * are not subtracted: the signal is what customers choose, not what gets delivered.
+ */
+@Service
+public class TrendingService {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+    // Startup reads back this many half-lives of the longest window; older orders would count under 4%
+    private static final int SEED_HALF_LIVES = 5;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${trending.windows:1h,24h,7d}")
+    private String[] windowNames;
+
+    @Value("${trending.capacity:512}")
+    private int capacity;
+
+    @Value("${trending.batch-size:1000}")
+    private int batchSize;
+
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    // Guards lastSeenId; held while reading new order items
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private long lastSeenId;
+    private volatile boolean ready;
+
+    private record Window(long halfLifeMillis, HeavyHitters items, HeavyHitters chefs) {}
+
+    @PostConstruct
+    void init() {
+        for (String name : windowNames) {
+            long halfLifeMillis = DurationStyle.detectAndParse(name.trim()).toMillis();
+            windows.put(name.trim(), new Window(halfLifeMillis, new HeavyHitters(capacity, halfLifeMillis),
+                    new HeavyHitters(capacity, halfLifeMillis)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long longestMillis = windows.values().stream().mapToLong(Window::halfLifeMillis).max().orElse(0);
+        long cutoffMillis = System.currentTimeMillis() - SEED_HALF_LIVES * longestMillis;
+        int seeded = 0;
+        pollLock.lock();
+        try {
+            long beforeId = Long.MAX_VALUE;
+            boolean more = true;
+            while (more) {
+                List<Object[]> rows = orderRepository.findPlacedItemsBefore(beforeId, batchSize);
+                more = rows.size() == batchSize;
+                for (Object[] row : rows) {
+                    beforeId = ((Number) row[0]).longValue();
+                    lastSeenId = Math.max(lastSeenId, beforeId);
+                    if (placedAtMillis(row) < cutoffMillis) {
+                        more = false;
+                        break;
+                    }
+                    record(row);
+                    seeded++;
+                }
+            }
+            ready = true;
+        } finally {
+            pollLock.unlock();
+        }
+        logger.info("Seeded trending counters from {} order items", seeded);
+    }
+
+    /**
+     * Counts order items placed since the last poll. An item whose transaction commits after one
+     * with a higher id has been read is missed, which a ranking of this kind can afford.
+     */
+    @Scheduled(initialDelayString = "${trending.poll-interval-ms:5000}",
+               fixedDelayString = "${trending.poll-interval-ms:5000}")
+    public void poll() {
+        if (!ready) {
+            return;
+        }
+        pollLock.lock();
+        try {
+            List<Object[]> rows;
+            do {
+                rows = orderRepository.findPlacedItemsAfter(lastSeenId, batchSize);
+                for (Object[] row : rows) {
+                    record(row);
+                    lastSeenId = ((Number) row[0]).longValue();
+                }
+            } while (rows.size() == batchSize);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    // Food item ids, most ordered in the window first
+    List<Long> topItemIds(String window, int limit) {
+        return top(window(window).items(), limit).stream().map(TrendingScore::id).toList();
+    }
+
+    public List<TrendingScore> topChefs(String window, int limit) {
+        return top(window(window).chefs(), limit);
+    }
+
+    private List<TrendingScore> top(HeavyHitters counters, int limit) {
+        if (limit < 1 || limit > FoodSearchService.MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + FoodSearchService.MAX_RESULTS);
+        }
+        if (!ready) {
+            throw new WarmingUpException("Trending counters are still being loaded");
+        }
+        return counters.top(limit, System.currentTimeMillis()).stream()
+                .map(counter -> new TrendingScore(counter.key(), counter.count()))
+                .toList();
+    }
+
+    private Window window(String name) {
+        Window window = windows.get(name);
+        if (window == null) {
+            throw new IllegalArgumentException("Unknown window: " + name + " (expected one of " + windows.keySet() + ")");
+        }
+        return window;
+    }
+
+    private void record(Object[] row) {
+        long foodItemId = ((Number) row[1]).longValue();
+        long chefId = ((Number) row[2]).longValue();
+        int quantity = ((Number) row[3]).intValue();
+        long placedAtMillis = placedAtMillis(row);
+        for (Window window : windows.values()) {
+            window.items().add(foodItemId, quantity, placedAtMillis);
+            window.chefs().add(chefId, quantity, placedAtMillis);
+        }
+    }
+
+    private static long placedAtMillis(Object[] row) {
+        LocalDateTime placedAt = row[4] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) row[4];
+        return placedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
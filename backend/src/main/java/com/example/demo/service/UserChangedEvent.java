@@ -0,0 +1,7 @@
+package com.example.demo.service;
+
+/**
+ * Published inside the writing transaction when a user's account or profile changes. Menu and
+ * feed payloads embed user details, so their versions listen for it.
+ */
+public record UserChangedEvent(Long userId) {}
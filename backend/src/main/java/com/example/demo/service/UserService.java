@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.UserDto;
 import com.example.demo.model.User;
 import com.example.demo.model.UserProfile;
 import com.example.demo.repository.UserProfileRepository;
@@ -7,6 +8,7 @@ import com.example.demo.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,8 +16,12 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
@@ -33,8 +39,11 @@ public class UserService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public User findById(Long id) {
-        logger.info("Fetching user with id={}", id);
+        logger.debug("Fetching user with id={}", id);
         return userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + id));
     }
@@ -62,6 +71,25 @@ public class UserService {
         return userRepository.findByRole(role.toUpperCase());
     }
 
+    @Transactional(readOnly = true)
+    public List<UserDto> findUserDtosByRole(String role) {
+        logger.info("Fetching user DTOs with role={}", role);
+        if (role == null || role.trim().isEmpty()) {
+            throw new IllegalArgumentException("Role is required");
+        }
+        return userRepository.findUserDtosByRole(role.toUpperCase());
+    }
+
+    // Users and their profiles for a whole page of results in one query, keyed by user id
+    @Transactional(readOnly = true)
+    public Map<Long, UserDto> findUserDtosByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findUserDtosByIds(ids).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+    }
+
     @Transactional
     public UserProfile createUserProfile(Long userId, MultipartFile profilePicture, String email, String username, 
                                         String location, String phoneNumber, String coordinate, String description) throws IOException {
@@ -107,6 +135,7 @@ public class UserService {
 
         userRepository.save(user);
         UserProfile savedProfile = userProfileRepository.save(profile);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         logger.debug("UserProfile created for userId={}: [profilePicture={}, coordinate={}, description={}]",
                      userId, savedProfile.getProfilePicture(), savedProfile.getCoordinate(), savedProfile.getDescription());
         return savedProfile;
@@ -183,6 +212,7 @@ public class UserService {
         }
 
         UserProfile savedProfile = userProfileRepository.save(profile);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         logger.debug("UserProfile updated for userId={}: [profilePicture={}, coordinate={}, description={}]",
                      userId, savedProfile.getProfilePicture(), savedProfile.getCoordinate(), savedProfile.getDescription());
         return savedProfile;
@@ -205,9 +235,10 @@ public class UserService {
             }
         }
         userProfileRepository.delete(profile);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
-    private void validateCoordinate(String coordinate) {
+    public static void validateCoordinate(String coordinate) {
         if (coordinate == null || !COORDINATE_PATTERN.matcher(coordinate).matches()) {
             throw new IllegalArgumentException("Invalid coordinate format. Expected: 'latitude,longitude' or 'latitude, longitude' (e.g., '27.7172,85.3240' or '27.672956063330112, 85.31850913633565')");
         }
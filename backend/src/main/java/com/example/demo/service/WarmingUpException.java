@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+/**
+ * Thrown by in-memory read models (search index, trending counters) asked for results before they
+ * finished loading after startup. The API answers 503 with a Retry-After, since the same request
+ * succeeds once loading is done; deliberately not an IllegalStateException, which it reports as a
+ * client error.
+ */
+public class WarmingUpException extends RuntimeException {
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    public WarmingUpException(String message) {
+        super(message);
+    }
+
+    public long getRetryAfterSeconds() {
+        return RETRY_AFTER_SECONDS;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.demo.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,9 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     // Send OTP email (retained from original)
     public void sendOtpEmail(String to, String otpCode) throws MessagingException {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
@@ -24,7 +29,7 @@ public class EmailService {
         helper.setSubject("Your OTP Code");
         helper.setText("Your OTP code is: <b>" + otpCode + "</b>. It is valid for 5 minutes.", true);
 
-        mailSender.send(mimeMessage);
+        send("otp", mimeMessage);
     }
 
     // Send order confirmation email
@@ -57,7 +62,7 @@ public class EmailService {
                     .append("<p>Thank you for choosing us!</p>");
 
         helper.setText(emailContent.toString(), true);
-        mailSender.send(mimeMessage);
+        send("order_confirmation", mimeMessage);
     }
 
     // Send order cancellation email
@@ -74,7 +79,7 @@ public class EmailService {
                              "<p>Thank you for choosing us!</p>";
 
         helper.setText(emailContent, true);
-        mailSender.send(mimeMessage);
+        send("order_cancellation", mimeMessage);
     }
 
     // Send order status update email
@@ -90,7 +95,7 @@ public class EmailService {
                              "<p>Thank you for choosing us!</p>";
 
         helper.setText(emailContent, true);
-        mailSender.send(mimeMessage);
+        send("order_status", mimeMessage);
     }
 
     // Send payment status update email
@@ -107,6 +112,24 @@ public class EmailService {
                              "<p>Thank you for choosing us!</p>";
 
         helper.setText(emailContent, true);
-        mailSender.send(mimeMessage);
+        send("payment_status", mimeMessage);
+    }
+
+    // Times the SMTP round trip per email type, including failures
+    private void send(String type, MimeMessage mimeMessage) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            mailSender.send(mimeMessage);
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("mail.send")
+                    .description("SMTP send latency")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.demo.utility;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public final class ChunkedStreams {
+
+    private ChunkedStreams() {}
+
+    /**
+     * Hands the stream to the sink in lists of at most chunkSize elements. Each list is dropped once
+     * the sink returns, so only one chunk is held in memory at a time.
+     */
+    public static <T> void forEachChunk(Stream<T> stream, int chunkSize, Consumer<List<T>> sink) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        Iterator<T> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize) {
+                sink.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sink.accept(chunk);
+        }
+    }
+}
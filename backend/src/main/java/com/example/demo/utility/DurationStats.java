@@ -0,0 +1,71 @@
+package com.example.demo.utility;
+
+/**
+ * Running statistics of a duration in minutes, in constant memory: an exponentially weighted mean
+ * and mean absolute deviation, and a streaming estimate of one upper quantile. Recent samples weigh
+ * most, so the numbers follow a kitchen that gets faster or slower.
+ *
+ * The quantile moves by a step proportional to the current deviation towards each sample (stochastic
+ * gradient on the pinball loss), so it needs no sample buffer and converges within a few dozen
+ * samples. Thread-safe; reads are lock-free.
+ */
+public final class DurationStats {
+    private final double alpha;
+    private final double quantile;
+
+    private long count;
+    private volatile double mean;
+    private volatile double deviation;
+    private volatile double upper;
+    private volatile long samples;
+
+    public DurationStats(double alpha, double quantile) {
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalArgumentException("alpha must be between 0 and 1");
+        }
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        this.alpha = alpha;
+        this.quantile = quantile;
+    }
+
+    public synchronized void record(double minutes) {
+        if (minutes < 0 || Double.isNaN(minutes)) {
+            return;
+        }
+        count++;
+        if (count == 1) {
+            mean = minutes;
+            upper = minutes;
+            deviation = 0;
+        } else {
+            // Until 1/alpha samples have been seen a plain average is the better estimate
+            double weight = Math.max(alpha, 1.0 / count);
+            double error = minutes - mean;
+            mean += weight * error;
+            deviation += weight * (Math.abs(error) - deviation);
+            double step = weight * Math.max(deviation, 1.0);
+            upper += minutes > upper ? step * quantile / (1 - quantile) : -step;
+            upper = Math.max(upper, mean);
+        }
+        samples = count;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public double deviation() {
+        return deviation;
+    }
+
+    // Estimate of the configured quantile, never below the mean
+    public double upper() {
+        return upper;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.utility;
+
+public final class GeoPoints {
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    public record Point(double latitude, double longitude) {}
+
+    private GeoPoints() {}
+
+    /**
+     * Parses "latitude,longitude" as stored on profiles and orders (a space after the comma is
+     * allowed). Returns null for empty, malformed or out of range text.
+     */
+    public static Point parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        int comma = text.indexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(text.substring(0, comma).trim());
+            double longitude = Double.parseDouble(text.substring(comma + 1).trim());
+            // Written this way round so NaN is rejected too
+            if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+                return null;
+            }
+            return new Point(latitude, longitude);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static void validate(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+
+    /**
+     * Great-circle distance in meters (haversine).
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static double distanceMeters(Point from, Point to) {
+        return distanceMeters(from.latitude(), from.longitude(), to.latitude(), to.longitude());
+    }
+}
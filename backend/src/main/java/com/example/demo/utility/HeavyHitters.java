@@ -0,0 +1,151 @@
+package com.example.demo.utility;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The heaviest keys of a weighted stream in fixed memory, with older weight decaying away: a weight
+ * added one halfLife ago counts half. Space-Saving keeps capacity counters in a min-heap; a key
+ * without a counter takes over the smallest one and inherits its count as possible overcount, so any
+ * key heavier than total / capacity is always tracked.
+ *
+ * Decay is forward: weights are scaled up by their age relative to a landmark instead of every
+ * counter being scaled down as time passes. Decay then never reorders counters, and only the
+ * rescale when the landmark moves touches them all.
+ */
+public final class HeavyHitters {
+    // Move the landmark before the scale factor leaves double's comfortable range
+    private static final double MAX_EXPONENT = 500;
+
+    public record Counter(long key, double count, double overcount) {}
+
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final long[] keys;
+    private final double[] counts;
+    private final double[] overcounts;
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int size;
+    private long landmarkMillis = Long.MIN_VALUE;
+    // Counters best first as of the last change, so reads in between only rescale
+    private Counter[] ranked;
+
+    public HeavyHitters(int capacity, long halfLifeMillis) {
+        if (capacity < 1 || halfLifeMillis < 1) {
+            throw new IllegalArgumentException("capacity and halfLifeMillis must be positive");
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.keys = new long[capacity];
+        this.counts = new double[capacity];
+        this.overcounts = new double[capacity];
+    }
+
+    /**
+     * Adds weight for the key as of atMillis, which may lie in the past.
+     */
+    public synchronized void add(long key, double weight, long atMillis) {
+        if (weight <= 0) {
+            return;
+        }
+        if (landmarkMillis == Long.MIN_VALUE) {
+            landmarkMillis = atMillis;
+        } else if ((atMillis - landmarkMillis) / halfLifeMillis > MAX_EXPONENT) {
+            rescale(atMillis);
+        }
+        double scaled = weight * Math.pow(2, (atMillis - landmarkMillis) / halfLifeMillis);
+        ranked = null;
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += scaled;
+            siftDown(slot);
+        } else if (size < capacity) {
+            keys[size] = key;
+            counts[size] = scaled;
+            overcounts[size] = 0;
+            slots.put(key, size);
+            siftUp(size++);
+        } else {
+            // Space-Saving: the new key takes over the smallest counter, which may have been its own
+            slots.remove(keys[0]);
+            keys[0] = key;
+            overcounts[0] = counts[0];
+            counts[0] += scaled;
+            slots.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Up to limit counters, heaviest first, decayed to nowMillis.
+     */
+    public synchronized List<Counter> top(int limit, long nowMillis) {
+        if (ranked == null) {
+            ranked = new Counter[size];
+            for (int i = 0; i < size; i++) {
+                ranked[i] = new Counter(keys[i], counts[i], overcounts[i]);
+            }
+            Arrays.sort(ranked, (a, b) -> a.count() != b.count() ? Double.compare(b.count(), a.count()) : Long.compare(a.key(), b.key()));
+        }
+        double decay = Math.pow(2, -(nowMillis - landmarkMillis) / halfLifeMillis);
+        return Arrays.stream(ranked, 0, Math.min(limit, ranked.length))
+                .map(counter -> new Counter(counter.key(), counter.count() * decay, counter.overcount() * decay))
+                .toList();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void rescale(long newLandmarkMillis) {
+        double factor = Math.pow(2, -(newLandmarkMillis - landmarkMillis) / halfLifeMillis);
+        for (int i = 0; i < size; i++) {
+            counts[i] *= factor;
+            overcounts[i] *= factor;
+        }
+        landmarkMillis = newLandmarkMillis;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int smallest = slot;
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                if (counts[child] < counts[smallest]) {
+                    smallest = child;
+                }
+            }
+            if (smallest == slot) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        double count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        double overcount = overcounts[a];
+        overcounts[a] = overcounts[b];
+        overcounts[b] = overcount;
+        slots.put(keys[a], a);
+        slots.put(keys[b], b);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.utility;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Preparation time range in whole minutes, parsed from the free text chefs enter: "20-25 min",
+ * "30 mins", "1 hr", "1-1.5 hours", "1 hr 30 min", "1h45m", "45". Bare numbers are minutes, unless
+ * the other end of the range has a unit.
+ */
+public record PrepTime(int minMinutes, int maxMinutes) {
+    // One number with an optional unit; longer unit names come first so "hours" is not read as "h"
+    private static final Pattern TERM = Pattern.compile(
+            "\\s*(\\d+(?:\\.\\d+)?)\\s*(?:(hours|hour|hrs|hr|h)|(minutes|minute|mins|min|m))?(?![a-z])",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TO = Pattern.compile("\\s*(?:-|to|\\u2013)", Pattern.CASE_INSENSITIVE);
+    private static final int HOURS = 1;
+    private static final int MINUTES = 0;
+    private static final int NO_UNIT = 2;
+    // Anything longer is a typo, not a dish
+    private static final int MAX_MINUTES = 24 * 60;
+
+    // One end of the range: minutes, or the number itself when it had no unit. scale is the first unit's.
+    private record Duration(double amount, boolean bare, double scale, int end) {}
+
+    public int midMinutes() {
+        return (minMinutes + maxMinutes) / 2;
+    }
+
+    /**
+     * Returns the parsed range, or null for empty or unrecognised text.
+     */
+    public static PrepTime parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String trimmed = text.trim();
+        Duration from = duration(trimmed, 0);
+        if (from == null) {
+            return null;
+        }
+        Duration to = from;
+        Matcher separator = TO.matcher(trimmed);
+        if (separator.region(from.end(), trimmed.length()).lookingAt()) {
+            Duration next = duration(trimmed, separator.end());
+            if (next != null) {
+                to = next;
+            }
+        }
+        int low = minutes(from, to);
+        int high = minutes(to, from);
+        if (high < low) {
+            int swap = low;
+            low = high;
+            high = swap;
+        }
+        if (high <= 0 || high > MAX_MINUTES) {
+            return null;
+        }
+        return new PrepTime(low, high);
+    }
+
+    // Reads "1 hr 30 min", "1h45m" or a bare "90" from start; each unit must be smaller than the one before
+    private static Duration duration(String text, int start) {
+        Matcher term = TERM.matcher(text);
+        double minutes = 0;
+        double scale = 1;
+        int lastUnit = NO_UNIT;
+        int end = start;
+        while (term.region(end, text.length()).lookingAt()) {
+            double amount = Double.parseDouble(term.group(1));
+            int unit = term.group(2) != null ? HOURS : term.group(3) != null ? MINUTES : NO_UNIT;
+            if (unit == NO_UNIT) {
+                // A bare number is a whole duration on its own, and never extends one with units
+                return lastUnit == NO_UNIT ? new Duration(amount, true, 1, term.end()) : new Duration(minutes, false, scale, end);
+            }
+            if (unit >= lastUnit) {
+                break;
+            }
+            if (lastUnit == NO_UNIT) {
+                scale = unit == HOURS ? 60 : 1;
+            }
+            minutes += unit == HOURS ? amount * 60 : amount;
+            lastUnit = unit;
+            end = term.end();
+        }
+        return lastUnit == NO_UNIT ? null : new Duration(minutes, false, scale, end);
+    }
+
+    // A bare number takes the unit the other end starts with: "1-1.5 hours" is 60 to 90
+    private static int minutes(Duration duration, Duration other) {
+        double scale = duration.bare() && !other.bare() ? other.scale() : 1;
+        return (int) Math.round(duration.amount() * scale);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.utility;
+
+import java.util.List;
+
+/**
+ * Orders the stops of a multi-stop trip so the path is short. The path starts at a fixed point and
+ * does not return to it. A nearest-neighbour pass builds the first path, then 2-opt reverses
+ * segments for as long as a reversal shortens the path and the time budget lasts. Batches are a
+ * handful of stops, so this lands on or near the optimum in microseconds. The budget only matters
+ * for unusually large inputs, where the best path found so far is returned.
+ */
+public final class RoutePlanner {
+
+    private RoutePlanner() {}
+
+    /**
+     * Returns the order to visit the stops in, as indexes into stops, starting from start.
+     */
+    public static int[] plan(GeoPoints.Point start, List<GeoPoints.Point> stops, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int n = stops.size();
+        // Node 0 is the start, node i + 1 is stops.get(i)
+        double[][] distance = new double[n + 1][n + 1];
+        for (int i = 0; i <= n; i++) {
+            GeoPoints.Point from = i == 0 ? start : stops.get(i - 1);
+            for (int j = i + 1; j <= n; j++) {
+                GeoPoints.Point to = stops.get(j - 1);
+                distance[i][j] = distance[j][i] = GeoPoints.distanceMeters(from, to);
+            }
+        }
+
+        int[] path = nearestNeighbour(distance);
+        improve(path, distance, deadline);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = path[i + 1] - 1;
+        }
+        return order;
+    }
+
+    /**
+     * Length in meters of the path from start through the stops in the given order.
+     */
+    public static double length(GeoPoints.Point start, List<GeoPoints.Point> stops, int[] order) {
+        double meters = 0;
+        GeoPoints.Point at = start;
+        for (int index : order) {
+            meters += GeoPoints.distanceMeters(at, stops.get(index));
+            at = stops.get(index);
+        }
+        return meters;
+    }
+
+    private static int[] nearestNeighbour(double[][] distance) {
+        int nodes = distance.length;
+        int[] path = new int[nodes];
+        boolean[] visited = new boolean[nodes];
+        visited[0] = true;
+        for (int position = 1; position < nodes; position++) {
+            int from = path[position - 1];
+            int next = -1;
+            for (int candidate = 1; candidate < nodes; candidate++) {
+                if (!visited[candidate] && (next < 0 || distance[from][candidate] < distance[from][next])) {
+                    next = candidate;
+                }
+            }
+            path[position] = next;
+            visited[next] = true;
+        }
+        return path;
+    }
+
+    // Reversing path[i..k] swaps edges (i-1, i) and (k, k+1) for (i-1, k) and (i, k+1); the last stop has no edge after it
+    private static void improve(int[] path, double[][] distance, long deadline) {
+        int nodes = path.length;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 1; i < nodes - 1; i++) {
+                if (System.nanoTime() - deadline > 0) {
+                    return;
+                }
+                for (int k = i + 1; k < nodes; k++) {
+                    double before = distance[path[i - 1]][path[i]];
+                    double after = distance[path[i - 1]][path[k]];
+                    if (k + 1 < nodes) {
+                        before += distance[path[k]][path[k + 1]];
+                        after += distance[path[i]][path[k + 1]];
+                    }
+                    // Ignore changes within rounding noise so equal-length paths cannot swap forever
+                    if (after < before - 1e-6) {
+                        reverse(path, i, k);
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] path, int from, int to) {
+        while (from < to) {
+            int swap = path[from];
+            path[from++] = path[to];
+            path[to--] = swap;
+        }
+    }
+}
@@ -0,0 +1,787 @@
+package com.example.demo.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory text index over food item names, tags and descriptions, for autocomplete and
+ * typo-tolerant search. Terms live in a compressed (radix) trie; each trie node caches the ids of the
+ * best documents below it, so completing a one-letter prefix costs the same as a long one. Typos are
+ * matched through a trigram index over the terms, verified with a bounded edit distance; unlike a
+ * BK-tree it takes removals as easily as additions, so the index is kept up to date item by item.
+ *
+ * A single word is completed as a prefix. In longer queries every word must match one of the
+ * document's terms, the last one also as a prefix unless the query ends in a space. Name matches
+ * weigh more than tags, tags more than the description, and popularity (order counts) breaks ties
+ * between similar matches.
+ *
+ * Reads run concurrently; writes take an exclusive lock. Plain class so the benchmarks can drive it
+ * directly.
+ */
+public final class SearchIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // Words this long may have one typo, and from TWO_EDIT_LENGTH on two
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDIT_LENGTH = 7;
+    private static final double EDIT_PENALTY = 0.35;
+    private static final double PARTIAL_WORD_FACTOR = 0.8;
+    private static final double NAME_START_BONUS = 0.5;
+    private static final double POPULARITY_WEIGHT = 0.5;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Hit> BY_SCORE = Comparator.comparingDouble(Hit::score).thenComparing(Hit::id, Comparator.reverseOrder());
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    public record Hit(long id, String name, double score) {}
+
+    private static final class Doc {
+        final long id;
+        final String name;
+        final String nameKey;
+        // Parallel arrays: each distinct term with its best field weight; the strings are the trie's own
+        final String[] terms;
+        final byte[] weights;
+        double popularity;
+
+        Doc(long id, String name, String nameKey, String[] terms, byte[] weights) {
+            this.id = id;
+            this.name = name;
+            this.nameKey = nameKey;
+            this.terms = terms;
+            this.weights = weights;
+        }
+
+        int weight(String term) {
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].equals(term)) {
+                    return weights[i];
+                }
+            }
+            return 0;
+        }
+
+        double score(Map<String, Double> factors) {
+            double best = 0;
+            for (int i = 0; i < terms.length; i++) {
+                Double factor = factors.get(terms[i]);
+                if (factor != null) {
+                    best = Math.max(best, weights[i] * factor);
+                }
+            }
+            return best;
+        }
+
+        double prefixScore(String prefix) {
+            double best = 0;
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].startsWith(prefix)) {
+                    best = Math.max(best, weights[i] * (terms[i].length() == prefix.length() ? 1 : PARTIAL_WORD_FACTOR));
+                }
+            }
+            return best;
+        }
+    }
+
+    // A node's cached candidates, best first, with the scores they were ranked by
+    private record Top(long generation, long[] ids, double[] scores) {
+        boolean contains(long id) {
+            for (long candidate : ids) {
+                if (candidate == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        // Ids of the documents containing the term ending here, most popular (then lowest id) first; null when no term ends here
+        long[] postings;
+        int postingCount;
+        String term;
+        volatile Top top;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void putChild(Node child) {
+            char key = child.label.charAt(0);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    children[i] = child;
+                    return;
+                }
+            }
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = child;
+        }
+
+        void removeChild(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    keys[i] = keys[keys.length - 1];
+                    children[i] = children[children.length - 1];
+                    keys = Arrays.copyOf(keys, keys.length - 1);
+                    children = Arrays.copyOf(children, children.length - 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    private final int candidatesPerPrefix;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    // Moves when popularity changes, which invalidates every cached prefix at once
+    private volatile long generation;
+    private volatile Set<Long> hidden = Set.of();
+
+    /**
+     * candidatesPerPrefix bounds how many documents a single-word prefix query ranks; keep it a few
+     * times the largest limit asked for, since hidden documents are dropped from it.
+     */
+    public SearchIndex(int candidatesPerPrefix) {
+        if (candidatesPerPrefix < 1) {
+            throw new IllegalArgumentException("candidatesPerPrefix must be at least 1");
+        }
+        this.candidatesPerPrefix = candidatesPerPrefix;
+    }
+
+    /**
+     * Adds or replaces a document, keeping its popularity.
+     */
+    public void put(long id, String name, String description, Collection<String> tags) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        addTerms(weights, name, NAME_WEIGHT);
+        if (tags != null) {
+            tags.forEach(tag -> addTerms(weights, tag, TAG_WEIGHT));
+        }
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            Doc old = docs.remove(id);
+            if (old != null) {
+                unindex(old);
+            }
+            double popularity = old != null ? old.popularity : 0;
+            String[] terms = new String[weights.size()];
+            byte[] termWeights = new byte[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                terms[i] = index(entry.getKey(), id, entry.getValue(), popularity);
+                termWeights[i++] = entry.getValue().byteValue();
+            }
+            Doc doc = new Doc(id, name, String.join(" ", tokenize(name)), terms, termWeights);
+            doc.popularity = popularity;
+            docs.put(id, doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Doc old = docs.remove(id);
+            if (old != null) {
+                unindex(old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every document's popularity; documents missing from the map get none. Re-sorts every
+     * posting list and invalidates all cached candidates, then warms the shortest prefixes again.
+     */
+    public void setPopularity(Map<Long, ? extends Number> counts) {
+        lock.writeLock().lock();
+        try {
+            for (Doc doc : docs.values()) {
+                Number count = counts.get(doc.id);
+                doc.popularity = count != null ? Math.log1p(Math.max(0, count.doubleValue())) : 0;
+            }
+            sortPostings(root);
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        warmUp();
+    }
+
+    /**
+     * Documents left out of results (e.g. unavailable items) without being removed from the index.
+     */
+    public void setHidden(Set<Long> ids) {
+        hidden = Set.copyOf(ids);
+    }
+
+    // Snapshot of the indexed document ids
+    public Set<Long> ids() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(docs.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The best matching documents for the query, best first.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Ranking ranking = new Ranking(String.join(" ", words), limit);
+            if (words.size() == 1) {
+                matchOneWord(words.get(0)).forEach((id, score) -> ranking.offer(docs.get(id), score));
+            } else {
+                matchAllWords(words, query, ranking);
+            }
+            return ranking.hits();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Optimal string alignment distance (adjacent swaps count as one edit), or max + 1 once it is
+     * known to exceed max.
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Completed as a prefix from the cached candidates; on a miss, from those of the terms within the allowed typos
+    private Map<Long, Double> matchOneWord(String word) {
+        Map<Long, Double> matches = new HashMap<>();
+        Node node = findPrefix(word);
+        if (node != null) {
+            for (long id : candidates(node)) {
+                matches.put(id, docs.get(id).prefixScore(word));
+            }
+        } else if (word.length() >= MIN_FUZZY_LENGTH) {
+            fuzzyTerms(word).forEach((term, edits) -> {
+                for (long id : candidates(find(term))) {
+                    matches.merge(id, docs.get(id).prefixScore(term) * (1 - EDIT_PENALTY * edits), Math::max);
+                }
+            });
+        }
+        return matches;
+    }
+
+    /**
+     * Every word must match. Only the postings of the rarest whole word are walked, most popular
+     * first, and the other words are checked against each of those documents' own terms. The walk
+     * stops once even a perfect match on the remaining, less popular documents could not make the
+     * ranking. The last word matches as a prefix unless the query ends in a space.
+     */
+    private void matchAllWords(List<String> words, String query, Ranking ranking) {
+        boolean lastIsPrefix = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        List<Map<String, Double>> wholeWords = new ArrayList<>();
+        String prefix = null;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (i == words.size() - 1 && lastIsPrefix && findPrefix(word) != null) {
+                prefix = word;
+                continue;
+            }
+            Map<String, Double> terms = resolve(word);
+            if (terms.isEmpty()) {
+                return;
+            }
+            wholeWords.add(terms);
+        }
+
+        Map<String, Double> rarest = wholeWords.get(0);
+        int rarestPostings = Integer.MAX_VALUE;
+        for (Map<String, Double> terms : wholeWords) {
+            int postings = terms.keySet().stream().mapToInt(term -> find(term).postingCount).sum();
+            if (postings < rarestPostings) {
+                rarest = terms;
+                rarestPostings = postings;
+            }
+        }
+
+        // The best total any document could reach, before popularity
+        double bestMatch = NAME_START_BONUS + (prefix == null ? 0 : find(prefix) != null ? NAME_WEIGHT : NAME_WEIGHT * PARTIAL_WORD_FACTOR);
+        for (Map<String, Double> terms : wholeWords) {
+            bestMatch += NAME_WEIGHT * terms.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        }
+        Set<Long> seen = rarest.size() > 1 ? new HashSet<>() : null;
+        for (String term : rarest.keySet()) {
+            Node node = find(term);
+            for (int i = 0; i < node.postingCount; i++) {
+                Doc doc = docs.get(node.postings[i]);
+                // Later postings are less popular, or as popular with higher ids, so none of them can rank either
+                if (!ranking.admits(doc.id, bestMatch + POPULARITY_WEIGHT * doc.popularity)) {
+                    break;
+                }
+                if (seen != null && !seen.add(doc.id)) {
+                    continue;
+                }
+                double total = prefix != null ? doc.prefixScore(prefix) : 0;
+                if (prefix != null && total == 0) {
+                    continue;
+                }
+                for (Map<String, Double> terms : wholeWords) {
+                    double score = doc.score(terms);
+                    if (score == 0) {
+                        total = 0;
+                        break;
+                    }
+                    total += score;
+                }
+                if (total > 0) {
+                    ranking.offer(doc, total);
+                }
+            }
+        }
+    }
+
+    // The terms a whole word matches, with their score factor: itself when indexed, otherwise those within the allowed typos
+    private Map<String, Double> resolve(String word) {
+        if (find(word) != null) {
+            return Map.of(word, 1.0);
+        }
+        Map<String, Double> terms = new HashMap<>();
+        if (word.length() >= MIN_FUZZY_LENGTH) {
+            fuzzyTerms(word).forEach((term, edits) -> terms.put(term, 1 - EDIT_PENALTY * edits));
+        }
+        return terms;
+    }
+
+    private Map<String, Integer> fuzzyTerms(String word) {
+        int maxEdits = word.length() >= TWO_EDIT_LENGTH ? 2 : 1;
+        List<String> trigrams = trigrams(word);
+        // Each edit breaks at most three trigrams
+        int needed = Math.max(1, trigrams.size() - 3 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            for (String term : termsByTrigram.getOrDefault(trigram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> terms = new HashMap<>();
+        shared.forEach((term, count) -> {
+            if (count >= needed) {
+                int edits = distance(word, term, maxEdits);
+                if (edits <= maxEdits) {
+                    terms.put(term, edits);
+                }
+            }
+        });
+        return terms;
+    }
+
+    private long[] candidates(Node node) {
+        long currentGeneration = generation;
+        Top top = node.top;
+        if (top != null && top.generation() == currentGeneration) {
+            return top.ids();
+        }
+        // Computed under the read lock; two readers may race here, and both store the same answer
+        Map<Long, Double> best = new HashMap<>();
+        collect(node, best);
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+        for (Map.Entry<Long, Double> entry : best.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > candidatesPerPrefix) {
+                heap.poll();
+            }
+        }
+        long[] ids = new long[heap.size()];
+        double[] scores = new double[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            Map.Entry<Long, Double> entry = heap.poll();
+            ids[i] = entry.getKey();
+            scores[i] = entry.getValue();
+        }
+        node.top = new Top(currentGeneration, ids, scores);
+        return ids;
+    }
+
+    /**
+     * Fills the candidate caches of all one- and two-letter prefixes, so the first suggestions after
+     * a popularity change do not each pay for a walk over a large part of the trie.
+     */
+    public void warmUp() {
+        lock.readLock().lock();
+        try {
+            for (Node child : root.children) {
+                candidates(child);
+                if (child.label.length() == 1) {
+                    for (Node grandchild : child.children) {
+                        candidates(grandchild);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A cached top with a new document merged in; an outdated or missing one stays for the next read to build
+    private Top withCandidate(Top top, long id, double score) {
+        if (top == null || top.generation() != generation) {
+            return null;
+        }
+        int size = top.ids().length;
+        int existing = -1;
+        for (int i = 0; i < size; i++) {
+            if (top.ids()[i] == id) {
+                existing = i;
+            }
+        }
+        if (existing >= 0 ? top.scores()[existing] >= score
+                : size == candidatesPerPrefix && !ranksBefore(id, score, top.ids()[size - 1], top.scores()[size - 1])) {
+            return top;
+        }
+        long[] ids = new long[existing >= 0 ? size : Math.min(size + 1, candidatesPerPrefix)];
+        double[] scores = new double[ids.length];
+        int from = 0;
+        int to = 0;
+        boolean placed = false;
+        while (to < ids.length) {
+            if (!placed && (from >= size || ranksBefore(id, score, top.ids()[from], top.scores()[from]))) {
+                ids[to] = id;
+                scores[to++] = score;
+                placed = true;
+            } else if (from == existing) {
+                from++;
+            } else {
+                ids[to] = top.ids()[from];
+                scores[to++] = top.scores()[from++];
+            }
+        }
+        return new Top(top.generation(), ids, scores);
+    }
+
+    // Candidate and posting order: higher score first, then lower id
+    private static boolean ranksBefore(long id, double score, long otherId, double otherScore) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private void sortPostings(Node node) {
+        if (node.postingCount > 1) {
+            Doc[] byPopularity = new Doc[node.postingCount];
+            for (int i = 0; i < node.postingCount; i++) {
+                byPopularity[i] = docs.get(node.postings[i]);
+            }
+            Arrays.sort(byPopularity, Comparator.comparingDouble((Doc doc) -> doc.popularity).reversed().thenComparingLong(doc -> doc.id));
+            for (int i = 0; i < byPopularity.length; i++) {
+                node.postings[i] = byPopularity[i].id;
+            }
+        }
+        for (Node child : node.children) {
+            sortPostings(child);
+        }
+    }
+
+    private void collect(Node node, Map<Long, Double> best) {
+        for (int i = 0; i < node.postingCount; i++) {
+            Doc doc = docs.get(node.postings[i]);
+            best.merge(doc.id, doc.weight(node.term) + POPULARITY_WEIGHT * doc.popularity, Math::max);
+        }
+        for (Node child : node.children) {
+            collect(child, best);
+        }
+    }
+
+    // The best hits offered so far, skipping hidden documents
+    private final class Ranking {
+        private final PriorityQueue<Hit> heap = new PriorityQueue<>(BY_SCORE);
+        private final Set<Long> hiddenIds = hidden;
+        private final String queryKey;
+        private final int limit;
+
+        Ranking(String queryKey, int limit) {
+            this.queryKey = queryKey;
+            this.limit = limit;
+        }
+
+        void offer(Doc doc, double score) {
+            if (hiddenIds.contains(doc.id)) {
+                return;
+            }
+            double total = score + POPULARITY_WEIGHT * doc.popularity + (doc.nameKey.startsWith(queryKey) ? NAME_START_BONUS : 0);
+            heap.add(new Hit(doc.id, doc.name, total));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        // Whether a hit with this id and score would make the ranking as it stands
+        boolean admits(long id, double score) {
+            if (heap.size() < limit) {
+                return true;
+            }
+            Hit last = heap.peek();
+            return score > last.score() || (score == last.score() && id < last.id());
+        }
+
+        List<Hit> hits() {
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort(BY_SCORE.reversed());
+            return hits;
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String word : tokenize(text)) {
+            // Single letters are left out, but still complete as prefixes of longer terms
+            if (word.length() > 1) {
+                weights.merge(word, weight, Math::max);
+            }
+        }
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Adds the posting in popularity order and returns the trie's instance of the term
+    private String index(String term, long id, int weight, double popularity) {
+        double score = weight + POPULARITY_WEIGHT * popularity;
+        Node node = root;
+        int depth = 0;
+        while (depth < term.length()) {
+            Node child = node.child(term.charAt(depth));
+            if (child == null) {
+                child = new Node(term.substring(depth));
+                node.putChild(child);
+                node = child;
+                break;
+            }
+            int common = 0;
+            while (common < child.label.length() && depth + common < term.length()
+                    && child.label.charAt(common) == term.charAt(depth + common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.putChild(child);
+                node.putChild(split);
+                child = split;
+            }
+            child.top = withCandidate(child.top, id, score);
+            node = child;
+            depth += common;
+        }
+        if (node.postings == null) {
+            node.postings = new long[2];
+            node.term = term;
+            for (String trigram : trigrams(term)) {
+                termsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+            }
+        } else if (node.postingCount == node.postings.length) {
+            node.postings = Arrays.copyOf(node.postings, node.postingCount * 2);
+        }
+        int at = node.postingCount;
+        while (at > 0 && ranksBefore(id, popularity, node.postings[at - 1], docs.get(node.postings[at - 1]).popularity)) {
+            at--;
+        }
+        System.arraycopy(node.postings, at, node.postings, at + 1, node.postingCount - at);
+        node.postings[at] = id;
+        node.postingCount++;
+        return node.term;
+    }
+
+    private void unindex(Doc doc) {
+        for (String term : doc.terms) {
+            List<Node> path = path(term, doc.id);
+            Node node = path.get(path.size() - 1);
+            for (int i = 0; i < node.postingCount; i++) {
+                if (node.postings[i] == doc.id) {
+                    System.arraycopy(node.postings, i + 1, node.postings, i, --node.postingCount - i);
+                    break;
+                }
+            }
+            if (node.postingCount == 0) {
+                node.postings = null;
+                node.term = null;
+                for (String trigram : trigrams(term)) {
+                    Set<String> terms = termsByTrigram.get(trigram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+                compact(path);
+            }
+        }
+    }
+
+    // Root first, down to the node of the term; drops the cached candidates along the way that hold the document
+    private List<Node> path(String term, long id) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int depth = 0;
+        path.add(node);
+        while (depth < term.length()) {
+            node = node.child(term.charAt(depth));
+            depth += node.label.length();
+            path.add(node);
+            Top top = node.top;
+            if (top != null && top.contains(id)) {
+                node.top = null;
+            }
+        }
+        return path;
+    }
+
+    // Drops a node left without a term or children, and merges nodes left with a single child
+    private static void compact(List<Node> path) {
+        Node node = path.get(path.size() - 1);
+        Node parent = path.get(path.size() - 2);
+        if (node.children.length == 0) {
+            parent.removeChild(node.label.charAt(0));
+            if (path.size() > 2 && parent.postings == null && parent.children.length == 1) {
+                merge(parent);
+            }
+        } else if (node.children.length == 1) {
+            merge(node);
+        }
+    }
+
+    private static void merge(Node node) {
+        Node child = node.children[0];
+        node.label = node.label + child.label;
+        node.keys = child.keys;
+        node.children = child.children;
+        node.postings = child.postings;
+        node.postingCount = child.postingCount;
+        node.term = child.term;
+        // The merged node covers exactly the child's terms
+        node.top = child.top;
+    }
+
+    private Node find(String term) {
+        Node node = root;
+        int depth = 0;
+        while (depth < term.length()) {
+            node = node.child(term.charAt(depth));
+            if (node == null || !term.startsWith(node.label, depth)) {
+                return null;
+            }
+            depth += node.label.length();
+        }
+        return node.postings != null ? node : null;
+    }
+
+    // The highest node whose terms all start with the prefix
+    private Node findPrefix(String prefix) {
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            node = node.child(prefix.charAt(depth));
+            if (node == null) {
+                return null;
+            }
+            int remaining = prefix.length() - depth;
+            if (remaining <= node.label.length()) {
+                return node.label.startsWith(prefix.substring(depth)) ? node : null;
+            }
+            if (!prefix.startsWith(node.label, depth)) {
+                return null;
+            }
+            depth += node.label.length();
+        }
+        return node;
+    }
+}
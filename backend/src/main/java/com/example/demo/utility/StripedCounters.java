@@ -0,0 +1,103 @@
+package com.example.demo.utility;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory mirror of bounded counters kept in the database (units left, free slots), used to turn
+ * requests away before they queue on the row lock of a counter that is already exhausted. Takes are
+ * a compare-and-set on the key's own counter, so contenders never block each other here.
+ *
+ * A counter is loaded from the database on first use and again once it is older than the TTL, so
+ * changes made by other instances show up within that time. Loads are serialized by a fixed set of
+ * lock stripes: when a hot key expires, one caller reloads it and the others wait for that result
+ * instead of all querying. The database stays the authority; callers invalidate a key whenever its
+ * conditional update disagrees with what the counter allowed.
+ */
+public final class StripedCounters {
+
+    public enum Take { TAKEN, REJECTED, UNLIMITED }
+
+    // remaining is null when the database has no bound for the key
+    private record Counter(AtomicInteger remaining, long loadedAtNanos) {}
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final long ttlNanos;
+
+    public StripedCounters(int stripes, long ttlMillis) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Takes amount units from the key's counter. The loader returns what the database has left for
+     * the key, or null when the key is unbounded.
+     */
+    public Take tryTake(long key, int amount, LongFunction<Integer> loader) {
+        AtomicInteger remaining = load(key, loader).remaining();
+        if (remaining == null) {
+            return Take.UNLIMITED;
+        }
+        int current;
+        do {
+            current = remaining.get();
+            if (current < amount) {
+                return Take.REJECTED;
+            }
+        } while (!remaining.compareAndSet(current, current - amount));
+        return Take.TAKEN;
+    }
+
+    // Returns units to a loaded counter, e.g. after a rollback or a committed release
+    public void give(long key, int amount) {
+        Counter counter = counters.get(key);
+        if (counter != null && counter.remaining() != null) {
+            counter.remaining().addAndGet(amount);
+        }
+    }
+
+    // What the counter last saw, or null if the key is unbounded or not loaded
+    public Integer remaining(long key) {
+        Counter counter = counters.get(key);
+        return counter != null && counter.remaining() != null ? counter.remaining().get() : null;
+    }
+
+    public void invalidate(long key) {
+        counters.remove(key);
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+
+    private Counter load(long key, LongFunction<Integer> loader) {
+        Counter counter = counters.get(key);
+        if (counter != null && isFresh(counter)) {
+            return counter;
+        }
+        ReentrantLock stripe = stripes[Long.hashCode(key) & (stripes.length - 1)];
+        stripe.lock();
+        try {
+            counter = counters.get(key);
+            if (counter == null || !isFresh(counter)) {
+                Integer remaining = loader.apply(key);
+                counter = new Counter(remaining != null ? new AtomicInteger(remaining) : null, System.nanoTime());
+                counters.put(key, counter);
+            }
+            return counter;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private boolean isFresh(Counter counter) {
+        return System.nanoTime() - counter.loadedAtNanos() < ttlNanos;
+    }
+}
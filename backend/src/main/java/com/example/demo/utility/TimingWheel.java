@@ -0,0 +1,113 @@
+package com.example.demo.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: holds values until a deadline and hands them out when the clock is
+ * advanced past it. Each level is a ring of slots; level 0 slots are one tick wide, and every
+ * higher level's slots span a whole turn of the level below. A value waits in the coarsest level
+ * that can tell its slot apart and drops to finer levels as the clock approaches it, so adding and
+ * expiring take constant work per level however many values are waiting.
+ *
+ * Deadlines are rounded up to the next tick. Values are never removed early; callers that need to
+ * cancel tag their values (e.g. with a generation) and ignore stale ones when they expire.
+ */
+public final class TimingWheel<T> {
+    private record Entry<T>(long tick, T value) {}
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules the value. Returns false, without keeping it, if the clock is already at or past the
+     * deadline's tick.
+     */
+    public synchronized boolean add(long deadlineMillis, T value) {
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        return place(new Entry<>(tick, value));
+    }
+
+    /**
+     * Moves the clock to nowMillis and returns every value whose deadline has passed, earliest first.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            // Coarse slots starting now are redistributed top down, so their values reach level 0 in time
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                long unit = unit(level);
+                if (currentTick % unit == 0) {
+                    for (Entry<T> entry : drain(level, currentTick / unit)) {
+                        if (!place(entry)) {
+                            expired.add(entry.value());
+                        }
+                    }
+                }
+            }
+            if (!levels.isEmpty()) {
+                for (Entry<T> entry : drain(0, currentTick)) {
+                    expired.add(entry.value());
+                }
+            }
+        }
+        return expired;
+    }
+
+    private boolean place(Entry<T> entry) {
+        if (entry.tick() <= currentTick) {
+            return false;
+        }
+        long unit = 1;
+        for (int level = 0; ; level++) {
+            long levelStart = currentTick - currentTick % unit;
+            if (entry.tick() < levelStart + unit * wheelSize) {
+                slots(level)[(int) ((entry.tick() / unit) % wheelSize)].add(entry);
+                return true;
+            }
+            unit *= wheelSize;
+        }
+    }
+
+    // Ticks per slot at the given level
+    private long unit(int level) {
+        long unit = 1;
+        for (int i = 0; i < level; i++) {
+            unit *= wheelSize;
+        }
+        return unit;
+    }
+
+    private List<Entry<T>> drain(int level, long slotNumber) {
+        List<Entry<T>>[] slots = levels.get(level);
+        int index = (int) (slotNumber % wheelSize);
+        List<Entry<T>> entries = slots[index];
+        slots[index] = new ArrayList<>();
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>>[] slots(int level) {
+        while (levels.size() <= level) {
+            List<Entry<T>>[] slots = new List[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                slots[i] = new ArrayList<>();
+            }
+            levels.add(slots);
+        }
+        return levels.get(level);
+    }
+}
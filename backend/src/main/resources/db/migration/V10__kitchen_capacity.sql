@@ -0,0 +1,15 @@
+-- Daily stock per food item and concurrent order limits per chef (CapacityService).
+-- Both are only changed through conditional UPDATEs by primary key, so no new indexes are needed.
+ALTER TABLE food_items
+    ADD COLUMN daily_stock INTEGER NULL,
+    ADD COLUMN stock_remaining INTEGER NULL,
+    ADD COLUMN stock_date DATE NULL,
+    ADD COLUMN sold_out BIT NOT NULL DEFAULT 0;
+
+CREATE TABLE kitchen_capacity (
+    chef_id BIGINT NOT NULL,
+    max_active_orders INTEGER NOT NULL,
+    active_orders INTEGER NOT NULL,
+    PRIMARY KEY (chef_id),
+    CONSTRAINT fk_kitchen_capacity_chef FOREIGN KEY (chef_id) REFERENCES user (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,17 @@
+-- Menu schedules (MenuScheduleService): weekly windows and holidays per chef or per food item, and
+-- the flag marking items the schedule closed so reopening never overrides a chef's manual toggle.
+ALTER TABLE food_items ADD COLUMN schedule_closed BIT NOT NULL DEFAULT 0;
+
+-- No foreign key on food_item_id: rules of a deleted item are ignored, and deleting items stays as it was
+CREATE TABLE availability_schedules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    chef_id BIGINT NOT NULL,
+    food_item_id BIGINT NULL,
+    day_of_week INTEGER NULL,
+    opens_at TIME NULL,
+    closes_at TIME NULL,
+    closed_on DATE NULL,
+    PRIMARY KEY (id),
+    INDEX idx_availability_schedules_chef (chef_id),
+    CONSTRAINT fk_availability_schedules_chef FOREIGN KEY (chef_id) REFERENCES user (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,37 @@
+-- Pre-orders (DeliverySlotService): weekly delivery slots per chef, how many orders each dated slot
+-- has taken, and the orders' slot and kitchen release time.
+CREATE TABLE delivery_slots (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    chef_id BIGINT NOT NULL,
+    day_of_week INTEGER NOT NULL,
+    starts_at TIME NOT NULL,
+    ends_at TIME NOT NULL,
+    capacity INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_delivery_slots_chef (chef_id),
+    CONSTRAINT fk_delivery_slots_chef FOREIGN KEY (chef_id) REFERENCES user (id)
+) ENGINE=InnoDB;
+
+-- Only changed through conditional UPDATEs by (slot_id, slot_date); removing a slot drops its counters,
+-- while the orders booked into it keep their time
+CREATE TABLE delivery_slot_bookings (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    slot_id BIGINT NOT NULL,
+    slot_date DATE NOT NULL,
+    booked INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_delivery_slot_bookings_slot_date (slot_id, slot_date),
+    CONSTRAINT fk_delivery_slot_bookings_slot FOREIGN KEY (slot_id) REFERENCES delivery_slots (id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+ALTER TABLE orders
+    ADD COLUMN delivery_slot_id BIGINT NULL,
+    ADD COLUMN scheduled_for DATETIME(6) NULL,
+    ADD COLUMN release_at DATETIME(6) NULL,
+    ADD INDEX idx_orders_status_release_at (status, release_at);
+
+-- Archived pre-orders keep their slot and times
+ALTER TABLE orders_archive
+    ADD COLUMN delivery_slot_id BIGINT NULL,
+    ADD COLUMN scheduled_for DATETIME(6) NULL,
+    ADD COLUMN release_at DATETIME(6) NULL;
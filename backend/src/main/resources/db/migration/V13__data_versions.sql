@@ -0,0 +1,13 @@
+-- ETags for cached reads (DataVersionService): one counter per data set, bumped in the transaction
+-- that changes the data, so every instance hands out the same tag for the same committed state.
+CREATE TABLE data_version (
+    name VARCHAR(32) NOT NULL,
+    version BIGINT NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+INSERT INTO data_version (name, version, changed_at) VALUES
+    ('delivery', 0, NOW(6)),
+    ('feed', 0, NOW(6)),
+    ('menu', 0, NOW(6));
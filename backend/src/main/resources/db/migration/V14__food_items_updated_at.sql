@@ -0,0 +1,5 @@
+-- Search index resync (FoodSearchService): every instance re-reads the items saved since its last
+-- sync, so saves and edits made through other instances reach its in-memory index.
+ALTER TABLE food_items
+    ADD COLUMN updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    ADD INDEX idx_food_items_updated_at (updated_at);
@@ -0,0 +1,5 @@
+-- Archived orders keep when their courier claimed them and when their status last changed, as the
+-- hot orders table has since V8 and V9
+ALTER TABLE orders_archive
+    ADD COLUMN assigned_at DATETIME(6) NULL,
+    ADD COLUMN status_changed_at DATETIME(6) NULL;
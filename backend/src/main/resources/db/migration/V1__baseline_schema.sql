@@ -0,0 +1,149 @@
+-- Schema as Hibernate's ddl-auto=update left it before migrations were introduced. Databases created
+-- that way are baselined at this version (spring.flyway.baseline-on-migrate) and skip this script.
+
+CREATE TABLE user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    location VARCHAR(255),
+    phone_number VARCHAR(255),
+    role VARCHAR(255) DEFAULT 'USER' NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE user_profiles (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    profile_picture VARCHAR(255),
+    coordinate VARCHAR(255),
+    description VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_profiles_user UNIQUE (user_id),
+    CONSTRAINT fk_user_profiles_user FOREIGN KEY (user_id) REFERENCES user (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE food_items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(255),
+    price FLOAT(53) NOT NULL,
+    original_price FLOAT(53) NOT NULL,
+    available BIT NOT NULL,
+    image_path VARCHAR(255),
+    preparation_time VARCHAR(255),
+    discount_percentage FLOAT(53),
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_food_items_user FOREIGN KEY (user_id) REFERENCES user (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE food_item_tags (
+    food_item_id BIGINT NOT NULL,
+    tags VARCHAR(255) NOT NULL,
+    PRIMARY KEY (food_item_id, tags),
+    CONSTRAINT fk_food_item_tags_food_item FOREIGN KEY (food_item_id) REFERENCES food_items (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE food_feeds (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    chef_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    image_path VARCHAR(255),
+    video_path VARCHAR(255),
+    name VARCHAR(255),
+    ingredients VARCHAR(255),
+    instructions VARCHAR(255),
+    cooking_time VARCHAR(255),
+    serves VARCHAR(255),
+    difficulty VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    type ENUM('TEXT', 'IMAGE', 'VIDEO', 'RECIPE') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_food_feeds_chef FOREIGN KEY (chef_id) REFERENCES user (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE food_feed_likes (
+    food_feed_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (food_feed_id, user_id),
+    CONSTRAINT fk_food_feed_likes_food_feed FOREIGN KEY (food_feed_id) REFERENCES food_feeds (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE comment (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    food_feed_id BIGINT NOT NULL,
+    text TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_comment_user FOREIGN KEY (user_id) REFERENCES user (id),
+    CONSTRAINT fk_comment_food_feed FOREIGN KEY (food_feed_id) REFERENCES food_feeds (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(255),
+    order_date DATETIME(6),
+    delivery_location VARCHAR(255),
+    delivery_phone VARCHAR(255),
+    delivery_coordinates VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES user (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE order_item (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    food_item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_item_food_item FOREIGN KEY (food_item_id) REFERENCES food_items (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payment (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    amount FLOAT(53) NOT NULL,
+    status ENUM('PENDING', 'COMPLETED', 'FAILED', 'REFUNDED', 'CANCELLED') NOT NULL,
+    payment_method VARCHAR(255) NOT NULL,
+    transaction_id VARCHAR(255),
+    payment_date DATETIME(6) NOT NULL,
+    esewa_ref_id VARCHAR(255),
+    failure_reason VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payment_order UNIQUE (order_id),
+    CONSTRAINT fk_payment_order FOREIGN KEY (order_id) REFERENCES orders (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE add_to_cart (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    food_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE otp (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    otp_code VARCHAR(255),
+    created_at DATETIME(6),
+    expires_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE pending_user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    email VARCHAR(255),
+    username VARCHAR(255),
+    password VARCHAR(255),
+    location VARCHAR(255),
+    phone_number VARCHAR(255),
+    role VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
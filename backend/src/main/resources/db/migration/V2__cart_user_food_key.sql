@@ -0,0 +1,14 @@
+-- One cart row per user and food item, so quantity changes can be single-statement upserts
+-- (AddToCartRepository). Rows duplicated under the old read-then-save cart code are merged into
+-- the oldest one first.
+UPDATE add_to_cart a
+    JOIN (SELECT MIN(id) AS keep_id, SUM(quantity) AS total
+          FROM add_to_cart
+          GROUP BY user_id, food_id
+          HAVING COUNT(*) > 1) d ON a.id = d.keep_id
+SET a.quantity = d.total;
+
+DELETE a FROM add_to_cart a
+    JOIN add_to_cart b ON a.user_id = b.user_id AND a.food_id = b.food_id AND a.id > b.id;
+
+ALTER TABLE add_to_cart ADD CONSTRAINT uk_add_to_cart_user_food UNIQUE (user_id, food_id);
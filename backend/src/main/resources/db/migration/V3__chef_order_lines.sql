@@ -0,0 +1,17 @@
+-- Per-chef order lines behind the kitchen queue (ChefOrderIndexService). Lines for orders placed
+-- before this table existed are backfilled by the service on startup.
+CREATE TABLE chef_order_lines (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    chef_id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    order_item_id BIGINT NOT NULL,
+    food_item_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    order_date DATETIME(6) NOT NULL,
+    due_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_chef_order_lines_order_item UNIQUE (order_item_id),
+    INDEX idx_chef_order_lines_chef_status_due (chef_id, status, due_at),
+    INDEX idx_chef_order_lines_order (order_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,18 @@
+-- Scheduled purges (CleanupService): each deletes its rows in bounded batches ordered or filtered by
+-- the timestamp indexed here, and job_lock holds the lease that keeps a job on one instance at a time.
+CREATE INDEX idx_otp_expires_at ON otp (expires_at);
+
+-- Signups from before created_at existed keep NULL and are purged as stale on the first run
+ALTER TABLE pending_user
+    ADD COLUMN created_at DATETIME(6) NULL,
+    ADD INDEX idx_pending_user_created_at (created_at);
+
+CREATE INDEX idx_add_to_cart_updated_at ON add_to_cart (updated_at);
+
+CREATE TABLE job_lock (
+    name VARCHAR(64) NOT NULL,
+    locked_by VARCHAR(255) NOT NULL,
+    locked_at DATETIME(6) NOT NULL,
+    locked_until DATETIME(6) NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
@@ -0,0 +1,39 @@
+-- Cold tables for old DELIVERED and CANCELLED orders (OrderArchiveService). orders_archive keeps the
+-- order's id and merges its payment; order_item_archive records the chef at archive time. No foreign
+-- keys, so archived rows never hold back changes to the hot tables.
+
+-- OrderArchiveService candidate scan, OrderRepository.findByStatus and findIdsByStatus
+CREATE INDEX idx_orders_status_order_date ON orders (status, order_date);
+
+CREATE TABLE orders_archive (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    order_date DATETIME(6),
+    delivery_location VARCHAR(255),
+    delivery_phone VARCHAR(255),
+    delivery_coordinates VARCHAR(255),
+    payment_id BIGINT,
+    amount FLOAT(53),
+    payment_status ENUM('PENDING', 'COMPLETED', 'FAILED', 'REFUNDED', 'CANCELLED'),
+    payment_method VARCHAR(255),
+    transaction_id VARCHAR(255),
+    payment_date DATETIME(6),
+    esewa_ref_id VARCHAR(255),
+    failure_reason VARCHAR(255),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_orders_archive_user_status (user_id, status),
+    INDEX idx_orders_archive_status (status)
+) ENGINE=InnoDB;
+
+CREATE TABLE order_item_archive (
+    id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    food_item_id BIGINT NOT NULL,
+    chef_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_order_item_archive_order (order_id),
+    INDEX idx_order_item_archive_chef_order (chef_id, order_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,34 @@
+-- Secondary indexes for the repository finders, which otherwise scan their tables.
+-- Each index is named after the finders it serves.
+
+-- UserRepository.findByEmail; registration already refuses a second account per email
+ALTER TABLE user ADD CONSTRAINT uk_user_email UNIQUE (email);
+-- UserRepository.findByUsername
+CREATE INDEX idx_user_username ON user (username);
+-- UserRepository.findByRole, findUserDtosByRole
+CREATE INDEX idx_user_role ON user (role);
+
+-- OtpRepository.findByEmail, findByEmailAndOtpCode, deleteByEmail
+CREATE INDEX idx_otp_email_code ON otp (email, otp_code);
+
+-- PendingUserRepository.findByEmail, deleteByEmail
+CREATE INDEX idx_pending_user_email ON pending_user (email);
+
+-- OrderRepository.findByUserId, findByUserIdAndStatus, findIdsByUserId, findIdsByUserIdAndStatus
+-- (findByStatus and findIdsByStatus use idx_orders_status_order_date)
+CREATE INDEX idx_orders_user_status ON orders (user_id, status);
+
+-- PaymentRepository.findByTransactionId, OrderRepository.findByPayment_TransactionId
+CREATE INDEX idx_payment_transaction ON payment (transaction_id);
+
+-- FoodItemRepository.findByAvailableTrue and the available-filtered searches
+CREATE INDEX idx_food_items_available_price ON food_items (available, price);
+-- FoodItemRepository sort by price and by discount
+CREATE INDEX idx_food_items_price ON food_items (price);
+CREATE INDEX idx_food_items_discount ON food_items (discount_percentage);
+
+-- FoodItemRepository.findDtosByTag, findByTagsContaining and the tag filters (lookups by tag value)
+CREATE INDEX idx_food_item_tags_tag ON food_item_tags (tags, food_item_id);
+
+-- AddToCartRepository.findByUserIdAndFoodId and findByUserId use uk_add_to_cart_user_food;
+-- UserProfileRepository.findByUserId uses uk_user_profiles_user; PaymentRepository.findByOrderId uses uk_payment_order.
@@ -0,0 +1,10 @@
+-- Sampled courier positions written by CourierLocationService; live positions stay in memory
+CREATE TABLE courier_locations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    courier_id BIGINT NOT NULL,
+    latitude DOUBLE NOT NULL,
+    longitude DOUBLE NOT NULL,
+    recorded_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_courier_locations_courier_time (courier_id, recorded_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- Courier claiming an order (OrderRepository.claimForCourier) and the per-courier lists.
+-- idx_orders_courier_status serves findIdsByCourierIdAndStatus; the claim itself goes by primary key.
+ALTER TABLE orders
+    ADD COLUMN courier_id BIGINT NULL,
+    ADD COLUMN assigned_at DATETIME(6) NULL,
+    ADD CONSTRAINT fk_orders_courier FOREIGN KEY (courier_id) REFERENCES user (id),
+    ADD INDEX idx_orders_courier_status (courier_id, status);
+
+-- Archived orders keep their courier, so delivered history still reads per courier
+ALTER TABLE orders_archive
+    ADD COLUMN courier_id BIGINT NULL,
+    ADD INDEX idx_orders_archive_courier_status (courier_id, status);
@@ -0,0 +1,18 @@
+-- Inputs to EtaService: parsed preparation times, when each order's status last changed, and the
+-- full status history the per-chef and per-item durations are learned from.
+ALTER TABLE food_items
+    ADD COLUMN prep_min_minutes INTEGER NULL,
+    ADD COLUMN prep_max_minutes INTEGER NULL;
+
+ALTER TABLE orders ADD COLUMN status_changed_at DATETIME(6) NULL;
+
+-- No foreign key: rows outlive their order when it moves to orders_archive
+CREATE TABLE order_status_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_order_status_history_order (order_id),
+    INDEX idx_order_status_history_changed_at (changed_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails a test annotated with {@link QueryBudget} when the SQL it caused on the test thread
+ * (including MockMvc requests, which run on the same thread) goes over the budget.
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(QueryStats.class, QueryStats.open());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryStats stats = context.getStore(NAMESPACE).remove(QueryStats.class, QueryStats.class);
+        if (stats == null) {
+            return;
+        }
+        stats.close();
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        String violation = stats.checkBudget(budget);
+        if (violation != null) {
+            fail("Query budget exceeded: " + violation);
+        }
+    }
+}
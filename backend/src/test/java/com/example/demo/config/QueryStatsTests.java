@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(QueryBudgetExtension.class)
+class QueryStatsTests {
+
+	private final SqlStatementCounter inspector = new SqlStatementCounter();
+
+	@Test
+	void literalsCollapseIntoOneShape() {
+		assertEquals(QueryStats.shapeOf("select * from users where id = 7 and email = 'a@b.c'"),
+				QueryStats.shapeOf("select * from users where id = 12 and email = 'x'"));
+		assertEquals(QueryStats.shapeOf("select * from orders where id in (?, ?, ?)"),
+				QueryStats.shapeOf("select * from orders where id in (?)"));
+	}
+
+	@Test
+	void perRowQueriesExceedRepeatBudget() throws NoSuchMethodException {
+		QueryBudget budget = getClass().getDeclaredMethod("budgetIsCheckedByExtension").getAnnotation(QueryBudget.class);
+		try (QueryStats stats = QueryStats.open()) {
+			inspector.inspect("select * from order_item where order_id in (?, ?)");
+			for (int id = 1; id <= 3; id++) {
+				inspector.inspect("select * from food_items where id = " + id);
+			}
+			assertEquals(4, stats.getStatementCount());
+			assertEquals(3, stats.getMaxRepeats());
+			assertNotNull(stats.checkBudget(budget));
+		}
+	}
+
+	@Test
+	void enforcedBudgetFailsTheStatementOverIt() throws NoSuchMethodException {
+		QueryBudget budget = getClass().getDeclaredMethod("budgetIsCheckedByExtension").getAnnotation(QueryBudget.class);
+		try (QueryStats stats = QueryStats.open()) {
+			stats.enforce(budget, "GET /api/orders");
+			inspector.inspect("select * from food_items where id = 1");
+			assertThrows(QueryBudgetExceededException.class, () -> inspector.inspect("select * from food_items where id = 2"));
+			// Only the first overrun throws, so error handling can still query
+			inspector.inspect("select * from food_items where id = 3");
+			assertEquals(3, stats.getStatementCount());
+		}
+	}
+
+	// The extension's outer scope sees these statements too and fails the test if they go over budget
+	@Test
+	@QueryBudget(maxStatements = 2, maxRepeats = 1)
+	void budgetIsCheckedByExtension() {
+		inspector.inspect("select * from orders where user_id = 5");
+		inspector.inspect("select * from order_item where order_id in (?, ?, ?)");
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Two local H2 instances stand in for the MySQL primary and replica
+class ReplicaRoutingDataSourceTests {
+
+	private static final DataSource PRIMARY = instance("primary");
+	private static final DataSource REPLICA = instance("replica");
+
+	@BeforeAll
+	static void createInstances() {
+		for (Map.Entry<String, DataSource> entry : Map.of("primary", PRIMARY, "replica", REPLICA).entrySet()) {
+			JdbcTemplate jdbc = new JdbcTemplate(entry.getValue());
+			jdbc.execute("CREATE TABLE IF NOT EXISTS instance_name (name VARCHAR(20))");
+			jdbc.update("DELETE FROM instance_name");
+			jdbc.update("INSERT INTO instance_name VALUES (?)", entry.getKey());
+		}
+	}
+
+	@AfterEach
+	void clearContext() {
+		RoutingContext.clear();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		DataSource dataSource = routing(REPLICA);
+		assertEquals("replica", inTransaction(dataSource, true));
+		assertEquals("primary", inTransaction(dataSource, false));
+	}
+
+	@Test
+	void getRequestsWithoutTransactionGoToReplica() {
+		DataSource dataSource = routing(REPLICA);
+		assertEquals("primary", currentInstance(dataSource));
+		RoutingContext.setReadPreferred(true);
+		assertEquals("replica", currentInstance(dataSource));
+	}
+
+	@Test
+	void stickyUsersReadFromPrimary() {
+		DataSource dataSource = routing(REPLICA);
+		RoutingContext.setReadPreferred(true);
+		RoutingContext.setForcePrimary(true);
+		assertEquals("primary", currentInstance(dataSource));
+		assertEquals("primary", inTransaction(dataSource, true));
+	}
+
+	@Test
+	void unreachableReplicaFailsOverToPrimary() {
+		ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(PRIMARY,
+				Map.of("replica-0", new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/missing", "sa", "")), 5);
+		DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+		assertEquals("primary", inTransaction(dataSource, true));
+		assertFalse(router.isHealthy("replica-0"));
+	}
+
+	private static DataSource routing(DataSource replica) {
+		return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(PRIMARY, Map.of("replica-0", replica), 5));
+	}
+
+	private static String inTransaction(DataSource dataSource, boolean readOnly) {
+		TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		template.setReadOnly(readOnly);
+		return template.execute(status -> currentInstance(dataSource));
+	}
+
+	private static String currentInstance(DataSource dataSource) {
+		return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM instance_name", String.class);
+	}
+
+	private static DataSource instance(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+}
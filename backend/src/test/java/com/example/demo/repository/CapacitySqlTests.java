@@ -0,0 +1,140 @@
+package com.example.demo.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The conditional UPDATEs behind CapacityService on a real MySQL, where the order of assignments in
+// one UPDATE decides what each CASE sees
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class CapacitySqlTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private FoodItemRepository foodItemRepository;
+
+	@Autowired
+	private KitchenCapacityRepository kitchenCapacityRepository;
+
+	private long chefId;
+
+	@BeforeEach
+	void createChef() {
+		chefId = new SimpleJdbcInsert(jdbcTemplate).withTableName("user").usingGeneratedKeyColumns("id")
+				.executeAndReturnKey(Map.of("email", "chef@example.com", "username", "chef", "password", "secret", "role", "CHEF"))
+				.longValue();
+	}
+
+	@Test
+	void reserveTakesUnitsAndSellsOutOnTheLastOne() {
+		long itemId = stockedItem(3, TODAY);
+		assertEquals(1, foodItemRepository.reserveStock(itemId, 2));
+		assertEquals(1, stockRemaining(itemId));
+		assertFalse(foodItemRepository.findSoldOut(itemId));
+		assertTrue(available(itemId));
+
+		assertEquals(0, foodItemRepository.reserveStock(itemId, 2));
+		assertEquals(1, stockRemaining(itemId));
+
+		assertEquals(1, foodItemRepository.reserveStock(itemId, 1));
+		assertEquals(0, stockRemaining(itemId));
+		assertTrue(foodItemRepository.findSoldOut(itemId));
+		assertFalse(available(itemId));
+		assertEquals(0, foodItemRepository.reserveStock(itemId, 1));
+	}
+
+	@Test
+	void releaseReturnsUnitsOnlyToTheDayTheyCameFrom() {
+		long itemId = stockedItem(2, TODAY);
+		assertEquals(1, foodItemRepository.reserveStock(itemId, 2));
+
+		assertEquals(0, foodItemRepository.releaseStock(itemId, 1, TODAY.minusDays(1)));
+		assertTrue(foodItemRepository.findSoldOut(itemId));
+
+		assertEquals(1, foodItemRepository.releaseStock(itemId, 1, TODAY));
+		assertEquals(1, stockRemaining(itemId));
+		assertFalse(foodItemRepository.findSoldOut(itemId));
+		assertTrue(available(itemId));
+
+		// Never more than the daily stock
+		assertEquals(1, foodItemRepository.releaseStock(itemId, 5, TODAY));
+		assertEquals(2, stockRemaining(itemId));
+	}
+
+	@Test
+	void releaseLeavesAScheduleClosedItemClosed() {
+		long itemId = stockedItem(1, TODAY);
+		assertEquals(1, foodItemRepository.reserveStock(itemId, 1));
+		jdbcTemplate.update("UPDATE food_items SET schedule_closed = TRUE WHERE id = ?", itemId);
+
+		assertEquals(1, foodItemRepository.releaseStock(itemId, 1, TODAY));
+		assertFalse(foodItemRepository.findSoldOut(itemId));
+		assertFalse(available(itemId));
+	}
+
+	@Test
+	void restockRefillsOncePerDay() {
+		long itemId = stockedItem(2, TODAY.minusDays(1));
+		assertEquals(1, foodItemRepository.reserveStock(itemId, 2));
+
+		assertEquals(1, foodItemRepository.restock(TODAY));
+		assertEquals(2, stockRemaining(itemId));
+		assertFalse(foodItemRepository.findSoldOut(itemId));
+		assertTrue(available(itemId));
+		assertEquals(0, foodItemRepository.restock(TODAY));
+	}
+
+	@Test
+	void kitchenSlotsStayWithinTheLimit() {
+		kitchenCapacityRepository.upsertLimit(chefId, 2);
+		assertEquals(1, kitchenCapacityRepository.reserveSlot(chefId));
+		assertEquals(1, kitchenCapacityRepository.reserveSlot(chefId));
+		assertEquals(0, kitchenCapacityRepository.reserveSlot(chefId));
+
+		assertEquals(1, kitchenCapacityRepository.releaseSlot(chefId));
+		assertEquals(1, kitchenCapacityRepository.releaseSlot(chefId));
+		assertEquals(0, kitchenCapacityRepository.releaseSlot(chefId));
+	}
+
+	// Only the given columns, so the NOT NULL ones with defaults (sold_out, updated_at) get their default
+	private long stockedItem(int dailyStock, LocalDate stockDate) {
+		Map<String, Object> values = Map.of("name", "Chicken Momo", "price", 200.0, "original_price", 200.0,
+				"available", true, "user_id", chefId, "daily_stock", dailyStock,
+				"stock_remaining", dailyStock, "stock_date", stockDate);
+		return new SimpleJdbcInsert(jdbcTemplate).withTableName("food_items").usingColumns(values.keySet().toArray(String[]::new))
+				.usingGeneratedKeyColumns("id").executeAndReturnKey(values).longValue();
+	}
+
+	private int stockRemaining(long itemId) {
+		return jdbcTemplate.queryForObject("SELECT stock_remaining FROM food_items WHERE id = ?", Integer.class, itemId);
+	}
+
+	private boolean available(long itemId) {
+		return jdbcTemplate.queryForObject("SELECT available FROM food_items WHERE id = ?", Boolean.class, itemId);
+	}
+}
@@ -0,0 +1,148 @@
+package com.example.demo.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The single-statement cart upserts on a real MySQL, where the affected-rows count of
+// INSERT ... ON DUPLICATE KEY UPDATE and the connection-scoped LAST_INSERT_ID(expr) are what
+// CartService reads the new quantity from. Each case runs in its own transaction, as the service does.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class CartSqlTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private static final long USER = 1L;
+	private static final long FOOD = 10L;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private AddToCartRepository addToCartRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transaction;
+
+	@BeforeEach
+	void emptyCarts() {
+		jdbcTemplate.update("DELETE FROM add_to_cart");
+		transaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Test
+	void firstAddInsertsTheRow() {
+		assertEquals(1, transaction.execute(status -> addToCartRepository.upsertQuantity(USER, FOOD, 2)));
+		assertEquals(2, quantity());
+		assertEquals(1, rows());
+	}
+
+	@Test
+	void addingAgainIncrementsAndReportsTheNewQuantity() {
+		transaction.execute(status -> addToCartRepository.upsertQuantity(USER, FOOD, 2));
+
+		transaction.executeWithoutResult(status -> {
+			assertEquals(2, addToCartRepository.upsertQuantity(USER, FOOD, 3));
+			assertEquals(5L, addToCartRepository.lastInsertId());
+		});
+		assertEquals(5, quantity());
+		assertEquals(1, rows());
+	}
+
+	@Test
+	void adjustStopsAtOneAndDepletionDeletesTheRow() {
+		transaction.execute(status -> addToCartRepository.upsertQuantity(USER, FOOD, 2));
+
+		transaction.executeWithoutResult(status -> {
+			assertEquals(1, addToCartRepository.adjustQuantity(USER, FOOD, 1));
+			assertEquals(3L, addToCartRepository.lastInsertId());
+		});
+		transaction.executeWithoutResult(status -> {
+			assertEquals(1, addToCartRepository.adjustQuantity(USER, FOOD, -2));
+			assertEquals(1L, addToCartRepository.lastInsertId());
+		});
+
+		// Going to zero is not an adjustment but a removal
+		transaction.executeWithoutResult(status -> {
+			assertEquals(0, addToCartRepository.adjustQuantity(USER, FOOD, -1));
+			assertEquals(1, quantity());
+			assertEquals(1, addToCartRepository.deleteIfDepleted(USER, FOOD, -1));
+		});
+		assertEquals(0, rows());
+		transaction.executeWithoutResult(status -> {
+			assertEquals(0, addToCartRepository.adjustQuantity(USER, FOOD, 1));
+			assertEquals(0, addToCartRepository.deleteIfDepleted(USER, FOOD, -1));
+		});
+	}
+
+	@Test
+	void concurrentFirstAddsShareOneRow() throws Exception {
+		int adds = 4;
+		CyclicBarrier start = new CyclicBarrier(adds);
+		ExecutorService executor = Executors.newFixedThreadPool(adds);
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for (int i = 0; i < adds; i++) {
+				results.add(executor.submit(() -> {
+					start.await(10, TimeUnit.SECONDS);
+					return transaction.execute(status -> {
+						int affected = addToCartRepository.upsertQuantity(USER, FOOD, 1);
+						// What CartService.upsert returns as the new quantity
+						int quantity = affected == 1 ? 1 : addToCartRepository.lastInsertId().intValue();
+						return new int[] {affected, quantity};
+					});
+				}));
+			}
+			int inserts = 0;
+			List<Integer> quantities = new ArrayList<>();
+			for (Future<int[]> result : results) {
+				int[] outcome = result.get(30, TimeUnit.SECONDS);
+				inserts += outcome[0] == 1 ? 1 : 0;
+				quantities.add(outcome[1]);
+			}
+			assertEquals(1, inserts);
+			assertEquals(List.of(1, 2, 3, 4), quantities.stream().sorted().toList());
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, rows());
+		assertEquals(adds, quantity());
+	}
+
+	private int quantity() {
+		return jdbcTemplate.queryForObject("SELECT quantity FROM add_to_cart WHERE user_id = ? AND food_id = ?",
+				Integer.class, USER, FOOD);
+	}
+
+	private int rows() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM add_to_cart", Integer.class);
+	}
+}
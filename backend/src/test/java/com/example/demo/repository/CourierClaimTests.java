@@ -0,0 +1,128 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two couriers claiming the same READY order, each in its own transaction as OrderService.assignCourier runs it
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class CourierClaimTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void exactlyOneConcurrentClaimWins() throws Exception {
+		long orderId = readyOrder();
+		List<Long> couriers = List.of(courier("first"), courier("second"));
+		CyclicBarrier start = new CyclicBarrier(couriers.size());
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		ExecutorService executor = Executors.newFixedThreadPool(couriers.size());
+		try {
+			List<Future<Integer>> claims = couriers.stream()
+					.map(courierId -> executor.submit(() -> transaction.execute(status -> {
+						await(start);
+						return orderRepository.claimForCourier(orderId, courierId);
+					})))
+					.toList();
+			int won = 0;
+			for (Future<Integer> claim : claims) {
+				won += claim.get(30, TimeUnit.SECONDS);
+			}
+			assertEquals(1, won);
+		} finally {
+			executor.shutdownNow();
+		}
+		Long holder = jdbcTemplate.queryForObject("SELECT courier_id FROM orders WHERE id = ?", Long.class, orderId);
+		assertTrue(couriers.contains(holder));
+	}
+
+	@Test
+	void losingClaimReadsTheWinnerPastItsSnapshot() {
+		long orderId = readyOrder();
+		long winner = courier("winner");
+		long loser = courier("loser");
+		TransactionTemplate inner = new TransactionTemplate(transactionManager);
+		inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			// The courier lookup takes the REPEATABLE READ snapshot before the winner commits
+			userRepository.findById(loser);
+			assertEquals(1, inner.execute(winning -> orderRepository.claimForCourier(orderId, winner)));
+
+			assertEquals(0, orderRepository.claimForCourier(orderId, loser));
+			assertNull(jdbcTemplate.queryForObject("SELECT courier_id FROM orders WHERE id = ?", Long.class, orderId));
+			Order order = orderRepository.findByIdForUpdate(orderId).orElseThrow();
+			assertEquals(winner, order.getCourier().getId());
+			assertEquals("READY", order.getStatus());
+		});
+	}
+
+	private long readyOrder() {
+		long customerId = user("customer-" + System.nanoTime(), "USER");
+		return new SimpleJdbcInsert(jdbcTemplate).withTableName("orders").usingGeneratedKeyColumns("id")
+				.executeAndReturnKey(Map.of("user_id", customerId, "status", "READY", "order_date", LocalDateTime.now()))
+				.longValue();
+	}
+
+	private long courier(String name) {
+		return user(name + "-" + System.nanoTime(), "DELIVERY");
+	}
+
+	private long user(String username, String role) {
+		return new SimpleJdbcInsert(jdbcTemplate).withTableName("user").usingGeneratedKeyColumns("id")
+				.executeAndReturnKey(Map.of("email", username + "@example.com", "username", username,
+						"password", "secret", "role", role))
+				.longValue();
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
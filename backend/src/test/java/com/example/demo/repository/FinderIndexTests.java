@@ -0,0 +1,171 @@
+package com.example.demo.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Runs the Flyway scripts on a real MySQL, lets Hibernate validate the entities against them, and
+// checks with EXPLAIN that the SQL behind each finder has an index to use on every table it reads
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.example.demo.repository.FinderIndexTests$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class FinderIndexTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private OtpRepository otpRepository;
+
+	@Autowired
+	private PendingUserRepository pendingUserRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private AddToCartRepository addToCartRepository;
+
+	@Autowired
+	private UserProfileRepository userProfileRepository;
+
+	@Autowired
+	private ChefOrderLineRepository chefOrderLineRepository;
+
+	@Autowired
+	private AvailabilityScheduleRepository availabilityScheduleRepository;
+
+	@Autowired
+	private FoodItemRepository foodItemRepository;
+
+	@Autowired
+	private DeliverySlotRepository deliverySlotRepository;
+
+	@Autowired
+	private DeliverySlotBookingRepository deliverySlotBookingRepository;
+
+	@BeforeEach
+	void clearStatements() {
+		CapturingInspector.STATEMENTS.clear();
+	}
+
+	@Test
+	void userFindersUseIndexes() {
+		assertIndexed("findByEmail", () -> userRepository.findByEmail("a@example.com"), "a@example.com");
+		assertIndexed("findByUsername", () -> userRepository.findByUsername("alice"), "alice");
+		assertIndexed("findByRole", () -> userRepository.findByRole("CHEF"), "CHEF");
+		assertIndexed("findByUserId", () -> userProfileRepository.findByUserId(1L), 1L);
+	}
+
+	@Test
+	void signupFindersUseIndexes() {
+		assertIndexed("findByEmailAndOtpCode", () -> otpRepository.findByEmailAndOtpCode("a@example.com", "123456"),
+				"a@example.com", "123456");
+		assertIndexed("findByEmail", () -> otpRepository.findByEmail("a@example.com"), "a@example.com");
+		assertIndexed("findByEmail", () -> pendingUserRepository.findByEmail("a@example.com"), "a@example.com");
+	}
+
+	@Test
+	void orderFindersUseIndexes() {
+		assertIndexed("findByStatus", () -> orderRepository.findByStatus("READY"), "READY");
+		assertIndexed("findByUserId", () -> orderRepository.findByUserId(1L), 1L);
+		assertIndexed("findByUserIdAndStatus", () -> orderRepository.findByUserIdAndStatus(1L, "PLACED"), 1L, "PLACED");
+		assertIndexed("findByPayment_TransactionId", () -> orderRepository.findByPayment_TransactionId("tx-1"), "tx-1");
+		assertIndexed("findUnclaimedReadyIds", () -> orderRepository.findUnclaimedReadyIds());
+		assertIndexed("findReadyIdsForCourier", () -> orderRepository.findReadyIdsForCourier(1L), 1L);
+		assertIndexed("findIdsByCourierIdAndStatus", () -> orderRepository.findIdsByCourierIdAndStatus(1L, "PICKED_UP"),
+				1L, "PICKED_UP");
+		assertIndexed("findByTransactionId", () -> paymentRepository.findByTransactionId("tx-1"), "tx-1");
+		assertIndexed("findByOrderId", () -> paymentRepository.findByOrderId(1L), 1L);
+		assertIndexed("findByOrderId", () -> chefOrderLineRepository.findByOrderId(1L), 1L);
+		assertIndexed("streamOrderIdsByChefIdAndStatus",
+				() -> chefOrderLineRepository.streamOrderIdsByChefIdAndStatus(1L, "PLACED").close(), 1L, "PLACED");
+		assertIndexed("countActiveOrdersByChefId", () -> chefOrderLineRepository.countActiveOrdersByChefId(1L), 1L);
+	}
+
+	@Test
+	void cartFindersUseIndexes() {
+		assertIndexed("findByUserIdAndFoodId", () -> addToCartRepository.findByUserIdAndFoodId(1L, 2L), 1L, 2L);
+		assertIndexed("findByUserId", () -> addToCartRepository.findByUserId(1L), 1L);
+	}
+
+	@Test
+	void searchResyncFindersUseIndexes() {
+		LocalDateTime since = LocalDateTime.of(2026, 1, 1, 12, 0);
+		assertIndexed("findSearchFieldsUpdatedSince", () -> foodItemRepository.findSearchFieldsUpdatedSince(since), since);
+		assertIndexed("findTagsUpdatedSince", () -> foodItemRepository.findTagsUpdatedSince(since), since);
+	}
+
+	@Test
+	void menuScheduleFindersUseIndexes() {
+		assertIndexed("findByChefIdOrderByIdAsc", () -> availabilityScheduleRepository.findByChefIdOrderByIdAsc(1L), 1L);
+	}
+
+	@Test
+	void preOrderFindersUseIndexes() {
+		LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+		LocalDate monday = LocalDate.of(2026, 1, 5);
+		assertIndexed("findDuePreOrderIds", () -> orderRepository.findDuePreOrderIds(now, 0L, 100), now, 0L, 100);
+		assertIndexed("findByChefIdOrderByDayOfWeekAscStartsAtAsc",
+				() -> deliverySlotRepository.findByChefIdOrderByDayOfWeekAscStartsAtAsc(1L), 1L);
+		assertIndexed("findBySlotIdInAndSlotDateBetween",
+				() -> deliverySlotBookingRepository.findBySlotIdInAndSlotDateBetween(List.of(1L), monday, monday.plusDays(6)),
+				1L, monday, monday.plusDays(6));
+	}
+
+	// The tables are empty, so the optimizer may still prefer a scan; possible_keys shows whether an index exists
+	private void assertIndexed(String finder, Runnable call, Object... args) {
+		CapturingInspector.STATEMENTS.clear();
+		call.run();
+		String sql = CapturingInspector.STATEMENTS.stream()
+				.filter(statement -> statement.stripLeading().toLowerCase().startsWith("select"))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError(finder + " ran no select"));
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+		assertFalse(plan.isEmpty(), finder + " has no plan");
+		for (Map<String, Object> row : plan) {
+			if (row.get("table") == null) {
+				continue; // Optimized away, e.g. a unique lookup that matched no row
+			}
+			assertNotNull(row.get("possible_keys"), finder + " has no index on " + row.get("table") + ": " + sql);
+		}
+	}
+
+	public static class CapturingInspector implements StatementInspector {
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.demo.restcontroller;
+
+import com.example.demo.config.QueryBudget;
+import com.example.demo.config.QueryBudgetExceededException;
+import com.example.demo.config.QueryStats;
+import com.example.demo.config.SqlStatementCounter;
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.service.WarmingUpException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonStreamWriterTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final ApiExceptionHandler exceptionHandler = new ApiExceptionHandler();
+
+	@Test
+	void chunksAreWrittenInsideTheEnvelope() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		JsonStreamWriter<Map<String, Object>> writer =
+				new JsonStreamWriter<>(objectMapper, new MockHttpServletRequest(), response, "ok");
+		writer.accept(List.of(Map.of("id", 1), Map.of("id", 2)));
+		writer.accept(List.of());
+		writer.accept(List.of(Map.of("id", 3)));
+		writer.finish();
+
+		assertEquals(200, response.getStatus());
+		assertEquals("{\"status\":\"success\",\"message\":\"ok\",\"data\":[{\"id\":1},{\"id\":2},{\"id\":3}]}",
+				response.getContentAsString());
+	}
+
+	@Test
+	void ndjsonWritesOneDocumentPerLine() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept", "application/x-ndjson");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		JsonStreamWriter<Map<String, Object>> writer = new JsonStreamWriter<>(objectMapper, request, response, "ok");
+		writer.accept(List.of(Map.of("id", 1), Map.of("id", 2)));
+		writer.finish();
+
+		assertEquals("application/x-ndjson", response.getContentType().split(";")[0]);
+		assertEquals("{\"id\":1}\n{\"id\":2}\n", response.getContentAsString());
+	}
+
+	@Test
+	void emptyResultAnswersNoContent() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		new JsonStreamWriter<>(objectMapper, new MockHttpServletRequest(), response, "ok").finish();
+
+		assertEquals(204, response.getStatus());
+		assertEquals("", response.getContentAsString());
+	}
+
+	@Test
+	void failureBeforeAnyOutputGetsTheErrorEnvelope() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ResponseEntity<ApiResponse<Void>> error = exceptionHandler.handleBadRequest(
+				new IllegalArgumentException("bad"), new MockHttpServletRequest(), response);
+
+		assertEquals(400, error.getStatusCode().value());
+		assertEquals("{\"status\":\"error\",\"message\":\"bad\",\"data\":null}", objectMapper.writeValueAsString(error.getBody()));
+	}
+
+	@Test
+	void warmingUpAnswersServiceUnavailableWithRetryAfter() throws Exception {
+		ResponseEntity<ApiResponse<Void>> error = exceptionHandler.handleWarmingUp(
+				new WarmingUpException("Search index is still being built"), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertEquals(503, error.getStatusCode().value());
+		assertEquals("5", error.getHeaders().getFirst("Retry-After"));
+		assertEquals("Search index is still being built", error.getBody().message());
+	}
+
+	@Test
+	void failureAfterFirstChunkAbortsInsteadOfClosingTheList() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		JsonStreamWriter<Map<String, Object>> writer =
+				new JsonStreamWriter<>(objectMapper, new MockHttpServletRequest(), response, "ok");
+		writer.accept(List.of(Map.of("id", 1)));
+
+		RuntimeException failure = new RuntimeException("boom");
+		assertSame(failure, assertThrows(RuntimeException.class,
+				() -> exceptionHandler.handleUnexpected(failure, new MockHttpServletRequest(), response)));
+	}
+
+	@Test
+	void everyChunkWidensAnEnforcedBudget() throws Exception {
+		QueryBudget budget = budgetOf("streamedEndpoint");
+		SqlStatementCounter inspector = new SqlStatementCounter();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		JsonStreamWriter<Map<String, Object>> writer =
+				new JsonStreamWriter<>(objectMapper, new MockHttpServletRequest(), response, "ok");
+		try (QueryStats stats = QueryStats.open()) {
+			stats.enforce(budget, "GET /api/food/search");
+			inspector.inspect("select id, name from food_items where available = 1");
+			for (int chunk = 1; chunk <= 3; chunk++) {
+				inspector.inspect("select food_item_id, tags from food_item_tags where food_item_id in (?, ?)");
+				writer.accept(List.of(Map.of("id", chunk)));
+			}
+			writer.finish();
+			assertEquals(4, stats.getStatementCount());
+			assertNull(stats.checkBudget(budget));
+		}
+		assertEquals("{\"status\":\"success\",\"message\":\"ok\",\"data\":[{\"id\":1},{\"id\":2},{\"id\":3}]}",
+				response.getContentAsString());
+	}
+
+	@Test
+	void extraQueryInALaterChunkStillExceedsTheBudget() throws Exception {
+		QueryBudget budget = budgetOf("streamedEndpoint");
+		SqlStatementCounter inspector = new SqlStatementCounter();
+		JsonStreamWriter<Map<String, Object>> writer =
+				new JsonStreamWriter<>(objectMapper, new MockHttpServletRequest(), new MockHttpServletResponse(), "ok");
+		try (QueryStats stats = QueryStats.open()) {
+			stats.enforce(budget, "GET /api/food/search");
+			inspector.inspect("select id, name from food_items where available = 1");
+			inspector.inspect("select food_item_id, tags from food_item_tags where food_item_id in (?, ?)");
+			writer.accept(List.of(Map.of("id", 1)));
+
+			// A per-row lookup in the second chunk
+			inspector.inspect("select food_item_id, tags from food_item_tags where food_item_id in (?, ?)");
+			assertThrows(QueryBudgetExceededException.class,
+					() -> inspector.inspect("select * from user where id = 7"));
+		}
+	}
+
+	private QueryBudget budgetOf(String method) throws NoSuchMethodException {
+		return getClass().getDeclaredMethod(method).getAnnotation(QueryBudget.class);
+	}
+
+	// The cursor and the first chunk's tags, then one tag query for every further chunk
+	@QueryBudget(maxStatements = 2, maxRepeats = 1, maxStatementsPerChunk = 1)
+	private void streamedEndpoint() {
+	}
+}
@@ -0,0 +1,295 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.AddToCartRepository;
+import com.example.demo.repository.JobLockRepository;
+import com.example.demo.repository.OtpRepository;
+import com.example.demo.repository.PendingUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The scheduled cleanup jobs' SQL on a real MySQL: the job_lock lease, the batched purges and the
+// order archive move. Every statement commits on its own, as it does when the jobs run.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JobLockService.class, OrderArchiveService.class, CleanupJobsTests.Metrics.class})
+@Testcontainers(disabledWithoutDocker = true)
+class CleanupJobsTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private static final List<String> TABLES = List.of("chef_order_lines", "payment", "order_item", "orders",
+			"orders_archive", "order_item_archive", "food_item_tags", "food_items", "add_to_cart", "otp", "pending_user",
+			"job_lock", "user");
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private JobLockRepository jobLockRepository;
+
+	@Autowired
+	private JobLockService jobLockService;
+
+	@Autowired
+	private OtpRepository otpRepository;
+
+	@Autowired
+	private PendingUserRepository pendingUserRepository;
+
+	@Autowired
+	private AddToCartRepository addToCartRepository;
+
+	@Autowired
+	private OrderArchiveService orderArchiveService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void clearTables() {
+		for (String table : TABLES) {
+			jdbcTemplate.update("DELETE FROM " + table);
+		}
+	}
+
+	@Test
+	void onlyOneOfManyInstancesTakesTheLease() throws Exception {
+		jobLockRepository.insertIfAbsent("purge");
+		int instances = 8;
+		CyclicBarrier start = new CyclicBarrier(instances);
+		ExecutorService executor = Executors.newFixedThreadPool(instances);
+		try {
+			List<Future<Integer>> attempts = new ArrayList<>();
+			for (int i = 0; i < instances; i++) {
+				String owner = "instance-" + i;
+				attempts.add(executor.submit(() -> {
+					start.await(10, TimeUnit.SECONDS);
+					return jobLockRepository.tryAcquire("purge", owner, 60);
+				}));
+			}
+			int acquired = 0;
+			for (Future<Integer> attempt : attempts) {
+				acquired += attempt.get(30, TimeUnit.SECONDS);
+			}
+			assertEquals(1, acquired);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void leaseIsTakenOverOnlyOnceItExpires() {
+		assertEquals(1, jobLockRepository.insertIfAbsent("purge"));
+		assertEquals(0, jobLockRepository.insertIfAbsent("purge"));
+		assertEquals(1, jobLockRepository.tryAcquire("purge", "a", 60));
+		assertEquals(0, jobLockRepository.tryAcquire("purge", "b", 60));
+		// Only the holder gives it back
+		assertEquals(0, jobLockRepository.release("purge", "b", 0));
+		assertEquals(0, jobLockRepository.tryAcquire("purge", "b", 60));
+
+		// A holder that died keeps the lease until lockAtMostFor runs out
+		jdbcTemplate.update("UPDATE job_lock SET locked_until = NOW(6) - INTERVAL 1 SECOND WHERE name = 'purge'");
+		assertEquals(1, jobLockRepository.tryAcquire("purge", "b", 60));
+		assertEquals(0, jobLockRepository.tryAcquire("purge", "a", 60));
+
+		// Released with lockAtLeastFor of zero, the lease is free again right away
+		assertEquals(1, jobLockRepository.release("purge", "b", 0));
+		assertEquals(1, jobLockRepository.tryAcquire("purge", "a", 60));
+	}
+
+	@Test
+	void runExclusivelySkipsWhileTheLeaseIsHeld() {
+		AtomicInteger runs = new AtomicInteger();
+		jobLockRepository.insertIfAbsent("archive");
+		assertEquals(1, jobLockRepository.tryAcquire("archive", "other-instance", 60));
+		assertFalse(jobLockService.runExclusively("archive", Duration.ofMinutes(1), Duration.ZERO, runs::incrementAndGet));
+		assertEquals(0, runs.get());
+
+		jdbcTemplate.update("UPDATE job_lock SET locked_until = NOW(6) - INTERVAL 1 SECOND WHERE name = 'archive'");
+		assertTrue(jobLockService.runExclusively("archive", Duration.ofMinutes(1), Duration.ZERO, () -> {
+			runs.incrementAndGet();
+			// Held by this run, so a second run of the same job is turned away
+			assertFalse(jobLockService.runExclusively("archive", Duration.ofMinutes(1), Duration.ZERO, runs::incrementAndGet));
+		}));
+		assertEquals(1, runs.get());
+		// lockAtLeastFor keeps it after the run
+		assertTrue(jobLockService.runExclusively("other", Duration.ofMinutes(1), Duration.ofMinutes(5), runs::incrementAndGet));
+		assertFalse(jobLockService.runExclusively("other", Duration.ofMinutes(1), Duration.ofMinutes(5), runs::incrementAndGet));
+	}
+
+	@Test
+	void otpPurgeDeletesOnlyExpiredCodesInBatches() {
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 1; i <= 3; i++) {
+			insert("otp", Map.of("email", "old" + i + "@example.com", "otp_code", "123456",
+					"created_at", now.minusMinutes(20), "expires_at", now.minusMinutes(i)));
+		}
+		insert("otp", Map.of("email", "new@example.com", "otp_code", "654321", "created_at", now, "expires_at", now.plusMinutes(5)));
+
+		assertEquals(2, otpRepository.deleteExpiredBatch(now, 2));
+		assertEquals(1, otpRepository.deleteExpiredBatch(now, 2));
+		assertEquals(0, otpRepository.deleteExpiredBatch(now, 2));
+		assertEquals(List.of("new@example.com"), jdbcTemplate.queryForList("SELECT email FROM otp", String.class));
+	}
+
+	@Test
+	void pendingSignupPurgeDeletesStaleAndUndatedRows() {
+		LocalDateTime now = LocalDateTime.now();
+		insert("pending_user", Map.of("email", "stale@example.com", "created_at", now.minusDays(2)));
+		insert("pending_user", Map.of("email", "undated@example.com"));
+		insert("pending_user", Map.of("email", "fresh@example.com", "created_at", now.minusMinutes(5)));
+
+		assertEquals(2, pendingUserRepository.deleteStaleBatch(now.minusDays(1), 10));
+		assertEquals(List.of("fresh@example.com"), jdbcTemplate.queryForList("SELECT email FROM pending_user", String.class));
+	}
+
+	@Test
+	void cartPurgeDeletesOnlyIdleCarts() {
+		LocalDateTime now = LocalDateTime.now();
+		insert("add_to_cart", Map.of("user_id", 1L, "food_id", 1L, "quantity", 1, "created_at", now.minusDays(40),
+				"updated_at", now.minusDays(31)));
+		insert("add_to_cart", Map.of("user_id", 1L, "food_id", 2L, "quantity", 1, "created_at", now.minusDays(40),
+				"updated_at", now.minusDays(1)));
+		insert("add_to_cart", Map.of("user_id", 2L, "food_id", 1L, "quantity", 3, "created_at", now, "updated_at", now));
+
+		assertEquals(1, addToCartRepository.deleteIdleBatch(now.minusDays(30), 10));
+		assertEquals(0, addToCartRepository.deleteIdleBatch(now.minusDays(30), 10));
+		assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM add_to_cart", Integer.class));
+	}
+
+	@Test
+	void archiveMovesOldFinishedOrdersWithTheirPaymentAndItems() {
+		LocalDateTime longAgo = LocalDateTime.now().minusDays(120);
+		long customerId = user("customer", "USER");
+		long chefId = user("chef", "CHEF");
+		long foodItemId = insert("food_items", Map.of("name", "Chicken Momo", "price", 200.0, "original_price", 200.0,
+				"available", true, "user_id", chefId));
+		long delivered = order(customerId, foodItemId, chefId, "DELIVERED", longAgo);
+		LocalDateTime assignedAt = longAgo.withNano(0).plusMinutes(20);
+		LocalDateTime statusChangedAt = longAgo.withNano(0).plusMinutes(50);
+		jdbcTemplate.update("UPDATE orders SET assigned_at = ?, status_changed_at = ? WHERE id = ?", assignedAt, statusChangedAt, delivered);
+		long open = order(customerId, foodItemId, chefId, "PLACED", longAgo);
+		long recent = order(customerId, foodItemId, chefId, "CANCELLED", LocalDateTime.now().minusDays(1));
+
+		assertEquals(1, orderArchiveService.archiveBatch(10));
+		assertEquals(0, orderArchiveService.archiveBatch(10));
+
+		assertEquals(List.of(open, recent), jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id", Long.class));
+		for (String table : List.of("payment", "order_item", "chef_order_lines")) {
+			assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE order_id = ?",
+					Integer.class, delivered), table);
+		}
+		Map<String, Object> archived = jdbcTemplate.queryForMap("SELECT * FROM orders_archive WHERE id = ?", delivered);
+		assertEquals("DELIVERED", archived.get("status"));
+		assertEquals("COMPLETED", archived.get("payment_status"));
+		assertEquals(450.0, ((Number) archived.get("amount")).doubleValue());
+		assertEquals(assignedAt, jdbcTemplate.queryForObject("SELECT assigned_at FROM orders_archive WHERE id = ?",
+				LocalDateTime.class, delivered));
+		assertEquals(statusChangedAt, jdbcTemplate.queryForObject("SELECT status_changed_at FROM orders_archive WHERE id = ?",
+				LocalDateTime.class, delivered));
+		assertEquals(chefId, jdbcTemplate.queryForObject("SELECT chef_id FROM order_item_archive WHERE order_id = ?",
+				Long.class, delivered));
+	}
+
+	@Test
+	void archiveMovesAtMostOneBatchPerCall() {
+		LocalDateTime longAgo = LocalDateTime.now().minusDays(120);
+		long customerId = user("customer", "USER");
+		long chefId = user("chef", "CHEF");
+		long foodItemId = insert("food_items", Map.of("name", "Veg Thali", "price", 300.0, "original_price", 300.0,
+				"available", true, "user_id", chefId));
+		for (int i = 0; i < 3; i++) {
+			order(customerId, foodItemId, chefId, "DELIVERED", longAgo);
+		}
+
+		assertEquals(2, orderArchiveService.archiveBatch(2));
+		assertEquals(1, orderArchiveService.archiveBatch(2));
+		assertEquals(0, orderArchiveService.archiveBatch(2));
+
+		orderArchiveService.recordStorage();
+		assertNotNull(meterRegistry.find("order.storage.rows").tag("table", "orders_archive").gauge());
+	}
+
+	@Test
+	void historyQueriesReachTheArchiveOnlyForFinishedStatuses() {
+		assertTrue(OrderArchiveService.mayBeArchived(null));
+		assertTrue(OrderArchiveService.mayBeArchived("delivered"));
+		assertTrue(OrderArchiveService.mayBeArchived("CANCELLED"));
+		assertFalse(OrderArchiveService.mayBeArchived("PLACED"));
+	}
+
+	// An order with one item, its chef order line and a completed payment of 450
+	private long order(long customerId, long foodItemId, long chefId, String status, LocalDateTime orderDate) {
+		long orderId = insert("orders", Map.of("user_id", customerId, "status", status, "order_date", orderDate));
+		long itemId = insert("order_item", Map.of("order_id", orderId, "food_item_id", foodItemId, "quantity", 2));
+		insert("payment", Map.of("order_id", orderId, "amount", 450.0, "status", "COMPLETED",
+				"payment_method", "CASH_ON_DELIVERY", "payment_date", orderDate));
+		Map<String, Object> line = new HashMap<>();
+		line.put("chef_id", chefId);
+		line.put("order_id", orderId);
+		line.put("order_item_id", itemId);
+		line.put("food_item_id", foodItemId);
+		line.put("quantity", 2);
+		line.put("status", status);
+		line.put("order_date", orderDate);
+		line.put("due_at", orderDate.plusMinutes(30));
+		insert("chef_order_lines", line);
+		return orderId;
+	}
+
+	private long user(String username, String role) {
+		return insert("user", Map.of("email", username + "@example.com", "username", username, "password", "secret",
+				"role", role));
+	}
+
+	// Only the given columns, so the NOT NULL ones with defaults (e.g. food_items.sold_out) get their default
+	private long insert(String table, Map<String, Object> values) {
+		return new SimpleJdbcInsert(jdbcTemplate).withTableName(table).usingColumns(values.keySet().toArray(String[]::new))
+				.usingGeneratedKeyColumns("id").executeAndReturnKey(values).longValue();
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CourierPosition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourierLocationStoreTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+	@Test
+	void trailKeepsOnlyTheLatestPingsOldestFirst() {
+		CourierLocationStore store = new CourierLocationStore(3);
+		for (int i = 0; i < 5; i++) {
+			store.record(1L, at(i, 27.70));
+		}
+		assertEquals(List.of(at(2, 27.70), at(3, 27.70), at(4, 27.70)), store.trail(1L));
+		assertTrue(store.trail(2L).isEmpty());
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	void latePingGoesIntoTheTrailButNotTheLatestFix() {
+		CourierLocationStore store = new CourierLocationStore(4);
+		CourierPosition newer = at(10, 27.71);
+		store.record(1L, newer);
+		assertSame(newer, store.record(1L, at(5, 27.70)));
+		assertSame(newer, store.latest(1L));
+		assertEquals(List.of(at(5, 27.70), newer), store.trail(1L));
+		assertNull(store.latest(2L));
+	}
+
+	@Test
+	void flushTakesOnePositionPerCourierAndOnlyOnce() {
+		CourierLocationStore store = new CourierLocationStore(4);
+		store.record(1L, at(0, 27.70));
+		store.record(1L, at(1, 27.71));
+		store.record(2L, at(0, 27.68));
+
+		Map<Long, CourierPosition> drained = store.drainUnsaved(0);
+		assertEquals(Map.of(1L, at(1, 27.71), 2L, at(0, 27.68)), drained);
+		assertTrue(store.drainUnsaved(0).isEmpty());
+		assertTrue(store.isTracked(1L));
+	}
+
+	@Test
+	void flushSkipsCouriersThatBarelyMoved() {
+		CourierLocationStore store = new CourierLocationStore(4);
+		store.record(1L, at(0, 27.70));
+		store.drainUnsaved(50);
+
+		// About 11 m north of the saved position, then about 1.1 km
+		store.record(1L, at(1, 27.7001));
+		assertFalse(store.drainUnsaved(50).containsKey(1L));
+		store.record(1L, at(2, 27.71));
+		assertEquals(at(2, 27.71), store.drainUnsaved(50).get(1L));
+	}
+
+	@Test
+	void rejectsAnEmptyTrail() {
+		assertThrows(IllegalArgumentException.class, () -> new CourierLocationStore(0));
+	}
+
+	private static CourierPosition at(int minute, double latitude) {
+		return new CourierPosition(latitude, 85.32, START.plusMinutes(minute));
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// The data_version counters behind the ETags on a real MySQL, with replica routing on so the lag
+// marker shows. Each write runs in its own transaction, as the services do.
+@DataJpaTest(properties = {"datasource.routing.enabled=true", "datasource.routing.max-lag-seconds=60"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(DataVersionService.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DataVersionTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transaction;
+
+	@BeforeEach
+	void settleVersions() {
+		jdbcTemplate.update("UPDATE data_version SET changed_at = NOW(6) - INTERVAL 1 HOUR");
+		transaction = new TransactionTemplate(transactionManager);
+	}
+
+	@Test
+	void committedWriteBumpsEachChangedSetOnce() {
+		long menu = version(DataVersionService.MENU);
+		long feed = version(DataVersionService.FEED);
+		long delivery = version(DataVersionService.DELIVERY);
+
+		transaction.executeWithoutResult(status -> {
+			dataVersionService.changed(DataVersionService.MENU);
+			dataVersionService.changed(DataVersionService.FEED);
+			dataVersionService.changed(DataVersionService.MENU);
+			// Deferred to the commit
+			assertEquals(menu, version(DataVersionService.MENU));
+		});
+
+		assertEquals(menu + 1, version(DataVersionService.MENU));
+		assertEquals(feed + 1, version(DataVersionService.FEED));
+		assertEquals(delivery, version(DataVersionService.DELIVERY));
+	}
+
+	@Test
+	void rolledBackWriteKeepsTheTag() {
+		String before = dataVersionService.tag(DataVersionService.MENU);
+
+		transaction.executeWithoutResult(status -> {
+			dataVersionService.changed(DataVersionService.MENU);
+			status.setRollbackOnly();
+		});
+
+		assertEquals(before, dataVersionService.tag(DataVersionService.MENU));
+	}
+
+	@Test
+	void changeOutsideATransactionBumpsRightAway() {
+		long menu = version(DataVersionService.MENU);
+
+		dataVersionService.changed(DataVersionService.MENU);
+
+		assertEquals(menu + 1, version(DataVersionService.MENU));
+	}
+
+	@Test
+	void tagIsMarkedUntilTheReplicaLagWindowPasses() {
+		long menu = version(DataVersionService.MENU);
+		assertEquals("menu-" + menu, dataVersionService.tag(DataVersionService.MENU));
+
+		dataVersionService.changed(DataVersionService.MENU);
+		assertEquals("menu-" + (menu + 1) + "-lag", dataVersionService.tag(DataVersionService.MENU));
+
+		settleVersions();
+		assertEquals("menu-" + (menu + 1), dataVersionService.tag(DataVersionService.MENU));
+	}
+
+	@Test
+	void writeThroughAnotherInstanceChangesTheTag() {
+		String before = dataVersionService.tag(DataVersionService.FEED);
+
+		// All another instance leaves behind is the row
+		jdbcTemplate.update("UPDATE data_version SET version = version + 1 WHERE name = ?", DataVersionService.FEED);
+
+		assertEquals("feed-" + version(DataVersionService.FEED), dataVersionService.tag(DataVersionService.FEED));
+		assertNotEquals(before, dataVersionService.tag(DataVersionService.FEED));
+	}
+
+	@Test
+	void snapshotTagCombinesBothSetsInOneRead() {
+		String tag = dataVersionService.tag(DataVersionService.DELIVERY, DataVersionService.MENU);
+		assertEquals("delivery-" + version(DataVersionService.DELIVERY) + ".menu-" + version(DataVersionService.MENU), tag);
+
+		// A courier status change on another instance reaches the snapshot tag through the delivery row
+		jdbcTemplate.update("UPDATE data_version SET version = version + 1 WHERE name = ?", DataVersionService.DELIVERY);
+		assertNotEquals(tag, dataVersionService.tag(DataVersionService.DELIVERY, DataVersionService.MENU));
+	}
+
+	private long version(String name) {
+		return jdbcTemplate.queryForObject("SELECT version FROM data_version WHERE name = ?", Long.class, name);
+	}
+}
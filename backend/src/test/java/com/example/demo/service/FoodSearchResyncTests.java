@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FoodSuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The search index of one instance catching up with menu writes that another instance made, which
+// reach it only as rows and a moved menu version on a real MySQL
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({FoodSearchService.class, DataVersionService.class})
+@Testcontainers(disabledWithoutDocker = true)
+class FoodSearchResyncTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private FoodSearchService foodSearchService;
+
+	private long chefId;
+
+	@BeforeEach
+	void freshMenu() {
+		for (String table : List.of("food_item_tags", "food_items", "user")) {
+			jdbcTemplate.update("DELETE FROM " + table);
+		}
+		chefId = insert("user", Map.of("email", "chef@example.com", "username", "chef", "password", "secret", "role", "CHEF"));
+		foodSearchService.buildIndex();
+	}
+
+	@Test
+	void resyncPicksUpItemsSavedAndDeletedElsewhere() {
+		long momo = food("Chicken Momo", "Spicy");
+		long thali = food("Veg Thali", "Bestseller");
+		menuChanged();
+		foodSearchService.resync();
+		assertEquals(List.of("Chicken Momo"), names("momo"));
+
+		jdbcTemplate.update("UPDATE food_items SET name = 'Chicken Sekuwa', updated_at = NOW(6) WHERE id = ?", momo);
+		jdbcTemplate.update("DELETE FROM food_item_tags WHERE food_item_id = ?", thali);
+		jdbcTemplate.update("DELETE FROM food_items WHERE id = ?", thali);
+		food("Jhol Momo", "Spicy");
+		menuChanged();
+		foodSearchService.resync();
+
+		assertEquals(List.of("Jhol Momo"), names("momo"));
+		assertEquals(List.of("Chicken Sekuwa"), names("sekuwa"));
+		assertEquals(List.of(), names("thali"));
+	}
+
+	@Test
+	void resyncWaitsForTheMenuVersionToMove() {
+		food("Mutton Biryani", "Spicy");
+		menuChanged();
+		foodSearchService.resync();
+		assertEquals(List.of("Mutton Biryani"), names("biryani"));
+
+		// Written without a version bump, as no instance would: the resync has no reason to look
+		food("Veg Biryani", "Spicy");
+		foodSearchService.resync();
+		assertEquals(List.of("Mutton Biryani"), names("biryani"));
+
+		menuChanged();
+		foodSearchService.resync();
+		assertEquals(2, names("biryani").size());
+	}
+
+	@Test
+	void itemsMadeUnavailableElsewhereLeaveTheResults() {
+		long momo = food("Chicken Momo", "Spicy");
+		menuChanged();
+		foodSearchService.resync();
+		assertEquals(List.of("Chicken Momo"), names("momo"));
+
+		jdbcTemplate.update("UPDATE food_items SET available = false WHERE id = ?", momo);
+		menuChanged();
+
+		// No resync needed: the hidden ids follow the menu version on every search
+		assertEquals(List.of(), names("momo"));
+	}
+
+	// Inserted and versioned as another instance's save would leave it
+	private long food(String name, String tag) {
+		long id = insert("food_items", Map.of("name", name, "price", 200.0, "original_price", 200.0, "available", true,
+				"user_id", chefId));
+		jdbcTemplate.update("INSERT INTO food_item_tags (food_item_id, tags) VALUES (?, ?)", id, tag);
+		return id;
+	}
+
+	private void menuChanged() {
+		jdbcTemplate.update("UPDATE data_version SET version = version + 1, changed_at = NOW(6) WHERE name = ?",
+				DataVersionService.MENU);
+	}
+
+	private List<String> names(String query) {
+		return foodSearchService.suggest(query, 10).stream().map(FoodSuggestion::name).toList();
+	}
+
+	private long insert(String table, Map<String, Object> values) {
+		return new SimpleJdbcInsert(jdbcTemplate).withTableName(table).usingColumns(values.keySet().toArray(String[]::new))
+				.usingGeneratedKeyColumns("id").executeAndReturnKey(values).longValue();
+	}
+}
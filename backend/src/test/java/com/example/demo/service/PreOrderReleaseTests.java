@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Order;
+import com.example.demo.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// The pre-order release job walking due orders on a real MySQL, with the per-order release replaced
+// by its conditional update, or by a failure for the orders set up to keep failing
+@DataJpaTest(properties = "preorder.release-batch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PreOrderReleaseService.class, JobLockService.class})
+@Testcontainers(disabledWithoutDocker = true)
+class PreOrderReleaseTests {
+
+	@Container
+	@ServiceConnection
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private PreOrderReleaseService preOrderReleaseService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoBean
+	private OrderService orderService;
+
+	private final List<Long> attempts = new ArrayList<>();
+	private Set<Long> poisoned = Set.of();
+
+	@BeforeEach
+	void releaseThroughTheConditionalUpdate() {
+		for (String table : List.of("orders", "job_lock", "user")) {
+			jdbcTemplate.update("DELETE FROM " + table);
+		}
+		attempts.clear();
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		when(orderService.releasePreOrder(anyLong())).thenAnswer(invocation -> {
+			Long orderId = invocation.getArgument(0);
+			attempts.add(orderId);
+			if (poisoned.contains(orderId)) {
+				throw new IllegalStateException("Broken pre-order " + orderId);
+			}
+			int updated = transaction.execute(status -> orderRepository.releaseScheduled(orderId, "PLACED", LocalDateTime.now()));
+			return updated == 1 ? new Order() : null;
+		});
+	}
+
+	@Test
+	void poisonedFirstBatchDoesNotHoldUpLaterOrders() {
+		long customerId = customer();
+		LocalDateTime due = LocalDateTime.now().minusMinutes(5);
+		List<Long> orders = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			orders.add(preOrder(customerId, due));
+		}
+		// The whole first batch keeps failing
+		poisoned = Set.of(orders.get(0), orders.get(1));
+
+		preOrderReleaseService.releaseDuePreOrders();
+
+		assertEquals(orders, attempts);
+		assertEquals(List.of("SCHEDULED", "SCHEDULED", "PLACED", "PLACED", "PLACED"), statuses(orders));
+
+		// The failing ones are tried again on the next run, and only they are still due
+		attempts.clear();
+		preOrderReleaseService.releaseDuePreOrders();
+		assertEquals(orders.subList(0, 2), attempts);
+	}
+
+	@Test
+	void ordersNotYetDueStayScheduled() {
+		long customerId = customer();
+		long due = preOrder(customerId, LocalDateTime.now().minusMinutes(1));
+		long later = preOrder(customerId, LocalDateTime.now().plusHours(1));
+
+		preOrderReleaseService.releaseDuePreOrders();
+
+		assertEquals(List.of(due), attempts);
+		assertEquals(List.of("PLACED", "SCHEDULED"), statuses(List.of(due, later)));
+	}
+
+	private List<String> statuses(List<Long> orderIds) {
+		return orderIds.stream()
+				.map(id -> jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, id))
+				.toList();
+	}
+
+	private long preOrder(long customerId, LocalDateTime releaseAt) {
+		return insert("orders", Map.of("user_id", customerId, "status", "SCHEDULED", "order_date", LocalDateTime.now(),
+				"scheduled_for", releaseAt.plusHours(1), "release_at", releaseAt));
+	}
+
+	private long customer() {
+		return insert("user", Map.of("email", "customer@example.com", "username", "customer", "password", "secret",
+				"role", "USER"));
+	}
+
+	private long insert(String table, Map<String, Object> values) {
+		return new SimpleJdbcInsert(jdbcTemplate).withTableName(table).usingColumns(values.keySet().toArray(String[]::new))
+				.usingGeneratedKeyColumns("id").executeAndReturnKey(values).longValue();
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurationStatsTests {
+
+	@Test
+	void averagesPlainlyUntilTheWeightTakesOver() {
+		DurationStats stats = new DurationStats(0.2, 0.9);
+		stats.record(10);
+		assertEquals(10, stats.mean(), 1e-9);
+		assertEquals(10, stats.upper(), 1e-9);
+		stats.record(20);
+		stats.record(30);
+		stats.record(40);
+		assertEquals(25, stats.mean(), 1e-9);
+		assertEquals(4, stats.samples());
+	}
+
+	@Test
+	void followsAKitchenThatSlowsDown() {
+		DurationStats stats = new DurationStats(0.1, 0.9);
+		for (int i = 0; i < 200; i++) {
+			stats.record(20);
+		}
+		for (int i = 0; i < 100; i++) {
+			stats.record(40);
+		}
+		assertEquals(40, stats.mean(), 0.5);
+		assertTrue(stats.deviation() < 0.5, "deviation " + stats.deviation());
+		assertTrue(stats.upper() >= stats.mean());
+	}
+
+	@Test
+	void upperSettlesInTheTail() {
+		DurationStats stats = new DurationStats(0.05, 0.9);
+		// Every minute from 10 to 30 equally often; the 90th percentile is 28
+		for (int i = 0; i < 2000; i++) {
+			stats.record(10 + (i * 8) % 21);
+		}
+		assertEquals(20, stats.mean(), 1.5);
+		assertTrue(stats.upper() > 25 && stats.upper() < 31, "upper " + stats.upper());
+	}
+
+	@Test
+	void ignoresInvalidSamplesAndParameters() {
+		DurationStats stats = new DurationStats(0.1, 0.9);
+		stats.record(-5);
+		stats.record(Double.NaN);
+		assertEquals(0, stats.samples());
+		assertThrows(IllegalArgumentException.class, () -> new DurationStats(0, 0.9));
+		assertThrows(IllegalArgumentException.class, () -> new DurationStats(0.1, 1));
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HeavyHittersTests {
+	private static final long HOUR = 3_600_000;
+
+	@Test
+	void halvesWeightEveryHalfLife() {
+		HeavyHitters counters = new HeavyHitters(4, HOUR);
+		counters.add(1, 8, 0);
+		assertEquals(8, counters.top(1, 0).get(0).count(), 1e-9);
+		assertEquals(4, counters.top(1, HOUR).get(0).count(), 1e-9);
+		assertEquals(1, counters.top(1, 3 * HOUR).get(0).count(), 1e-9);
+	}
+
+	@Test
+	void recentOrdersOutrankOlderOnes() {
+		HeavyHitters counters = new HeavyHitters(4, HOUR);
+		counters.add(1, 3, 0);
+		counters.add(2, 2, 2 * HOUR);
+		assertEquals(List.of(2L, 1L), keys(counters.top(2, 2 * HOUR)));
+	}
+
+	@Test
+	void newKeyTakesOverTheSmallestCounter() {
+		HeavyHitters counters = new HeavyHitters(2, HOUR);
+		counters.add(1, 5, 0);
+		counters.add(2, 1, 0);
+		counters.add(3, 2, 0);
+		List<HeavyHitters.Counter> top = counters.top(2, 0);
+		assertEquals(List.of(1L, 3L), keys(top));
+		assertEquals(3, top.get(1).count(), 1e-9);
+		assertEquals(1, top.get(1).overcount(), 1e-9);
+	}
+
+	@Test
+	void survivesLandmarkMoves() {
+		HeavyHitters counters = new HeavyHitters(4, 1);
+		counters.add(1, 1, 0);
+		counters.add(2, 4, 10_000);
+		assertEquals(List.of(2L), keys(counters.top(1, 10_000)));
+		assertEquals(4, counters.top(1, 10_000).get(0).count(), 1e-9);
+	}
+
+	private static List<Long> keys(List<HeavyHitters.Counter> counters) {
+		return counters.stream().map(HeavyHitters.Counter::key).toList();
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PrepTimeTests {
+
+	@Test
+	void parsesWhatChefsType() {
+		assertEquals(new PrepTime(20, 25), PrepTime.parse("20-25 min"));
+		assertEquals(new PrepTime(20, 25), PrepTime.parse("20 - 25 Mins"));
+		assertEquals(new PrepTime(30, 30), PrepTime.parse("30 minutes"));
+		assertEquals(new PrepTime(45, 45), PrepTime.parse("45"));
+		assertEquals(new PrepTime(60, 90), PrepTime.parse("1-1.5 hours"));
+		assertEquals(new PrepTime(60, 60), PrepTime.parse("1 hr"));
+		assertEquals(new PrepTime(25, 30), PrepTime.parse("30-25 min"));
+	}
+
+	@Test
+	void addsUpHoursAndMinutes() {
+		assertEquals(new PrepTime(90, 90), PrepTime.parse("1 hr 30 min"));
+		assertEquals(new PrepTime(105, 105), PrepTime.parse("1h 45m"));
+		assertEquals(new PrepTime(105, 105), PrepTime.parse("1h45m"));
+		assertEquals(new PrepTime(90, 90), PrepTime.parse("1 hour 30 minutes"));
+		assertEquals(new PrepTime(60, 90), PrepTime.parse("1 hr - 1 hr 30 min"));
+		assertEquals(new PrepTime(45, 60), PrepTime.parse("45 mins to 1 hr"));
+		// Minutes never come before hours, and a bare number never extends a duration
+		assertEquals(new PrepTime(30, 30), PrepTime.parse("30 min 1 hr"));
+		assertEquals(new PrepTime(60, 60), PrepTime.parse("1 hr 30"));
+	}
+
+	@Test
+	void rejectsTextWithoutDuration() {
+		assertNull(PrepTime.parse(null));
+		assertNull(PrepTime.parse(""));
+		assertNull(PrepTime.parse("quick"));
+		assertNull(PrepTime.parse("0 min"));
+		assertNull(PrepTime.parse("5000 min"));
+		assertNull(PrepTime.parse("24 hours 1 min"));
+	}
+}
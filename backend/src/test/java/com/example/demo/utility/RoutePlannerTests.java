@@ -0,0 +1,36 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutePlannerTests {
+	private static final GeoPoints.Point START = new GeoPoints.Point(27.70, 85.30);
+	private static final long BUDGET = 50_000_000;
+
+	@Test
+	void visitsStopsAlongALineInOrder() {
+		List<GeoPoints.Point> stops = List.of(
+				new GeoPoints.Point(27.70, 85.33),
+				new GeoPoints.Point(27.70, 85.31),
+				new GeoPoints.Point(27.70, 85.34),
+				new GeoPoints.Point(27.70, 85.32));
+		assertArrayEquals(new int[] {1, 3, 0, 2}, RoutePlanner.plan(START, stops, BUDGET));
+	}
+
+	@Test
+	void neverLongerThanGoingNearestFirst() {
+		// Nearest first goes east, then has to double back past the start to the far west stop
+		List<GeoPoints.Point> stops = List.of(
+				new GeoPoints.Point(27.70, 85.301),
+				new GeoPoints.Point(27.70, 85.298),
+				new GeoPoints.Point(27.70, 85.305),
+				new GeoPoints.Point(27.70, 85.290));
+		int[] nearestFirst = {0, 1, 2, 3};
+		int[] planned = RoutePlanner.plan(START, stops, BUDGET);
+		assertTrue(RoutePlanner.length(START, stops, planned) < RoutePlanner.length(START, stops, nearestFirst));
+	}
+}
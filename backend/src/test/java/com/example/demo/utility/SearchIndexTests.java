@@ -0,0 +1,59 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTests {
+
+	@Test
+	void completesPrefixesWithPopularItemsFirst() {
+		SearchIndex index = menu();
+		index.setPopularity(Map.of(2L, 500, 1L, 3));
+		assertEquals(List.of(2L, 1L, 3L), ids(index.search("mo", 5)));
+	}
+
+	@Test
+	void toleratesTypos() {
+		SearchIndex index = menu();
+		assertEquals(List.of(4L), ids(index.search("biryni", 5)));
+		assertEquals(List.of(2L), ids(index.search("jhol momp", 5)));
+	}
+
+	@Test
+	void reflectsUpdatesRemovalsAndHiddenItems() {
+		SearchIndex index = menu();
+		index.search("mo", 5);
+		index.put(1L, "Chicken Sekuwa", null, List.of());
+		index.remove(3L);
+		assertEquals(Set.of(1L, 2L, 4L), index.ids());
+		assertEquals(List.of(2L), ids(index.search("mo", 5)));
+		assertEquals(List.of(1L), ids(index.search("sekuwa", 5)));
+		index.setHidden(Set.of(2L));
+		assertTrue(index.search("mo", 5).isEmpty());
+	}
+
+	@Test
+	void boundsEditDistance() {
+		assertEquals(1, SearchIndex.distance("momo", "mmoo", 2));
+		assertEquals(2, SearchIndex.distance("biryani", "biriyanee", 1));
+	}
+
+	private static SearchIndex menu() {
+		SearchIndex index = new SearchIndex(16);
+		index.put(1L, "Chicken Momo", "Steamed dumplings", List.of("Bestseller"));
+		index.put(2L, "Jhol Momo", "Momos in a sesame soup", List.of("Spicy"));
+		index.put(3L, "Veg Thali", "Rice, dal and a mohi side", List.of());
+		index.put(4L, "Mutton Biryani", "Slow cooked rice", List.of("Spicy"));
+		return index;
+	}
+
+	private static List<Long> ids(List<SearchIndex.Hit> hits) {
+		return hits.stream().map(SearchIndex.Hit::id).toList();
+	}
+}
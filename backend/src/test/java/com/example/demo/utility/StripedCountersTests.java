@@ -0,0 +1,62 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedCountersTests {
+
+	@Test
+	void neverHandsOutMoreThanLoadedUnderContention() throws InterruptedException {
+		StripedCounters counters = new StripedCounters(64, 60_000);
+		AtomicInteger loads = new AtomicInteger();
+		AtomicInteger taken = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(200);
+		for (int i = 0; i < 300; i++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				StripedCounters.Take take = counters.tryTake(7L, 1, key -> {
+					loads.incrementAndGet();
+					return 50;
+				});
+				if (take == StripedCounters.Take.TAKEN) {
+					taken.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(50, taken.get());
+		assertEquals(1, loads.get());
+		assertEquals(0, counters.remaining(7L));
+	}
+
+	@Test
+	void givesBackAndReloadsAfterInvalidate() {
+		StripedCounters counters = new StripedCounters(4, 60_000);
+		assertEquals(StripedCounters.Take.TAKEN, counters.tryTake(1L, 2, key -> 2));
+		assertEquals(StripedCounters.Take.REJECTED, counters.tryTake(1L, 1, key -> 2));
+		counters.give(1L, 1);
+		assertEquals(StripedCounters.Take.TAKEN, counters.tryTake(1L, 1, key -> 2));
+
+		counters.invalidate(1L);
+		assertEquals(StripedCounters.Take.TAKEN, counters.tryTake(1L, 5, key -> 5));
+		assertEquals(StripedCounters.Take.UNLIMITED, counters.tryTake(2L, 100, key -> null));
+		assertNull(counters.remaining(2L));
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.demo.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+	private static final long MINUTE = 60_000;
+	private static final long START = 1_000_000 * MINUTE;
+
+	@Test
+	void expiresExactlyAtTheDeadlineMinute() {
+		TimingWheel<String> wheel = new TimingWheel<>(MINUTE, 60, START);
+		assertTrue(wheel.add(START + 5 * MINUTE, "soon"));
+		assertTrue(wheel.add(START + 3 * 60 * MINUTE, "in three hours"));
+		assertTrue(wheel.add(START + 9 * 24 * 60 * MINUTE, "next week"));
+
+		assertEquals(List.of(), wheel.advance(START + 5 * MINUTE - 1));
+		assertEquals(List.of("soon"), wheel.advance(START + 5 * MINUTE));
+		assertEquals(List.of(), wheel.advance(START + 3 * 60 * MINUTE - 1));
+		assertEquals(List.of("in three hours"), wheel.advance(START + 3 * 60 * MINUTE));
+		assertEquals(List.of("next week"), wheel.advance(START + 10 * 24 * 60 * MINUTE));
+	}
+
+	@Test
+	void rejectsDeadlinesAlreadyReached() {
+		TimingWheel<String> wheel = new TimingWheel<>(MINUTE, 60, START);
+		assertFalse(wheel.add(START, "now"));
+		assertFalse(wheel.add(START - MINUTE, "past"));
+		assertTrue(wheel.add(START + 1, "rounded up to the next minute"));
+		assertEquals(List.of("rounded up to the next minute"), wheel.advance(START + MINUTE));
+	}
+}
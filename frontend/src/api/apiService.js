@@ -280,6 +280,21 @@ export const apiService = {
     return this.delete(endpoint, tokenFromStorage);
   },
 
+  async applyCartDeltas(userId, items, token = null) {
+    const tokenFromStorage = localStorage.getItem('token');
+    const parsedUserId = parseInt(userId, 10);
+    if (isNaN(parsedUserId)) {
+      throw new Error('Invalid userId: must be a valid number');
+    }
+    const requestBody = {
+      userId: parsedUserId,
+      items: items.map(({ foodId, delta }) => ({ foodId: parseInt(foodId, 10), delta })),
+    };
+    console.log(`Requesting: ${API_CONFIG.BASE_URL}/cart/batch with token: ${tokenFromStorage}`);
+    const response = await this.post('/cart/batch', requestBody, tokenFromStorage);
+    return response.data || [];
+  },
+
   async placeOrder(orderData, token = null) {
     const tokenFromStorage = localStorage.getItem('token');
     console.log('Placing order request:', orderData);
@@ -287,6 +302,13 @@ export const apiService = {
     return response.data;
   },
 
+  async checkout(checkoutData, token = null) {
+    const tokenFromStorage = localStorage.getItem('token');
+    console.log('Checkout request:', checkoutData);
+    const response = await this.post('/orders/checkout', checkoutData, tokenFromStorage);
+    return response.data;
+  },
+
   async verifyEsewaPayment(transactionUuid, amount, token = null) {
     const tokenFromStorage = localStorage.getItem('token');
     console.log('Verifying eSewa payment:', { transactionUuid, amount });
@@ -410,6 +432,24 @@ export const apiService = {
     return response;
   },
 
+  // Ready, active and delivered orders in one call. With the version of the previous snapshot it
+  // resolves to null when nothing changed since (304 Not Modified).
+  async getDeliverySnapshot(userId, version = null, token = null) {
+    const tokenFromStorage = localStorage.getItem('token') || token;
+    if (!userId) throw new Error('userId is required');
+    const headers = {
+      ...API_CONFIG.HEADERS,
+      ...(tokenFromStorage && { Authorization: `Bearer ${tokenFromStorage}` }),
+      ...(version && { 'If-None-Match': `"${version}"` }),
+    };
+    const response = await fetch(`${API_CONFIG.BASE_URL}/orders/delivery/${userId}/snapshot`, {
+      method: 'GET',
+      headers,
+    });
+    if (response.status === 304) return null;
+    return handleResponse(response);
+  },
+
   async updateOrderDeliveryStatus(orderId, status, userId, token = null) {
     const tokenFromStorage = localStorage.getItem('token') || token;
     if (!orderId || !status || !userId) throw new Error('orderId, status, and userId are required');
@@ -145,6 +145,11 @@ export const CartProvider = ({ children }) => {
     }
   };
 
+  // The server empties the cart as part of checkout, so only local state needs resetting.
+  const resetCart = () => {
+    setCartItems([]);
+  };
+
   const getTotalItems = () => {
     return cartItems.reduce((total, item) => total + (item.quantity || 0), 0);
   };
@@ -159,6 +164,7 @@ export const CartProvider = ({ children }) => {
     removeFromCart,
     updateQuantity,
     clearCart,
+    resetCart,
     getTotalItems,
     getTotalPrice,
     isCartOpen,
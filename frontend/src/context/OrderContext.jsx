@@ -7,6 +7,7 @@ const OrderContext = createContext({
   loading: true,
   error: null,
   createOrder: () => {},
+  checkout: () => {},
   verifyEsewaPayment: () => {},
   updateOrderStatus: () => {},
   getOrdersByUser: () => [],
@@ -88,6 +89,30 @@ export const OrderProvider = ({ children }) => {
     }
   };
 
+  const checkout = async (checkoutData) => {
+    setLoading(true);
+    setError(null);
+    try {
+      const checkoutRequest = {
+        userId: checkoutData.userId || user?.id,
+        paymentMethod: checkoutData.paymentMethod,
+        specialInstructions: checkoutData.specialInstructions || '',
+        deliveryLocation: checkoutData.deliveryLocation || user?.address || 'Not specified',
+        deliveryPhone: checkoutData.deliveryPhone || user?.phone || '',
+        deliveryCoordinates: checkoutData.deliveryCoordinates || '[27.7172, 85.3240]',
+        transactionUuid: checkoutData.transactionUuid || null,
+      };
+      const order = await apiService.checkout(checkoutRequest);
+      setOrders(prev => [order, ...prev.filter(o => o.id !== order.id)]);
+      return order;
+    } catch (err) {
+      setError(err.message || 'Failed to place order');
+      throw err;
+    } finally {
+      setLoading(false);
+    }
+  };
+
   const verifyEsewaPayment = async (transactionUuid, amount) => {
     setLoading(true);
     setError(null);
@@ -137,6 +162,7 @@ export const OrderProvider = ({ children }) => {
   const value = {
     orders,
     createOrder,
+    checkout,
     verifyEsewaPayment,
     updateOrderStatus,
     getOrdersByUser,
@@ -12,8 +12,8 @@ import imagePathService from '../services/imageLocation/imagePath';
 import CryptoJS from 'crypto-js';
 
 const Checkout = () => {
-  const { cartItems, getTotalPrice, clearCart } = useCart();
-  const { createOrder, verifyEsewaPayment, loading, error } = useOrders();
+  const { cartItems, getTotalPrice, resetCart } = useCart();
+  const { createOrder, checkout, verifyEsewaPayment, loading, error } = useOrders();
   const { user } = useAuth();
   const navigate = useNavigate();
   const location = useLocation();
@@ -166,30 +166,16 @@ const Checkout = () => {
     }
 
     try {
-      const totalAmount = Math.round((getTotalPrice() + 100) * 100) / 100;
-      const orderData = {
-        userId: user?.id || 'guest',
-        items: cartItems.map(item => ({
-          id: item.foodId,
-          name: item.name,
-          price: item.price,
-          quantity: item.quantity,
-          imagePath: item.imagePath || item.imageUrl,
-        })),
-        amount: totalAmount,
+      // The backend prices the persisted cart and clears it in the same transaction
+      const order = await checkout({
+        userId: user?.id,
         paymentMethod: formData.paymentMethod,
         specialInstructions: formData.specialInstructions,
         deliveryLocation: formData.address,
         deliveryPhone: formData.phone,
         deliveryCoordinates: deliveryCoordinates,
-      };
-      const order = await createOrder(orderData);
-      try {
-        await clearCart();
-      } catch (cartError) {
-        console.warn('Failed to clear cart:', cartError);
-        // Continue with success flow even if cart clearing fails
-      }
+      });
+      resetCart();
       
       // Redirect to order success page with order details
       navigate('/order-success', { 
@@ -294,6 +294,8 @@ const DeliveryDashboard = () => {
   const [showProfileDropdown, setShowProfileDropdown] = useState(false);
   const lastLocationRef = useRef(null);
   const lastRouteInfoRef = useRef(null);
+  // Version of the last delivery snapshot, sent back as If-None-Match
+  const snapshotVersionRef = useRef(null);
   const mapRef = useRef(null);
 
   const showBanner = (type, message) => {
@@ -325,115 +327,52 @@ const DeliveryDashboard = () => {
     fetchUserProfile();
   }, []);
 
-  // Load ready orders for pickup
-  const loadReadyOrders = async () => {
-    try {
-      const userData = JSON.parse(localStorage.getItem('user'));
-      if (!userData || !userData.id) return;
-      const result = await apiService.getReadyOrders(userData.id);
-      if (result && result.data) {
-        // Fetch customer details for each order
-        const ordersWithCustomerData = await Promise.all(
-          result.data.map(async (order) => {
-            if (order.userId && !order.user) {
-              try {
-                const customerData = await apiService.getUserProfile(order.userId);
-                return {
-                  ...order,
-                  user: customerData
-                };
-              } catch (error) {
-                console.error(`Error fetching customer data for userId ${order.userId}:`, error);
-                return order; // Return original order if customer data fetch fails
-              }
-            }
-            return order;
-          })
-        );
-        // Filter out cancelled orders and orders with cancelled payment
-        const filteredOrders = ordersWithCustomerData.filter(order => 
-          order.status !== 'CANCELLED' && 
-          order.paymentStatus !== 'CANCELLED'
-        );
-        setReadyOrders(filteredOrders);
-      }
-    } catch (error) {
-      showBanner('error', `Failed to load ready orders: ${error.message}`);
-    }
-  };
-
-  // Load active delivery orders
-  const loadActiveOrders = async () => {
-    try {
-      const userData = JSON.parse(localStorage.getItem('user'));
-      if (userData && userData.id) {
-        const result = await apiService.getDeliveryOrders(userData.id);
-        if (result && result.data) {
-          // Fetch customer details for each order
-          const ordersWithCustomerData = await Promise.all(
-            result.data.map(async (order) => {
-              if (order.userId && !order.user) {
-                try {
-                  const customerData = await apiService.getUserProfile(order.userId);
-                  return {
-                    ...order,
-                    user: customerData
-                  };
-                } catch (error) {
-                  console.error(`Error fetching customer data for userId ${order.userId}:`, error);
-                  return order; // Return original order if customer data fetch fails
-                }
-              }
-              return order;
-            })
-          );
-          // Filter out cancelled orders and orders with cancelled payment
-          const filteredOrders = ordersWithCustomerData.filter(order => 
-            order.status !== 'CANCELLED' && 
-            order.paymentStatus !== 'CANCELLED'
-          );
-          setActiveOrders(filteredOrders);
+  // Attach customer details to orders that only carry a userId, and drop cancelled orders
+  const withCustomers = async (orders) => {
+    const ordersWithCustomerData = await Promise.all(
+      orders.map(async (order) => {
+        if (order.userId && !order.user) {
+          try {
+            const customerData = await apiService.getUserProfile(order.userId);
+            return {
+              ...order,
+              user: customerData
+            };
+          } catch (error) {
+            console.error(`Error fetching customer data for userId ${order.userId}:`, error);
+            return order; // Return original order if customer data fetch fails
+          }
         }
-      }
-    } catch (error) {
-      console.log('No active delivery orders found');
-    }
+        return order;
+      })
+    );
+    // Filter out cancelled orders and orders with cancelled payment
+    return ordersWithCustomerData.filter(order =>
+      order.status !== 'CANCELLED' &&
+      order.paymentStatus !== 'CANCELLED'
+    );
   };
 
-  // Fetch delivered orders
-  const loadDeliveredOrders = async () => {
+  // Load ready, active and delivered orders in one request. The version of the last snapshot is
+  // sent along, so while nothing changed the server answers 304 and the lists stay as they are.
+  const loadDeliverySnapshot = async () => {
     try {
       const userData = JSON.parse(localStorage.getItem('user'));
       if (!userData || !userData.id) return;
-      const response = await apiService.get(`/orders/delivery/${userData.id}/status?status=DELIVERED`);
-      if (response && response.data) {
-        // Fetch customer details for each order
-        const ordersWithCustomerData = await Promise.all(
-          response.data.map(async (order) => {
-            if (order.userId && !order.user) {
-              try {
-                const customerData = await apiService.getUserProfile(order.userId);
-                return {
-                  ...order,
-                  user: customerData
-                };
-              } catch (error) {
-                console.error(`Error fetching customer data for userId ${order.userId}:`, error);
-                return order; // Return original order if customer data fetch fails
-              }
-            }
-            return order;
-          })
-        );
-        // Filter out cancelled orders and orders with cancelled payment
-        const filteredOrders = ordersWithCustomerData.filter(order => 
-          order.status !== 'CANCELLED' && 
-          order.paymentStatus !== 'CANCELLED'
-        );
-        setDeliveredOrders(filteredOrders);
+      const result = await apiService.getDeliverySnapshot(userData.id, snapshotVersionRef.current);
+      if (result && result.data) {
+        const [ready, active, delivered] = await Promise.all([
+          withCustomers(result.data.ready || []),
+          withCustomers(result.data.active || []),
+          withCustomers(result.data.delivered || [])
+        ]);
+        setReadyOrders(ready);
+        setActiveOrders(active);
+        setDeliveredOrders(delivered);
+        snapshotVersionRef.current = result.data.version;
       }
     } catch (error) {
-      showBanner('error', `Failed to load delivered orders: ${error.message}`);
+      showBanner('error', `Failed to load orders: ${error.message}`);
     }
   };
 
@@ -493,11 +432,7 @@ const DeliveryDashboard = () => {
       await apiService.updateOrderDeliveryStatus(orderId, 'PICKED_UP', userData.id);
       showBanner('success', `Order #${orderId} picked up successfully!`);
       // Refresh all order lists to ensure UI updates
-      await Promise.all([
-        loadReadyOrders(),
-        loadActiveOrders(),
-        loadDeliveredOrders()
-      ]);
+      await loadDeliverySnapshot();
     } catch (error) {
       showBanner('error', `Failed to pickup order: ${error.message}`);
     }
@@ -538,11 +473,7 @@ const DeliveryDashboard = () => {
       showBanner('success', `Order #${orderId} delivered successfully!`);
       
       // Refresh all order lists to ensure UI updates immediately
-      await Promise.all([
-        loadReadyOrders(),
-        loadActiveOrders(),
-        loadDeliveredOrders()
-      ]);
+      await loadDeliverySnapshot();
       setSelectedOrder(null);
     } catch (error) {
       showBanner('error', `Failed to mark as delivered: ${error.message}`);
@@ -668,15 +599,11 @@ const DeliveryDashboard = () => {
   };
 
   useEffect(() => {
-    loadReadyOrders();
-    loadActiveOrders();
-    loadDeliveredOrders();
+    loadDeliverySnapshot();
     
     // Auto refresh every 30 seconds
     const interval = setInterval(() => {
-      loadReadyOrders();
-      loadActiveOrders();
-      loadDeliveredOrders();
+      loadDeliverySnapshot();
     }, 30000);
 
     return () => clearInterval(interval);
@@ -904,9 +831,7 @@ const DeliveryDashboard = () => {
                 <Button 
                   size="sm" 
                   onClick={() => {
-                    loadReadyOrders();
-                    loadActiveOrders();
-                    loadDeliveredOrders();
+                    loadDeliverySnapshot();
                   }} 
                   className="flex items-center space-x-2 bg-gradient-to-r from-emerald-500 to-teal-600 text-white border-0 shadow-lg hover:shadow-xl"
                 >